@@ -1,5 +1,6 @@
 package com.taller.estudiantevistas;
 
+import com.taller.estudiantevistas.controlador.VigilanteFX;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -10,6 +11,11 @@ public class Main extends Application {
 
     @Override
     public void start(Stage primaryStage) throws Exception {
+        // Registrar los bloqueos del hilo de JavaFX y el controlador que los causa, si se pidió
+        if (VigilanteFX.estaHabilitado()) {
+            VigilanteFX.iniciar();
+        }
+
         // Cargar la vista FXML directamente
         Parent root = FXMLLoader.load(getClass().getResource("/com/taller/estudiantevistas/fxml/login.fxml"));
 
@@ -0,0 +1,149 @@
+package com.taller.estudiantevistas.controlador;
+
+import javafx.beans.value.ChangeListener;
+import javafx.concurrent.Task;
+import javafx.event.EventHandler;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+import javafx.stage.WindowEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tareas en segundo plano de una ventana. Al ocultarse la ventana (o al quitarse la vista de
+ * ella) se cancelan las que sigan en curso: su hilo se interrumpe y sus callbacks ya no se
+ * ejecutan, así que no tocan una interfaz que ya nadie ve.
+ *
+ * Las tareas corren en el ejecutor compartido de {@link Tareas}; los callbacks de éxito y error
+ * se ejecutan en el hilo de JavaFX.
+ */
+class AmbitoTareas {
+    private static final Logger LOGGER = Logger.getLogger(AmbitoTareas.class.getName());
+
+    private final Set<Task<?>> enCurso = ConcurrentHashMap.newKeySet();
+    private final BiConsumer<String, Throwable> alFallarPorDefecto;
+    // Se registran una sola vez en el nodo, la escena y la ventana actuales, y se quitan al cambiar
+    private final EventHandler<WindowEvent> alOcultar = e -> cancelarTodas();
+    private final ChangeListener<Window> alCambiarVentana = (obs, anterior, ventana) -> cambiarVentana(anterior, ventana);
+    private final ChangeListener<Scene> alCambiarEscena = (obs, anterior, escena) -> cambiarEscena(anterior, escena);
+    private Node vinculado;
+    private Window ventana;
+
+    AmbitoTareas() {
+        this((contexto, error) -> { });
+    }
+
+    /**
+     * @param alFallarPorDefecto Recibe el contexto y el error de las tareas lanzadas sin su
+     * propio manejador de error, por ejemplo para mostrar una alerta
+     */
+    AmbitoTareas(BiConsumer<String, Throwable> alFallarPorDefecto) {
+        this.alFallarPorDefecto = alFallarPorDefecto;
+    }
+
+    /**
+     * Ata el ámbito a la ventana que muestre {@code nodo}, aunque todavía no esté en ninguna.
+     * Volver a vincular el mismo nodo (un controlador que se reinicializa) no hace nada; vincular
+     * otro suelta el anterior.
+     */
+    void vincular(Node nodo) {
+        if (nodo == vinculado) {
+            return;
+        }
+        if (vinculado != null) {
+            vinculado.sceneProperty().removeListener(alCambiarEscena);
+            cambiarEscena(vinculado.getScene(), null);
+        }
+        vinculado = nodo;
+        nodo.sceneProperty().addListener(alCambiarEscena);
+        cambiarEscena(null, nodo.getScene());
+    }
+
+    /**
+     * Ejecuta {@code tarea} en segundo plano; si falla, avisa al manejador por defecto del ámbito.
+     */
+    <T> void ejecutar(Supplier<T> tarea, Consumer<T> alTerminar, String contexto) {
+        ejecutar(tarea, alTerminar, error -> alFallarPorDefecto.accept(contexto, error), contexto);
+    }
+
+    /**
+     * Ejecuta {@code tarea} en segundo plano y entrega su resultado o su error en el hilo de JavaFX.
+     * @param contexto Descripción de la tarea para el registro de errores
+     */
+    <T> void ejecutar(Supplier<T> tarea, Consumer<T> alTerminar, Consumer<Throwable> alFallar, String contexto) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() {
+                return tarea.get();
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            enCurso.remove(task);
+            alTerminar.accept(task.getValue());
+        });
+        task.setOnFailed(e -> {
+            enCurso.remove(task);
+            LOGGER.log(Level.SEVERE, "Error en " + contexto, task.getException());
+            alFallar.accept(task.getException());
+        });
+        task.setOnCancelled(e -> enCurso.remove(task));
+
+        enCurso.add(task);
+        Tareas.ejecutor().execute(task);
+    }
+
+    /**
+     * Cancela las tareas en curso. Las que se lancen después se ejecutan con normalidad.
+     */
+    void cancelarTodas() {
+        for (Task<?> task : enCurso) {
+            task.cancel(true);
+        }
+        enCurso.clear();
+    }
+
+    int getEnCurso() {
+        return enCurso.size();
+    }
+
+    private void cambiarEscena(Scene anterior, Scene escena) {
+        if (anterior != null) {
+            anterior.windowProperty().removeListener(alCambiarVentana);
+        }
+        if (escena != null) {
+            escena.windowProperty().addListener(alCambiarVentana);
+        }
+        atarVentana(escena != null ? escena.getWindow() : null);
+    }
+
+    private void cambiarVentana(Window anterior, Window nueva) {
+        atarVentana(nueva);
+        if (nueva == null && anterior != null) {
+            cancelarTodas(); // La escena se quitó de la ventana
+        }
+    }
+
+    /**
+     * Deja {@link #alOcultar} solo en {@code nueva}, la ventana que muestra ahora al nodo.
+     */
+    private void atarVentana(Window nueva) {
+        if (nueva == ventana) {
+            return;
+        }
+        if (ventana != null) {
+            ventana.removeEventHandler(WindowEvent.WINDOW_HIDDEN, alOcultar);
+        }
+        ventana = nueva;
+        if (nueva != null) {
+            nueva.addEventHandler(WindowEvent.WINDOW_HIDDEN, alOcultar);
+        }
+    }
+}
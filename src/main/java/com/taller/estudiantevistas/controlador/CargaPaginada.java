@@ -0,0 +1,182 @@
+package com.taller.estudiantevistas.controlador;
+
+import com.taller.estudiantevistas.servicio.Pagina;
+import com.taller.estudiantevistas.servicio.Paginador;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Carga un listado paginado bajo demanda: pide la página siguiente cuando el usuario se acerca
+ * al final de la lista, o cuando lo cargado todavía no alcanza a llenarla, y la vuelca en una
+ * {@link ListaIncremental}. Todos los métodos se llaman desde el hilo de JavaFX.
+ * @param <E> Tipo de los elementos del listado
+ */
+class CargaPaginada<E> {
+    private static final double UMBRAL_DESPLAZAMIENTO = 0.9;
+    private static final int FILAS_DE_ANTICIPACION = 10;
+
+    private final ListaIncremental<E, ?> lista;
+    private final Runnable alCargarPagina;
+    private final Runnable alQuedarVacia;
+    private final Consumer<Throwable> alFallar;
+
+    private Paginador<E> paginador;
+    private BooleanSupplier faltaContenido = () -> false;
+    private boolean cargando;
+    private int ultimaFilaMostrada = -1;
+
+    /**
+     * @param alCargarPagina Se ejecuta tras volcar cada página
+     * @param alQuedarVacia Se ejecuta si el listado terminó sin ningún elemento
+     * @param alFallar Recibe el error de la página que falló; se puede reintentar con {@link #cargarSiguiente()}
+     */
+    CargaPaginada(Paginador<E> paginador, ListaIncremental<E, ?> lista,
+                  Runnable alCargarPagina, Runnable alQuedarVacia, Consumer<Throwable> alFallar) {
+        this.paginador = paginador;
+        this.lista = lista;
+        this.alCargarPagina = alCargarPagina;
+        this.alQuedarVacia = alQuedarVacia;
+        this.alFallar = alFallar;
+    }
+
+    /**
+     * Sigue una primera página ya pedida por otra vía, por ejemplo dentro de un pipeline.
+     */
+    void iniciar(CompletableFuture<Pagina<E>> primera) {
+        seguir(primera);
+    }
+
+    /**
+     * Pide la página siguiente si quedan páginas y no hay otra en curso.
+     */
+    void cargarSiguiente() {
+        if (cargando || !paginador.hayMas() || paginador.estaCargando()) {
+            return;
+        }
+        seguir(paginador.siguienteAsync(lista));
+    }
+
+    /**
+     * Vuelve a pedir el listado desde el principio con {@code nuevo} sin vaciar la lista: pide
+     * páginas hasta cubrir lo que ya se mostraba (o hasta el final) y las concilia por clave con
+     * {@link ListaIncremental#reconciliar(List)}. Después sigue cargando con {@code nuevo}.
+     * @return Futuro con la primera página, por ejemplo para tomar su versión
+     */
+    CompletableFuture<Pagina<E>> recargar(Paginador<E> nuevo) {
+        paginador = nuevo;
+        cargando = true;
+        int aCubrir = lista.getMostrados().size();
+        List<E> recibidos = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<Pagina<E>> primera = nuevo.siguienteAsync(recibidos::add);
+        primera.thenCompose(pagina -> completar(nuevo, recibidos, aCubrir))
+                .whenComplete((v, error) -> DespachadorUI.ejecutar(() -> {
+                    if (paginador != nuevo) {
+                        return; // Otra recarga la reemplazó
+                    }
+                    cargando = false;
+                    if (error != null) {
+                        alFallar.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                        return;
+                    }
+                    lista.reconciliar(recibidos);
+                    terminarPagina();
+                }));
+        return primera;
+    }
+
+    /**
+     * Carga la página siguiente al acercarse al final del desplazamiento.
+     */
+    void vigilar(ScrollPane scroll) {
+        scroll.vvalueProperty().addListener((obs, anterior, valor) -> {
+            if (valor.doubleValue() >= scroll.getVmax() * UMBRAL_DESPLAZAMIENTO) {
+                cargarSiguiente();
+            }
+        });
+        faltaContenido = () -> {
+            Node contenido = scroll.getContent();
+            if (contenido == null) {
+                return false;
+            }
+            // Medir con los nodos recién agregados ya dispuestos
+            scroll.applyCss();
+            scroll.layout();
+            return contenido.getBoundsInLocal().getHeight() <= scroll.getViewportBounds().getHeight();
+        };
+    }
+
+    /**
+     * Carga la página siguiente cuando se muestra alguna de las últimas filas de la tabla.
+     * Reemplaza la fábrica de filas de la tabla.
+     */
+    <T> void vigilar(TableView<T> tabla) {
+        tabla.setRowFactory(t -> {
+            TableRow<T> fila = new TableRow<>();
+            fila.indexProperty().addListener((obs, anterior, indice) -> {
+                if (indice.intValue() >= tabla.getItems().size() - FILAS_DE_ANTICIPACION) {
+                    cargarSiguiente();
+                }
+            });
+            return fila;
+        });
+    }
+
+    /**
+     * Carga la página siguiente cuando el listado llena alguna de sus últimas filas. Como un
+     * listado corto llena todas sus filas, esto también lo completa hasta cubrir la pantalla.
+     */
+    void vigilar(FeedVirtual<E> feed) {
+        feed.alMostrarFila(indice -> {
+            ultimaFilaMostrada = Math.max(ultimaFilaMostrada, indice);
+            if (indice >= feed.getItems().size() - FILAS_DE_ANTICIPACION) {
+                cargarSiguiente();
+            }
+        });
+        // Si las filas de la página anterior se llenaron mientras se cargaba, no vuelven a avisar
+        faltaContenido = () -> ultimaFilaMostrada >= feed.getItems().size() - FILAS_DE_ANTICIPACION;
+    }
+
+    private void seguir(CompletableFuture<Pagina<E>> pagina) {
+        Paginador<E> actual = paginador;
+        cargando = true;
+        pagina.whenComplete((resultado, error) -> lista.finalizar(() -> {
+            if (paginador != actual) {
+                return; // Llegó durante una recarga, que sigue en curso
+            }
+            cargando = false;
+            if (error != null) {
+                alFallar.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                return;
+            }
+            terminarPagina();
+        }));
+    }
+
+    private CompletableFuture<Void> completar(Paginador<E> nuevo, List<E> recibidos, int aCubrir) {
+        if (recibidos.size() >= aCubrir || !nuevo.hayMas()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return nuevo.siguienteAsync(recibidos::add).thenCompose(pagina -> completar(nuevo, recibidos, aCubrir));
+    }
+
+    private void terminarPagina() {
+        if (lista.getMostrados().size() == 0 && !paginador.hayMas()) {
+            alQuedarVacia.run();
+            return;
+        }
+        alCargarPagina.run();
+        if (faltaContenido.getAsBoolean()) {
+            cargarSiguiente();
+        }
+    }
+}
@@ -8,6 +8,9 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import com.taller.estudiantevistas.servicio.ClienteServicio;
+import com.taller.estudiantevistas.servicio.ConexionPerdidaException;
+import com.taller.estudiantevistas.servicio.Entidad;
+import com.taller.estudiantevistas.servicio.TiempoAgotadoException;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
@@ -63,44 +66,27 @@ public class ControladorAjustesUsuario {
      */
 
     private void pedirDatosUsuarioDesdeServidor() {
-        new Thread(() -> {
+        Tareas.lanzar(() -> {
             try {
-                JsonObject solicitud = new JsonObject();
-                solicitud.addProperty("id", usuarioId);
-
-                JsonObject solicitudCompleta = new JsonObject();
-                solicitudCompleta.addProperty("tipo", "OBTENER_USUARIO");
-                solicitudCompleta.add("datos", solicitud);
-
-                // Enviar solicitud al servidor
-                cliente.getSalida().println(solicitudCompleta.toString());
-
-                // Leer respuesta
-                String respuesta = cliente.getEntrada().readLine();
-
-                JsonObject respuestaJson = JsonParser.parseString(respuesta).getAsJsonObject();
-
-                if (respuestaJson.get("exito").getAsBoolean()) {
-                    JsonObject usuarioData = respuestaJson.getAsJsonObject("usuario");
-
-                    // Actualizar UI en hilo de JavaFX
-                    Platform.runLater(() -> {
-                        nombreField.setText(usuarioData.has("nombre") && !usuarioData.get("nombre").isJsonNull()
-                                ? usuarioData.get("nombre").getAsString() : "");
-                        emailField.setText(usuarioData.has("email") && !usuarioData.get("email").isJsonNull()
-                                ? usuarioData.get("email").getAsString() : "");
-                        passwordField.setText(""); // no mostrar contraseña
-                    });
-
-                } else {
-                    String mensaje = respuestaJson.has("mensaje") ? respuestaJson.get("mensaje").getAsString() : "Error desconocido";
-                    Platform.runLater(() -> mostrarAlerta("Error", mensaje, Alert.AlertType.ERROR));
-                }
-
-            } catch (IOException e) {
+                // Servido desde la caché del cliente; ACTUALIZAR_USUARIO la invalida
+                JsonObject usuarioData = cliente.obtenerEntidad(Entidad.USUARIO, usuarioId);
+
+                // Actualizar UI en hilo de JavaFX
+                Platform.runLater(() -> {
+                    nombreField.setText(usuarioData.has("nombre") && !usuarioData.get("nombre").isJsonNull()
+                            ? usuarioData.get("nombre").getAsString() : "");
+                    emailField.setText(usuarioData.has("email") && !usuarioData.get("email").isJsonNull()
+                            ? usuarioData.get("email").getAsString() : "");
+                    passwordField.setText(""); // no mostrar contraseña
+                });
+
+            } catch (ConexionPerdidaException | TiempoAgotadoException e) {
                 Platform.runLater(() -> mostrarAlerta("Error", "Error comunicándose con el servidor", Alert.AlertType.ERROR));
+            } catch (IOException e) {
+                // El servidor respondió con un error: se muestra su mensaje
+                Platform.runLater(() -> mostrarAlerta("Error", e.getMessage(), Alert.AlertType.ERROR));
             }
-        }).start();
+        });
     }
 
     /**
@@ -116,16 +102,13 @@ public class ControladorAjustesUsuario {
         datosActualizados.addProperty("email", emailField.getText());
         datosActualizados.addProperty("password", passwordField.getText());
 
-        new Thread(() -> {
+        Tareas.lanzar(() -> {
             JsonObject solicitudCompleta = new JsonObject();
             solicitudCompleta.addProperty("tipo", "ACTUALIZAR_USUARIO");
             solicitudCompleta.add("datos", datosActualizados);
 
-            cliente.getSalida().println(solicitudCompleta.toString());
-
             try {
-                String respuesta = cliente.getEntrada().readLine();
-                JsonObject respuestaJson = JsonParser.parseString(respuesta).getAsJsonObject();
+                JsonObject respuestaJson = cliente.solicitar(solicitudCompleta);
 
                 if (respuestaJson.get("exito").getAsBoolean()) {
                     Platform.runLater(() -> mostrarAlerta("Éxito", "Datos actualizados correctamente", Alert.AlertType.INFORMATION));
@@ -136,7 +119,7 @@ public class ControladorAjustesUsuario {
             } catch (IOException e) {
                 Platform.runLater(() -> mostrarAlerta("Error", "Error comunicándose con el servidor", Alert.AlertType.ERROR));
             }
-        }).start();
+        });
     }
 
     /**
@@ -159,22 +142,15 @@ public class ControladorAjustesUsuario {
 
         Optional<ButtonType> resultado = confirmacion.showAndWait();
         if (resultado.isPresent() && resultado.get() == ButtonType.OK) {
-            new Thread(() -> {
+            Tareas.lanzar(() -> {
                 JsonObject solicitudCompleta = new JsonObject();
                 solicitudCompleta.addProperty("tipo", "ELIMINAR_USUARIO");
                 JsonObject datos = new JsonObject();
                 datos.addProperty("id", usuarioId);
                 solicitudCompleta.add("datos", datos);
 
-                System.out.println("Solicitud eliminar a enviar: " + solicitudCompleta.toString());
-
-                cliente.getSalida().println(solicitudCompleta.toString());
-
                 try {
-                    String respuesta = cliente.getEntrada().readLine();
-                    System.out.println("Respuesta del servidor: " + respuesta);
-
-                    JsonObject respuestaJson = JsonParser.parseString(respuesta).getAsJsonObject();
+                    JsonObject respuestaJson = cliente.solicitar(solicitudCompleta);
 
                     if (respuestaJson.get("exito").getAsBoolean()) {
                         Platform.runLater(() -> {
@@ -208,7 +184,7 @@ public class ControladorAjustesUsuario {
                 } catch (IOException e) {
                     Platform.runLater(() -> mostrarAlerta("Error", "Error comunicándose con el servidor", Alert.AlertType.ERROR));
                 }
-            }).start();
+            });
         }
     }
 
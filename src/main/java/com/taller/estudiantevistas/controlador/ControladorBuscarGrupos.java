@@ -2,7 +2,6 @@ package com.taller.estudiantevistas.controlador;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.taller.estudiantevistas.servicio.ClienteServicio;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -48,11 +47,8 @@ public class ControladorBuscarGrupos {
         JsonObject datos = new JsonObject();
         datos.addProperty("userId", usuarioId);
         solicitud.add("datos", datos);
-        cliente.getSalida().println(solicitud.toString());
-        String respuesta;
         try {
-            respuesta = cliente.getEntrada().readLine();
-            JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
+            JsonObject jsonRespuesta = cliente.solicitar(solicitud);
             if (jsonRespuesta.get("exito").getAsBoolean()) {
                 JsonArray grupos = jsonRespuesta.getAsJsonArray("grupos");
                 for (int i = 0; i < grupos.size(); i++) {
@@ -89,11 +85,8 @@ public class ControladorBuscarGrupos {
         datos.addProperty("grupoId", grupoSeleccionado);
         datos.addProperty("usuarioId", usuarioId);
         solicitud.add("datos", datos);
-        cliente.getSalida().println(solicitud.toString());
-        String respuesta;
         try {
-            respuesta = cliente.getEntrada().readLine();
-            JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
+            JsonObject jsonRespuesta = cliente.solicitar(solicitud);
             if (jsonRespuesta.get("exito").getAsBoolean()) {
                 mostrarAlerta("Éxito", "Te has unido al grupo " + grupoSeleccionado + " exitosamente.");
                 Stage stage = (Stage) btnUnirse.getScene().getWindow();
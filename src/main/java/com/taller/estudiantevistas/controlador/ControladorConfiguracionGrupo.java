@@ -1,18 +1,13 @@
 package com.taller.estudiantevistas.controlador;
 
 import com.google.gson.*;
+import com.taller.estudiantevistas.servicio.ClienteServicio;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 /**
  * Controlador para la vista de configuración de un grupo de estudio.
@@ -29,29 +24,22 @@ public class ControladorConfiguracionGrupo {
     @FXML private Button btnEliminar;
 
     private JsonObject grupoData;
-    private PrintWriter salida;
-    private BufferedReader entrada;
+    private ClienteServicio cliente;
     /**
-     * Executor para manejar tareas asíncronas.
-     * Utiliza un pool de hilos con hilos daemon para evitar bloquear la aplicación.
+     * Tareas en segundo plano de esta ventana; se cancelan al cerrarla.
      */
-    private final Executor executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        return t;
-    });
+    private final AmbitoTareas tareas = new AmbitoTareas();
 
     /**
-     * Inicializa el controlador con los datos del grupo, la salida y la entrada.
+     * Inicializa el controlador con los datos del grupo y el cliente de servicio.
      * @param grupoData Datos del grupo en formato JSON.
-     * @param salida PrintWriter para enviar datos al servidor.
-     * @param entrada BufferedReader para recibir datos del servidor.
+     * @param cliente Cliente de servicio para la comunicación con el servidor.
      */
 
-    public void inicializar(JsonObject grupoData, PrintWriter salida, BufferedReader entrada) {
+    public void inicializar(JsonObject grupoData, ClienteServicio cliente) {
+        tareas.vincular(btnGuardarCambios);
         this.grupoData = grupoData;
-        this.salida = salida;
-        this.entrada = entrada;
+        this.cliente = cliente;
         cargarDatos();
     }
 
@@ -113,7 +101,7 @@ public class ControladorConfiguracionGrupo {
                 ? grupoData.get("usuarioId").getAsString()
                 : "";
 
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     JsonObject solicitud = new JsonObject();
                     solicitud.addProperty("tipo", "ACTUALIZAR_GRUPO");
@@ -125,15 +113,11 @@ public class ControladorConfiguracionGrupo {
                     datos.addProperty("usuarioId", usuarioId);
 
                     solicitud.add("datos", datos);
-                    salida.println(solicitud.toString());
-
-                    String respuesta = null;
                     try {
-                        respuesta = entrada.readLine();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException(e);
                     }
-                    return JsonParser.parseString(respuesta).getAsJsonObject();
                 },
                 respuesta -> {
                     if (respuesta.get("exito").getAsBoolean()) {
@@ -187,7 +171,7 @@ public class ControladorConfiguracionGrupo {
                 ? grupoData.get("usuarioId").getAsString()
                 : "";
 
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     JsonObject solicitud = new JsonObject();
                     solicitud.addProperty("tipo", "ELIMINAR_CONTENIDO_GRUPO");
@@ -198,15 +182,11 @@ public class ControladorConfiguracionGrupo {
                     datos.addProperty("usuarioId", usuarioId);
 
                     solicitud.add("datos", datos);
-                    salida.println(solicitud.toString());
-
-                    String respuesta = null;
                     try {
-                        respuesta = entrada.readLine();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException(e);
                     }
-                    return JsonParser.parseString(respuesta).getAsJsonObject();
                 },
                 respuesta -> {
                     if (respuesta.get("exito").getAsBoolean()) {
@@ -268,30 +248,4 @@ public class ControladorConfiguracionGrupo {
         alert.showAndWait();
     }
 
-    /**
-     * Ejecuta una tarea asíncrona y maneja el resultado o error.
-     * Utiliza un Executor para ejecutar la tarea en un hilo separado.
-     * @param tarea Tarea a ejecutar, debe devolver un valor de tipo T.
-     * @param onSuccess Consumidor que maneja el resultado exitoso de la tarea.
-     * @param onError Consumidor que maneja cualquier error ocurrido durante la tarea.
-     * @param contexto Contexto de la tarea, usado para mensajes de error.
-     * @param <T> Tipo del resultado de la tarea.
-     */
-
-    private <T> void ejecutarTareaAsync(Supplier<T> tarea, Consumer<T> onSuccess, Consumer<Throwable> onError, String contexto) {
-        Task<T> task = new Task<>() {
-            @Override
-            protected T call() throws Exception {
-                return tarea.get();
-            }
-        };
-
-        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
-        task.setOnFailed(e -> {
-            System.err.println("Error en " + contexto + ": " + task.getException().getMessage());
-            onError.accept(task.getException());
-        });
-
-        executor.execute(task);
-    }
 }
\ No newline at end of file
@@ -97,8 +97,7 @@ public class ControladorContacto {
 
                 controlador.inicializar(
                         grupo,
-                        cliente.getSalida(),
-                        cliente.getEntrada(),
+                        cliente,
                         obtenerStageActual()
                 );
 
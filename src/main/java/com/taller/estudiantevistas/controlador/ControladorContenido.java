@@ -4,11 +4,13 @@ import com.google.gson.*;
 import com.taller.estudiantevistas.dto.Contenido;
 import com.taller.estudiantevistas.dto.TipoContenido;
 import com.taller.estudiantevistas.dto.Valoracion;
+import com.taller.estudiantevistas.servicio.CargadorUsuarios;
 import com.taller.estudiantevistas.servicio.ClienteServicio;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import com.taller.estudiantevistas.servicio.Codec;
+import com.taller.estudiantevistas.servicio.Fechas;
+import com.taller.estudiantevistas.servicio.Mensaje;
+import com.taller.estudiantevistas.servicio.Suscripcion;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -21,20 +23,11 @@ import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.lang.reflect.Type;
-import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.function.Consumer;
-import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -43,18 +36,10 @@ import java.util.logging.Logger;
  * Muestra información detallada de un contenido específico y permite valoraciones.
  */
 
-public class ControladorContenido {
+public class ControladorContenido implements Reutilizable {
     private static final Logger LOGGER = Logger.getLogger(ControladorContenido.class.getName());
 
-    /**
-     * Adaptador personalizado para manejar LocalDateTime en Gson.
-     * Permite múltiples formatos de fecha y maneja excepciones.
-     */
-    private final Executor executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        return t;
-    });
+    private final AmbitoTareas tareas = new AmbitoTareas();
 
 
     @FXML
@@ -87,31 +72,40 @@ public class ControladorContenido {
 
     private Contenido contenido;
     private ClienteServicio cliente;
+    // Junta los autores de todas las valoraciones que se dibujan en un mismo evento en un solo pedido
+    private CargadorUsuarios autores;
     private JsonObject usuarioData;
     private boolean usuarioYaValoro;
-    // Adaptador para LocalDateTime que maneja múltiples formatos
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    // Suscripción de "Ver valoraciones" mientras se piden; luego pasa al diálogo
+    private Suscripcion suscripcionEnEspera;
+    // Textos del FXML, para devolver los botones a su estado inicial al reutilizar la vista
+    private String textoAgregarValoracion;
+    private String textoVerValoraciones;
+    private String textoValoracionPromedio;
+
+    @FXML
+    public void initialize() {
+        textoAgregarValoracion = btnAgregarValoracion.getText();
+        textoVerValoraciones = btnVerValoraciones.getText();
+        textoValoracionPromedio = btnVerValoracionPromedio.getText();
+    }
 
     /**
      * Inicializa el controlador con los datos del contenido
      */
-    public void inicializar(JsonObject contenidoJson, ClienteServicio cliente, JsonObject usuarioData) {
+    public void inicializar(Contenido contenido, ClienteServicio cliente, JsonObject usuarioData) {
+        tareas.vincular(leftBox);
         this.cliente = cliente;
+        this.autores = cliente.crearCargadorUsuarios(Platform::runLater);
         this.usuarioData = usuarioData;
 
         try {
 
-            Gson gson = new GsonBuilder()
-                    .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-                    .create();
-
-
-            this.contenido = gson.fromJson(contenidoJson, Contenido.class);
-            verificarYLimpiarDuplicados();
-
             if (contenido == null) {
                 throw new IllegalArgumentException("El contenido no puede ser nulo");
             }
+            this.contenido = contenido;
+            verificarYLimpiarDuplicados();
 
             if (contenido.getTipo() == TipoContenido.OTRO && contenido.getContenido() != null) {
                 TipoContenido tipoCalculado = TipoContenido.determinarPorExtension(contenido.getContenido());
@@ -164,6 +158,42 @@ public class ControladorContenido {
         }
     }
 
+    /**
+     * Olvida el contenido, el usuario y todo lo que se mostró de ellos, y deja los botones como
+     * en el FXML, para que la vista se reutilice con otro contenido u otro usuario.
+     */
+    @Override
+    public void restablecer() {
+        if (suscripcionEnEspera != null) {
+            suscripcionEnEspera.cancelar();
+            suscripcionEnEspera = null;
+        }
+        contenido = null;
+        cliente = null;
+        autores = null;
+        usuarioData = null;
+        usuarioYaValoro = false;
+
+        txtTitulo.setText("");
+        txtAutor.setText("");
+        txtFechaPublicacion.setText("");
+        txtTema.setText("");
+        txtTipo.setText("");
+        txtDescripcion.clear();
+        leftBox.getChildren().clear();
+        if (imgContenido != null) {
+            imgContenido.setImage(null);
+        }
+        valoracionesContainer.getChildren().clear();
+
+        btnAgregarValoracion.setDisable(false);
+        btnAgregarValoracion.setText(textoAgregarValoracion);
+        btnAgregarValoracion.setStyle("");
+        btnVerValoracionPromedio.setText(textoValoracionPromedio);
+        btnVerValoraciones.setDisable(false);
+        btnVerValoraciones.setText(textoVerValoraciones);
+    }
+
     /**
      * Configura los eventos de los botones y otros elementos de la UI.
      */
@@ -186,11 +216,7 @@ public class ControladorContenido {
 
             // Manejo seguro de la fecha
             LocalDateTime fechaPub = contenido.getFechaPublicacion();
-            String fechaTexto = "Fecha no disponible";
-            if (fechaPub != null) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM yyyy 'a las' HH:mm");
-                fechaTexto = fechaPub.format(formatter);
-            }
+            String fechaTexto = fechaPub != null ? Fechas.mostrarLargo(fechaPub) : "Fecha no disponible";
             txtFechaPublicacion.setText("Publicado: " + fechaTexto);
 
             txtTema.setText("Tema: " + contenido.getTema());
@@ -695,7 +721,7 @@ public class ControladorContenido {
     private void agregarValoracion(Valoracion valoracion) {
         if (valoracion == null || usuarioYaValoro) return;
 
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     JsonObject respuesta = null;
                     try {
@@ -746,32 +772,11 @@ public class ControladorContenido {
                 throw new IllegalArgumentException("JSON de valoración incompleto");
             }
 
-            // Parsear la fecha con manejo de valores nulos
-            Date fecha = new Date(); // Fecha actual por defecto
-            if (valoracionJson.has("fecha")) {
-                try {
-                    if (valoracionJson.get("fecha").isJsonPrimitive() &&
-                            valoracionJson.get("fecha").getAsJsonPrimitive().isNumber()) {
-                        fecha = new Date(valoracionJson.get("fecha").getAsLong());
-                    } else {
-                        String fechaStr = valoracionJson.get("fecha").getAsString();
-                        if (fechaStr != null && !fechaStr.isEmpty() && !fechaStr.equalsIgnoreCase("null")) {
-                            SimpleDateFormat formatoFecha = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                            fecha = formatoFecha.parse(fechaStr);
-                        }
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Error al parsear fecha, usando fecha actual", e);
-                }
+            Valoracion valoracion = Codec.leer(valoracionJson, Valoracion.class);
+            if (valoracion.getFecha() == null) {
+                valoracion.setFecha(new Date()); // Fecha actual por defecto
             }
-
-            return new Valoracion(
-                    valoracionJson.get("id").getAsString(),
-                    valoracionJson.get("autor").getAsString(),
-                    valoracionJson.get("puntuacion").getAsInt(),
-                    valoracionJson.get("comentario").getAsString(),
-                    fecha
-            );
+            return valoracion;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al parsear valoración desde JSON", e);
             throw new RuntimeException("Error al procesar valoración: " + e.getMessage(), e);
@@ -801,7 +806,7 @@ public class ControladorContenido {
 
     @FXML
     private void verValoracionPromedio() {
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 this::obtenerPromedioActualizado,
                 promedio -> Platform.runLater(() -> {
                     contenido.setPromedioValoraciones(promedio);
@@ -826,19 +831,27 @@ public class ControladorContenido {
         btnVerValoraciones.setDisable(true);
         btnVerValoraciones.setText("Cargando...");
 
-        ejecutarTareaAsync(
+        // Suscribirse antes de pedir la lista para no perder las valoraciones que lleguen entre medio
+        DialogoValoraciones dialogo = new DialogoValoraciones();
+        Suscripcion suscripcion = cliente.suscribir(ClienteServicio.TEMA_VALORACIONES, contenido.getId(),
+                valoracion -> Platform.runLater(() -> dialogo.agregar(Codec.leer(valoracion, Valoracion.class))));
+        suscripcion.getConfirmacion().exceptionally(error -> {
+            LOGGER.log(Level.INFO, "Valoraciones sin actualización en vivo: {0}", error.getMessage());
+            return null;
+        });
+        suscripcionEnEspera = suscripcion;
+
+        tareas.ejecutar(
                 this::obtenerValoracionesActualizadas,
-                respuesta -> Platform.runLater(() -> {
+                valoraciones -> Platform.runLater(() -> {
+                    suscripcionEnEspera = null;
                     btnVerValoraciones.setDisable(false);
                     btnVerValoraciones.setText("Ver Valoraciones");
-
-                    if (respuesta.get("exito").getAsBoolean()) {
-                        mostrarDialogoValoraciones(respuesta);
-                    } else {
-                        mostrarAlerta("Error", respuesta.get("mensaje").getAsString(), Alert.AlertType.ERROR);
-                    }
+                    dialogo.mostrar(valoraciones, suscripcion);
                 }),
                 error -> Platform.runLater(() -> {
+                    suscripcionEnEspera = null;
+                    suscripcion.cancelar();
                     btnVerValoraciones.setDisable(false);
                     btnVerValoraciones.setText("Ver Valoraciones");
                     mostrarAlerta("Error", error.getMessage(), Alert.AlertType.ERROR);
@@ -848,79 +861,93 @@ public class ControladorContenido {
     }
 
     /**
-     * Configura los eventos de los botones y otros elementos de la UI.
+     * Diálogo con las valoraciones de un contenido. Mientras está abierto, las valoraciones nuevas
+     * llegan por la suscripción y se agregan arriba sin volver a pedir la lista.
+     * Todos sus métodos se llaman desde el hilo de JavaFX.
      */
-
-    private void mostrarDialogoValoraciones(JsonObject respuestaJson) {
-        Stage dialog = new Stage();
-        dialog.initModality(Modality.APPLICATION_MODAL);
-        dialog.setTitle("Valoraciones - " + contenido.getTitulo());
-
-        VBox mainContainer = new VBox(10);
-        mainContainer.setPadding(new Insets(15));
-        mainContainer.setAlignment(Pos.TOP_CENTER);
-
-        // Estadísticas
-        double promedio = respuestaJson.has("promedio") ? respuestaJson.get("promedio").getAsDouble() : 0;
-        int total = respuestaJson.has("total") ? respuestaJson.get("total").getAsInt() : 0;
-
-        Label lblStats = new Label(String.format("★ Promedio: %.1f/5.0 (%d valoraciones)", promedio, total));
-        lblStats.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
-
-        // Contenedor para valoraciones
-        VBox valoracionesContainer = new VBox(10);
-        valoracionesContainer.setPadding(new Insets(10));
-
-        if (respuestaJson.has("valoraciones") && !respuestaJson.get("valoraciones").isJsonNull()) {
-            JsonArray valoraciones = respuestaJson.getAsJsonArray("valoraciones");
-            if (valoraciones.size() == 0) {
+    private class DialogoValoraciones {
+        private final VBox valoracionesContainer = new VBox(10);
+        private final Label lblStats = new Label();
+        private final Set<String> idsMostrados = new HashSet<>();
+        private final List<Valoracion> enEspera = new ArrayList<>();
+        private boolean mostrado;
+        private int total;
+        private double suma;
+
+        void mostrar(List<Valoracion> valoraciones, Suscripcion suscripcion) {
+            Stage dialog = new Stage();
+            dialog.initModality(Modality.APPLICATION_MODAL);
+            dialog.setTitle("Valoraciones - " + contenido.getTitulo());
+
+            VBox mainContainer = new VBox(10);
+            mainContainer.setPadding(new Insets(15));
+            mainContainer.setAlignment(Pos.TOP_CENTER);
+
+            // Estadísticas
+            lblStats.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+
+            // Contenedor para valoraciones
+            valoracionesContainer.setPadding(new Insets(10));
+
+            for (Valoracion valoracion : valoraciones) {
+                if (valoracion != null) {
+                    normalizarValoracion(valoracion);
+                    idsMostrados.add(valoracion.getId());
+                    valoracionesContainer.getChildren().add(crearItemValoracion(valoracion));
+                    total++;
+                    suma += valoracion.getPuntuacion();
+                }
+            }
+            if (total == 0) {
                 Label lblEmpty = new Label("No hay valoraciones aún");
                 lblEmpty.setStyle("-fx-font-style: italic;");
                 valoracionesContainer.getChildren().add(lblEmpty);
-            } else {
-                for (JsonElement element : valoraciones) {
-                    if (!element.isJsonNull()) {
-                        JsonObject valoracionJson = element.getAsJsonObject();
-                        valoracionesContainer.getChildren().add(crearItemValoracion(valoracionJson));
-                    }
-                }
             }
-        } else {
-            Label lblError = new Label("No se pudieron cargar las valoraciones");
-            lblError.setStyle("-fx-text-fill: red;");
-            valoracionesContainer.getChildren().add(lblError);
-        }
 
-        ScrollPane scrollPane = new ScrollPane(valoracionesContainer);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setPrefViewportHeight(400);
+            mostrado = true;
+            enEspera.forEach(this::agregar);
+            enEspera.clear();
+            actualizarEstadisticas();
 
-        Button btnCerrar = new Button("Cerrar");
-        btnCerrar.setOnAction(e -> dialog.close());
-        btnCerrar.setStyle("-fx-background-color: #7a4de8; -fx-text-fill: white;");
+            ScrollPane scrollPane = new ScrollPane(valoracionesContainer);
+            scrollPane.setFitToWidth(true);
+            scrollPane.setPrefViewportHeight(400);
 
-        mainContainer.getChildren().addAll(lblStats, scrollPane, btnCerrar);
-        Scene scene = new Scene(mainContainer, 500, 500);
-        dialog.setScene(scene);
-        dialog.show();
-    }
+            Button btnCerrar = new Button("Cerrar");
+            btnCerrar.setOnAction(e -> dialog.close());
+            btnCerrar.setStyle("-fx-background-color: #7a4de8; -fx-text-fill: white;");
 
-    /**
-     * Crea un elemento visual para una valoración.
-     */
+            mainContainer.getChildren().addAll(lblStats, scrollPane, btnCerrar);
+            Scene scene = new Scene(mainContainer, 500, 500);
+            dialog.setScene(scene);
+            dialog.setOnHidden(e -> suscripcion.cancelar());
+            dialog.show();
+        }
 
-    private void scheduleValoracionesRefresh() {
-        // Actualizar cada 5 segundos
-        Timeline timeline = new Timeline(
-                new KeyFrame(Duration.seconds(5), event -> verValoraciones())
-        );
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
+        /**
+         * Agrega una valoración recibida por la suscripción; las que llegan antes de
+         * {@link #mostrar(List, Suscripcion)} se guardan hasta entonces.
+         */
+        void agregar(Valoracion valoracion) {
+            if (!mostrado) {
+                enEspera.add(valoracion);
+                return;
+            }
+            normalizarValoracion(valoracion);
+            if (!idsMostrados.add(valoracion.getId())) {
+                return; // Ya venía en la lista inicial
+            }
+            if (total == 0) {
+                valoracionesContainer.getChildren().clear();
+            }
+            valoracionesContainer.getChildren().add(0, crearItemValoracion(valoracion));
+            total++;
+            suma += valoracion.getPuntuacion();
+            actualizarEstadisticas();
+        }
 
-        // Detener la actualización cuando se cierre el diálogo
-        if (valoracionesContainer.getScene() != null &&
-                valoracionesContainer.getScene().getWindow() != null) {
-            valoracionesContainer.getScene().getWindow().setOnHidden(e -> timeline.stop());
+        private void actualizarEstadisticas() {
+            lblStats.setText(String.format("★ Promedio: %.1f/5.0 (%d valoraciones)", total > 0 ? suma / total : 0, total));
         }
     }
 
@@ -963,14 +990,7 @@ public class ControladorContenido {
 
         solicitud.add("datos", datos);
 
-        cliente.getSalida().println(solicitud.toString());
-        String respuesta = cliente.getEntrada().readLine();
-
-        if (respuesta == null || respuesta.isEmpty()) {
-            throw new RuntimeException("No se recibió respuesta del servidor");
-        }
-
-        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
+        JsonObject jsonRespuesta = cliente.solicitar(solicitud);
 
         if (!jsonRespuesta.get("exito").getAsBoolean()) {
             throw new RuntimeException(
@@ -997,9 +1017,7 @@ public class ControladorContenido {
 
             solicitud.add("datos", datos);
 
-            cliente.getSalida().println(solicitud.toString());
-            String respuesta = cliente.getEntrada().readLine();
-            JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
+            JsonObject jsonRespuesta = cliente.solicitar(solicitud);
 
             if (!jsonRespuesta.get("exito").getAsBoolean()) {
                 throw new RuntimeException(jsonRespuesta.get("mensaje").getAsString());
@@ -1016,99 +1034,36 @@ public class ControladorContenido {
      * Envía la valoración al servidor y maneja la respuesta.
      */
 
-    private JsonObject obtenerValoracionesActualizadas() {
+    private List<Valoracion> obtenerValoracionesActualizadas() {
         try {
-            JsonObject solicitud = new JsonObject();
-            solicitud.addProperty("tipo", "OBTENER_VALORACIONES");
             JsonObject datos = new JsonObject();
             datos.addProperty("contenidoId", contenido.getId());
-            solicitud.add("datos", datos);
-
-            cliente.getSalida().println(solicitud.toString());
-            String respuesta = cliente.getEntrada().readLine();
-
-            if (respuesta == null || respuesta.isEmpty()) {
-                throw new RuntimeException("No se recibió respuesta del servidor");
-            }
-
-            JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
-
-            if (!jsonRespuesta.get("exito").getAsBoolean()) {
-                LOGGER.log(Level.WARNING, "Error del servidor al obtener valoraciones: {0}",
-                        jsonRespuesta.get("mensaje").getAsString());
-                return crearRespuestaFallback();
-            }
-
-            if (jsonRespuesta.has("valoraciones")) {
-                JsonArray valoraciones = jsonRespuesta.getAsJsonArray("valoraciones");
-                JsonArray valoracionesNormalizadas = new JsonArray();
-
-                for (JsonElement element : valoraciones) {
-                    JsonObject valoracion = element.getAsJsonObject();
-                    normalizarValoracionJson(valoracion);
-                    valoracionesNormalizadas.add(valoracion);
-                }
-
-                // Reemplazar el array por el normalizado
-                jsonRespuesta.add("valoraciones", valoracionesNormalizadas);
-            }
-
-            return jsonRespuesta;
+            return cliente.obtenerLista(Mensaje.VALORACIONES, datos);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al obtener valoraciones", e);
-            return crearRespuestaFallback();
+            // Sin respuesta del servidor se muestran las valoraciones que trajo el contenido
+            return new ArrayList<>(contenido.getValoraciones());
         }
     }
 
     /**
-     * Normaliza los campos de una valoración JSON para asegurar que todos los campos necesarios estén presentes.
-     * Si faltan campos, se les asigna un valor por defecto.
+     * Completa los campos que falten en una valoración con un valor por defecto, para poder mostrarla.
      */
-    private void normalizarValoracionJson(JsonObject valoracion) {
-        if (!valoracion.has("id")) {
-            valoracion.addProperty("id", UUID.randomUUID().toString());
-        }
-        if (!valoracion.has("autor") || valoracion.get("autor").getAsString().isEmpty()) {
-            valoracion.addProperty("autor", "Usuario anónimo");
+    private static void normalizarValoracion(Valoracion valoracion) {
+        if (valoracion.getId() == null) {
+            valoracion.setId(UUID.randomUUID().toString());
         }
-        if (!valoracion.has("puntuacion")) {
-            valoracion.addProperty("puntuacion", 0);
+        if (valoracion.getAutor() == null || valoracion.getAutor().isEmpty()) {
+            valoracion.setAutor("Usuario anónimo");
         }
-        if (!valoracion.has("comentario") || valoracion.get("comentario").getAsString().isEmpty()) {
-            valoracion.addProperty("comentario", "Sin comentario");
+        if (valoracion.getComentario() == null || valoracion.getComentario().isEmpty()) {
+            valoracion.setComentario("Sin comentario");
         }
-        if (!valoracion.has("fecha") || valoracion.get("fecha").isJsonNull()) {
-            valoracion.addProperty("fecha", dateFormat.format(new Date()));
+        if (valoracion.getFecha() == null) {
+            valoracion.setFecha(new Date());
         }
     }
 
-    /**
-     * Crea una respuesta de fallback en caso de error al obtener valoraciones.
-     * Incluye el promedio y las valoraciones del contenido.
-     */
-    private JsonObject crearRespuestaFallback() {
-        JsonObject respuestaFallback = new JsonObject();
-        respuestaFallback.addProperty("exito", true);
-        respuestaFallback.addProperty("promedio", contenido.getPromedioValoraciones());
-        respuestaFallback.addProperty("total", contenido.getValoraciones().size());
-
-        JsonArray valoracionesArray = new JsonArray();
-        for (Valoracion v : contenido.getValoraciones()) {
-            JsonObject valoracionJson = new JsonObject();
-            valoracionJson.addProperty("id", v.getId() != null ? v.getId() : UUID.randomUUID().toString());
-            valoracionJson.addProperty("autor", v.getAutor() != null ? v.getAutor() : "Usuario anónimo");
-            valoracionJson.addProperty("puntuacion", v.getPuntuacion());
-            valoracionJson.addProperty("comentario", v.getComentario() != null ? v.getComentario() : "Sin comentario");
-            valoracionJson.addProperty("fecha", v.getFecha() != null ?
-                    dateFormat.format(v.getFecha()) :
-                    dateFormat.format(new Date()));
-            valoracionesArray.add(valoracionJson);
-        }
-
-        respuestaFallback.add("valoraciones", valoracionesArray);
-        return respuestaFallback;
-    }
-
     /**
      * Actualiza el promedio de valoraciones del contenido y el botón correspondiente.
      */
@@ -1123,85 +1078,28 @@ public class ControladorContenido {
         btnVerValoracionPromedio.setText(String.format("⭐ %.1f/5", promedio));
     }
 
-    /**
-     * Muestra todas las valoraciones del contenido en una ventana modal.
-     * Incluye estadísticas y un botón para actualizar.
-     */
-
-    private void mostrarTodasValoraciones(JsonObject respuestaJson) {
-        VBox contenedorValoraciones = new VBox(10);
-        contenedorValoraciones.setPadding(new Insets(10));
-        contenedorValoraciones.setAlignment(Pos.TOP_CENTER);
-
-        if (!respuestaJson.has("valoraciones") || respuestaJson.get("valoraciones").getAsJsonArray().size() == 0) {
-            Label lblEmpty = new Label("No hay valoraciones aún");
-            lblEmpty.setStyle("-fx-font-style: italic; -fx-text-fill: #666;");
-            contenedorValoraciones.getChildren().add(lblEmpty);
-        } else {
-            JsonArray valoracionesArray = respuestaJson.getAsJsonArray("valoraciones");
-
-            Label lblEstadisticas = new Label(String.format(
-                    "Valoraciones: %d • Promedio: %.1f ⭐",
-                    respuestaJson.get("total").getAsInt(),
-                    respuestaJson.get("promedio").getAsDouble()
-            ));
-            lblEstadisticas.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
-            contenedorValoraciones.getChildren().add(lblEstadisticas);
-
-            for (JsonElement element : valoracionesArray) {
-                JsonObject valoracionJson = element.getAsJsonObject();
-                contenedorValoraciones.getChildren().add(crearItemValoracion(valoracionJson));
-            }
-        }
-
-        Stage dialog = new Stage();
-        dialog.initModality(Modality.APPLICATION_MODAL);
-        dialog.setTitle("Valoraciones del contenido: " + contenido.getTitulo());
-
-
-        Button btnActualizar = new Button("Actualizar");
-        btnActualizar.setOnAction(e -> verValoraciones());
-        btnActualizar.setStyle("-fx-background-color: #7a4de8; -fx-text-fill: white;");
-
-        ScrollPane scrollPane = new ScrollPane(contenedorValoraciones);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setPrefViewportWidth(400);
-
-        VBox root = new VBox(10, scrollPane, btnActualizar);
-        root.setPadding(new Insets(10));
-        root.setAlignment(Pos.CENTER);
-
-        Scene scene = new Scene(root, 450, 500);
-        dialog.setScene(scene);
-        dialog.show();
-
-        Timeline timeline = new Timeline(
-                new KeyFrame(Duration.seconds(10), e -> verValoraciones())
-        );
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.play();
-        dialog.setOnHidden(e -> timeline.stop());
-    }
-
     /**
      * Crea un elemento visual para una valoración.
      * Utiliza un VBox para organizar los elementos de la valoración.
      */
 
-    private Node crearItemValoracion(JsonObject valoracionJson) {
+    private Node crearItemValoracion(Valoracion valoracion) {
         VBox cajaValoracion = new VBox(5);
         cajaValoracion.setPadding(new Insets(10));
         cajaValoracion.setStyle("-fx-background-color: #f8f8f8; -fx-border-color: #ccc; -fx-border-radius: 5px; -fx-background-radius: 5px;");
 
         // Extraer datos
-        String autor = valoracionJson.has("autor") ? valoracionJson.get("autor").getAsString() : "Anónimo";
-        int puntuacion = valoracionJson.has("puntuacion") ? valoracionJson.get("puntuacion").getAsInt() : 0;
-        String comentario = valoracionJson.has("comentario") ? valoracionJson.get("comentario").getAsString() : "";
-        String fecha = valoracionJson.has("fecha") ? valoracionJson.get("fecha").getAsString() : "";
+        String autor = valoracion.getAutor() != null ? valoracion.getAutor() : "Anónimo";
+        int puntuacion = valoracion.getPuntuacion();
+        String comentario = valoracion.getComentario() != null ? valoracion.getComentario() : "";
+        String fecha = valoracion.getFecha() != null ? Fechas.formatear(valoracion.getFecha()) : "";
 
         // Crear etiquetas
         Label lblAutor = new Label("👤 " + autor);
         lblAutor.setStyle("-fx-font-weight: bold;");
+        if (valoracion.getUsuarioId() != null) {
+            mostrarNombreAutor(valoracion.getUsuarioId(), lblAutor);
+        }
 
         Label lblPuntuacion = new Label("⭐ Puntuación: " + puntuacion + "/5");
         lblPuntuacion.setStyle("-fx-text-fill: #e67e22;");
@@ -1217,53 +1115,18 @@ public class ControladorContenido {
     }
 
     /**
-     * Obtiene los datos del usuario autenticado.
-     * Si no hay usuario autenticado, retorna null.
+     * Reemplaza el nombre guardado en la valoración por el actual del autor cuando llega. Los
+     * pedidos de todas las valoraciones creadas en el mismo evento salen en una sola solicitud.
      */
-
-    private JsonObject obtenerDatosUsuario(String usuarioId) {
-        try {
-            JsonObject solicitud = new JsonObject();
-            solicitud.addProperty("tipo", "OBTENER_USUARIO");
-
-            JsonObject datos = new JsonObject();
-            datos.addProperty("id", usuarioId);
-            solicitud.add("datos", datos);
-
-            cliente.getSalida().println(solicitud.toString());
-            String respuesta = cliente.getEntrada().readLine();
-            JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
-
-            if (jsonRespuesta.get("exito").getAsBoolean()) {
-                return jsonRespuesta.getAsJsonObject("usuario");
+    private void mostrarNombreAutor(String usuarioId, Label lblAutor) {
+        autores.cargar(usuarioId).whenComplete((usuario, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.FINE, "No se pudo obtener el autor " + usuarioId, error);
+            } else if (usuario.has("nombre") && !usuario.get("nombre").isJsonNull()) {
+                String nombre = usuario.get("nombre").getAsString();
+                Platform.runLater(() -> lblAutor.setText("👤 " + nombre));
             }
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error al obtener datos del usuario", e);
-        }
-        return null;
-    }
-
-    /**
-     * Ejecuta una tarea asíncrona y maneja el éxito y error.
-     * Utiliza un ExecutorService para ejecutar la tarea en un hilo separado.
-     */
-
-    private <T> void ejecutarTareaAsync(Supplier<T> tarea, Consumer<T> onSuccess,
-                                        Consumer<Throwable> onError, String contexto) {
-        Task<T> task = new Task<>() {
-            @Override
-            protected T call() throws Exception {
-                return tarea.get();
-            }
-        };
-
-        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
-        task.setOnFailed(e -> {
-            LOGGER.log(Level.SEVERE, "Error en " + contexto, task.getException());
-            onError.accept(task.getException());
         });
-
-        executor.execute(task);
     }
 
     /**
@@ -1345,50 +1208,4 @@ public class ControladorContenido {
             updateStars();
         }
     }
-
-    /**
-     * Adaptador para deserializar LocalDateTime desde JSON.
-     * Permite múltiples formatos de fecha y maneja casos especiales.
-     */
-
-    private static class LocalDateTimeAdapter implements JsonDeserializer<LocalDateTime> {
-        private final DateTimeFormatter[] formatters = {
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-                DateTimeFormatter.ISO_LOCAL_DATE_TIME
-        };
-
-        /** Deserializa un objeto JSON a LocalDateTime.
-         * Intenta con múltiples formatos y maneja casos especiales.
-         */
-
-        @Override
-        public LocalDateTime deserialize(JsonElement json, Type typeOfT,
-                                         JsonDeserializationContext context) throws JsonParseException {
-            try {
-                String dateStr = json.getAsString();
-
-                if (dateStr == null || dateStr.isEmpty() ||
-                        dateStr.equalsIgnoreCase("Fecha no disponible") ||
-                        dateStr.equalsIgnoreCase("null")) {
-                    return null;
-                }
-
-                for (DateTimeFormatter formatter : formatters) {
-                    try {
-                        return LocalDateTime.parse(dateStr, formatter);
-                    } catch (DateTimeParseException e) {
-
-                    }
-                }
-
-                LOGGER.warning("No se pudo parsear la fecha: " + dateStr);
-                return null;
-
-            } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "Error al parsear fecha: " + json.getAsString(), e);
-                return null;
-            }
-        }
-    }
 }
\ No newline at end of file
@@ -1,9 +1,10 @@
 package com.taller.estudiantevistas.controlador;
 
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.taller.estudiantevistas.dto.TipoContenido;
 import com.taller.estudiantevistas.servicio.ClienteServicio;
+import com.taller.estudiantevistas.servicio.TiempoAgotadoException;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -18,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 /**
  * Controlador para la vista de creación de publicaciones.
@@ -35,6 +37,7 @@ public class ControladorCrearPublicacion {
     private JsonObject usuarioData;
     private ClienteServicio cliente;
     private File archivoSeleccionado;
+    private boolean publicando;
 
     // Extensiones para cada tipo de contenido
     private static final List<String> EXTENSIONES_DOCUMENTO = Arrays.asList(
@@ -78,7 +81,7 @@ public class ControladorCrearPublicacion {
 
     @FXML
     private void publicar() {
-        if (!validarCampos()) return;
+        if (publicando || !validarCampos()) return;
 
         try {
 
@@ -104,18 +107,25 @@ public class ControladorCrearPublicacion {
             solicitud.add("datos", datos);
 
 
-            cliente.getSalida().println(solicitud.toString());
-            String respuesta = cliente.getEntrada().readLine();
-            JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
-
-
-            if (jsonRespuesta.get("exito").getAsBoolean()) {
-                mostrarAlerta("Éxito", "Publicación creada exitosamente", Alert.AlertType.INFORMATION);
-                cerrarVentana();
-                abrirVentanaPerfil();
-            } else {
-                mostrarAlerta("Error", jsonRespuesta.get("mensaje").getAsString(), Alert.AlertType.ERROR);
-            }
+            publicando = true;
+            cliente.solicitarAsync(solicitud).whenComplete((jsonRespuesta, error) -> Platform.runLater(() -> {
+                publicando = false;
+                if (error != null) {
+                    Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    mostrarAlerta("Error", causa instanceof TiempoAgotadoException
+                            ? "El servidor no respondió a tiempo; revisa tus publicaciones antes de reintentar"
+                            : "Error al publicar: " + causa.getMessage(), Alert.AlertType.ERROR);
+                    return;
+                }
+
+                if (jsonRespuesta.get("exito").getAsBoolean()) {
+                    mostrarAlerta("Éxito", "Publicación creada exitosamente", Alert.AlertType.INFORMATION);
+                    cerrarVentana();
+                    abrirVentanaPerfil();
+                } else {
+                    mostrarAlerta("Error", jsonRespuesta.get("mensaje").getAsString(), Alert.AlertType.ERROR);
+                }
+            }));
 
         } catch (Exception e) {
             mostrarAlerta("Error", "Error al publicar: " + e.getMessage(), Alert.AlertType.ERROR);
@@ -2,22 +2,15 @@ package com.taller.estudiantevistas.controlador;
 
 import com.google.gson.*;
 import com.taller.estudiantevistas.dto.TipoContenido;
+import com.taller.estudiantevistas.servicio.ClienteServicio;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 public class ControladorEditarContenido {
 
@@ -39,18 +32,13 @@ public class ControladorEditarContenido {
     private String moderadorId;
 
     // Conexión
-    private Socket socket;
-    private PrintWriter salida;
-    private BufferedReader entrada;
+    private ClienteServicio cliente;
 
-    // Executor para tareas asíncronas
-    private final Executor executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        return t;
-    });
+    // Tareas asíncronas de esta ventana
+    private final AmbitoTareas tareas = new AmbitoTareas((contexto, error) -> mostrarError("Error en " + contexto + ": " + error.getMessage()));
 
     public void inicializar(JsonObject contenidoJson, String moderadorId, Consumer<Boolean> callback) {
+        tareas.vincular(contenedorPrincipal);
         this.contenidoOriginal = contenidoJson;
         this.moderadorId = moderadorId;
         this.callbackActualizacion = callback;
@@ -143,7 +131,7 @@ public class ControladorEditarContenido {
     }
 
     private void guardarCambios() {
-        if (socket == null || !socket.isConnected()) {
+        if (cliente == null || !cliente.estaConectado()) {
             mostrarError("No hay conexión con el servidor. Intente nuevamente.");
             conectarAlServidor();
             return;
@@ -175,9 +163,7 @@ public class ControladorEditarContenido {
 
             solicitud.add("datos", datosSolicitud);
 
-            System.out.println("[DEBUG] Solicitud final: " + solicitud);
-
-            ejecutarTareaAsync(
+            tareas.ejecutar(
                     () -> {
                         try {
                             return enviarSolicitudActualizacion(solicitud);
@@ -194,21 +180,13 @@ public class ControladorEditarContenido {
         }
     }
 
-    private String enviarSolicitudActualizacion(JsonObject solicitudCompleta) throws IOException {
-        if (salida == null || entrada == null) {
+    private JsonObject enviarSolicitudActualizacion(JsonObject solicitudCompleta) throws IOException {
+        if (cliente == null) {
             throw new IOException("No hay conexión establecida con el servidor");
         }
 
         try {
-            System.out.println("[DEBUG] Enviando solicitud completa: " + solicitudCompleta);
-            salida.println(solicitudCompleta.toString());
-            salida.flush();
-
-            String respuesta = entrada.readLine();
-            if (respuesta == null) {
-                throw new IOException("El servidor no respondió");
-            }
-            System.out.println("[DEBUG] Respuesta recibida: " + respuesta);
+            JsonObject respuesta = cliente.solicitar(solicitudCompleta);
             return respuesta;
         } catch (IOException e) {
             System.err.println("[ERROR] Error al enviar solicitud: " + e.getMessage());
@@ -217,9 +195,8 @@ public class ControladorEditarContenido {
         }
     }
 
-    private void procesarRespuestaActualizacion(String respuesta) {
+    private void procesarRespuestaActualizacion(JsonObject json) {
         try {
-            JsonObject json = JsonParser.parseString(respuesta).getAsJsonObject();
             if (json.get("exito").getAsBoolean()) {
                 Platform.runLater(() -> {
                     mostrarAlerta("Éxito", "Contenido actualizado", Alert.AlertType.INFORMATION);
@@ -237,12 +214,10 @@ public class ControladorEditarContenido {
     }
 
     private void conectarAlServidor() {
-        new Thread(() -> {
+        Tareas.lanzar(() -> {
             try {
                 System.out.println("[DEBUG] Intentando conectar al servidor...");
-                this.socket = new Socket("localhost", 12345);
-                this.salida = new PrintWriter(socket.getOutputStream(), true);
-                this.entrada = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+                this.cliente = new ClienteServicio("localhost", 12345);
                 System.out.println("[DEBUG] Conexión al servidor establecida");
 
                 Platform.runLater(() -> {
@@ -263,17 +238,11 @@ public class ControladorEditarContenido {
                     }
                 });
             }
-        }).start();
+        });
     }
 
     private void cerrarVentana() {
-        try {
-            if (salida != null) salida.close();
-            if (entrada != null) entrada.close();
-            if (socket != null) socket.close();
-        } catch (IOException e) {
-            System.err.println("Error al cerrar conexión: " + e.getMessage());
-        }
+        if (cliente != null) cliente.cerrarConexion();
 
         // Cierre seguro de la ventana
         Platform.runLater(() -> {
@@ -297,19 +266,4 @@ public class ControladorEditarContenido {
         alert.showAndWait();
     }
 
-    private <T> void ejecutarTareaAsync(Supplier<T> tarea, Consumer<T> onSuccess, String contexto) {
-        Task<T> task = new Task<>() {
-            @Override protected T call() throws Exception {
-                return tarea.get();
-            }
-        };
-
-        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
-        task.setOnFailed(e -> {
-            Platform.runLater(() ->
-                    mostrarError("Error en " + contexto + ": " + task.getException().getMessage()));
-        });
-
-        executor.execute(task);
-    }
 }
\ No newline at end of file
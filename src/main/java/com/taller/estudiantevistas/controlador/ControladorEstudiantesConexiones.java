@@ -47,8 +47,9 @@ public class ControladorEstudiantesConexiones {
             return row;
         });
 
+        // Al escribir rápido se filtra una vez por cuadro, con el último texto
         campoBusqueda.textProperty().addListener((obs, oldVal, newVal) -> {
-            filtrarEstudiantes();
+            DespachadorUI.reemplazar(this, "filtro", this::filtrarEstudiantes);
         });
     }
 
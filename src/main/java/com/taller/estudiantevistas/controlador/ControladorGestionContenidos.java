@@ -1,10 +1,14 @@
 package com.taller.estudiantevistas.controlador;
 
 import com.google.gson.*;
+import com.taller.estudiantevistas.dto.Contenido;
+import com.taller.estudiantevistas.servicio.ClienteServicio;
+import com.taller.estudiantevistas.servicio.Entidad;
+import com.taller.estudiantevistas.servicio.Fechas;
+import com.taller.estudiantevistas.servicio.Mensaje;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -14,19 +18,13 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
 import java.net.URL;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 public class ControladorGestionContenidos {
 
@@ -34,18 +32,14 @@ public class ControladorGestionContenidos {
     @FXML private TableColumn<ContenidoTabla, String> colIdContenido, colTitulo, colAutor, colTema, colTipo, colFecha;
     @FXML private Button btnEditar, btnEliminar;
 
-    private final Executor executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        return t;
-    });
+    private final AmbitoTareas tareas = new AmbitoTareas((contexto, error) ->
+            mostrarAlerta("Error", "Error en " + contexto + ": " + error.getMessage(), Alert.AlertType.ERROR));
 
-    private Socket socket;
-    private PrintWriter salida;
-    private BufferedReader entrada;
+    private ClienteServicio cliente;
     private String moderadorId;
 
     public void inicializar(String moderadorId) {
+        tareas.vincular(btnEditar);
         this.moderadorId = moderadorId;
         conectarAlServidor();
         configurarTablaContenidos();
@@ -57,9 +51,7 @@ public class ControladorGestionContenidos {
             String host = "localhost";
             int puerto = 12345;
             System.out.println("[DEBUG] Conectando al servidor en " + host + ":" + puerto);
-            this.socket = new Socket(host, puerto);
-            this.salida = new PrintWriter(socket.getOutputStream(), true);
-            this.entrada = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            this.cliente = new ClienteServicio(host, puerto);
             System.out.println("[DEBUG] Conexión establecida exitosamente");
         } catch (Exception e) {
             System.err.println("[ERROR] Error al conectar al servidor: " + e.getMessage());
@@ -87,91 +79,44 @@ public class ControladorGestionContenidos {
     @FXML
     private void cargarContenidos() {
         System.out.println("[DEBUG] Solicitando lista de contenidos al servidor");
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
-                        JsonObject solicitud = new JsonObject();
-                        solicitud.addProperty("tipo", "OBTENER_CONTENIDOS");
-
-                        JsonObject datos = new JsonObject();
-                        solicitud.add("datos", datos);
-
-                        String jsonRequest = solicitud.toString();
-                        System.out.println("[DEBUG JSON] Enviando solicitud: " + jsonRequest);
-
-
-                        if (!jsonRequest.contains("OBTENER_CONTENIDOS")) {
-                            throw new RuntimeException("Tipo de solicitud incorrecto generado");
-                        }
-
-                        salida.println(jsonRequest);
-
                         System.out.println("[DEBUG] Esperando respuesta...");
-                        String respuesta = entrada.readLine();
-                        if (respuesta == null) {
-                            throw new IOException("El servidor no respondió");
-                        }
-                        System.out.println("[DEBUG] Respuesta recibida: " + respuesta);
-                        return respuesta;
+                        return cliente.obtenerLista(Mensaje.CONTENIDOS, new JsonObject());
                     } catch (IOException e) {
                         throw new RuntimeException("Error de comunicación: " + e.getMessage());
                     }
                 },
-                respuesta -> {
-                    try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
-                        if (jsonRespuesta.get("exito").getAsBoolean()) {
-                            System.out.println("[DEBUG] Carga de contenidos exitosa");
-                            JsonArray contenidos = jsonRespuesta.getAsJsonArray("contenidos");
-                            System.out.println("[DEBUG] Contenidos recibidos: " + contenidos.size());
-                            Platform.runLater(() -> actualizarTablaContenidos(contenidos));
-                        } else {
-                            String error = jsonRespuesta.get("mensaje").getAsString();
-                            System.err.println("[ERROR] Error al cargar contenidos: " + error);
-                            Platform.runLater(() ->
-                                    mostrarAlerta("Error", error, Alert.AlertType.ERROR));
-                        }
-                    } catch (Exception e) {
-                        System.err.println("[ERROR] Error al procesar respuesta: " + e.getMessage());
-                        Platform.runLater(() ->
-                                mostrarAlerta("Error", "Error al procesar respuesta del servidor", Alert.AlertType.ERROR));
-                    }
+                contenidos -> {
+                    System.out.println("[DEBUG] Contenidos recibidos: " + contenidos.size());
+                    actualizarTablaContenidos(contenidos);
                 },
                 "carga de contenidos"
         );
     }
 
-    private void actualizarTablaContenidos(JsonArray contenidos) {
+    private void actualizarTablaContenidos(List<Contenido> contenidos) {
         System.out.println("[DEBUG] Actualizando tabla con " + contenidos.size() + " contenidos");
         ObservableList<ContenidoTabla> datos = FXCollections.observableArrayList();
 
         Set<String> idsMostrados = new HashSet<>();
 
-        contenidos.forEach(contenido -> {
-            try {
-                JsonObject c = contenido.getAsJsonObject();
-                String idContenido = c.get("id").getAsString();
-
-                if (!idsMostrados.contains(idContenido)) {
-                    String fechaStr = "";
-                    if (c.has("fechaCreacion") && !c.get("fechaCreacion").isJsonNull()) {
-                        fechaStr = c.get("fechaCreacion").getAsString();
-                    }
-
-                    datos.add(new ContenidoTabla(
-                            idContenido,
-                            c.get("titulo").getAsString(),
-                            c.get("autor").getAsString(),
-                            c.get("tema").getAsString(),
-                            c.get("tipo").getAsString(),
-                            fechaStr
-                    ));
-                    idsMostrados.add(idContenido);
-                }
-            } catch (Exception e) {
-                System.err.println("[ERROR] Error procesando contenido: " + e.getMessage());
+        for (Contenido c : contenidos) {
+            if (c.getId() == null || !idsMostrados.add(c.getId())) {
+                continue;
             }
-        });
+            String fechaStr = c.getFechaPublicacion() != null ? Fechas.formatear(c.getFechaPublicacion()) : "";
+
+            datos.add(new ContenidoTabla(
+                    c.getId(),
+                    c.getTitulo(),
+                    c.getAutor(),
+                    c.getTema(),
+                    c.getTipo() != null ? c.getTipo().name() : "",
+                    fechaStr
+            ));
+        }
 
         tablaContenidos.setItems(datos);
     }
@@ -190,62 +135,31 @@ public class ControladorGestionContenidos {
         System.out.println("[DEBUG] Contenido seleccionado para editar - ID: " + contenido.getId());
 
         // Verificar conexión y reconectar si es necesario
-        if (salida == null || entrada == null || socket == null || socket.isClosed()) {
+        if (cliente == null || !cliente.estaConectado()) {
             System.out.println("[DEBUG] Reconectando al servidor...");
             conectarAlServidor();
-            if (salida == null || entrada == null) {
+            if (cliente == null || !cliente.estaConectado()) {
                 mostrarAlerta("Error", "No se pudo establecer conexión con el servidor", Alert.AlertType.ERROR);
                 return;
             }
         }
 
-        JsonObject solicitud = new JsonObject();
-        solicitud.addProperty("tipo", "OBTENER_CONTENIDO_COMPLETO");
-
         JsonObject datos = new JsonObject();
-        datos.addProperty("contenidoId", contenido.getId());
         datos.addProperty("moderadorId", this.moderadorId);
-        solicitud.add("datos", datos);
 
-        System.out.println("[DEBUG JSON] Enviando solicitud de edición: " + solicitud);
-
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
-                        System.out.println("[DEBUG] Enviando solicitud...");
-                        salida.println(solicitud.toString());
-                        salida.flush();
-
-                        System.out.println("[DEBUG] Esperando respuesta...");
-                        String respuesta = entrada.readLine();
-
-                        if (respuesta == null) {
-                            throw new IOException("El servidor no respondió");
-                        }
-
-                        System.out.println("[DEBUG] Respuesta recibida: " + respuesta);
-                        return respuesta;
-                    } catch (Exception e) {
-                        System.err.println("[ERROR] Error en comunicación: " + e.getMessage());
-                        throw new RuntimeException("Error al comunicarse con el servidor", e);
+                        // Reabrir la misma fila no vuelve a pedirlo mientras siga en la caché
+                        return ClienteServicio.esperar(
+                                cliente.obtenerEntidadAsync(Entidad.CONTENIDO, contenido.getId(), datos));
+                    } catch (IOException e) {
+                        System.err.println("[ERROR] Error al obtener el contenido: " + e.getMessage());
+                        throw new RuntimeException(e.getMessage(), e);
                     }
                 },
-                respuesta -> {
+                contenidoCompleto -> {
                     try {
-                        System.out.println("[DEBUG] Procesando respuesta...");
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
-
-                        if (!jsonRespuesta.get("exito").getAsBoolean()) {
-                            String error = jsonRespuesta.get("mensaje").getAsString();
-                            System.err.println("[ERROR] Servidor reportó error: " + error);
-                            Platform.runLater(() ->
-                                    mostrarAlerta("Error del servidor", error, Alert.AlertType.ERROR));
-                            return;
-                        }
-
-                        JsonObject contenidoCompleto = jsonRespuesta.getAsJsonObject("contenido");
-                        System.out.println("[DEBUG] Contenido recibido: " + contenidoCompleto);
-
                         Platform.runLater(() -> {
                             try {
                                 abrirVistaEdicion(contenidoCompleto);
@@ -307,6 +221,10 @@ public class ControladorGestionContenidos {
                     this.moderadorId,
                     exito -> {
                         if (exito) {
+                            // El editor usa su propia conexión: esta caché no vio el cambio
+                            if (contenidoCompleto.has("id")) {
+                                cliente.getCache().invalidar(Entidad.CONTENIDO, contenidoCompleto.get("id").getAsString());
+                            }
                             Platform.runLater(this::cargarContenidos);
                         }
                     }
@@ -351,7 +269,7 @@ public class ControladorGestionContenidos {
 
     // Método mejorado para manejar la eliminación
     private void eliminarContenido(String id) {
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     JsonObject solicitud = new JsonObject();
                     solicitud.addProperty("tipo", "ELIMINAR_CONTENIDO");
@@ -361,27 +279,14 @@ public class ControladorGestionContenidos {
                     datos.addProperty("moderadorId", moderadorId);
                     solicitud.add("datos", datos);
 
-                    System.out.println("[DEBUG] Enviando solicitud de eliminación: " + solicitud);
-                    salida.println(solicitud.toString());
-
-                    String respuesta = null;
                     try {
-                        respuesta = entrada.readLine();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException(e);
                     }
-                    if (respuesta == null) {
-                        try {
-                            throw new IOException("El servidor no respondió");
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                    return respuesta;
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
                             Platform.runLater(() -> {
                                 mostrarAlerta("Éxito", "Contenido eliminado correctamente", Alert.AlertType.INFORMATION);
@@ -401,24 +306,6 @@ public class ControladorGestionContenidos {
         );
     }
 
-    private <T> void ejecutarTareaAsync(Supplier<T> tarea, Consumer<T> onSuccess, String contexto) {
-        Task<T> task = new Task<>() {
-            @Override
-            protected T call() throws Exception {
-                return tarea.get();
-            }
-        };
-
-        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
-        task.setOnFailed(e -> {
-            Platform.runLater(() ->
-                    mostrarAlerta("Error", "Error en " + contexto + ": " + task.getException().getMessage(), Alert.AlertType.ERROR)
-            );
-        });
-
-        executor.execute(task);
-    }
-
     private void mostrarAlerta(String titulo, String mensaje, Alert.AlertType tipo) {
         Platform.runLater(() -> {
             Alert alert = new Alert(tipo);
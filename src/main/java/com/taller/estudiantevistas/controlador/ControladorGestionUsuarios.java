@@ -1,25 +1,18 @@
 package com.taller.estudiantevistas.controlador;
 
 import com.google.gson.*;
+import com.taller.estudiantevistas.servicio.ClienteServicio;
+import com.taller.estudiantevistas.servicio.Paginador;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
 import java.time.LocalDate;
 import java.util.Optional;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 public class ControladorGestionUsuarios {
 
@@ -28,18 +21,14 @@ public class ControladorGestionUsuarios {
     @FXML private TableColumn<UsuarioTabla, LocalDate> colSuspension;
     @FXML private Button btnSuspender, btnEliminar, btnReactivar;
 
-    private final Executor executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        return t;
-    });
+    private final AmbitoTareas tareas = new AmbitoTareas((contexto, error) ->
+            mostrarAlerta("Error", "Error en " + contexto + ": " + error.getMessage(), Alert.AlertType.ERROR));
 
-    private Socket socket;
-    private PrintWriter salida;
-    private BufferedReader entrada;
+    private ClienteServicio cliente;
     private String moderadorId;
 
     public void inicializar(String moderadorId) {
+        tareas.vincular(btnSuspender);
         System.out.println("[DEBUG] Inicializando ControladorGestionUsuarios");
         System.out.println("[DEBUG] ID Moderador: " + moderadorId);
 
@@ -55,9 +44,7 @@ public class ControladorGestionUsuarios {
             int puerto = 12345;
 
             System.out.println("[DEBUG] Conectando al servidor en " + host + ":" + puerto);
-            this.socket = new Socket(host, puerto);
-            this.salida = new PrintWriter(socket.getOutputStream(), true);
-            this.entrada = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            this.cliente = new ClienteServicio(host, puerto);
 
             System.out.println("[DEBUG] Conexión establecida exitosamente");
         } catch (Exception e) {
@@ -83,100 +70,59 @@ public class ControladorGestionUsuarios {
         });
     }
 
+    /**
+     * Carga los usuarios por páginas: la primera al abrir la vista y las siguientes cuando
+     * se muestran las últimas filas de la tabla.
+     */
     @FXML
     private void cargarUsuarios() {
         System.out.println("[DEBUG] Solicitando lista de usuarios al servidor");
-        ejecutarTareaAsync(
-                () -> {
-                    try {
-                        JsonObject solicitud = new JsonObject();
-                        solicitud.addProperty("tipo", "OBTENER_TODOS_USUARIOS");
-
-                        JsonObject datos = new JsonObject();
-                        datos.addProperty("solicitanteId", moderadorId);
-                        solicitud.add("datos", datos);
-
-                        System.out.println("[DEBUG] Enviando solicitud: " + solicitud);
-                        salida.println(solicitud.toString());
-
-                        System.out.println("[DEBUG] Esperando respuesta...");
-                        String respuesta = entrada.readLine();
-                        if (respuesta == null) {
-                            System.err.println("[ERROR] El servidor no respondió");
-                            throw new IOException("El servidor no respondió");
-                        }
-
-                        System.out.println("[DEBUG] Respuesta recibida: " + respuesta);
-                        return respuesta;
-                    } catch (IOException e) {
-                        System.err.println("[ERROR] Error de comunicación: " + e.getMessage());
-                        throw new RuntimeException(e);
-                    }
-                },
-                respuesta -> {
-                    try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
-                        if (jsonRespuesta.get("exito").getAsBoolean()) {
-                            System.out.println("[DEBUG] Carga de usuarios exitosa");
-                            JsonArray usuarios = jsonRespuesta.getAsJsonArray("usuarios");
-                            System.out.println("[DEBUG] Usuarios recibidos: " + usuarios.size());
-                            Platform.runLater(() -> actualizarTabla(usuarios));
-                        } else {
-                            String mensajeError = jsonRespuesta.get("mensaje").getAsString();
-                            System.err.println("[ERROR] Error al cargar usuarios: " + mensajeError);
-                            Platform.runLater(() ->
-                                    mostrarAlerta("Error", mensajeError, Alert.AlertType.ERROR)
-                            );
-                        }
-                    } catch (Exception e) {
-                        System.err.println("[ERROR] Error al procesar respuesta: " + e.getMessage());
-                        Platform.runLater(() ->
-                                mostrarAlerta("Error", "Error al procesar respuesta del servidor", Alert.AlertType.ERROR)
-                        );
-                    }
-                },
-                "carga de usuarios"
-        );
-    }
-
-    private void actualizarTabla(JsonArray usuarios) {
-        System.out.println("[DEBUG] Actualizando tabla con " + usuarios.size() + " usuarios");
         ObservableList<UsuarioTabla> usuariosList = FXCollections.observableArrayList();
+        tablaUsuarios.setItems(usuariosList);
 
-        usuarios.forEach(usuario -> {
-            JsonObject user = usuario.getAsJsonObject();
-
+        JsonObject datos = new JsonObject();
+        datos.addProperty("solicitanteId", moderadorId);
+        Paginador<JsonObject> paginador = cliente.paginar("OBTENER_TODOS_USUARIOS", datos, "usuarios");
+
+        ListaIncremental<JsonObject, UsuarioTabla> feed = new ListaIncremental<>(usuariosList, this::crearUsuarioTabla,
+                usuario -> usuario.has("id") ? usuario.get("id").getAsString() : null);
+
+        CargaPaginada<JsonObject> carga = new CargaPaginada<>(paginador, feed,
+                () -> System.out.println("[DEBUG] Usuarios cargados: " + usuariosList.size()),
+                () -> System.out.println("[DEBUG] No hay usuarios registrados"),
+                error -> {
+                    System.err.println("[ERROR] Error al cargar usuarios: " + error.getMessage());
+                    mostrarAlerta("Error", error.getMessage(), Alert.AlertType.ERROR);
+                });
+        carga.vigilar(tablaUsuarios);
+        carga.cargarSiguiente();
+    }
 
-            String id = user.has("id") ? user.get("id").getAsString() : "";
-            String nombre = user.has("nombre") ? user.get("nombre").getAsString() : "";
-            String correo = user.has("correo") ? user.get("correo").getAsString() : "";
+    private UsuarioTabla crearUsuarioTabla(JsonObject user) {
+        String id = user.has("id") ? user.get("id").getAsString() : "";
+        String nombre = user.has("nombre") ? user.get("nombre").getAsString() : "";
+        String correo = user.has("correo") ? user.get("correo").getAsString() : "";
 
 
-            boolean suspendido = user.has("suspendido") && user.get("suspendido").getAsBoolean();
-            String estado = suspendido ? "SUSPENDIDO" : "ACTIVO";
+        boolean suspendido = user.has("suspendido") && user.get("suspendido").getAsBoolean();
+        String estado = suspendido ? "SUSPENDIDO" : "ACTIVO";
 
 
-            LocalDate fechaSuspension = null;
-            if (suspendido && user.has("diasSuspension")) {
-                int dias = user.get("diasSuspension").getAsInt();
-                if (dias > 0) {
-                    fechaSuspension = LocalDate.now().plusDays(dias);
-                }
+        LocalDate fechaSuspension = null;
+        if (suspendido && user.has("diasSuspension")) {
+            int dias = user.get("diasSuspension").getAsInt();
+            if (dias > 0) {
+                fechaSuspension = LocalDate.now().plusDays(dias);
             }
+        }
 
-            System.out.println("[DEBUG] Agregando usuario: " + nombre + " (" + correo + ") - Estado: " + estado);
-
-            usuariosList.add(new UsuarioTabla(
-                    id,
-                    nombre,
-                    correo,
-                    estado,
-                    fechaSuspension
-            ));
-        });
-
-        tablaUsuarios.setItems(usuariosList);
-        System.out.println("[DEBUG] Tabla actualizada exitosamente");
+        return new UsuarioTabla(
+                id,
+                nombre,
+                correo,
+                estado,
+                fechaSuspension
+        );
     }
 
     @FXML
@@ -211,7 +157,7 @@ public class ControladorGestionUsuarios {
         if (usuario == null) return;
 
         System.out.println("[DEBUG] Enviando suspensión para ID: " + usuario.getId());
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
                         JsonObject solicitud = new JsonObject();
@@ -223,26 +169,17 @@ public class ControladorGestionUsuarios {
                         datos.addProperty("moderadorId", moderadorId);
                         solicitud.add("datos", datos);
 
-                        System.out.println("[DEBUG] Enviando solicitud: " + solicitud);
-                        salida.println(solicitud.toString());
-
                         System.out.println("[DEBUG] Esperando respuesta...");
-                        String respuesta = entrada.readLine();
-                        if (respuesta == null) {
-                            System.err.println("[ERROR] El servidor no respondió");
-                            throw new IOException("El servidor no respondió");
-                        }
+                        JsonObject respuesta = cliente.solicitar(solicitud);
 
-                        System.out.println("[DEBUG] Respuesta recibida: " + respuesta);
                         return respuesta;
                     } catch (IOException e) {
                         System.err.println("[ERROR] Error de comunicación: " + e.getMessage());
                         throw new RuntimeException(e);
                     }
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
                             System.out.println("[DEBUG] Usuario suspendido exitosamente");
                             Platform.runLater(() -> {
@@ -295,7 +232,7 @@ public class ControladorGestionUsuarios {
         if (usuario == null) return;
 
         System.out.println("[DEBUG] Enviando solicitud de eliminación para ID: " + usuario.getId());
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
                         JsonObject solicitud = new JsonObject();
@@ -306,26 +243,17 @@ public class ControladorGestionUsuarios {
                         datos.addProperty("moderadorId", moderadorId);
                         solicitud.add("datos", datos);
 
-                        System.out.println("[DEBUG] Enviando solicitud: " + solicitud);
-                        salida.println(solicitud.toString());
-
                         System.out.println("[DEBUG] Esperando respuesta...");
-                        String respuesta = entrada.readLine();
-                        if (respuesta == null) {
-                            System.err.println("[ERROR] El servidor no respondió");
-                            throw new IOException("El servidor no respondió");
-                        }
+                        JsonObject respuesta = cliente.solicitar(solicitud);
 
-                        System.out.println("[DEBUG] Respuesta recibida: " + respuesta);
                         return respuesta;
                     } catch (IOException e) {
                         System.err.println("[ERROR] Error de comunicación: " + e.getMessage());
                         throw new RuntimeException(e);
                     }
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
                             System.out.println("[DEBUG] Usuario eliminado exitosamente");
                             Platform.runLater(() -> {
@@ -364,7 +292,7 @@ public class ControladorGestionUsuarios {
 
     private void reactivarUsuario(String correo) {
         System.out.println("[DEBUG] Enviando solicitud de reactivación para " + correo);
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
                         JsonObject solicitud = new JsonObject();
@@ -375,26 +303,17 @@ public class ControladorGestionUsuarios {
                         datos.addProperty("moderadorId", moderadorId);
                         solicitud.add("datos", datos);
 
-                        System.out.println("[DEBUG] Enviando solicitud: " + solicitud);
-                        salida.println(solicitud.toString());
-
                         System.out.println("[DEBUG] Esperando respuesta...");
-                        String respuesta = entrada.readLine();
-                        if (respuesta == null) {
-                            System.err.println("[ERROR] El servidor no respondió");
-                            throw new IOException("El servidor no respondió");
-                        }
+                        JsonObject respuesta = cliente.solicitar(solicitud);
 
-                        System.out.println("[DEBUG] Respuesta recibida: " + respuesta);
                         return respuesta;
                     } catch (IOException e) {
                         System.err.println("[ERROR] Error de comunicación: " + e.getMessage());
                         throw new RuntimeException(e);
                     }
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
                             System.out.println("[DEBUG] Usuario reactivado exitosamente");
                             Platform.runLater(() -> {
@@ -419,31 +338,6 @@ public class ControladorGestionUsuarios {
         );
     }
 
-    private <T> void ejecutarTareaAsync(Supplier<T> tarea, Consumer<T> onSuccess, String contexto) {
-        System.out.println("[DEBUG] Iniciando tarea asíncrona: " + contexto);
-        Task<T> task = new Task<>() {
-            @Override
-            protected T call() throws Exception {
-                System.out.println("[DEBUG] Ejecutando tarea en segundo plano");
-                return tarea.get();
-            }
-        };
-
-        task.setOnSucceeded(e -> {
-            System.out.println("[DEBUG] Tarea completada exitosamente");
-            onSuccess.accept(task.getValue());
-        });
-
-        task.setOnFailed(e -> {
-            System.err.println("[ERROR] Error en tarea asíncrona: " + task.getException().getMessage());
-            Platform.runLater(() ->
-                    mostrarAlerta("Error", "Error en " + contexto + ": " + task.getException().getMessage(), Alert.AlertType.ERROR)
-            );
-        });
-
-        executor.execute(task);
-    }
-
     private void mostrarAlerta(String titulo, String mensaje, Alert.AlertType tipo) {
         System.out.println("[DEBUG] Mostrando alerta: " + titulo + " - " + mensaje);
         Alert alert = new Alert(tipo);
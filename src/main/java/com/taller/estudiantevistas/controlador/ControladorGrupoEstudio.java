@@ -1,8 +1,8 @@
 package com.taller.estudiantevistas.controlador;
 
 import com.google.gson.*;
+import com.taller.estudiantevistas.servicio.ClienteServicio;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -13,14 +13,9 @@ import javafx.scene.text.Text;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.net.URL;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 public class ControladorGrupoEstudio {
     @FXML private Text nombreGrupo;
@@ -34,23 +29,16 @@ public class ControladorGrupoEstudio {
     @FXML private VBox contenidoVBox;
 
     private JsonObject grupoData;
-    private PrintWriter salida;
-    private BufferedReader entrada;
+    private ClienteServicio cliente;
     private Stage primaryStage;
-    private final Executor executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        return t;
-    });
+    private final AmbitoTareas tareas = new AmbitoTareas();
 
-    public void inicializar(JsonObject grupoData, PrintWriter salida, BufferedReader entrada, Stage primaryStage) {
+    public void inicializar(JsonObject grupoData, ClienteServicio cliente, Stage primaryStage) {
+        tareas.vincular(contenidoVBox);
         this.grupoData = grupoData;
-        this.salida = salida;
-        this.entrada = entrada;
+        this.cliente = cliente;
         this.primaryStage = primaryStage;
 
-        System.out.println("JSON recibido en ControladorGrupoEstudio: " + grupoData.toString());
-
         cargarDatosGrupo();
     }
 
@@ -110,7 +98,7 @@ public class ControladorGrupoEstudio {
             return;
         }
 
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     JsonObject solicitud = new JsonObject();
                     solicitud.addProperty("tipo", "UNIRSE_GRUPO");
@@ -120,11 +108,8 @@ public class ControladorGrupoEstudio {
                     datos.addProperty("usuarioId", grupoData.get("usuarioId").getAsString());
 
                     solicitud.add("datos", datos);
-                    salida.println(solicitud.toString());
-
                     try {
-                        String respuesta = entrada.readLine();
-                        return JsonParser.parseString(respuesta).getAsJsonObject();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException("Error de comunicación con el servidor", e);
                     }
@@ -157,7 +142,7 @@ public class ControladorGrupoEstudio {
             return;
         }
 
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     JsonObject solicitud = new JsonObject();
                     solicitud.addProperty("tipo", "OBTENER_MIEMBROS_GRUPO");
@@ -165,11 +150,8 @@ public class ControladorGrupoEstudio {
                     datos.addProperty("grupoId", grupoData.get("id").getAsString());
                     solicitud.add("datos", datos);
 
-                    salida.println(solicitud.toString());
-
                     try {
-                        String respuesta = entrada.readLine();
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
+                        JsonObject jsonRespuesta = cliente.solicitar(solicitud);
                         if (!jsonRespuesta.get("exito").getAsBoolean()) {
                             throw new RuntimeException(jsonRespuesta.get("mensaje").getAsString());
                         }
@@ -197,7 +179,7 @@ public class ControladorGrupoEstudio {
             return;
         }
 
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     JsonObject solicitud = new JsonObject();
                     solicitud.addProperty("tipo", "OBTENER_CONTENIDO_GRUPO");
@@ -205,11 +187,8 @@ public class ControladorGrupoEstudio {
                     datos.addProperty("grupoId", grupoData.get("id").getAsString());
                     solicitud.add("datos", datos);
 
-                    salida.println(solicitud.toString());
-
                     try {
-                        String respuesta = entrada.readLine();
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
+                        JsonObject jsonRespuesta = cliente.solicitar(solicitud);
                         if (!jsonRespuesta.get("exito").getAsBoolean()) {
                             throw new RuntimeException(jsonRespuesta.get("mensaje").getAsString());
                         }
@@ -243,7 +222,7 @@ public class ControladorGrupoEstudio {
             Parent root = loader.load();
 
             ControladorConfiguracionGrupo controlador = loader.getController();
-            controlador.inicializar(grupoData, salida, entrada);
+            controlador.inicializar(grupoData, cliente);
 
             Stage stage = new Stage();
             stage.initModality(Modality.WINDOW_MODAL);
@@ -305,21 +284,5 @@ public class ControladorGrupoEstudio {
         });
     }
 
-    private <T> void ejecutarTareaAsync(Supplier<T> tarea, Consumer<T> onSuccess, Consumer<Throwable> onError, String contexto) {
-        Task<T> task = new Task<>() {
-            @Override
-            protected T call() throws Exception {
-                return tarea.get();
-            }
-        };
-
-        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
-        task.setOnFailed(e -> {
-            System.err.println("Error en " + contexto + ": " + task.getException().getMessage());
-            onError.accept(task.getException());
-        });
-
-        executor.execute(task);
-    }
 }
 
@@ -4,6 +4,8 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 import com.taller.estudiantevistas.servicio.ClienteServicio;
+import com.taller.estudiantevistas.servicio.TiempoAgotadoException;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
@@ -17,6 +19,7 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -67,26 +70,21 @@ public class ControladorLogin {
             return;
         }
 
-        try {
-            JsonObject loginRequest = new JsonObject();
-            loginRequest.addProperty("tipo", "LOGIN");
-
-            JsonObject datos = new JsonObject();
-            datos.addProperty("correo", correo);
-            datos.addProperty("contrasena", contrasena);
-            loginRequest.add("datos", datos);
-
-
-            cliente.getSalida().println(loginRequest.toString());
-            String respuesta = cliente.getEntrada().readLine();
-
-            if (respuesta == null) {
-                mostrarAlerta("Error", "El servidor no respondió", AlertType.ERROR);
+        // Esperar la respuesta fuera del hilo de JavaFX: con el plazo vencido se informa y se puede reintentar
+        nombreField.setDisable(true);
+        contrasenaField.setDisable(true);
+        cliente.iniciarSesion(correo, contrasena).whenComplete((jsonRespuesta, error) -> Platform.runLater(() -> {
+            nombreField.setDisable(false);
+            contrasenaField.setDisable(false);
+            if (error != null) {
+                Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                // La conexión se reabre sola tras un corte: no se cierra, así el usuario puede reintentar
+                mostrarAlerta("Error", causa instanceof TiempoAgotadoException
+                        ? "El servidor no respondió a tiempo, intenta de nuevo"
+                        : "Fallo en la comunicación: " + causa.getMessage(), AlertType.ERROR);
                 return;
             }
 
-            JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
-
             if (jsonRespuesta.get("exito").getAsBoolean()) {
                 abrirPantallaPrincipal(jsonRespuesta.get("usuario").toString());
             } else {
@@ -95,10 +93,7 @@ public class ControladorLogin {
                         : "Error desconocido";
                 mostrarAlerta("Error", mensaje, AlertType.ERROR);
             }
-        } catch (IOException e) {
-            mostrarAlerta("Error", "Fallo en la comunicación: " + e.getMessage(), AlertType.ERROR);
-            cliente.cerrarConexion();
-        }
+        }));
     }
 
     private void abrirPantallaPrincipal(String datosUsuario) {
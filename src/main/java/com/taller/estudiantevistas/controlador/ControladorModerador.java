@@ -3,10 +3,7 @@ package com.taller.estudiantevistas.controlador;
 import com.google.gson.*;
 import com.taller.estudiantevistas.servicio.ClienteServicio;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
@@ -22,12 +19,11 @@ import org.graphstream.graph.implementations.SingleGraph;
 import org.graphstream.ui.view.Viewer;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 public class ControladorModerador {
@@ -35,11 +31,8 @@ public class ControladorModerador {
     private static final Logger LOGGER = Logger.getLogger(ControladorModerador.class.getName());
     private JsonObject datosUsuario;
     private ClienteServicio cliente;
-    private final Executor executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        return t;
-    });
+    private final AmbitoTareas tareas = new AmbitoTareas((contexto, error) ->
+            mostrarAlerta("Error", "Error al " + contexto, Alert.AlertType.ERROR));
 
     // Componentes UI
     @FXML private ImageView imgPerfil;
@@ -49,12 +42,13 @@ public class ControladorModerador {
     @FXML private Button btnEstudiantesConexiones, btnNivelesParticipacion;
 
     public void inicializar(JsonObject datosUsuario, ClienteServicio cliente) {
+        tareas.vincular(btnVerUsuarios);
         this.datosUsuario = datosUsuario;
         this.cliente = cliente;
 
         LOGGER.info("Datos de usuario recibidos en inicializar(): " + datosUsuario.toString());
         System.out.println("DEBUG: Cliente inicializado. Conexión activa: " +
-                (cliente != null && cliente.getSalida() != null));
+                (cliente != null && cliente.estaConectado()));
 
         try {
             actualizarUI(datosUsuario);
@@ -98,7 +92,7 @@ public class ControladorModerador {
     @FXML
     private void manejarVerUsuarios() {
         System.out.println("DEBUG: Botón Ver Usuarios presionado");
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
                         JsonObject solicitud = new JsonObject();
@@ -109,24 +103,17 @@ public class ControladorModerador {
                         }
                         solicitud.add("datos", datos);
 
-                        String solicitudStr = solicitud.toString();
-                        System.out.println("DEBUG: Enviando solicitud completa al servidor: " + solicitudStr);
-                        cliente.getSalida().println(solicitudStr);
-                        cliente.getSalida().flush();
-
-                        String respuesta = cliente.getEntrada().readLine();
-                        System.out.println("RESPUESTA DEL SERVIDOR (USUARIOS): " + respuesta);
+                        JsonObject respuesta = cliente.solicitar(solicitud);
                         return respuesta;
                     } catch (IOException e) {
                         System.err.println("ERROR en manejarVerUsuarios(): " + e.getMessage());
                         throw new RuntimeException("Error de comunicación con el servidor", e);
                     }
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
-                            Platform.runLater(() -> mostrarVistaUsuarios());
+                            DespachadorUI.reemplazar(this, "usuarios", () -> mostrarVistaUsuarios());
                         } else {
                             String mensajeError = jsonRespuesta.has("mensaje") ?
                                     jsonRespuesta.get("mensaje").getAsString() : "Error desconocido";
@@ -143,17 +130,9 @@ public class ControladorModerador {
 
     private void mostrarVistaUsuarios() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/gestion-usuarios.fxml"));
-            Parent root = loader.load();
-
-            ControladorGestionUsuarios controlador = loader.getController();
-            controlador.inicializar(datosUsuario.get("id").getAsString());
-
-            Stage stage = new Stage();
-            stage.setTitle("Gestión de Usuarios");
-            stage.setScene(new Scene(root));
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.show();
+            Vistas.Vista<ControladorGestionUsuarios> vista = Vistas.cargar("gestion-usuarios.fxml");
+            vista.getControlador().inicializar(datosUsuario.get("id").getAsString());
+            vista.ventana("Gestión de Usuarios", Modality.APPLICATION_MODAL).show();
         } catch (IOException e) {
             manejarError("mostrar vista de usuarios", e);
         }
@@ -162,7 +141,7 @@ public class ControladorModerador {
     @FXML
     private void manejarVerContenidos() {
         System.out.println("DEBUG: Botón Ver Contenidos presionado");
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
                         JsonObject solicitud = new JsonObject();
@@ -173,24 +152,17 @@ public class ControladorModerador {
                         }
                         solicitud.add("datos", datos);
 
-                        String solicitudStr = solicitud.toString();
-                        System.out.println("DEBUG: Enviando solicitud completa al servidor: " + solicitudStr);
-                        cliente.getSalida().println(solicitudStr);
-                        cliente.getSalida().flush();
-
-                        String respuesta = cliente.getEntrada().readLine();
-                        System.out.println("RESPUESTA DEL SERVIDOR (CONTENIDOS): " + respuesta);
+                        JsonObject respuesta = cliente.solicitar(solicitud);
                         return respuesta;
                     } catch (IOException e) {
                         System.err.println("ERROR en manejarVerContenidos(): " + e.getMessage());
                         throw new RuntimeException("Error de comunicación con el servidor", e);
                     }
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
-                            Platform.runLater(() -> mostrarVistaContenidos());
+                            DespachadorUI.reemplazar(this, "contenidos", () -> mostrarVistaContenidos());
                         } else {
                             String mensajeError = jsonRespuesta.has("mensaje") ?
                                     jsonRespuesta.get("mensaje").getAsString() : "Error desconocido";
@@ -207,17 +179,9 @@ public class ControladorModerador {
 
     private void mostrarVistaContenidos() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/gestion_contenidos.fxml"));
-            Parent root = loader.load();
-
-            ControladorGestionContenidos controlador = loader.getController();
-            controlador.inicializar(datosUsuario.get("id").getAsString());
-
-            Stage stage = new Stage();
-            stage.setTitle("Gestión de Contenidos");
-            stage.setScene(new Scene(root));
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.show();
+            Vistas.Vista<ControladorGestionContenidos> vista = Vistas.cargar("gestion_contenidos.fxml");
+            vista.getControlador().inicializar(datosUsuario.get("id").getAsString());
+            vista.ventana("Gestión de Contenidos", Modality.APPLICATION_MODAL).show();
         } catch (IOException e) {
             manejarError("mostrar vista de contenidos", e);
         }
@@ -226,7 +190,7 @@ public class ControladorModerador {
     @FXML
     private void manejarVerGrafo() {
         System.out.println("DEBUG: Botón Ver Grafo presionado");
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
                         JsonObject solicitud = new JsonObject();
@@ -237,24 +201,17 @@ public class ControladorModerador {
                         }
                         solicitud.add("datos", datos);
 
-                        String solicitudStr = solicitud.toString();
-                        System.out.println("DEBUG: Enviando solicitud completa al servidor: " + solicitudStr);
-                        cliente.getSalida().println(solicitudStr);
-                        cliente.getSalida().flush();
-
-                        String respuesta = cliente.getEntrada().readLine();
-                        System.out.println("RESPUESTA DEL SERVIDOR (GRAFO): " + respuesta);
+                        JsonObject respuesta = cliente.solicitar(solicitud);
                         return respuesta;
                     } catch (IOException e) {
                         System.err.println("ERROR en manejarVerGrafo(): " + e.getMessage());
                         throw new RuntimeException("Error de comunicación con el servidor", e);
                     }
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
-                            Platform.runLater(() -> mostrarVistaGrafo(jsonRespuesta));
+                            DespachadorUI.reemplazar(this, "grafo", () -> mostrarVistaGrafo(jsonRespuesta));
                         } else {
                             String mensajeError = jsonRespuesta.has("mensaje") ?
                                     jsonRespuesta.get("mensaje").getAsString() : "Error desconocido";
@@ -303,9 +260,8 @@ public class ControladorModerador {
                 posiciones.put(id, new Double[]{x, y});
             }
 
-            // Dibujar aristas
-            gc.setStroke(Color.LIGHTGRAY);
-            gc.setLineWidth(2);
+            // Las aristas primero y los nodos encima; con grafos grandes se dibujan en varios cuadros
+            List<Runnable> trazos = new ArrayList<>(aristas.size() + nodos.size());
             for (JsonElement aristaElem : aristas) {
                 JsonObject arista = aristaElem.getAsJsonObject();
                 String origen = arista.get("origen").getAsString();
@@ -315,15 +271,16 @@ public class ControladorModerador {
                 Double[] posOrigen = posiciones.get(origen);
                 Double[] posDestino = posiciones.get(destino);
 
-                gc.strokeLine(posOrigen[0], posOrigen[1], posDestino[0], posDestino[1]);
+                trazos.add(() -> {
+                    gc.strokeLine(posOrigen[0], posOrigen[1], posDestino[0], posDestino[1]);
 
-                double midX = (posOrigen[0] + posDestino[0]) / 2;
-                double midY = (posOrigen[1] + posDestino[1]) / 2;
-                gc.setFill(Color.ORANGE);
-                gc.fillText(String.valueOf(peso), midX, midY);
+                    double midX = (posOrigen[0] + posDestino[0]) / 2;
+                    double midY = (posOrigen[1] + posDestino[1]) / 2;
+                    gc.setFill(Color.ORANGE);
+                    gc.fillText(String.valueOf(peso), midX, midY);
+                });
             }
 
-            // Dibujar nodos
             for (JsonElement nodoElem : nodos) {
                 JsonObject nodo = nodoElem.getAsJsonObject();
                 String id = nodo.get("id").getAsString();
@@ -333,11 +290,13 @@ public class ControladorModerador {
                 double x = pos[0];
                 double y = pos[1];
 
-                gc.setFill(Color.web("#7b5dd9")); // morado suave
-                gc.fillOval(x - 15, y - 15, 30, 30);
+                trazos.add(() -> {
+                    gc.setFill(Color.web("#7b5dd9")); // morado suave
+                    gc.fillOval(x - 15, y - 15, 30, 30);
 
-                gc.setFill(Color.WHITE);
-                gc.fillText(nombre, x - 25, y - 25);
+                    gc.setFill(Color.WHITE);
+                    gc.fillText(nombre, x - 25, y - 25);
+                });
             }
 
             // Mostrar en ventana
@@ -348,6 +307,11 @@ public class ControladorModerador {
             stage.setScene(scene);
             stage.show();
 
+            gc.setStroke(Color.LIGHTGRAY);
+            gc.setLineWidth(2);
+            DespachadorUI.repartir(canvas, "trazos", trazos, Runnable::run,
+                    () -> LOGGER.fine("Grafo dibujado: " + trazos.size() + " trazos"));
+
         } catch (Exception e) {
             manejarError("mostrar grafo de afinidad (Canvas)", e);
         }
@@ -360,7 +324,7 @@ public class ControladorModerador {
 
     @FXML
     private void manejarFuncionalidadGrafo() {
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
                         JsonObject solicitud = new JsonObject();
@@ -372,23 +336,18 @@ public class ControladorModerador {
                         }
                         solicitud.add("datos", datos);
 
-                        String solicitudStr = solicitud.toString();
-                        cliente.getSalida().println(solicitudStr);
-                        cliente.getSalida().flush();
-
-                        return cliente.getEntrada().readLine();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException("Error de comunicación con el servidor", e);
                     }
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
                             JsonObject grafoData = jsonRespuesta.getAsJsonObject("grafo");
 
                             // Mostrar análisis en una ventana emergente
-                            Platform.runLater(() -> {
+                            DespachadorUI.reemplazar(this, "analisis", () -> {
                                 TextArea textArea = new TextArea();
                                 textArea.setEditable(false);
                                 textArea.setWrapText(true);
@@ -442,7 +401,7 @@ public class ControladorModerador {
 
     @FXML
     private void manejarTablaContenidos() {
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
                         JsonObject solicitud = new JsonObject();
@@ -454,20 +413,15 @@ public class ControladorModerador {
                         }
                         solicitud.add("datos", datos);
 
-                        String solicitudStr = solicitud.toString();
-                        cliente.getSalida().println(solicitudStr);
-                        cliente.getSalida().flush();
-
-                        return cliente.getEntrada().readLine();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException("Error de comunicación con el servidor", e);
                     }
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
-                            Platform.runLater(() -> mostrarTablaContenidos(jsonRespuesta));
+                            DespachadorUI.reemplazar(this, "tabla", () -> mostrarTablaContenidos(jsonRespuesta));
                         } else {
                             String mensajeError = jsonRespuesta.has("mensaje") ?
                                     jsonRespuesta.get("mensaje").getAsString() : "Error desconocido";
@@ -483,17 +437,9 @@ public class ControladorModerador {
 
     private void mostrarTablaContenidos(JsonObject datosContenidos) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/tabla_contenidos.fxml"));
-            Parent root = loader.load();
-
-            ControladorTablaContenidos controlador = loader.getController();
-            controlador.inicializar(datosContenidos);
-
-            Stage stage = new Stage();
-            stage.setTitle("Tabla de Contenidos");
-            stage.setScene(new Scene(root));
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.show();
+            Vistas.Vista<ControladorTablaContenidos> vista = Vistas.cargar("tabla_contenidos.fxml");
+            vista.getControlador().inicializar(datosContenidos);
+            vista.ventana("Tabla de Contenidos", Modality.APPLICATION_MODAL).show();
         } catch (IOException e) {
             manejarError("mostrar tabla de contenidos", e);
         }
@@ -501,7 +447,7 @@ public class ControladorModerador {
 
     @FXML
     private void manejarEstudiantesConexiones() {
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
                         JsonObject solicitud = new JsonObject();
@@ -512,20 +458,15 @@ public class ControladorModerador {
                         }
                         solicitud.add("datos", datos);
 
-                        String solicitudStr = solicitud.toString();
-                        cliente.getSalida().println(solicitudStr);
-                        cliente.getSalida().flush();
-
-                        return cliente.getEntrada().readLine();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException("Error de comunicación con el servidor", e);
                     }
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
-                            Platform.runLater(() -> mostrarEstudiantesConexiones(jsonRespuesta));
+                            DespachadorUI.reemplazar(this, "conexiones", () -> mostrarEstudiantesConexiones(jsonRespuesta));
                         } else {
                             String mensajeError = jsonRespuesta.has("mensaje") ?
                                     jsonRespuesta.get("mensaje").getAsString() : "Error desconocido";
@@ -541,17 +482,9 @@ public class ControladorModerador {
 
     private void mostrarEstudiantesConexiones(JsonObject datosConexiones) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/estudiantes_conexiones.fxml"));
-            Parent root = loader.load();
-
-            ControladorEstudiantesConexiones controlador = loader.getController();
-            controlador.inicializar(datosConexiones);
-
-            Stage stage = new Stage();
-            stage.setTitle("Estudiantes y sus Conexiones");
-            stage.setScene(new Scene(root));
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.show();
+            Vistas.Vista<ControladorEstudiantesConexiones> vista = Vistas.cargar("estudiantes_conexiones.fxml");
+            vista.getControlador().inicializar(datosConexiones);
+            vista.ventana("Estudiantes y sus Conexiones", Modality.APPLICATION_MODAL).show();
         } catch (IOException e) {
             manejarError("mostrar conexiones entre estudiantes", e);
         }
@@ -559,7 +492,7 @@ public class ControladorModerador {
 
     @FXML
     private void manejarNivelesParticipacion() {
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
                         JsonObject solicitud = new JsonObject();
@@ -570,20 +503,15 @@ public class ControladorModerador {
                         }
                         solicitud.add("datos", datos);
 
-                        String solicitudStr = solicitud.toString();
-                        cliente.getSalida().println(solicitudStr);
-                        cliente.getSalida().flush();
-
-                        return cliente.getEntrada().readLine();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException("Error de comunicación con el servidor", e);
                     }
                 },
-                respuesta -> {
+                jsonRespuesta -> {
                     try {
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
                         if (jsonRespuesta.get("exito").getAsBoolean()) {
-                            Platform.runLater(() -> mostrarNivelesParticipacion(jsonRespuesta));
+                            DespachadorUI.reemplazar(this, "participacion", () -> mostrarNivelesParticipacion(jsonRespuesta));
                         } else {
                             String mensajeError = jsonRespuesta.has("mensaje") ?
                                     jsonRespuesta.get("mensaje").getAsString() : "Error desconocido";
@@ -599,46 +527,14 @@ public class ControladorModerador {
 
     private void mostrarNivelesParticipacion(JsonObject datosParticipacion) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/niveles_participacion.fxml"));
-            Parent root = loader.load();
-
-            ControladorNivelesParticipacion controlador = loader.getController();
-            controlador.inicializar(datosParticipacion);
-
-            Stage stage = new Stage();
-            stage.setTitle("Niveles de Participación");
-            stage.setScene(new Scene(root));
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.show();
+            Vistas.Vista<ControladorNivelesParticipacion> vista = Vistas.cargar("niveles_participacion.fxml");
+            vista.getControlador().inicializar(datosParticipacion);
+            vista.ventana("Niveles de Participación", Modality.APPLICATION_MODAL).show();
         } catch (IOException e) {
             manejarError("mostrar niveles de participación", e);
         }
     }
 
-    private <T> void ejecutarTareaAsync(Supplier<T> tarea, Consumer<T> onSuccess, String contexto) {
-        Task<T> task = new Task<>() {
-            @Override
-            protected T call() throws Exception {
-                try {
-                    return tarea.get();
-                } catch (Exception e) {
-                    System.err.println("ERROR en tarea asíncrona (" + contexto + "): " + e.getMessage());
-                    throw e;
-                }
-            }
-        };
-
-        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
-        task.setOnFailed(e -> {
-            String errorMsg = "Error en " + contexto + ": " + task.getException().getMessage();
-            LOGGER.severe(errorMsg);
-            System.err.println(errorMsg);
-            Platform.runLater(() -> mostrarAlerta("Error", "Error al " + contexto, Alert.AlertType.ERROR));
-        });
-
-        executor.execute(task);
-    }
-
     private void mostrarAlerta(String titulo, String mensaje, Alert.AlertType tipo) {
         Alert alert = new Alert(tipo);
         alert.setTitle(titulo);
@@ -1,9 +1,11 @@
 package com.taller.estudiantevistas.controlador;
 
 import com.google.gson.*;
+import com.taller.estudiantevistas.dto.SolicitudAyuda;
 import com.taller.estudiantevistas.servicio.ClienteServicio;
+import com.taller.estudiantevistas.servicio.Lote;
+import com.taller.estudiantevistas.servicio.Mensaje;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -15,22 +17,19 @@ import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.net.URL;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 import java.util.logging.Logger;
 
-public class ControladorPerfil {
+public class ControladorPerfil implements Reutilizable {
 
     private static final Logger LOGGER = Logger.getLogger(ControladorPerfil.class.getName());
     private JsonObject datosUsuario;
     private ClienteServicio cliente;
-    private final Executor executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        return t;
-    });
+    private final AmbitoTareas tareas = new AmbitoTareas((contexto, error) ->
+            mostrarAlerta("Error", "Error al " + contexto, Alert.AlertType.ERROR));
 
     @FXML private ImageView imgPerfil;
     @FXML private Label lblNombres, lblCorreo, lblIntereses;
@@ -42,8 +41,15 @@ public class ControladorPerfil {
     @FXML private Button btnPublicarContenido;
     @FXML private ComboBox<String> comboGruposEstudio;
 
+    // Listas pedidas junto con el perfil; se usan la primera vez que se abre su ventana
+    private CompletableFuture<JsonArray> sugerenciasPrecargadas;
+    private CompletableFuture<List<SolicitudAyuda>> solicitudesPrecargadas;
+    // Cambia con cada restablecer: las respuestas de una apertura anterior ya no se muestran
+    private int apertura;
+
     @FXML
     public void initialize() {
+        tareas.vincular(btnVerContenidos);
         // Configurar acciones de los botones
         btnVerContenidos.setOnAction(e -> manejarVerContenidos());
         btnVerSugerencias.setOnAction(e -> manejarVerSugerencias());
@@ -61,78 +67,91 @@ public class ControladorPerfil {
                 lblNombres.setText(datosUsuario.get("nombres").getAsString());
                 lblCorreo.setText(datosUsuario.get("correo").getAsString());
                 lblIntereses.setText(datosUsuario.get("intereses").getAsString());
-                cargarGruposEstudio(datosUsuario.get("id").getAsString());
+                cargarPerfil(datosUsuario.get("id").getAsString());
             });
         }
     }
 
-    private void cargarGruposEstudio(String userId) {
-        ejecutarTareaAsync(
-                () -> {
-                    JsonObject solicitud = new JsonObject();
-                    solicitud.addProperty("tipo", "OBTENER_GRUPOS_ESTUDIO");
-                    JsonObject datos = new JsonObject();
-                    datos.addProperty("userId", userId);
-                    solicitud.add("datos", datos);
-                    cliente.getSalida().println(solicitud.toString());
-                    String respuesta = null;
-                    try {
-                        respuesta = cliente.getEntrada().readLine();
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
+    /**
+     * Olvida el usuario y todo lo que se mostró de él, para que la vista se reutilice con otro.
+     */
+    @Override
+    public void restablecer() {
+        apertura++;
+        datosUsuario = null;
+        cliente = null;
+        sugerenciasPrecargadas = null;
+        solicitudesPrecargadas = null;
+        lblNombres.setText("");
+        lblCorreo.setText("");
+        lblIntereses.setText("");
+        comboGruposEstudio.getItems().clear();
+        comboGruposEstudio.getSelectionModel().clearSelection();
+    }
+
+    /**
+     * Pide en un solo lote los datos del perfil, los grupos de estudio, las sugerencias y las
+     * solicitudes del usuario: un viaje de ida y vuelta en lugar de uno por consulta.
+     * Los contenidos no van en el lote porque su ventana los carga por páginas.
+     */
+    private void cargarPerfil(String userId) {
+        JsonObject datos = new JsonObject();
+        datos.addProperty("userId", userId);
+        int esta = apertura;
+
+        Lote lote = cliente.crearLote();
+        lote.agregar("OBTENER_DATOS_PERFIL", datos, respuesta -> respuesta.getAsJsonObject("datosUsuario"))
+                .whenComplete((datosCompletos, error) -> Platform.runLater(() -> {
+                    if (esta != apertura) {
+                        return;
                     }
-                    return JsonParser.parseString(respuesta).getAsJsonObject();
-                },
-                respuesta -> {
-                    if (respuesta.get("exito").getAsBoolean()) {
-                        JsonArray gruposJson = respuesta.getAsJsonArray("grupos");
-                        for (JsonElement grupo : gruposJson) {
-                            String nombreGrupo = grupo.getAsJsonObject().get("nombre").getAsString();
-                            // Agregar solo si no está ya en el ComboBox
-                            if (!comboGruposEstudio.getItems().contains(nombreGrupo)) {
-                                comboGruposEstudio.getItems().add(nombreGrupo);
-                            }
-                        }
+                    if (error != null) {
+                        LOGGER.warning("No se pudieron obtener los datos de perfil: " + causa(error).getMessage());
+                    } else if (datosCompletos != null) {
+                        actualizarUI(datosCompletos);
+                    }
+                }));
+        lote.agregarLista("OBTENER_GRUPOS_ESTUDIO", datos, "grupos")
+                .whenComplete((gruposJson, error) -> Platform.runLater(() -> {
+                    if (esta != apertura) {
+                        return;
+                    }
+                    if (error != null) {
+                        mostrarAlerta("Error", causa(error).getMessage(), Alert.AlertType.ERROR);
                     } else {
-                        mostrarAlerta("Error", respuesta.get("mensaje").getAsString(), Alert.AlertType.ERROR);
+                        mostrarGruposEstudio(gruposJson);
                     }
-                },
-                "carga de grupos de estudio"
-        );
+                }));
+        sugerenciasPrecargadas = lote.agregarLista("OBTENER_SUGERENCIAS", datos, "sugerencias");
+        solicitudesPrecargadas = lote.agregarLista(Mensaje.SOLICITUDES_USUARIO, datos);
+        lote.enviar();
     }
 
+    private void mostrarGruposEstudio(JsonArray gruposJson) {
+        for (JsonElement grupo : gruposJson) {
+            String nombreGrupo = grupo.getAsJsonObject().get("nombre").getAsString();
+            // Agregar solo si no está ya en el ComboBox
+            if (!comboGruposEstudio.getItems().contains(nombreGrupo)) {
+                comboGruposEstudio.getItems().add(nombreGrupo);
+            }
+        }
+    }
 
-    private void obtenerDatosUsuarioCompletos(String userId) {
-        ejecutarTareaAsync(
-                () -> {
-                    JsonObject solicitud = new JsonObject();
-                    solicitud.addProperty("tipo", "OBTENER_DATOS_PERFIL");
-                    solicitud.addProperty("userId", userId);
-                    cliente.getSalida().println(solicitud.toString());
-                    try {
-                        String respuesta = cliente.getEntrada().readLine();
-                        if (respuesta == null) {
-                            throw new IOException("El servidor no respondió");
-                        }
-                        return respuesta;
-                    } catch (IOException e) {
-                        throw new RuntimeException("Error de comunicación: " + e.getMessage(), e);
-                    }
-                },
-                respuesta -> {
-                    try {
-                        JsonObject datosCompletos = JsonParser.parseString(respuesta).getAsJsonObject();
-                        if (datosCompletos.get("exito").getAsBoolean()) {
-                            Platform.runLater(() -> actualizarUI(datosCompletos.getAsJsonObject("datosUsuario")));
-                        } else {
-                            Platform.runLater(() -> mostrarAlerta("Error", datosCompletos.get("mensaje").getAsString(), Alert.AlertType.ERROR));
-                        }
-                    } catch (JsonParseException e) {
-                        Platform.runLater(() -> mostrarAlerta("Error", "Respuesta del servidor no válida", Alert.AlertType.ERROR));
-                    }
-                },
-                "obtención de datos de perfil"
-        );
+    /**
+     * Entrega una lista precargada con el perfil o, si su solicitud falló, ejecuta {@code pedir}.
+     */
+    private <T> void usarPrecargada(CompletableFuture<T> precargada, Consumer<T> callback, Runnable pedir) {
+        precargada.whenComplete((lista, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                pedir.run();
+            } else {
+                callback.accept(lista);
+            }
+        }));
+    }
+
+    private static Throwable causa(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 
     private void actualizarUI(JsonObject datosUsuario) {
@@ -195,23 +214,6 @@ public class ControladorPerfil {
         }
     }
 
-    private <T> void ejecutarTareaAsync(Supplier<T> tarea, Consumer<T> onSuccess, String contexto) {
-        Task<T> task = new Task<>() {
-            @Override
-            protected T call() throws Exception {
-                return tarea.get();
-            }
-        };
-
-        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
-        task.setOnFailed(e -> {
-            LOGGER.severe("Error en " + contexto + ": " + task.getException().getMessage());
-            Platform.runLater(() -> mostrarAlerta("Error", "Error al " + contexto, Alert.AlertType.ERROR));
-        });
-
-        executor.execute(task);
-    }
-
     private void mostrarAlerta(String titulo, String mensaje, Alert.AlertType tipo) {
         Alert alert = new Alert(tipo);
         alert.setTitle(titulo);
@@ -231,8 +233,7 @@ public class ControladorPerfil {
 
             controlador.inicializar(
                     datosUsuario.get("id").getAsString(),
-                    cliente,
-                    this::cargarContenidosDesdeServidor
+                    cliente
             );
 
             Stage stage = new Stage();
@@ -246,38 +247,6 @@ public class ControladorPerfil {
         }
     }
 
-    private void cargarContenidosDesdeServidor(String userId, Consumer<JsonArray> callback) {
-        ejecutarTareaAsync(
-                () -> {
-                    JsonObject solicitud = new JsonObject();
-                    solicitud.addProperty("tipo", "OBTENER_CONTENIDOS_COMPLETOS");
-
-                    JsonObject datos = new JsonObject();
-                    datos.addProperty("userId", userId);
-                    solicitud.add("datos", datos);
-
-                    cliente.getSalida().println(solicitud.toString());
-                    String respuesta = null;
-                    try {
-                        respuesta = cliente.getEntrada().readLine();
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return JsonParser.parseString(respuesta).getAsJsonObject();
-                },
-                respuesta -> {
-                    if (respuesta.get("exito").getAsBoolean()) {
-                        callback.accept(respuesta.getAsJsonArray("contenidos"));
-                    } else {
-                        Platform.runLater(() ->
-                                mostrarAlerta("Error", respuesta.get("mensaje").getAsString(), Alert.AlertType.ERROR)
-                        );
-                    }
-                },
-                "carga de contenidos específicos"
-        );
-    }
-
     private void manejarVerSugerencias() {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/sugerencias-perfil.fxml"));
@@ -304,7 +273,17 @@ public class ControladorPerfil {
     }
 
     private void cargarSugerenciasDesdeServidor(String userId, Consumer<JsonArray> callback) {
-        ejecutarTareaAsync(
+        CompletableFuture<JsonArray> precargada = sugerenciasPrecargadas;
+        sugerenciasPrecargadas = null;
+        if (precargada != null && userId.equals(datosUsuario.get("id").getAsString())) {
+            usarPrecargada(precargada, callback, () -> pedirSugerencias(userId, callback));
+        } else {
+            pedirSugerencias(userId, callback);
+        }
+    }
+
+    private void pedirSugerencias(String userId, Consumer<JsonArray> callback) {
+        tareas.ejecutar(
                 () -> {
                     JsonObject solicitud = new JsonObject();
                     solicitud.addProperty("tipo", "OBTENER_SUGERENCIAS");
@@ -313,14 +292,11 @@ public class ControladorPerfil {
                     datos.addProperty("userId", userId);
                     solicitud.add("datos", datos);
 
-                    cliente.getSalida().println(solicitud.toString());
-                    String respuesta = null;
                     try {
-                        respuesta = cliente.getEntrada().readLine();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException(e);
                     }
-                    return JsonParser.parseString(respuesta).getAsJsonObject();
                 },
                 respuesta -> {
                     if (respuesta.get("exito").getAsBoolean()) {
@@ -377,34 +353,30 @@ public class ControladorPerfil {
         }
     }
 
-    private void cargarSolicitudesDesdeServidor(String userId, Consumer<JsonArray> callback) {
-        ejecutarTareaAsync(
-                () -> {
-                    JsonObject solicitud = new JsonObject();
-                    solicitud.addProperty("tipo", "OBTENER_SOLICITUDES_USUARIO");
+    private void cargarSolicitudesDesdeServidor(String userId, Consumer<List<SolicitudAyuda>> callback) {
+        CompletableFuture<List<SolicitudAyuda>> precargada = solicitudesPrecargadas;
+        solicitudesPrecargadas = null;
+        if (precargada != null && userId.equals(datosUsuario.get("id").getAsString())) {
+            usarPrecargada(precargada, callback, () -> pedirSolicitudes(userId, callback));
+        } else {
+            pedirSolicitudes(userId, callback);
+        }
+    }
 
+    private void pedirSolicitudes(String userId, Consumer<List<SolicitudAyuda>> callback) {
+        tareas.ejecutar(
+                () -> {
                     JsonObject datos = new JsonObject();
                     datos.addProperty("userId", userId);
-                    solicitud.add("datos", datos);
 
-                    cliente.getSalida().println(solicitud.toString());
-                    String respuesta = null;
                     try {
-                        respuesta = cliente.getEntrada().readLine();
+                        return cliente.obtenerLista(Mensaje.SOLICITUDES_USUARIO, datos);
                     } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                    return JsonParser.parseString(respuesta).getAsJsonObject();
-                },
-                respuesta -> {
-                    if (respuesta.get("exito").getAsBoolean()) {
-                        callback.accept(respuesta.getAsJsonArray("solicitudes"));
-                    } else {
-                        Platform.runLater(() ->
-                                mostrarAlerta("Error", respuesta.get("mensaje").getAsString(), Alert.AlertType.ERROR)
-                        );
+                        throw new CompletionException(e);
                     }
                 },
+                callback,
+                error -> mostrarAlerta("Error", causa(error).getMessage(), Alert.AlertType.ERROR),
                 "carga de solicitudes específicas"
         );
     }
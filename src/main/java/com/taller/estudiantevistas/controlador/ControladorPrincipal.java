@@ -1,44 +1,39 @@
 package com.taller.estudiantevistas.controlador;
 
 import com.google.gson.*;
+import com.taller.estudiantevistas.dto.Contenido;
+import com.taller.estudiantevistas.dto.SolicitudAyuda;
 import com.taller.estudiantevistas.servicio.ClienteServicio;
+import com.taller.estudiantevistas.servicio.Fechas;
+import com.taller.estudiantevistas.servicio.Mensaje;
+import com.taller.estudiantevistas.servicio.Pagina;
+import com.taller.estudiantevistas.servicio.Paginador;
+import com.taller.estudiantevistas.servicio.Pipeline;
+import com.taller.estudiantevistas.servicio.Sincronizador;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
-import javafx.scene.text.Text;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ControladorPrincipal {
     private static final Logger LOGGER = Logger.getLogger(ControladorPrincipal.class.getName());
 
-    private final Executor executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        return t;
-    });
+    private final AmbitoTareas tareas = new AmbitoTareas();
 
     // Datos del usuario y cliente de servicio
     private JsonObject usuarioData;
@@ -57,21 +52,37 @@ public class ControladorPrincipal {
 
     private final List<ActualizacionListener> listeners = new ArrayList<>();
 
+    // Copia local de cada listado mostrado, para recargar solo lo que cambió
+    private Sincronizador<Contenido> syncContenidos;
+    private Sincronizador<SolicitudAyuda> syncSolicitudes;
+    private ListaIncremental<Contenido, Contenido> feedContenidos;
+    private ListaIncremental<SolicitudAyuda, SolicitudAyuda> feedSolicitudes;
+    private CargaPaginada<Contenido> cargaContenidos;
+    private CargaPaginada<SolicitudAyuda> cargaSolicitudes;
+
     // Interfaz para notificaciones de actualización
     public interface ActualizacionListener {
-        void onContenidosActualizados(JsonArray contenidos);
-        void onSolicitudesActualizadas(JsonArray solicitudes);
+        void onContenidosActualizados(List<Contenido> contenidos);
+        void onSolicitudesActualizadas(List<SolicitudAyuda> solicitudes);
     }
 
     /**
      * Inicializa el controlador con los datos del usuario y el cliente de servicio
      */
     public void inicializarConUsuario(JsonObject usuarioData, ClienteServicio cliente) {
+        tareas.vincular(panelContenidos);
         Objects.requireNonNull(usuarioData, "Datos de usuario no pueden ser nulos");
         Objects.requireNonNull(cliente, "ClienteServicio no puede ser nulo");
 
         this.usuarioData = usuarioData;
         this.cliente = cliente;
+        // Las vistas que más se abren desde aquí quedan listas antes del primer clic
+        Vistas.precargar("contenido-layout.fxml", null);
+        if (esModerador()) {
+            Vistas.precargar("moderador.fxml");
+        } else {
+            Vistas.precargar("perfil.fxml", Modality.APPLICATION_MODAL);
+        }
 
         // Cargar datos iniciales en el hilo de la UI
         Platform.runLater(() -> {
@@ -168,65 +179,74 @@ public class ControladorPrincipal {
      * Carga los contenidos iniciales al iniciar la vista
      */
     private void cargarContenidosIniciales() {
-        recargarContenidos();
-        recargarSolicitudes();
+        if (usuarioData == null || !usuarioData.has("id")) {
+            return;
+        }
+
+        // Ambas listas salen en un único envío y se reciben en orden: un solo viaje de ida y vuelta
+        Pipeline pipeline = cliente.crearPipeline();
+        cargarContenidos(pipeline);
+        cargarSolicitudes(pipeline);
+        pipeline.enviar();
     }
 
 
 
     /**
-     * Recarga los contenidos educativos
+     * Recarga los contenidos educativos: aplica solo los cambios desde la última carga y, si el
+     * servidor no puede entregarlos, vuelve a pedir la lista completa y la concilia con la mostrada
      */
     @FXML
     private void recargarContenidos() {
-        if (usuarioData != null && usuarioData.has("id")) {
-            // Limpiar panel antes de cargar
-            panelContenidos.getChildren().clear();
-
-            ejecutarTareaAsync(
-                    () -> {
-                        try {
-                            JsonArray contenidos = cliente.obtenerTodosContenidos();
-                            if (contenidos == null || contenidos.size() == 0) {
-                                return crearMensajeInformacion(
-                                        "No hay contenidos",
-                                        "No se encontraron contenidos educativos disponibles");
-                            }
-                            return filtrarDuplicados(contenidos);
-                        } catch (IOException e) {
-                            throw new RuntimeException("Error al obtener contenidos: " + e.getMessage(), e);
-                        }
-                    },
-                    contenidos -> Platform.runLater(() -> {
-                        mostrarContenidosEnPanel(contenidos, panelContenidos);
-                        notificarListeners("contenidos", contenidos);
-                    }),
-                    error -> Platform.runLater(() -> {
-                        mostrarContenidosEnPanel(crearMensajeError(error), panelContenidos);
-                        mostrarAlerta("Error", error.getMessage(), Alert.AlertType.ERROR);
-                    }),
-                    "recarga de contenidos"
-            );
+        if (cargaContenidos == null) {
+            cargarContenidos(null);
+            return;
+        }
+        Runnable recargaCompleta = () -> syncContenidos = recargarCompleto(cargaContenidos, feedContenidos,
+                Mensaje.CONTENIDOS, "SINCRONIZAR_CONTENIDOS", Contenido::getId);
+        if (!syncContenidos.tieneVersion()) {
+            recargaCompleta.run();
+            return;
         }
+        sincronizar(syncContenidos, feedContenidos, "contenidos", this::notificarContenidos, recargaCompleta);
     }
 
-    private JsonArray filtrarDuplicados(JsonArray array) {
-        Set<String> idsVistos = new HashSet<>();
-        JsonArray resultado = new JsonArray();
-
-        for (JsonElement elemento : array) {
-            JsonObject obj = elemento.getAsJsonObject();
-            String id = obj.has("id") ? obj.get("id").getAsString() : null;
-
-            if (id == null || !idsVistos.contains(id)) {
-                resultado.add(obj);
-                if (id != null) {
-                    idsVistos.add(id);
-                }
-            }
+    /**
+     * Muestra los contenidos por páginas: la primera al cargar y las siguientes al desplazarse
+     * hacia el final del panel. Cada contenido se agrega apenas se decodifica.
+     * @param pipeline Pipeline en el que encolar la primera página, o null para pedirla directamente
+     */
+    private void cargarContenidos(Pipeline pipeline) {
+        if (usuarioData != null && usuarioData.has("id")) {
+            FeedVirtual<Contenido> listado = new FeedVirtual<>(() -> new VistaContenido(true, this::abrirVistaContenido));
+            listado.colocarEn(panelContenidos);
+
+            Paginador<Contenido> paginador = cliente.paginar(Mensaje.CONTENIDOS, null);
+            ListaIncremental<Contenido, Contenido> feed = new ListaIncremental<>(listado.getItems(), Function.identity(),
+                    Contenido::getId);
+            Sincronizador<Contenido> sync = cliente.crearSincronizador("SINCRONIZAR_CONTENIDOS", null,
+                    Contenido.class, Contenido::getId);
+            feed.alRecibir(sync::registrar);
+            syncContenidos = sync;
+            feedContenidos = feed;
+
+            CargaPaginada<Contenido> carga = new CargaPaginada<>(paginador, feed,
+                    () -> notificarContenidos(feed.getMostrados()),
+                    () -> listado.mostrarMensaje(crearMensajeUI(
+                            "No hay contenidos",
+                            "No se encontraron contenidos educativos disponibles",
+                            this::recargarContenidos)),
+                    error -> {
+                        LOGGER.log(Level.SEVERE, "Error en recarga de contenidos", error);
+                        if (feed.getMostrados().isEmpty()) {
+                            listado.mostrarMensaje(crearMensajeUI("Error", error.getMessage(), this::recargarContenidos));
+                        }
+                        mostrarAlerta("Error", "Error al obtener contenidos: " + error.getMessage(), Alert.AlertType.ERROR);
+                    });
+            carga.vigilar(listado);
+            carga.iniciar(primeraPagina(pipeline, paginador, feed, sync));
+            cargaContenidos = carga;
         }
-
-        return resultado;
     }
 
     /**
@@ -267,127 +287,120 @@ public class ControladorPrincipal {
         panel.getChildren().add(crearScrollPane(contenedor));
     }*/
 
-    /**
-     * Crea items de contenido con el MISMO ESTILO que las solicitudes
-     */
-    private Node crearItemContenidoEstiloSolicitud(JsonObject contenido) {
-        VBox item = new VBox(5);
-        item.getStyleClass().add("contenido-item");
-        item.setStyle("-fx-background-color: white; -fx-border-color: #ddd; -fx-border-radius: 5; -fx-padding: 10;");
-
-        Label titulo = new Label(contenido.get("titulo").getAsString());
-        titulo.setStyle("-fx-font-size: 14px; -fx-font-weight: bold;");
-        titulo.setMaxWidth(Double.MAX_VALUE);
-        titulo.setWrapText(true);
-
-        HBox metadatos = new HBox(8);
-        metadatos.setAlignment(Pos.CENTER_LEFT);
-
-        Label autor = new Label("👤 " + contenido.get("autor").getAsString());
-        Label tipo = new Label("📋 " + contenido.get("tipo").getAsString());
-
-        metadatos.getChildren().addAll(autor, tipo);
-
-        TextArea descripcion = new TextArea(contenido.get("descripcion").getAsString());
-        descripcion.setEditable(false);
-        descripcion.setWrapText(true);
-        descripcion.setPrefRowCount(3);
-        descripcion.setStyle("-fx-background-color: transparent; -fx-border-color: transparent;");
-
-        String contenidoStr = contenido.get("contenido").getAsString();
-        TextArea areaContenido = new TextArea(contenidoStr.length() > 100 ? contenidoStr.substring(0, 100) + "..." : contenidoStr);
-        areaContenido.setEditable(false);
-        areaContenido.setWrapText(true);
-        areaContenido.setPrefRowCount(2);
-        areaContenido.setStyle("-fx-background-color: #f9f9f9;");
-
-        item.getChildren().addAll(titulo, metadatos, descripcion, areaContenido);
-        return item;
-    }
-
-    private JsonArray obtenerContenidosDelServidor() throws IOException {
-        JsonArray contenidos = cliente.obtenerTodosContenidos();
-
-        if (contenidos == null || contenidos.size() == 0) {
-            return crearMensajeInformacion("Sin contenidos", "No se encontraron contenidos educativos");
-        }
-        return contenidos;
-    }
-
     /**
      * Recarga las solicitudes de ayuda desde el servidor
      */
     @FXML
     private void recargarSolicitudes() {
-        if (usuarioData != null && usuarioData.has("id")) {
-            panelSolicitudes.getChildren().clear();
-
-            ejecutarTareaAsync(
-                    () -> {
-                        try {
-                            JsonArray solicitudes = cliente.obtenerTodasSolicitudes();
-                            if (solicitudes == null || solicitudes.size() == 0) {
-                                return crearMensajeInformacion(
-                                        "No hay solicitudes",
-                                        "No se encontraron solicitudes pendientes");
-                            }
-                            // Filtrar posibles duplicados
-                            return filtrarDuplicadosSolicitudes(solicitudes);
-                        } catch (IOException e) {
-                            throw new RuntimeException("Error al obtener solicitudes: " + e.getMessage(), e);
-                        }
-                    },
-                    solicitudes -> Platform.runLater(() -> {
-                        mostrarSolicitudesEnPanel(solicitudes, panelSolicitudes);
-                        notificarListeners("solicitudes", solicitudes);
-                    }),
-                    error -> Platform.runLater(() -> {
-                        mostrarSolicitudesEnPanel(crearMensajeError(error), panelSolicitudes);
-                        mostrarAlerta("Error", error.getMessage(), Alert.AlertType.ERROR);
-                    }),
-                    "recarga de solicitudes"
-            );
+        if (cargaSolicitudes == null) {
+            cargarSolicitudes(null);
+            return;
+        }
+        Runnable recargaCompleta = () -> syncSolicitudes = recargarCompleto(cargaSolicitudes, feedSolicitudes,
+                Mensaje.SOLICITUDES, "SINCRONIZAR_SOLICITUDES", ControladorPrincipal::claveSolicitud);
+        if (!syncSolicitudes.tieneVersion()) {
+            recargaCompleta.run();
+            return;
         }
+        sincronizar(syncSolicitudes, feedSolicitudes, "solicitudes", this::notificarSolicitudes, recargaCompleta);
     }
 
-    private JsonArray filtrarDuplicadosSolicitudes(JsonArray solicitudes) {
-        Set<String> idsUnicos = new HashSet<>();
-        JsonArray resultado = new JsonArray();
-
-        for (JsonElement elemento : solicitudes) {
-            JsonObject solicitud = elemento.getAsJsonObject();
-            String id = solicitud.has("id") ? solicitud.get("id").getAsString() :
-                    (solicitud.has("fecha") ? solicitud.get("fecha").getAsString() : null);
-
-            if (id == null || !idsUnicos.contains(id)) {
-                resultado.add(solicitud);
-                if (id != null) {
-                    idsUnicos.add(id);
-                }
+    /**
+     * Vuelve a pedir un listado desde la primera página y lo concilia por id con el mostrado: solo
+     * se insertan, quitan, mueven o actualizan las filas que cambiaron, y la lista no pierde su
+     * desplazamiento. La copia local empieza de nuevo con lo recibido.
+     * @return El sincronizador que reemplaza al del listado
+     */
+    private <T> Sincronizador<T> recargarCompleto(CargaPaginada<T> carga, ListaIncremental<T, T> feed, Mensaje<T> listado,
+                                                  String tipoSincronizacion, Function<? super T, String> clave) {
+        Sincronizador<T> sync = cliente.crearSincronizador(tipoSincronizacion, null, listado.getElemento(), clave);
+        feed.alRecibir(sync::registrar);
+        carga.recargar(cliente.paginar(listado, null)).whenComplete((pagina, error) -> {
+            if (pagina != null) {
+                sync.fijarVersionInicial(pagina.getVersion());
             }
-        }
+        });
+        return sync;
+    }
 
-        return resultado;
+    /**
+     * Pide los cambios de un listado y los aplica en su lugar sobre los elementos mostrados.
+     * @param recargaCompleta Se ejecuta si el servidor no entrega los cambios
+     */
+    private <T> void sincronizar(Sincronizador<T> sync, ListaIncremental<T, T> feed, String tipo,
+                                 Consumer<List<T>> notificar, Runnable recargaCompleta) {
+        sync.sincronizarAsync().whenComplete((cambios, error) -> Platform.runLater(() -> {
+            if (sync != syncContenidos && sync != syncSolicitudes) {
+                return; // El listado se volvió a cargar completo mientras tanto
+            }
+            if (error != null) {
+                LOGGER.log(Level.INFO, "Sin sincronización por cambios de " + tipo + ", se recarga completo", error);
+                recargaCompleta.run();
+                return;
+            }
+            if (!cambios.estaVacio()) {
+                System.out.println("[DEBUG] Cambios en " + tipo + ": " + cambios.getCreados().size() + " nuevos, "
+                        + cambios.getActualizados().size() + " actualizados, " + cambios.getEliminados().size() + " eliminados");
+                feed.aplicar(cambios);
+            }
+            notificar.accept(feed.getMostrados());
+        }));
     }
 
-    private JsonArray obtenerSolicitudesDelServidor() throws IOException {
-        JsonArray solicitudes = cliente.obtenerTodasSolicitudes();
+    /**
+     * Pide la primera página de un listado y toma su versión como punto de partida de la sincronización.
+     */
+    private <T> CompletableFuture<Pagina<T>> primeraPagina(Pipeline pipeline, Paginador<T> paginador,
+                                                           ListaIncremental<T, T> feed, Sincronizador<T> sync) {
+        CompletableFuture<Pagina<T>> primera = pipeline != null
+                ? pipeline.agregarPagina(paginador, feed)
+                : paginador.siguienteAsync(feed);
+        return primera.whenComplete((pagina, error) -> {
+            if (pagina != null) {
+                sync.fijarVersionInicial(pagina.getVersion());
+            }
+        });
+    }
 
-        if (solicitudes == null || solicitudes.size() == 0) {
-            return crearMensajeInformacion("No hay solicitudes", "No se encontraron solicitudes pendientes");
+    /**
+     * Muestra las solicitudes por páginas, igual que {@link #cargarContenidos(Pipeline)}.
+     * @param pipeline Pipeline en el que encolar la primera página, o null para pedirla directamente
+     */
+    private void cargarSolicitudes(Pipeline pipeline) {
+        if (usuarioData != null && usuarioData.has("id")) {
+            FeedVirtual<SolicitudAyuda> listado = new FeedVirtual<>(() -> new VistaSolicitud(true));
+            listado.colocarEn(panelSolicitudes);
+
+            Paginador<SolicitudAyuda> paginador = cliente.paginar(Mensaje.SOLICITUDES, null);
+            ListaIncremental<SolicitudAyuda, SolicitudAyuda> feed = new ListaIncremental<>(listado.getItems(),
+                    Function.identity(), ControladorPrincipal::claveSolicitud);
+            Sincronizador<SolicitudAyuda> sync = cliente.crearSincronizador("SINCRONIZAR_SOLICITUDES", null,
+                    SolicitudAyuda.class, ControladorPrincipal::claveSolicitud);
+            feed.alRecibir(sync::registrar);
+            syncSolicitudes = sync;
+            feedSolicitudes = feed;
+
+            CargaPaginada<SolicitudAyuda> carga = new CargaPaginada<>(paginador, feed,
+                    () -> notificarSolicitudes(feed.getMostrados()),
+                    () -> listado.mostrarMensaje(crearMensajeUI(
+                            "No hay solicitudes",
+                            "No se encontraron solicitudes pendientes",
+                            this::recargarSolicitudes)),
+                    error -> {
+                        LOGGER.log(Level.SEVERE, "Error en recarga de solicitudes", error);
+                        if (feed.getMostrados().isEmpty()) {
+                            listado.mostrarMensaje(crearMensajeUI("Error", error.getMessage(), this::recargarSolicitudes));
+                        }
+                        mostrarAlerta("Error", "Error al obtener solicitudes: " + error.getMessage(), Alert.AlertType.ERROR);
+                    });
+            carga.vigilar(listado);
+            carga.iniciar(primeraPagina(pipeline, paginador, feed, sync));
+            cargaSolicitudes = carga;
         }
-        return solicitudes;
     }
 
     private boolean esFechaValida(String fechaStr) {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        sdf.setLenient(false);
-        try {
-            sdf.parse(fechaStr);
-            return true;
-        } catch (ParseException e) {
-            return false;
-        }
+        return Fechas.leerDia(fechaStr) != null;
     }
 
     /**
@@ -408,34 +421,21 @@ public class ControladorPrincipal {
             return;
         }
 
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     try {
-                        JsonObject solicitud = new JsonObject();
-                        solicitud.addProperty("tipo", "BUSCAR_CONTENIDO");
-
                         JsonObject datos = new JsonObject();
                         datos.addProperty("criterio", tipoBusqueda);
                         datos.addProperty("busqueda", busqueda);
                         datos.addProperty("userId", usuarioData.get("id").getAsString());
 
-                        solicitud.add("datos", datos);
-
-                        cliente.getSalida().println(solicitud.toString());
-                        String respuesta = cliente.getEntrada().readLine();
-                        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
-
-                        if (!jsonRespuesta.get("exito").getAsBoolean()) {
-                            throw new RuntimeException(jsonRespuesta.get("mensaje").getAsString());
-                        }
-
-                        return jsonRespuesta.getAsJsonArray("resultados");
+                        return cliente.obtenerLista(Mensaje.BUSQUEDA_CONTENIDOS, datos);
                     } catch (Exception e) {
                         throw new RuntimeException("Error al buscar contenidos: " + e.getMessage(), e);
                     }
                 },
                 resultados -> {
-                    if (resultados.size() == 0) {
+                    if (resultados.isEmpty()) {
                         Platform.runLater(() ->
                                 mostrarAlerta("Sin resultados", "No se encontraron contenidos con esos criterios", Alert.AlertType.INFORMATION)
                         );
@@ -451,92 +451,16 @@ public class ControladorPrincipal {
         );
     }
 
-    private void mostrarVistaBusqueda(JsonArray resultados, String tipoBusqueda, String terminoBusqueda) {
+    private void mostrarVistaBusqueda(List<Contenido> resultados, String tipoBusqueda, String terminoBusqueda) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/buscar.fxml"));
-            Parent root = loader.load();
-
-            ControladorBuscar controlador = loader.getController();
-            controlador.inicializar(resultados, tipoBusqueda, terminoBusqueda, cliente, usuarioData);
-
-            Stage stage = new Stage();
-            stage.setTitle("Resultados de búsqueda");
-            stage.setScene(new Scene(root));
-            stage.show();
+            Vistas.Vista<ControladorBuscar> vista = Vistas.cargar("buscar.fxml");
+            vista.getControlador().inicializar(resultados, tipoBusqueda, terminoBusqueda, cliente, usuarioData);
+            vista.ventana("Resultados de búsqueda", null).show();
         } catch (IOException e) {
             manejarError("mostrar vista de búsqueda", e);
         }
     }
 
-    private JsonArray buscarContenidoEnServidor(String tipoBusqueda, String busqueda) throws IOException {
-        JsonObject solicitud = new JsonObject();
-        solicitud.addProperty("tipo", "BUSCAR_CONTENIDO");
-
-        JsonObject datos = new JsonObject();
-        datos.addProperty("criterio", tipoBusqueda);
-        datos.addProperty("busqueda", busqueda);
-        datos.addProperty("userId", usuarioData.get("id").getAsString());
-
-        solicitud.add("datos", datos);
-
-        cliente.getSalida().println(solicitud.toString());
-        String respuesta = cliente.getEntrada().readLine();
-        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
-
-        if (!jsonRespuesta.get("exito").getAsBoolean()) {
-            throw new RuntimeException(jsonRespuesta.get("mensaje").getAsString());
-        }
-
-        return jsonRespuesta.getAsJsonArray("resultados");
-    }
-
-
-    /**
-     * Muestra las solicitudes de ayuda en el panel especificado
-     */
-
-    private void mostrarSolicitudesEnPanel(JsonArray solicitudes, Pane panel) {
-        VBox contenedor = new VBox(10);
-        contenedor.setPadding(new Insets(10));
-        contenedor.setStyle("-fx-background-color: #f5f5f5;");
-        contenedor.setMaxWidth(panel.getWidth() - 20);
-
-        // Limpiar contenedor primero
-        contenedor.getChildren().clear();
-
-        if (esMensajeEspecial(solicitudes)) {
-            JsonObject mensaje = solicitudes.get(0).getAsJsonObject();
-            contenedor.getChildren().add(crearMensajeUI(
-                    mensaje.get("titulo").getAsString(),
-                    mensaje.get("detalle").getAsString(),
-                    this::recargarSolicitudes
-            ));
-        } else {
-            Set<String> idsMostrados = new HashSet<>();
-            for (JsonElement elemento : solicitudes) {
-                try {
-                    JsonObject solicitud = elemento.getAsJsonObject();
-                    String id = solicitud.has("id") ? solicitud.get("id").getAsString() :
-                            solicitud.has("fecha") ? solicitud.get("fecha").getAsString() : null;
-
-                    if (id == null || !idsMostrados.contains(id)) {
-                        contenedor.getChildren().add(crearItemSolicitud(solicitud));
-                        if (id != null) {
-                            idsMostrados.add(id);
-                        }
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Error al procesar solicitud", e);
-                }
-            }
-        }
-        ScrollPane scrollPane = crearScrollPane(contenedor);
-        scrollPane.setPrefViewportWidth(panel.getWidth() - 15);
-        panel.getChildren().clear();
-        panel.getChildren().add(scrollPane);
-    }
-
-
     /*
      * Crea un ítem de contenido educativo para mostrar en la UI (versión mejorada)
      */
@@ -559,7 +483,7 @@ public class ControladorPrincipal {
         metadatos.setAlignment(Pos.CENTER_LEFT);
 
         Label autor = new Label("👤 " + contenido.get("autor").getAsString());
-        Label fecha = new Label("📅 " + formatFechaContenido(contenido.get("fechaCreacion").getAsString()));
+        Label fecha = new Label("📅 " + Fechas.mostrar(contenido.get("fechaCreacion").getAsString()));
         Label tema = new Label("🏷 " + contenido.get("tema").getAsString());
         Label tipo = new Label("📋 " + contenido.get("tipo").getAsString());
 
@@ -581,110 +505,6 @@ public class ControladorPrincipal {
         return item;
     }
 */
-    /**
-     * Mejora el formato de visualización del contenido según su tipo
-     */
-    private Node crearVisualizacionContenido(JsonObject contenido) {
-        String tipo = contenido.get("tipo").getAsString();
-        String contenidoStr = contenido.get("contenido").getAsString();
-
-        if (tipo.equals("ENLACE")) {
-            HBox linkContainer = new HBox();
-            linkContainer.setAlignment(Pos.CENTER_LEFT);
-
-            Hyperlink link = new Hyperlink(contenidoStr);
-            link.setStyle("-fx-text-fill: #0066cc; -fx-underline: true;");
-            link.setOnAction(e -> {
-                try {
-                    java.awt.Desktop.getDesktop().browse(new java.net.URI(contenidoStr));
-                } catch (Exception ex) {
-                    mostrarAlerta("Error", "No se pudo abrir el enlace: " + ex.getMessage(), Alert.AlertType.ERROR);
-                }
-            });
-
-            Label icono = new Label("🌐");
-            linkContainer.getChildren().addAll(icono, link);
-            return linkContainer;
-        } else {
-            TextArea areaTexto = new TextArea(contenidoStr);
-            areaTexto.setEditable(false);
-            areaTexto.setWrapText(true);
-            areaTexto.setPrefRowCount(4); // Limitar altura
-            areaTexto.setFocusTraversable(false);
-            areaTexto.setStyle("-fx-background-color: #f9f9f9;");
-            return areaTexto;
-        }
-    }
-
-    private String formatFechaContenido(String fechaStr) {
-        try {
-            SimpleDateFormat formatoOriginal = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-            Date fecha = formatoOriginal.parse(fechaStr);
-            return new SimpleDateFormat("dd/MM/yyyy HH:mm").format(fecha);
-        } catch (Exception e) {
-            return fechaStr;
-        }
-    }
-
-    /**
-     * Crea un ítem de solicitud de ayuda para mostrar en la UI
-     */
-
-    private Node crearItemSolicitud(JsonObject solicitud) {
-        VBox item = new VBox();
-        item.getStyleClass().add("solicitud-item");
-
-
-        String tema = solicitud.has("tema") ? solicitud.get("tema").getAsString() : "Sin tema";
-        String descripcion = solicitud.has("descripcion") ? solicitud.get("descripcion").getAsString() : "";
-        String urgencia = solicitud.has("urgencia") ? solicitud.get("urgencia").getAsString() : "MEDIA";
-        String estado = solicitud.has("estado") ? solicitud.get("estado").getAsString() : "PENDIENTE";
-
-
-        String fechaStr = solicitud.has("fecha") ?
-                (solicitud.get("fecha").isJsonPrimitive() && solicitud.get("fecha").getAsJsonPrimitive().isNumber() ?
-                        formatFecha(solicitud.get("fecha").getAsLong()) :
-                        solicitud.get("fecha").getAsString()) :
-                "Fecha no disponible";
-
-        String solicitante = obtenerNombreSolicitante(solicitud);
-
-        Label temaLabel = new Label(tema);
-        temaLabel.getStyleClass().add("solicitud-titulo");
-        temaLabel.setMaxWidth(Double.MAX_VALUE);
-        temaLabel.setWrapText(true);
-        temaLabel.setMaxHeight(20);
-
-        HBox estadosBox = new HBox(8);
-        estadosBox.getStyleClass().add("solicitud-estados");
-
-        Label urgenciaLabel = new Label("🔺 " + urgencia);
-        urgenciaLabel.getStyleClass().add("urgencia-" + urgencia.toLowerCase());
-
-        Label estadoLabel = new Label("◉ " + estado);
-        estadoLabel.getStyleClass().add("estado-" + estado.toLowerCase());
-
-        estadosBox.getChildren().addAll(urgenciaLabel, estadoLabel);
-
-        TextArea descripcionArea = new TextArea(descripcion);
-        descripcionArea.getStyleClass().add("descripcion-text");
-        descripcionArea.setEditable(false);
-        descripcionArea.setWrapText(true);
-        descripcionArea.setPrefRowCount(3);
-        descripcionArea.setFocusTraversable(false);
-
-        HBox footer = new HBox(8);
-        footer.getStyleClass().add("solicitud-footer");
-        footer.setAlignment(Pos.CENTER_LEFT);
-
-        Label fechaLabel = new Label("📅 " + fechaStr);
-        Label solicitanteLabel = new Label("👤 " + solicitante);
-        footer.getChildren().addAll(fechaLabel, solicitanteLabel);
-
-        item.getChildren().addAll(temaLabel, estadosBox, descripcionArea, footer);
-        return item;
-    }
-
     /**
      * Crea un mensaje UI para mostrar cuando no hay datos o hay errores
      */
@@ -713,63 +533,12 @@ public class ControladorPrincipal {
     }*/
 
 
-    private String obtenerNombreSolicitante(JsonObject solicitud) {
-        if (solicitud.has("solicitanteNombre")) {
-            return solicitud.get("solicitanteNombre").getAsString();
-        } else if (solicitud.has("solicitanteId")) {
-            return "ID: " + solicitud.get("solicitanteId").getAsString().substring(0, 6);
-        }
-        return "Anónimo";
-    }
-
-    private String formatFecha(long millis) {
-        return new SimpleDateFormat("dd/MM/yyyy HH:mm").format(new Date(millis));
+    private void notificarContenidos(List<Contenido> contenidos) {
+        listeners.forEach(listener -> listener.onContenidosActualizados(contenidos));
     }
 
-    private boolean esMensajeEspecial(JsonArray datos) {
-        return datos.size() == 1 && datos.get(0).getAsJsonObject().has("esMensaje");
-    }
-
-    private JsonArray crearMensajeInformacion(String titulo, String detalle) {
-        JsonObject mensaje = new JsonObject();
-        mensaje.addProperty("esMensaje", true);
-        mensaje.addProperty("titulo", titulo);
-        mensaje.addProperty("detalle", detalle);
-
-        JsonArray respuesta = new JsonArray();
-        respuesta.add(mensaje);
-        return respuesta;
-    }
-
-    private JsonArray crearMensajeError(Throwable error) {
-        return crearMensajeInformacion("Error", error.getMessage());
-    }
-
-    private <T> void ejecutarTareaAsync(Supplier<T> tarea, Consumer<T> onSuccess, Consumer<Throwable> onError, String contexto) {
-        Task<T> task = new Task<>() {
-            @Override
-            protected T call() throws Exception {
-                return tarea.get();
-            }
-        };
-
-        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
-        task.setOnFailed(e -> {
-            LOGGER.log(Level.SEVERE, "Error en " + contexto, task.getException());
-            onError.accept(task.getException());
-        });
-
-        executor.execute(task);
-    }
-
-    private void notificarListeners(String tipo, JsonArray datos) {
-        listeners.forEach(listener -> {
-            if ("contenidos".equals(tipo)) {
-                listener.onContenidosActualizados(datos);
-            } else if ("solicitudes".equals(tipo)) {
-                listener.onSolicitudesActualizadas(datos);
-            }
-        });
+    private void notificarSolicitudes(List<SolicitudAyuda> solicitudes) {
+        listeners.forEach(listener -> listener.onSolicitudesActualizadas(solicitudes));
     }
 
     private void manejarError(String contexto, Throwable e) {
@@ -790,16 +559,10 @@ public class ControladorPrincipal {
 
     private void abrirAjustes() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/ajustes-usuario.fxml"));
-            Parent root = loader.load();
+            Vistas.Vista<ControladorAjustesUsuario> vista = Vistas.cargar("ajustes-usuario.fxml");
+            Stage stage = vista.ventana("Ajustes de Usuario", Modality.APPLICATION_MODAL);
 
-            ControladorAjustesUsuario controlador = loader.getController();
-            Stage stage = new Stage();
-            stage.setTitle("Ajustes de Usuario");
-            stage.setScene(new Scene(root));
-            stage.initModality(Modality.APPLICATION_MODAL);
-
-            controlador.inicializar(usuarioData.toString(), cliente, stage);
+            vista.getControlador().inicializar(usuarioData.toString(), cliente, stage);
             stage.showAndWait();
         } catch (IOException e) {
             manejarError("abrir ajustes de usuario", e);
@@ -812,7 +575,7 @@ public class ControladorPrincipal {
             return;
         }
 
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     JsonObject solicitud = new JsonObject();
                     solicitud.addProperty("tipo", "OBTENER_DATOS_PERFIL");
@@ -821,14 +584,11 @@ public class ControladorPrincipal {
                     datos.addProperty("userId", usuarioData.get("id").getAsString());
                     solicitud.add("datos", datos);
 
-                    cliente.getSalida().println(solicitud.toString());
-                    String respuesta = null;
                     try {
-                        respuesta = cliente.getEntrada().readLine();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException(e);
                     }
-                    return JsonParser.parseString(respuesta).getAsJsonObject();
                 },
                 respuesta -> {
                     if (!respuesta.get("exito").getAsBoolean()) {
@@ -860,26 +620,19 @@ public class ControladorPrincipal {
                         ? datosUsuario.get("esModerador").getAsBoolean()
                         : datosUsuario.has("rol") && datosUsuario.get("rol").getAsString().equalsIgnoreCase("MODERADOR");
 
-                String fxmlPath = esModerador
-                        ? "/com/taller/estudiantevistas/fxml/moderador.fxml"
-                        : "/com/taller/estudiantevistas/fxml/perfil.fxml";
-
-                FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-                Parent root = loader.load();
-
+                // El perfil se reutiliza de una apertura a otra; el panel de moderador se carga cada vez
+                Vistas.Vista<?> vista;
                 if (esModerador) {
-                    ControladorModerador controlador = loader.getController();
-                    controlador.inicializar(datosUsuario, cliente);
+                    Vistas.Vista<ControladorModerador> moderador = Vistas.cargar("moderador.fxml");
+                    moderador.getControlador().inicializar(datosUsuario, cliente);
+                    vista = moderador;
                 } else {
-                    ControladorPerfil controlador = loader.getController();
-                    controlador.inicializar(datosUsuario, cliente);
+                    Vistas.Vista<ControladorPerfil> perfil = Vistas.reutilizar("perfil.fxml", Modality.APPLICATION_MODAL);
+                    perfil.getControlador().inicializar(datosUsuario, cliente);
+                    vista = perfil;
                 }
 
-                Stage stage = new Stage();
-                stage.setTitle(esModerador ? "Panel de Moderador" : "Perfil de Usuario");
-                stage.setScene(new Scene(root));
-                stage.initModality(Modality.APPLICATION_MODAL);
-                stage.show();
+                vista.ventana(esModerador ? "Panel de Moderador" : "Perfil de Usuario", Modality.APPLICATION_MODAL).show();
             } catch (IOException e) {
                 manejarError("cargar vista de perfil", e);
             }
@@ -888,17 +641,9 @@ public class ControladorPrincipal {
 
     private void mostrarVistaSolicitudAyuda() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/crear-solicitud.fxml"));
-            Parent root = loader.load();
-
-            ControladorSolicitudAyuda controlador = loader.getController();
-            controlador.inicializar(usuarioData, cliente);
-
-            Stage stage = new Stage();
-            stage.setTitle("Solicitud de Ayuda");
-            stage.setScene(new Scene(root));
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.show();
+            Vistas.Vista<ControladorSolicitudAyuda> vista = Vistas.cargar("crear-solicitud.fxml");
+            vista.getControlador().inicializar(usuarioData, cliente);
+            vista.ventana("Solicitud de Ayuda", Modality.APPLICATION_MODAL).show();
         } catch (IOException e) {
             manejarError("mostrar vista de solicitud", e);
         }
@@ -918,7 +663,7 @@ public class ControladorPrincipal {
             return;
         }
 
-        ejecutarTareaAsync(
+        tareas.ejecutar(
                 () -> {
                     JsonObject solicitud = new JsonObject();
                     solicitud.addProperty("tipo", "OBTENER_GRUPOS_ESTUDIO");
@@ -927,14 +672,11 @@ public class ControladorPrincipal {
                     datos.addProperty("userId", usuarioData.get("id").getAsString());
                     solicitud.add("datos", datos);
 
-                    cliente.getSalida().println(solicitud.toString());
-                    String respuesta = null;
                     try {
-                        respuesta = cliente.getEntrada().readLine();
+                        return cliente.solicitar(solicitud);
                     } catch (IOException e) {
                         throw new RuntimeException(e);
                     }
-                    return JsonParser.parseString(respuesta).getAsJsonObject();
                 },
                 respuesta -> {
                     if (respuesta.get("exito").getAsBoolean()) {
@@ -953,17 +695,9 @@ public class ControladorPrincipal {
 
     private void mostrarVistaContacto(JsonArray grupos) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/contacto.fxml"));
-            Parent root = loader.load();
-
-            ControladorContacto controlador = loader.getController();
-            controlador.inicializar(grupos, usuarioData, cliente);
-
-            Stage stage = new Stage();
-            stage.setTitle("Contactar Grupos de Estudio");
-            stage.setScene(new Scene(root));
-            stage.initModality(Modality.APPLICATION_MODAL);
-            stage.show();
+            Vistas.Vista<ControladorContacto> vista = Vistas.cargar("contacto.fxml");
+            vista.getControlador().inicializar(grupos, usuarioData, cliente);
+            vista.ventana("Contactar Grupos de Estudio", Modality.APPLICATION_MODAL).show();
         } catch (IOException e) {
             manejarError("mostrar vista de contacto", e);
         }
@@ -974,87 +708,16 @@ public class ControladorPrincipal {
         listeners.add(Objects.requireNonNull(listener));
     }
 
-    /////////
-    /**
-     * Crea un ítem de contenido educativo con nuevo estilo
-     */
-    private Node crearItemContenido(JsonObject contenido) {
-        VBox item = new VBox(8);
-        item.getStyleClass().add("contenido-item");
-
-        // Título con icono según tipo
-        HBox tituloBox = new HBox(5);
-        tituloBox.setAlignment(Pos.CENTER_LEFT);
-
-        String tipoContenido = contenido.get("tipo").getAsString();
-        Label iconoTipo = new Label(obtenerIconoTipo(tipoContenido));
-        iconoTipo.setStyle("-fx-font-size: 16px;");
-
-        Label titulo = new Label(contenido.get("titulo").getAsString());
-        titulo.getStyleClass().add("contenido-titulo");
-
-        tituloBox.getChildren().addAll(iconoTipo, titulo);
-
-
-        HBox metadatos = new HBox(10);
-        metadatos.getStyleClass().add("contenido-metadatos");
-
-        Label autor = crearMetadataLabel("👤 " + contenido.get("autor").getAsString());
-        Label fecha = crearMetadataLabel("📅 " + formatFechaContenido(contenido.get("fechaCreacion").getAsString()));
-        Label tema = crearMetadataLabel("🏷 " + contenido.get("tema").getAsString());
-
-        metadatos.getChildren().addAll(autor, fecha, tema);
-
-        Text descripcion = new Text(contenido.get("descripcion").getAsString());
-        descripcion.getStyleClass().add("descripcion-text");
-        descripcion.setWrappingWidth(panelContenidos.getWidth() - 40);
-
-        // Contenido principal
-        Node contenidoVisual = crearVisualizacionContenido(contenido);
-
-        item.getChildren().addAll(tituloBox, metadatos, descripcion, contenidoVisual);
-
-
-        item.setOnMouseEntered(e -> item.setStyle("-fx-border-color: #bdc3c7;"));
-        item.setOnMouseExited(e -> item.setStyle("-fx-border-color: #e0e0e0;"));
-        item.setOnMouseClicked(e -> abrirVistaContenido(contenido));
-        return item;
-    }
-
-    private void abrirVistaContenido(JsonObject contenido) {
+    private void abrirVistaContenido(Contenido contenido) {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/taller/estudiantevistas/fxml/contenido-layout.fxml"));
-            Parent root = loader.load();
-
-            ControladorContenido controlador = loader.getController();
-            controlador.inicializar(contenido, cliente, usuarioData);
-
-            Stage stage = new Stage();
-            stage.setTitle("Detalles del Contenido");
-            stage.setScene(new Scene(root));
-            stage.show();
+            Vistas.Vista<ControladorContenido> vista = Vistas.reutilizar("contenido-layout.fxml", null);
+            vista.getControlador().inicializar(contenido, cliente, usuarioData);
+            vista.ventana("Detalles del Contenido", null).show();
         } catch (IOException e) {
             manejarError("abrir vista de contenido", e);
         }
     }
 
-    private Label crearMetadataLabel(String text) {
-        Label label = new Label(text);
-        label.getStyleClass().add("metadata-label");
-        return label;
-    }
-
-    private String obtenerIconoTipo(String tipo) {
-        switch(tipo.toUpperCase()) {
-            case "VIDEO": return "🎬";
-            case "DOCUMENTO": return "📄";
-            case "ENLACE": return "🔗";
-            case "IMAGEN": return "🖼";
-            case "AUDIO": return "🎧";
-            default: return "📌";
-        }
-    }
-
     /**
      * Crea un ítem de solicitud de ayuda con nuevo estilo
      */
@@ -1091,7 +754,7 @@ public class ControladorPrincipal {
         HBox footer = new HBox(10);
         footer.getStyleClass().add("solicitud-footer");
 
-        String fechaStr = formatFecha(solicitud.get("fecha").getAsLong());
+        String fechaStr = Fechas.mostrar(solicitud.get("fecha").getAsLong());
         String solicitante = obtenerNombreSolicitante(solicitud);
 
         Label fechaLabel = crearMetadataLabel("📅 " + fechaStr);
@@ -1108,36 +771,12 @@ public class ControladorPrincipal {
         return item;
     }*/
 
-    private void mostrarContenidosEnPanel(JsonArray contenidos, Pane panel) {
-        VBox contenedor = new VBox(10);
-        contenedor.setPadding(new Insets(10));
-        contenedor.getStyleClass().add("contenido-panel");
-        contenedor.setMaxWidth(panel.getWidth() - 20);
-
-        if (esMensajeEspecial(contenidos)) {
-            JsonObject mensaje = contenidos.get(0).getAsJsonObject();
-            contenedor.getChildren().add(crearMensajeUI(
-                    mensaje.get("titulo").getAsString(),
-                    mensaje.get("detalle").getAsString(),
-                    this::recargarContenidos
-            ));
-        } else {
-            Set<String> idsMostrados = new HashSet<>();
-            for (JsonElement elemento : contenidos) {
-                JsonObject contenido = elemento.getAsJsonObject();
-                String id = contenido.get("id").getAsString();
-
-                if (!idsMostrados.contains(id)) {
-                    contenedor.getChildren().add(crearItemContenido(contenido));
-                    idsMostrados.add(id);
-                }
-            }
-        }
-
-        ScrollPane scrollPane = crearScrollPane(contenedor);
-        scrollPane.setPrefViewportWidth(panel.getWidth() - 15);
-        panel.getChildren().clear();
-        panel.getChildren().add(scrollPane);
+    /**
+     * Las solicitudes sin id se distinguen por su fecha
+     */
+    private static String claveSolicitud(SolicitudAyuda solicitud) {
+        return solicitud.getId() != null ? solicitud.getId() :
+                (solicitud.getFecha() != null ? String.valueOf(solicitud.getFecha().getTime()) : null);
     }
 /**
     private void mostrarSolicitudesEnPanel(JsonArray solicitudes, Pane panel) {
@@ -1170,19 +809,4 @@ public class ControladorPrincipal {
         panel.getChildren().add(scrollPane);
     }
 */
-private ScrollPane crearScrollPane(Node contenido) {
-    ScrollPane scrollPane = new ScrollPane(contenido);
-    scrollPane.setFitToWidth(true);
-    scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-    scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-    scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
-
-    scrollPane.setPadding(new Insets(0));
-    scrollPane.setPrefViewportWidth(panelContenidos.getWidth() - 15);
-
-    scrollPane.getStyleClass().add("scroll-pane");
-
-    return scrollPane;
 }
-
-}
\ No newline at end of file
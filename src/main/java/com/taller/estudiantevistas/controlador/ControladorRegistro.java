@@ -1,7 +1,5 @@
 package com.taller.estudiantevistas.controlador;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import com.taller.estudiantevistas.dto.Estudiante;
 import com.taller.estudiantevistas.servicio.ClienteServicio;
 import javafx.fxml.FXML;
@@ -24,12 +22,10 @@ public class ControladorRegistro {
     @FXML private Button backButton;
 
     private ClienteServicio clienteServicio;
-    private Gson gson;
 
     public ControladorRegistro() {
         try {
             this.clienteServicio = new ClienteServicio("localhost", 12345);
-            this.gson = new Gson();
         } catch (IOException e) {
             mostrarAlerta("Error", "No se pudo conectar al servidor.");
             e.printStackTrace();
@@ -58,13 +54,7 @@ public class ControladorRegistro {
         try {
             Estudiante nuevoEstudiante = new Estudiante(nombres, correo, contrasena, intereses);
 
-            JsonObject mensaje = new JsonObject();
-            mensaje.addProperty("tipo", "REGISTRO");
-            JsonObject datos = gson.toJsonTree(nuevoEstudiante).getAsJsonObject();
-            mensaje.add("datos", datos);
-
             System.out.println("📤 Enviando solicitud de registro...");
-            System.out.println("JSON enviado al servidor: " + mensaje.toString());
 
             boolean registroExitoso = clienteServicio.registrarEstudiante(nuevoEstudiante);
 
@@ -70,7 +70,10 @@ public class ControladorSolicitudAyuda {
             solicitud.add("datos", datos);
 
 
-            cliente.getSalida().println(solicitud.toString());
+            cliente.solicitarAsync(solicitud).exceptionally(error -> {
+                System.err.println("❌ Error al crear solicitud de ayuda: " + error.getMessage());
+                return null;
+            });
 
             mostrarAlerta("Éxito", "Solicitud creada correctamente", AlertType.INFORMATION);
             limpiarCampos();
@@ -3,10 +3,8 @@ package com.taller.estudiantevistas.controlador;
 import com.google.gson.*;
 import com.taller.estudiantevistas.servicio.ClienteServicio;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
-import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.Parent;
@@ -18,25 +16,16 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 public class ControladorSugerenciasPerfil {
     private static final Logger LOGGER = Logger.getLogger(ControladorSugerenciasPerfil.class.getName());
 
-    private final Executor executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        return t;
-    });
+    private final AmbitoTareas tareas = new AmbitoTareas();
 
     @FXML private Pane panelSugerencias;
     private String userId;
@@ -44,6 +33,7 @@ public class ControladorSugerenciasPerfil {
     private BiConsumer<String, Consumer<JsonArray>> cargadorSugerencias;
 
     public void inicializar(String userId, ClienteServicio cliente, BiConsumer<String, Consumer<JsonArray>> cargadorSugerencias) {
+        tareas.vincular(panelSugerencias);
         this.userId = userId;
         this.cliente = cliente;
         this.cargadorSugerencias = cargadorSugerencias;
@@ -72,7 +62,7 @@ public class ControladorSugerenciasPerfil {
             });
         } else {
             // Opción 2: Solicitud al servidor
-            ejecutarTareaAsync(
+            tareas.ejecutar(
                     () -> {
                         try {
                             LOGGER.info("Preparando solicitud de sugerencias...");
@@ -86,26 +76,15 @@ public class ControladorSugerenciasPerfil {
                             // Debug: Mostrar solicitud que se enviará
                             LOGGER.fine("Enviando solicitud: " + solicitud.toString());
 
-                            // Enviar solicitud
-                            synchronized (cliente.getSalida()) {
-                                cliente.getSalida().println(solicitud.toString());
-                            }
-
-                            // Esperar respuesta con timeout
-                            String respuesta = null;
+                            // Enviar solicitud y esperar su respuesta
                             try {
-                                respuesta = cliente.getEntrada().readLine();
+                                JsonObject respuesta = cliente.solicitar(solicitud);
                                 LOGGER.fine("Respuesta recibida: " + respuesta);
+                                return respuesta;
                             } catch (IOException e) {
                                 LOGGER.severe("Error al leer respuesta: " + e.getMessage());
                                 throw new RuntimeException("Error de comunicación con el servidor", e);
                             }
-
-                            if (respuesta == null || respuesta.isEmpty()) {
-                                throw new RuntimeException("Respuesta vacía del servidor");
-                            }
-
-                            return JsonParser.parseString(respuesta).getAsJsonObject();
                         } catch (Exception e) {
                             LOGGER.severe("Error en la tarea asíncrona: " + e.getMessage());
                             throw e;
@@ -156,62 +135,69 @@ public class ControladorSugerenciasPerfil {
     }
 
     private void mostrarSugerenciasEnPanel(JsonArray sugerencias) {
-        VBox contenedor = new VBox(10);
-        contenedor.setPadding(new Insets(10));
-        contenedor.setStyle("-fx-background-color: #f5f5f5;");
-        contenedor.setMaxWidth(panelSugerencias.getWidth() - 20);
+        FeedVirtual<JsonObject> listado = new FeedVirtual<>(VistaSugerencia::new);
 
         if (esMensajeEspecial(sugerencias)) {
             JsonObject mensaje = sugerencias.get(0).getAsJsonObject();
-            contenedor.getChildren().add(crearMensajeUI(
+            listado.mostrarMensaje(crearMensajeUI(
                     mensaje.get("titulo").getAsString(),
                     mensaje.get("detalle").getAsString(),
                     this::cargarSugerencias
             ));
         } else {
+            List<JsonObject> elementos = new ArrayList<>(sugerencias.size());
             for (JsonElement elemento : sugerencias) {
-                JsonObject sugerencia = elemento.getAsJsonObject();
-                contenedor.getChildren().add(crearItemSugerencia(sugerencia));
+                elementos.add(elemento.getAsJsonObject());
             }
+            listado.getItems().setAll(elementos);
         }
 
-        ScrollPane scrollPane = crearScrollPane(contenedor);
-        scrollPane.setPrefViewportWidth(panelSugerencias.getWidth() - 15);
-        panelSugerencias.getChildren().clear();
-        panelSugerencias.getChildren().add(scrollPane);
+        listado.colocarEn(panelSugerencias);
     }
 
-    private Node crearItemSugerencia(JsonObject sugerencia) {
-        VBox item = new VBox(10);
-        item.getStyleClass().add("sugerencia-item");
-
-        String nombre = sugerencia.has("nombre") ? sugerencia.get("nombre").getAsString() : "Compañero";
-        String intereses = sugerencia.has("intereses") ? sugerencia.get("intereses").getAsString() : "No especificados";
-        String grupo = sugerencia.has("grupo") ? sugerencia.get("grupo").getAsString() : "Sin grupo";
-
-        Label nombreLabel = new Label(nombre);
-        nombreLabel.getStyleClass().add("sugerencia-nombre");
-
-        HBox interesesBox = new HBox(5);
-        interesesBox.setAlignment(Pos.CENTER_LEFT);
-        Label interesesIcon = new Label("🎯");
-        Label interesesLabel = new Label("Intereses: " + intereses);
-        interesesLabel.getStyleClass().add("sugerencia-detalle");
-        interesesBox.getChildren().addAll(interesesIcon, interesesLabel);
-
-        HBox grupoBox = new HBox(5);
-        grupoBox.setAlignment(Pos.CENTER_LEFT);
-        Label grupoIcon = new Label("👥");
-        Label grupoLabel = new Label("Grupo: " + grupo);
-        grupoLabel.getStyleClass().add("sugerencia-detalle");
-        grupoBox.getChildren().addAll(grupoIcon, grupoLabel);
-
-        Button btnContactar = new Button("Contactar");
-        btnContactar.getStyleClass().add("btn-contactar");
-        btnContactar.setOnAction(e -> contactarCompanero(sugerencia));
-
-        item.getChildren().addAll(nombreLabel, interesesBox, grupoBox, btnContactar);
-        return item;
+    /**
+     * Celda de una sugerencia: nombre, intereses, grupo y el botón para contactar.
+     */
+    private class VistaSugerencia implements FeedVirtual.Vista<JsonObject> {
+        private final VBox item = new VBox(10);
+        private final Label nombreLabel = new Label();
+        private final Label interesesLabel = new Label();
+        private final Label grupoLabel = new Label();
+        private JsonObject sugerencia;
+
+        VistaSugerencia() {
+            item.getStyleClass().add("sugerencia-item");
+            nombreLabel.getStyleClass().add("sugerencia-nombre");
+
+            HBox interesesBox = new HBox(5);
+            interesesBox.setAlignment(Pos.CENTER_LEFT);
+            interesesLabel.getStyleClass().add("sugerencia-detalle");
+            interesesBox.getChildren().addAll(new Label("🎯"), interesesLabel);
+
+            HBox grupoBox = new HBox(5);
+            grupoBox.setAlignment(Pos.CENTER_LEFT);
+            grupoLabel.getStyleClass().add("sugerencia-detalle");
+            grupoBox.getChildren().addAll(new Label("👥"), grupoLabel);
+
+            Button btnContactar = new Button("Contactar");
+            btnContactar.getStyleClass().add("btn-contactar");
+            btnContactar.setOnAction(e -> contactarCompanero(sugerencia));
+
+            item.getChildren().addAll(nombreLabel, interesesBox, grupoBox, btnContactar);
+        }
+
+        @Override
+        public Node getNodo() {
+            return item;
+        }
+
+        @Override
+        public void mostrar(JsonObject sugerencia) {
+            this.sugerencia = sugerencia;
+            nombreLabel.setText(FeedVirtual.texto(sugerencia, "nombre", "Compañero"));
+            interesesLabel.setText("Intereses: " + FeedVirtual.texto(sugerencia, "intereses", "No especificados"));
+            grupoLabel.setText("Grupo: " + FeedVirtual.texto(sugerencia, "grupo", "Sin grupo"));
+        }
     }
 
     private void contactarCompanero(JsonObject sugerencia) {
@@ -231,18 +217,6 @@ public class ControladorSugerenciasPerfil {
         }
     }
 
-    private ScrollPane crearScrollPane(Node contenido) {
-        ScrollPane scrollPane = new ScrollPane(contenido);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        scrollPane.setStyle("-fx-background: transparent; -fx-background-color: transparent;");
-        scrollPane.setPadding(new Insets(0));
-        scrollPane.setPrefViewportWidth(panelSugerencias.getWidth() - 15);
-        scrollPane.getStyleClass().add("scroll-pane");
-        return scrollPane;
-    }
-
     private boolean esMensajeEspecial(JsonArray datos) {
         return datos.size() == 1 && datos.get(0).getAsJsonObject().has("esMensaje");
     }
@@ -279,23 +253,6 @@ public class ControladorSugerenciasPerfil {
         return cajaMensaje;
     }
 
-    private <T> void ejecutarTareaAsync(Supplier<T> tarea, Consumer<T> onSuccess, Consumer<Throwable> onError, String contexto) {
-        Task<T> task = new Task<>() {
-            @Override
-            protected T call() throws Exception {
-                return tarea.get();
-            }
-        };
-
-        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
-        task.setOnFailed(e -> {
-            LOGGER.severe("Error en " + contexto + ": " + task.getException().getMessage());
-            onError.accept(task.getException());
-        });
-
-        executor.execute(task);
-    }
-
     private void mostrarAlerta(String titulo, String mensaje, Alert.AlertType tipo) {
         Alert alert = new Alert(tipo);
         alert.setTitle(titulo);
@@ -1,29 +0,0 @@
-package com.taller.estudiantevistas.controlador;
-
-import com.google.gson.*;
-import java.lang.reflect.Type;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-
-public class DateAdapter implements JsonSerializer<Date>, JsonDeserializer<Date> {
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-
-    @Override
-    public synchronized JsonElement serialize(Date date, Type type, JsonSerializationContext jsonSerializationContext) {
-        return new JsonPrimitive(dateFormat.format(date));
-    }
-
-    @Override
-    public synchronized Date deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) {
-        try {
-            if (jsonElement.getAsJsonPrimitive().isNumber()) {
-                return new Date(jsonElement.getAsLong());
-            }
-            return dateFormat.parse(jsonElement.getAsString());
-        } catch (ParseException e) {
-            throw new JsonParseException("Failed to parse date: " + jsonElement.getAsString(), e);
-        }
-    }
-}
\ No newline at end of file
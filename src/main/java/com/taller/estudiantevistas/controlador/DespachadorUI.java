@@ -0,0 +1,249 @@
+package com.taller.estudiantevistas.controlador;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Despacha al hilo de JavaFX las actualizaciones de la interfaz por tandas, con un presupuesto de
+ * tiempo por cuadro, para que escribir y desplazarse sigan fluidos mientras llegan datos.
+ *
+ * <ul>
+ *     <li>En lugar de un {@link Platform#runLater(Runnable)} por actualización, hay a lo sumo uno por
+ *     cuadro, que ejecuta lo pendiente hasta agotar el presupuesto ({@value #PRESUPUESTO_POR_DEFECTO}
+ *     ms por defecto, configurable con {@value #PROPIEDAD_PRESUPUESTO}). Lo que no alcanza queda
+ *     para el cuadro siguiente, después de que JavaFX dispuso y dibujó la escena.</li>
+ *     <li>{@link #reemplazar(Object, String, Runnable)} identifica la actualización de una vista:
+ *     si llega otra para la misma vista antes de ejecutarse, la anterior se descarta.</li>
+ *     <li>{@link #repartir(Object, String, List, Consumer, Runnable)} procesa una lista larga de a
+ *     partes en varios cuadros, en lugar de todo en un solo runnable.</li>
+ * </ul>
+ *
+ * El trabajo corre fuera del pulso de animación, así que puede abrir diálogos con
+ * {@code showAndWait}; lo que llegue mientras el diálogo está abierto espera a que se cierre.
+ * Se puede llamar desde cualquier hilo; el trabajo se ejecuta en orden de llegada.
+ */
+final class DespachadorUI {
+    public static final String PROPIEDAD_PRESUPUESTO = "estudiantevistas.ui.presupuestoMs";
+    static final long PRESUPUESTO_POR_DEFECTO = 8;
+
+    private static final Logger LOGGER = Logger.getLogger(DespachadorUI.class.getName());
+
+    private static final Deque<Entrada> COLA = new ConcurrentLinkedDeque<>();
+    // Última entrada de cada vista; se accede con el candado
+    private static final Map<Object, Entrada> POR_VISTA = new HashMap<>();
+    private static final Object CANDADO = new Object();
+    private static final AtomicLong DESCARTADAS = new AtomicLong();
+    private static final AtomicLong APLAZADAS = new AtomicLong();
+
+    private static volatile long presupuestoNanos = TimeUnit.MILLISECONDS.toNanos(presupuestoInicial());
+    private static boolean programado;
+    private static AnimationTimer proximoCuadro;
+
+    private DespachadorUI() {
+    }
+
+    /**
+     * Ejecuta {@code trabajo} en el hilo de JavaFX, en la próxima tanda.
+     */
+    static void ejecutar(Runnable trabajo) {
+        encolar(null, hecho(trabajo));
+    }
+
+    /**
+     * Como {@link #ejecutar(Runnable)}, pero descarta la actualización pendiente de la misma vista
+     * ({@code duenio} y {@code aspecto}, por ejemplo un controlador y "tabla") si todavía no empezó,
+     * o interrumpe la que esté a medias con {@link #repartir}.
+     */
+    static void reemplazar(Object duenio, String aspecto, Runnable trabajo) {
+        encolar(List.of(duenio, aspecto), hecho(trabajo));
+    }
+
+    /**
+     * Entrega {@code elementos} a {@code porElemento} en el hilo de JavaFX, tantos por cuadro como
+     * quepan en el presupuesto (al menos uno), y al final ejecuta {@code alTerminar}. Reemplaza a
+     * la actualización pendiente de la misma vista, como {@link #reemplazar(Object, String, Runnable)}.
+     */
+    static <T> void repartir(Object duenio, String aspecto, List<T> elementos,
+                             Consumer<? super T> porElemento, Runnable alTerminar) {
+        int[] siguiente = {0};
+        encolar(List.of(duenio, aspecto), limite -> {
+            do {
+                if (siguiente[0] >= elementos.size()) {
+                    alTerminar.run();
+                    return true;
+                }
+                porElemento.accept(elementos.get(siguiente[0]++));
+            } while (System.nanoTime() < limite);
+            return false;
+        });
+    }
+
+    /**
+     * @param milisegundos Tiempo máximo de trabajo por cuadro; una tarea que se pasa no se corta,
+     *                     pero lo que sigue queda para el próximo cuadro
+     */
+    static void setPresupuesto(long milisegundos) {
+        presupuestoNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, milisegundos));
+    }
+
+    static long getPresupuesto() {
+        return TimeUnit.NANOSECONDS.toMillis(presupuestoNanos);
+    }
+
+    /**
+     * @return Actualizaciones descartadas porque llegó otra para la misma vista
+     */
+    static long getDescartadas() {
+        return DESCARTADAS.get();
+    }
+
+    /**
+     * @return Veces que lo pendiente no cupo en el presupuesto y pasó al cuadro siguiente
+     */
+    static long getAplazadas() {
+        return APLAZADAS.get();
+    }
+
+    private static void encolar(Object vista, Trabajo trabajo) {
+        Entrada entrada;
+        synchronized (CANDADO) {
+            if (vista != null) {
+                Entrada anterior = POR_VISTA.get(vista);
+                if (anterior != null && !anterior.iniciada) {
+                    anterior.trabajo = trabajo;
+                    DESCARTADAS.incrementAndGet();
+                    return;
+                }
+                if (anterior != null) {
+                    anterior.cancelada = true;
+                    DESCARTADAS.incrementAndGet();
+                }
+            }
+            entrada = new Entrada(vista, trabajo);
+            if (vista != null) {
+                POR_VISTA.put(vista, entrada);
+            }
+            COLA.add(entrada);
+            if (programado) {
+                return;
+            }
+            programado = true;
+        }
+        Platform.runLater(DespachadorUI::drenar);
+    }
+
+    /**
+     * Ejecuta lo pendiente hasta agotar el presupuesto; si queda algo, sigue en el próximo cuadro.
+     */
+    private static void drenar() {
+        long limite = System.nanoTime() + presupuestoNanos;
+        while (true) {
+            if (System.nanoTime() >= limite && !COLA.isEmpty()) {
+                APLAZADAS.incrementAndGet();
+                esperarProximoCuadro();
+                return;
+            }
+            Entrada entrada = COLA.pollFirst();
+            if (entrada == null) {
+                synchronized (CANDADO) {
+                    if (COLA.isEmpty()) {
+                        programado = false;
+                        return;
+                    }
+                }
+                continue;
+            }
+
+            Trabajo trabajo;
+            synchronized (CANDADO) {
+                entrada.iniciada = true;
+                trabajo = entrada.cancelada ? null : entrada.trabajo;
+            }
+            boolean terminado = true;
+            if (trabajo != null) {
+                try {
+                    terminado = trabajo.avanzar(limite);
+                } catch (Exception e) {
+                    LOGGER.log(Level.WARNING, "Error en una actualización de la interfaz", e);
+                }
+            }
+            if (!terminado && !entrada.cancelada) {
+                COLA.offerFirst(entrada); // Sigue primero en el cuadro siguiente
+            } else if (entrada.vista != null) {
+                synchronized (CANDADO) {
+                    POR_VISTA.remove(entrada.vista, entrada);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sigue drenando después del próximo pulso, ya fuera de él.
+     */
+    private static void esperarProximoCuadro() {
+        if (proximoCuadro == null) {
+            proximoCuadro = new AnimationTimer() {
+                @Override
+                public void handle(long ahora) {
+                    stop();
+                    Platform.runLater(DespachadorUI::drenar);
+                }
+            };
+        }
+        proximoCuadro.start();
+    }
+
+    private static Trabajo hecho(Runnable trabajo) {
+        return limite -> {
+            trabajo.run();
+            return true;
+        };
+    }
+
+    private static long presupuestoInicial() {
+        String valor = System.getProperty(PROPIEDAD_PRESUPUESTO);
+        if (valor == null) {
+            return PRESUPUESTO_POR_DEFECTO;
+        }
+        try {
+            return Math.max(1, Long.parseLong(valor.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Valor inválido para " + PROPIEDAD_PRESUPUESTO + ": '" + valor + "'");
+            return PRESUPUESTO_POR_DEFECTO;
+        }
+    }
+
+    /**
+     * Trabajo que puede hacerse de a partes.
+     */
+    private interface Trabajo {
+        /**
+         * @param limite {@link System#nanoTime()} en el que se acaba el presupuesto del cuadro
+         * @return true si terminó; false si queda trabajo para el cuadro siguiente
+         */
+        boolean avanzar(long limite);
+    }
+
+    private static final class Entrada {
+        final Object vista;
+        Trabajo trabajo;
+        boolean iniciada;
+        volatile boolean cancelada;
+
+        Entrada(Object vista, Trabajo trabajo) {
+            this.vista = vista;
+            this.trabajo = trabajo;
+        }
+    }
+}
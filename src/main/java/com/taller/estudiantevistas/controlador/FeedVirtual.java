@@ -0,0 +1,129 @@
+package com.taller.estudiantevistas.controlador;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import javafx.scene.Node;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Listado virtualizado de contenidos, solicitudes o sugerencias.
+ *
+ * Sobre un {@link ListView}, solo existen las celdas que caben en pantalla; al desplazarse, cada
+ * celda pasa a mostrar otro elemento con la misma {@link Vista}, que se crea una vez por celda y
+ * luego solo se vuelve a llenar. Un listado de miles de elementos cuesta en nodos lo mismo que uno
+ * de diez, y agregar elementos no construye nada hasta que se ven.
+ *
+ * Los elementos se agregan a {@link #getItems()}, normalmente con una {@link ListaIncremental}.
+ * Mientras la lista está vacía se muestra el mensaje de {@link #mostrarMensaje(Node)}.
+ * @param <E> Tipo de los elementos del listado
+ */
+class FeedVirtual<E> extends ListView<E> {
+    private static final Logger LOGGER = Logger.getLogger(FeedVirtual.class.getName());
+
+    /**
+     * Nodos de una celda, reutilizables para cualquier elemento del listado.
+     */
+    interface Vista<E> {
+        Node getNodo();
+
+        /**
+         * Llena los nodos con los datos de {@code elemento}, que reemplaza al anterior.
+         */
+        void mostrar(E elemento);
+    }
+
+    private IntConsumer alMostrarFila = indice -> { };
+
+    /**
+     * @param fabricaVistas Crea la vista de una celda nueva; se llama solo por las celdas visibles
+     */
+    FeedVirtual(Supplier<? extends Vista<? super E>> fabricaVistas) {
+        getStyleClass().add("feed-virtual");
+        setFocusTraversable(false);
+        setPlaceholder(new Region());
+        setCellFactory(lista -> new Celda(fabricaVistas));
+    }
+
+    /**
+     * Reemplaza el contenido de {@code panel} por el listado, que ocupa todo el panel.
+     */
+    void colocarEn(Pane panel) {
+        prefWidthProperty().bind(panel.widthProperty());
+        prefHeightProperty().bind(panel.heightProperty());
+        panel.getChildren().setAll(this);
+    }
+
+    /**
+     * Vacía el listado y muestra {@code mensaje} en su lugar (sin elementos, error).
+     */
+    void mostrarMensaje(Node mensaje) {
+        getItems().clear();
+        setPlaceholder(mensaje);
+    }
+
+    /**
+     * Recibe el índice de cada fila que se llena para mostrarse, por ejemplo para pedir la página
+     * siguiente al llegar a las últimas.
+     */
+    void alMostrarFila(IntConsumer observador) {
+        this.alMostrarFila = observador;
+    }
+
+    /**
+     * @return El texto del campo, o {@code porDefecto} si falta o es null
+     */
+    static String texto(JsonObject elemento, String campo, String porDefecto) {
+        JsonElement valor = elemento.get(campo);
+        return valor != null && !valor.isJsonNull() ? valor.getAsString() : porDefecto;
+    }
+
+    /**
+     * Deja en {@code nodo} una sola clase de estilo que empiece con {@code prefijo}: la de
+     * {@code prefijo + valor}. Una celda reutilizada no debe conservar la del elemento anterior.
+     */
+    static void cambiarClase(Node nodo, String prefijo, String valor) {
+        nodo.getStyleClass().removeIf(clase -> clase.startsWith(prefijo));
+        nodo.getStyleClass().add(prefijo + valor);
+    }
+
+    private final class Celda extends ListCell<E> {
+        private final Supplier<? extends Vista<? super E>> fabricaVistas;
+        private Vista<? super E> vista;
+
+        Celda(Supplier<? extends Vista<? super E>> fabricaVistas) {
+            this.fabricaVistas = fabricaVistas;
+            // Sin ancho propio la celda toma el de la lista y los textos largos se ajustan a él
+            setPrefWidth(0);
+        }
+
+        @Override
+        protected void updateItem(E elemento, boolean vacia) {
+            super.updateItem(elemento, vacia);
+            setText(null);
+            if (vacia || elemento == null) {
+                setGraphic(null);
+                return;
+            }
+            if (vista == null) {
+                vista = fabricaVistas.get();
+            }
+            try {
+                vista.mostrar(elemento);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error al mostrar elemento", e);
+                setGraphic(null);
+                return;
+            }
+            setGraphic(vista.getNodo());
+            alMostrarFila.accept(getIndex());
+        }
+    }
+}
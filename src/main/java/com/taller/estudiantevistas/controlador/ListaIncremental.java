@@ -0,0 +1,313 @@
+package com.taller.estudiantevistas.controlador;
+
+import com.taller.estudiantevistas.servicio.Cambios;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Agrega a una lista de la interfaz (los hijos de un panel, las filas de una tabla) los
+ * elementos de un listado a medida que llegan del servidor.
+ *
+ * {@link #accept(Object)} se puede llamar desde cualquier hilo (normalmente el lector de la
+ * conexión); los elementos se acumulan y se agregan en bloque en el hilo de JavaFX con el
+ * {@link DespachadorUI}, con a lo sumo una actualización pendiente a la vez. Los elementos con una clave ya mostrada se omiten.
+ *
+ * Con {@link #aplicar(Cambios)} la lista se pone al día en su lugar, sin volver a construirla.
+ *
+ * @param <E> Tipo de los elementos del listado, el DTO del mensaje o {@code JsonObject}
+ * @param <T> Tipo de los elementos de la lista destino
+ */
+class ListaIncremental<E, T> implements Consumer<E> {
+    private static final Logger LOGGER = Logger.getLogger(ListaIncremental.class.getName());
+
+    private final List<? super T> destino;
+    private final Function<? super E, T> fabrica;
+    private final Function<? super E, String> clave;
+
+    // Solo se tocan desde el hilo de JavaFX
+    private final Map<String, T> porClave = new HashMap<>();
+    private final List<E> mostrados = new ArrayList<>();
+
+    private final List<E> recibidos = new ArrayList<>();
+    private boolean actualizacionPendiente;
+    private Consumer<? super E> alRecibir = elemento -> { };
+
+    /**
+     * @param destino Lista a la que se agregan los elementos, por ejemplo {@code panel.getChildren()}
+     * @param fabrica Crea el elemento de la interfaz; si devuelve null el elemento se omite
+     * @param clave Identifica elementos repetidos; puede devolver null si el elemento no tiene clave
+     */
+    ListaIncremental(List<? super T> destino, Function<? super E, T> fabrica, Function<? super E, String> clave) {
+        this.destino = destino;
+        this.fabrica = fabrica;
+        this.clave = clave;
+    }
+
+    /**
+     * Entrega además cada elemento recibido a {@code almacen}, en el hilo que lo recibe,
+     * por ejemplo para llevar la copia local de un {@link com.taller.estudiantevistas.servicio.Sincronizador}.
+     */
+    void alRecibir(Consumer<? super E> almacen) {
+        this.alRecibir = almacen;
+    }
+
+    @Override
+    public void accept(E elemento) {
+        alRecibir.accept(elemento);
+        boolean programar;
+        synchronized (recibidos) {
+            recibidos.add(elemento);
+            programar = !actualizacionPendiente;
+            actualizacionPendiente = true;
+        }
+        if (programar) {
+            DespachadorUI.ejecutar(this::volcar);
+        }
+    }
+
+    /**
+     * Agrega lo que quede pendiente y luego ejecuta {@code alTerminar}, ambos en el hilo de JavaFX.
+     * Debe llamarse después del último {@link #accept(Object)} de una respuesta.
+     */
+    void finalizar(Runnable alTerminar) {
+        DespachadorUI.ejecutar(() -> {
+            volcar();
+            alTerminar.run();
+        });
+    }
+
+    /**
+     * @return Elementos agregados a la lista hasta ahora, sin repetidos
+     */
+    List<E> getMostrados() {
+        return new ArrayList<>(mostrados);
+    }
+
+    /**
+     * Quita los eliminados, reemplaza los actualizados en su misma posición y agrega los
+     * creados al principio. Se llama desde el hilo de JavaFX.
+     */
+    void aplicar(Cambios<? extends E> cambios) {
+        volcar();
+
+        for (String id : cambios.getEliminados()) {
+            T anterior = porClave.remove(id);
+            if (anterior != null) {
+                destino.remove(anterior);
+                mostrados.removeIf(elemento -> id.equals(clave.apply(elemento)));
+            }
+        }
+
+        for (E actualizado : cambios.getActualizados()) {
+            String id = clave.apply(actualizado);
+            T anterior = id != null ? porClave.get(id) : null;
+            int posicion = anterior != null ? destino.indexOf(anterior) : -1;
+            T nuevo = posicion >= 0 ? crear(actualizado) : null;
+            if (nuevo == null) {
+                continue;
+            }
+            destino.set(posicion, nuevo);
+            porClave.put(id, nuevo);
+            mostrados.replaceAll(elemento -> id.equals(clave.apply(elemento)) ? actualizado : elemento);
+        }
+
+        List<T> nuevos = new ArrayList<>();
+        List<E> creados = new ArrayList<>();
+        for (E creado : cambios.getCreados()) {
+            String id = clave.apply(creado);
+            if (id != null && porClave.containsKey(id)) {
+                continue;
+            }
+            T nuevo = crear(creado);
+            if (nuevo != null) {
+                nuevos.add(nuevo);
+                creados.add(creado);
+                if (id != null) {
+                    porClave.put(id, nuevo);
+                }
+            }
+        }
+        destino.addAll(0, nuevos);
+        mostrados.addAll(0, creados);
+    }
+
+    /**
+     * Pone la lista al día con {@code actuales}, el listado completo tal como está ahora en el
+     * servidor, comparando por clave: quita los que ya no están, reemplaza los que cambiaron, mueve
+     * los que cambiaron de lugar e inserta los nuevos. Lo que sigue igual no se toca, así que el
+     * trabajo depende del tamaño del cambio y no del listado, y la lista conserva su desplazamiento.
+     * Los elementos sin clave se reemplazan siempre.
+     *
+     * Cada elemento de {@code actuales} se entrega también a {@link #alRecibir(Consumer)}. Supone
+     * que solo esta lista modifica {@code destino}. Se llama desde el hilo de JavaFX.
+     */
+    void reconciliar(List<? extends E> actuales) {
+        volcar();
+
+        Map<String, Integer> posicionNueva = new HashMap<>();
+        List<E> nuevos = new ArrayList<>(actuales.size());
+        for (E elemento : actuales) {
+            alRecibir.accept(elemento);
+            String id = clave.apply(elemento);
+            if (id == null || posicionNueva.putIfAbsent(id, nuevos.size()) == null) {
+                nuevos.add(elemento);
+            }
+        }
+
+        int quitados = 0;
+        for (int i = mostrados.size() - 1; i >= 0; i--) {
+            String id = clave.apply(mostrados.get(i));
+            if (id == null || !posicionNueva.containsKey(id)) {
+                quitar(i);
+                quitados++;
+            }
+        }
+
+        // Quedan en su lugar los que forman la subsecuencia más larga ya ordenada según el listado
+        // nuevo; los demás se sacan y se vuelven a insertar donde corresponde, sin reconstruirlos
+        int[] posiciones = new int[mostrados.size()];
+        for (int i = 0; i < posiciones.length; i++) {
+            posiciones[i] = posicionNueva.get(clave.apply(mostrados.get(i)));
+        }
+        boolean[] quedan = subsecuenciaCreciente(posiciones);
+        Map<String, T> movidos = new HashMap<>();
+        Map<String, E> movidosAntes = new HashMap<>();
+        for (int i = posiciones.length - 1; i >= 0; i--) {
+            if (!quedan[i]) {
+                String id = clave.apply(mostrados.get(i));
+                movidosAntes.put(id, mostrados.get(i));
+                movidos.put(id, quitar(i));
+            }
+        }
+
+        int insertados = 0;
+        int reemplazados = 0;
+        int posicion = 0;
+        for (E nuevo : nuevos) {
+            String id = clave.apply(nuevo);
+            if (id != null && posicion < mostrados.size() && id.equals(clave.apply(mostrados.get(posicion)))) {
+                if (!nuevo.equals(mostrados.get(posicion)) && reemplazar(posicion, id, nuevo)) {
+                    reemplazados++;
+                }
+                posicion++;
+                continue;
+            }
+
+            T elemento = movidos.get(id);
+            if (elemento == null || !nuevo.equals(movidosAntes.get(id))) {
+                elemento = crear(nuevo);
+                if (elemento == null) {
+                    continue;
+                }
+            }
+            destino.add(posicion, elemento);
+            mostrados.add(posicion, nuevo);
+            if (id != null) {
+                porClave.put(id, elemento);
+            }
+            if (!movidos.containsKey(id)) {
+                insertados++;
+            }
+            posicion++;
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Lista conciliada: " + insertados + " nuevos, " + quitados + " quitados, "
+                    + movidos.size() + " movidos, " + reemplazados + " actualizados");
+        }
+    }
+
+    private void volcar() {
+        List<E> lote;
+        synchronized (recibidos) {
+            lote = new ArrayList<>(recibidos);
+            recibidos.clear();
+            actualizacionPendiente = false;
+        }
+
+        List<T> nuevos = new ArrayList<>(lote.size());
+        for (E elemento : lote) {
+            String id = clave.apply(elemento);
+            if (id != null && porClave.containsKey(id)) {
+                continue;
+            }
+            T nuevo = crear(elemento);
+            if (nuevo != null) {
+                nuevos.add(nuevo);
+                mostrados.add(elemento);
+                if (id != null) {
+                    porClave.put(id, nuevo);
+                }
+            }
+        }
+        destino.addAll(nuevos);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T quitar(int posicion) {
+        E elemento = mostrados.remove(posicion);
+        String id = clave.apply(elemento);
+        if (id != null) {
+            porClave.remove(id);
+        }
+        // destino tiene los mismos elementos que mostrados, en el mismo orden
+        return (T) destino.remove(posicion);
+    }
+
+    private boolean reemplazar(int posicion, String id, E actualizado) {
+        T nuevo = crear(actualizado);
+        if (nuevo == null) {
+            return false;
+        }
+        destino.set(posicion, nuevo);
+        mostrados.set(posicion, actualizado);
+        porClave.put(id, nuevo);
+        return true;
+    }
+
+    /**
+     * @return Qué posiciones forman la subsecuencia estrictamente creciente más larga de {@code valores}
+     */
+    private static boolean[] subsecuenciaCreciente(int[] valores) {
+        int[] anterior = new int[valores.length];
+        int[] finales = new int[valores.length];
+        int largo = 0;
+        for (int i = 0; i < valores.length; i++) {
+            int desde = 0;
+            int hasta = largo;
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                if (valores[finales[medio]] < valores[i]) {
+                    desde = medio + 1;
+                } else {
+                    hasta = medio;
+                }
+            }
+            anterior[i] = desde > 0 ? finales[desde - 1] : -1;
+            finales[desde] = i;
+            if (desde == largo) {
+                largo++;
+            }
+        }
+        boolean[] forman = new boolean[valores.length];
+        for (int i = largo > 0 ? finales[largo - 1] : -1; i >= 0; i = anterior[i]) {
+            forman[i] = true;
+        }
+        return forman;
+    }
+
+    private T crear(E elemento) {
+        try {
+            return fabrica.apply(elemento);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error al mostrar elemento", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.taller.estudiantevistas.controlador;
+
+/**
+ * Controlador de una vista que {@link Vistas#reutilizar(String, javafx.stage.Modality)} entrega
+ * más de una vez.
+ */
+interface Reutilizable {
+    /**
+     * Deja la vista como recién cargada: sin los datos, textos, imágenes ni suscripciones de la
+     * apertura anterior, que pudo ser de otro usuario. Se llama en el hilo de JavaFX antes de
+     * volver a inicializar el controlador.
+     */
+    void restablecer();
+}
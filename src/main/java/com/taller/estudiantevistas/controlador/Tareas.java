@@ -0,0 +1,31 @@
+package com.taller.estudiantevistas.controlador;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ejecutor compartido por todos los controladores para el trabajo en segundo plano.
+ *
+ * Cada tarea corre en su propio hilo virtual: esperar una respuesta del servidor no ocupa un
+ * hilo de plataforma y no quedan hilos ociosos acumulándose. Las tareas de una ventana se
+ * lanzan normalmente a través de su {@link AmbitoTareas}.
+ */
+final class Tareas {
+    private static final ExecutorService EJECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("tarea-", 0).factory());
+
+    private Tareas() {
+    }
+
+    static ExecutorService ejecutor() {
+        return EJECUTOR;
+    }
+
+    /**
+     * Ejecuta {@code tarea} en segundo plano sin ámbito; para trabajo que no debe cancelarse
+     * al cerrar una ventana.
+     */
+    static void lanzar(Runnable tarea) {
+        EJECUTOR.execute(tarea);
+    }
+}
@@ -0,0 +1,320 @@
+package com.taller.estudiantevistas.controlador;
+
+import com.taller.estudiantevistas.servicio.Histograma;
+import javafx.application.Platform;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Vigila el hilo de JavaFX: mide cuánto tarda en atender un latido y, cuando uno tarda más que el
+ * umbral, registra quién lo retuvo.
+ *
+ * <ul>
+ *     <li>Un hilo aparte manda cada cuarto de umbral un latido con {@link Platform#runLater(Runnable)},
+ *     de a uno por vez. Lo que tarda en ejecutarse va a un {@link Histograma}
+ *     ({@link #percentil(double)}); sin bloqueos, unos pocos microsegundos. El latido no pide
+ *     pulsos ni disposición de la escena, así que no cambia lo que mide.</li>
+ *     <li>Si el latido pendiente ya lleva el umbral esperando, el hilo toma la pila del hilo de JavaFX
+ *     en ese momento, es decir, la del manejador que lo retiene.</li>
+ *     <li>Cuando el latido por fin se ejecuta, el estancamiento queda en un buffer circular de los
+ *     últimos {@value #CAPACIDAD} ({@link #getEstancamientos()}), con su duración y el primer método
+ *     de un controlador en la pila, y se avisa por el log.</li>
+ * </ul>
+ *
+ * Solo vigila entre {@link #iniciar()} y {@link #detener()}; la aplicación lo inicia si se arranca
+ * con {@code -Destudiantevistas.ui.vigilante=true}. El umbral se configura con
+ * {@code -Destudiantevistas.ui.umbralEstancamientoMs=100} (por defecto {@value #UMBRAL_POR_DEFECTO}).
+ */
+public final class VigilanteFX {
+    public static final String PROPIEDAD_ACTIVO = "estudiantevistas.ui.vigilante";
+    public static final String PROPIEDAD_UMBRAL = "estudiantevistas.ui.umbralEstancamientoMs";
+    static final long UMBRAL_POR_DEFECTO = 100;
+    static final int CAPACIDAD = 64;
+
+    private static final Logger LOGGER = Logger.getLogger(VigilanteFX.class.getName());
+    private static final String PAQUETE = "com.taller.estudiantevistas.";
+
+    private static final Histograma LATENCIAS = new Histograma();
+    private static final Estancamiento[] RECIENTES = new Estancamiento[CAPACIDAD];
+    private static int siguiente;
+    private static long totalEstancamientos;
+
+    private static volatile long umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralInicial());
+    // System.nanoTime() en que se mandó el latido pendiente; 0 si no hay ninguno
+    private static volatile long latidoPendiente;
+    // Pila tomada por el vigilante mientras esperaba el latido pilaDeLatido
+    private static volatile StackTraceElement[] pilaCapturada;
+    private static volatile long pilaDeLatido;
+
+    private static Thread hiloFX;
+    private static Thread vigilante;
+
+    private VigilanteFX() {
+    }
+
+    /**
+     * @return true si se pidió vigilar con {@value #PROPIEDAD_ACTIVO}
+     */
+    public static boolean estaHabilitado() {
+        return Boolean.getBoolean(PROPIEDAD_ACTIVO);
+    }
+
+    /**
+     * Empieza a vigilar; se llama desde el hilo de JavaFX, por ejemplo en {@code Application.start}.
+     * No hace nada si ya está vigilando.
+     */
+    public static synchronized void iniciar() {
+        if (vigilante != null) {
+            return;
+        }
+        if (!Platform.isFxApplicationThread()) {
+            throw new IllegalStateException("VigilanteFX.iniciar debe llamarse desde el hilo de JavaFX");
+        }
+        hiloFX = Thread.currentThread();
+        latidoPendiente = 0;
+
+        vigilante = new Thread(VigilanteFX::vigilar, "vigilante-fx");
+        vigilante.setDaemon(true);
+        vigilante.start();
+        System.out.println("🩺 Vigilando el hilo de JavaFX (umbral " + getUmbral() + " ms)");
+    }
+
+    /**
+     * Deja de mandar latidos; el que esté pendiente todavía se registra al ejecutarse.
+     */
+    public static synchronized void detener() {
+        if (vigilante == null) {
+            return;
+        }
+        vigilante.interrupt();
+        vigilante = null;
+    }
+
+    /**
+     * @param milisegundos Espera de un latido a partir de la cual se registra un estancamiento
+     */
+    public static void setUmbral(long milisegundos) {
+        umbralNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, milisegundos));
+    }
+
+    public static long getUmbral() {
+        return TimeUnit.NANOSECONDS.toMillis(umbralNanos);
+    }
+
+    /**
+     * @param fraccion Entre 0 y 1, por ejemplo 0.99 para el p99
+     * @return La espera de los latidos en microsegundos por debajo de la cual queda esa fracción
+     */
+    public static long percentil(double fraccion) {
+        return LATENCIAS.percentil(fraccion);
+    }
+
+    /**
+     * @return Lo que esperó cada latido al hilo de JavaFX, en microsegundos
+     */
+    public static Histograma getLatencias() {
+        return LATENCIAS;
+    }
+
+    /**
+     * @return Los últimos estancamientos, del más antiguo al más reciente
+     */
+    public static synchronized List<Estancamiento> getEstancamientos() {
+        List<Estancamiento> lista = new ArrayList<>(CAPACIDAD);
+        for (int i = 0; i < CAPACIDAD; i++) {
+            Estancamiento estancamiento = RECIENTES[(siguiente + i) % CAPACIDAD];
+            if (estancamiento != null) {
+                lista.add(estancamiento);
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * @return Estancamientos desde que se inició, incluidos los que ya salieron del buffer
+     */
+    public static synchronized long getTotalEstancamientos() {
+        return totalEstancamientos;
+    }
+
+    /**
+     * @return Percentiles de la espera de los latidos y los últimos estancamientos, en texto
+     */
+    public static String instantanea() {
+        StringBuilder texto = new StringBuilder(String.format(
+                "latidos: %d  p50 %.1f ms  p99 %.1f ms  p999 %.1f ms  máx %.1f ms  estancamientos: %d%n",
+                LATENCIAS.getCantidad(), percentil(0.5) / 1000.0, percentil(0.99) / 1000.0,
+                percentil(0.999) / 1000.0, LATENCIAS.getMaximo() / 1000.0, getTotalEstancamientos()));
+        for (Estancamiento estancamiento : getEstancamientos()) {
+            texto.append("  ").append(estancamiento).append('\n');
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Se ejecuta en el hilo de JavaFX cuando le toca al latido mandado en {@code enviado}.
+     */
+    private static void alLatir(long enviado) {
+        long espera = System.nanoTime() - enviado;
+        // Una pila tomada para un latido anterior no es de este estancamiento
+        StackTraceElement[] pila = pilaDeLatido == enviado ? pilaCapturada : null;
+        latidoPendiente = 0;
+        LATENCIAS.registrar(TimeUnit.NANOSECONDS.toMicros(espera));
+
+        if (espera >= umbralNanos) {
+            registrar(new Estancamiento(Instant.now().minusNanos(espera),
+                    TimeUnit.NANOSECONDS.toMillis(espera), pila));
+        }
+    }
+
+    private static void vigilar() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.max(TimeUnit.MILLISECONDS.toNanos(1), umbralNanos / 4));
+            } catch (InterruptedException e) {
+                return;
+            }
+            long pendiente = latidoPendiente;
+            if (pendiente == 0) {
+                long enviado = System.nanoTime();
+                latidoPendiente = enviado;
+                Platform.runLater(() -> alLatir(enviado));
+            } else if (System.nanoTime() - pendiente >= umbralNanos && pilaDeLatido != pendiente) {
+                // Una captura por estancamiento: la pila de cuando cruzó el umbral
+                pilaCapturada = hiloFX.getStackTrace();
+                pilaDeLatido = pendiente;
+            }
+        }
+    }
+
+    private static void registrar(Estancamiento estancamiento) {
+        synchronized (VigilanteFX.class) {
+            RECIENTES[siguiente] = estancamiento;
+            siguiente = (siguiente + 1) % CAPACIDAD;
+            totalEstancamientos++;
+        }
+        LOGGER.warning("⏱️ Hilo de JavaFX bloqueado " + estancamiento.getDuracion() + " ms en "
+                + estancamiento.getControlador() + "." + estancamiento.getMetodo());
+        if (LOGGER.isLoggable(Level.FINE) && estancamiento.getPila().length > 0) {
+            StringBuilder pila = new StringBuilder("Pila del hilo de JavaFX:");
+            for (StackTraceElement elemento : estancamiento.getPila()) {
+                pila.append("\n\tat ").append(elemento);
+            }
+            LOGGER.fine(pila.toString());
+        }
+    }
+
+    private static long umbralInicial() {
+        String valor = System.getProperty(PROPIEDAD_UMBRAL);
+        if (valor == null) {
+            return UMBRAL_POR_DEFECTO;
+        }
+        try {
+            return Math.max(1, Long.parseLong(valor.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Valor inválido para " + PROPIEDAD_UMBRAL + ": '" + valor + "'");
+            return UMBRAL_POR_DEFECTO;
+        }
+    }
+
+    /**
+     * Un latido que esperó al hilo de JavaFX más que el umbral.
+     */
+    public static final class Estancamiento {
+        private final Instant inicio;
+        private final long duracion;
+        private final StackTraceElement[] pila;
+        private final String controlador;
+        private final String metodo;
+
+        Estancamiento(Instant inicio, long duracion, StackTraceElement[] pila) {
+            this.inicio = inicio;
+            this.duracion = duracion;
+            this.pila = pila != null ? pila : new StackTraceElement[0];
+
+            StackTraceElement culpable = buscarCulpable(this.pila);
+            if (culpable == null) {
+                this.controlador = "desconocido";
+                this.metodo = "desconocido";
+            } else {
+                String clase = culpable.getClassName();
+                clase = clase.substring(clase.lastIndexOf('.') + 1);
+                int interna = clase.indexOf('$');
+                this.controlador = interna > 0 ? clase.substring(0, interna) : clase;
+                this.metodo = nombreMetodo(culpable.getMethodName());
+            }
+        }
+
+        public Instant getInicio() {
+            return inicio;
+        }
+
+        /**
+         * @return Milisegundos que el latido esperó al hilo de JavaFX
+         */
+        public long getDuracion() {
+            return duracion;
+        }
+
+        /**
+         * @return Pila del hilo de JavaFX durante el estancamiento; vacía si duró tan poco que el
+         * vigilante no llegó a tomarla
+         */
+        public StackTraceElement[] getPila() {
+            return pila.clone();
+        }
+
+        /**
+         * @return Clase del primer controlador en la pila (o de la primera clase de la aplicación)
+         */
+        public String getControlador() {
+            return controlador;
+        }
+
+        public String getMetodo() {
+            return metodo;
+        }
+
+        @Override
+        public String toString() {
+            return inicio + " " + duracion + " ms en " + controlador + "." + metodo;
+        }
+
+        /**
+         * Prefiere el frame de un controlador al de la infraestructura que lo llamó
+         * (despachador, listas, tareas); si no hay, la primera clase de la aplicación.
+         */
+        private static StackTraceElement buscarCulpable(StackTraceElement[] pila) {
+            StackTraceElement primeroDeLaAplicacion = null;
+            for (StackTraceElement elemento : pila) {
+                String clase = elemento.getClassName();
+                if (!clase.startsWith(PAQUETE) || clase.startsWith(VigilanteFX.class.getName())) {
+                    continue;
+                }
+                if (clase.substring(clase.lastIndexOf('.') + 1).startsWith("Controlador")) {
+                    return elemento;
+                }
+                if (primeroDeLaAplicacion == null) {
+                    primeroDeLaAplicacion = elemento;
+                }
+            }
+            return primeroDeLaAplicacion;
+        }
+
+        /**
+         * {@code lambda$iniciarSesion$3} es el cuerpo de una lambda dentro de {@code iniciarSesion}.
+         */
+        private static String nombreMetodo(String metodo) {
+            if (metodo.startsWith("lambda$")) {
+                int fin = metodo.indexOf('$', "lambda$".length());
+                return metodo.substring("lambda$".length(), fin > 0 ? fin : metodo.length());
+            }
+            return metodo;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.taller.estudiantevistas.controlador;
+
+import com.taller.estudiantevistas.dto.Contenido;
+import com.taller.estudiantevistas.servicio.Fechas;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Hyperlink;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import java.util.function.Consumer;
+
+/**
+ * Celda de un contenido educativo en un {@link FeedVirtual}: icono según el tipo, título,
+ * metadatos, descripción y, si se pide, el contenido mismo (un enlace o el texto).
+ * Los nodos se crean una vez y se vuelven a llenar con cada contenido que muestra la celda.
+ */
+class VistaContenido implements FeedVirtual.Vista<Contenido> {
+    private final VBox item = new VBox(8);
+    private final Label iconoTipo = new Label();
+    private final Label titulo = new Label();
+    private final Label autor = crearMetadataLabel();
+    private final Label fecha = crearMetadataLabel();
+    private final Label tema = crearMetadataLabel();
+    private final Label descripcion = new Label();
+    private final HBox enlace = new HBox();
+    private final Hyperlink link = new Hyperlink();
+    private final TextArea areaTexto = new TextArea();
+
+    private Contenido contenido;
+
+    /**
+     * @param conVisualizacion Si se muestra el contenido además de su descripción
+     * @param alAbrir Recibe el contenido al hacer clic en él; null si no se abre
+     */
+    VistaContenido(boolean conVisualizacion, Consumer<Contenido> alAbrir) {
+        item.getStyleClass().add("contenido-item");
+
+        HBox tituloBox = new HBox(5);
+        tituloBox.getStyleClass().add("contenido-header");
+        tituloBox.setAlignment(Pos.CENTER_LEFT);
+        iconoTipo.setStyle("-fx-font-size: 16px;");
+        titulo.getStyleClass().add("contenido-titulo");
+        tituloBox.getChildren().addAll(iconoTipo, titulo);
+
+        HBox metadatos = new HBox(10);
+        metadatos.getStyleClass().add("contenido-metadatos");
+        metadatos.getChildren().addAll(autor, fecha, tema);
+
+        descripcion.getStyleClass().add("descripcion-text");
+        descripcion.setWrapText(true);
+
+        item.getChildren().addAll(tituloBox, metadatos, descripcion);
+
+        if (conVisualizacion) {
+            enlace.setAlignment(Pos.CENTER_LEFT);
+            link.setStyle("-fx-text-fill: #0066cc; -fx-underline: true;");
+            link.setOnAction(e -> abrirEnlace(link.getText()));
+            enlace.getChildren().addAll(new Label("🌐"), link);
+
+            areaTexto.setEditable(false);
+            areaTexto.setWrapText(true);
+            areaTexto.setPrefRowCount(4);
+            areaTexto.setFocusTraversable(false);
+            areaTexto.setStyle("-fx-background-color: #f9f9f9;");
+
+            // Solo uno de los dos se ve y ocupa lugar, según el tipo del contenido
+            enlace.managedProperty().bind(enlace.visibleProperty());
+            areaTexto.managedProperty().bind(areaTexto.visibleProperty());
+            item.getChildren().addAll(enlace, areaTexto);
+        }
+
+        if (alAbrir != null) {
+            item.setOnMouseEntered(e -> item.setStyle("-fx-border-color: #bdc3c7;"));
+            item.setOnMouseExited(e -> item.setStyle("-fx-border-color: #e0e0e0;"));
+            item.setOnMouseClicked(e -> alAbrir.accept(contenido));
+        }
+    }
+
+    @Override
+    public Node getNodo() {
+        return item;
+    }
+
+    @Override
+    public void mostrar(Contenido contenido) {
+        this.contenido = contenido;
+        String tipo = contenido.getTipo() != null ? contenido.getTipo().name() : "DESCONOCIDO";
+
+        iconoTipo.setText(obtenerIconoTipo(tipo));
+        iconoTipo.getStyleClass().setAll("label", "tipo-icono", "tipo-" + tipo.toLowerCase());
+        titulo.setText(texto(contenido.getTitulo(), "Sin título"));
+        autor.setText("👤 " + texto(contenido.getAutor(), "Anónimo"));
+        fecha.setText("📅 " + texto(Fechas.mostrar(contenido.getFechaPublicacion()), "Fecha desconocida"));
+        tema.setText("🏷 " + texto(contenido.getTema(), "Sin tema"));
+        descripcion.setText(texto(contenido.getDescripcion(), "Sin descripción disponible"));
+
+        String contenidoStr = texto(contenido.getContenido(), "Contenido no disponible");
+        boolean esEnlace = tipo.equals("ENLACE");
+        enlace.setVisible(esEnlace);
+        areaTexto.setVisible(!esEnlace);
+        if (esEnlace) {
+            link.setText(contenidoStr);
+        } else {
+            areaTexto.setText(contenidoStr);
+        }
+    }
+
+    private void abrirEnlace(String url) {
+        try {
+            java.awt.Desktop.getDesktop().browse(new java.net.URI(url));
+        } catch (Exception ex) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Error");
+            alert.setHeaderText(null);
+            alert.setContentText("No se pudo abrir el enlace: " + ex.getMessage());
+            alert.showAndWait();
+        }
+    }
+
+    private static String texto(String valor, String porDefecto) {
+        return valor != null ? valor : porDefecto;
+    }
+
+    private static Label crearMetadataLabel() {
+        Label label = new Label();
+        label.getStyleClass().add("metadata-label");
+        return label;
+    }
+
+    static String obtenerIconoTipo(String tipo) {
+        switch(tipo.toUpperCase()) {
+            case "VIDEO": return "🎬";
+            case "DOCUMENTO": return "📄";
+            case "ENLACE": return "🔗";
+            case "IMAGEN": return "🖼";
+            case "AUDIO": return "🎧";
+            default: return "📌";
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.taller.estudiantevistas.controlador;
+
+import com.taller.estudiantevistas.dto.SolicitudAyuda;
+import com.taller.estudiantevistas.servicio.Fechas;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+/**
+ * Celda de una solicitud de ayuda en un {@link FeedVirtual}: tema, urgencia y estado,
+ * descripción y un pie con la fecha y, si se pide, el solicitante.
+ * Los nodos se crean una vez y se vuelven a llenar con cada solicitud que muestra la celda.
+ */
+class VistaSolicitud implements FeedVirtual.Vista<SolicitudAyuda> {
+    private final VBox item = new VBox(8);
+    private final Label temaLabel = new Label();
+    private final Label urgenciaLabel = new Label();
+    private final Label estadoLabel = new Label();
+    private final TextArea descripcionArea = new TextArea();
+    private final Label fechaLabel = new Label();
+    private final Label solicitanteLabel = new Label();
+    private final boolean conSolicitante;
+
+    /**
+     * @param conSolicitante Si el pie muestra quién pidió la ayuda
+     */
+    VistaSolicitud(boolean conSolicitante) {
+        this.conSolicitante = conSolicitante;
+        item.getStyleClass().add("solicitud-item");
+
+        temaLabel.getStyleClass().add("solicitud-titulo");
+        temaLabel.setMaxWidth(Double.MAX_VALUE);
+        temaLabel.setWrapText(true);
+        temaLabel.setMaxHeight(20);
+
+        HBox estadosBox = new HBox(8);
+        estadosBox.getStyleClass().add("solicitud-estados");
+        estadosBox.setAlignment(Pos.CENTER_LEFT);
+        estadosBox.getChildren().addAll(urgenciaLabel, estadoLabel);
+
+        descripcionArea.getStyleClass().add("descripcion-text");
+        descripcionArea.setEditable(false);
+        descripcionArea.setWrapText(true);
+        descripcionArea.setPrefRowCount(3);
+        descripcionArea.setFocusTraversable(false);
+
+        HBox footer = new HBox(8);
+        footer.getStyleClass().add("solicitud-footer");
+        footer.setAlignment(Pos.CENTER_LEFT);
+        fechaLabel.getStyleClass().add("metadata-label");
+        footer.getChildren().add(fechaLabel);
+        if (conSolicitante) {
+            footer.getChildren().add(solicitanteLabel);
+        }
+
+        item.getChildren().addAll(temaLabel, estadosBox, descripcionArea, footer);
+    }
+
+    @Override
+    public Node getNodo() {
+        return item;
+    }
+
+    @Override
+    public void mostrar(SolicitudAyuda solicitud) {
+        String urgencia = solicitud.getUrgencia() != null ? solicitud.getUrgencia().name() : "MEDIA";
+        String estado = solicitud.getEstado() != null ? solicitud.getEstado().name() : "PENDIENTE";
+
+        temaLabel.setText(solicitud.getTema() != null ? solicitud.getTema() : "Sin tema");
+        urgenciaLabel.setText("🔺 " + urgencia);
+        FeedVirtual.cambiarClase(urgenciaLabel, "urgencia-", urgencia.toLowerCase());
+        estadoLabel.setText("◉ " + estado);
+        FeedVirtual.cambiarClase(estadoLabel, "estado-", estado.toLowerCase());
+        descripcionArea.setText(solicitud.getDescripcion() != null ? solicitud.getDescripcion() : "");
+        fechaLabel.setText("📅 " + (solicitud.getFecha() != null
+                ? Fechas.mostrar(solicitud.getFecha().getTime())
+                : "Fecha no disponible"));
+        if (conSolicitante) {
+            solicitanteLabel.setText("👤 " + obtenerNombreSolicitante(solicitud));
+        }
+    }
+
+    private static String obtenerNombreSolicitante(SolicitudAyuda solicitud) {
+        if (solicitud.getAutorNombre() != null) {
+            return solicitud.getAutorNombre();
+        } else if (solicitud.getAutorId() != null) {
+            String id = solicitud.getAutorId();
+            return "ID: " + id.substring(0, Math.min(6, id.length()));
+        }
+        return "Anónimo";
+    }
+}
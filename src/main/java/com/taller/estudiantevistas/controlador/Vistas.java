@@ -0,0 +1,303 @@
+package com.taller.estudiantevistas.controlador;
+
+import com.taller.estudiantevistas.servicio.Histograma;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Punto único para abrir las vistas FXML de la aplicación.
+ *
+ * <ul>
+ *     <li>El texto de cada FXML se lee una sola vez y queda en memoria; las cargas siguientes
+ *     solo lo interpretan.</li>
+ *     <li>Las vistas que se abren una y otra vez con datos distintos (el visor de contenido, el
+ *     perfil) se piden con {@link #reutilizar(String, Modality)}: al cerrarse su ventana, la vista
+ *     con su controlador, escena y ventana vuelve a un depósito, y la próxima vez se entrega esa
+ *     misma, {@linkplain Reutilizable#restablecer() restablecida}, en lugar de cargar otra.</li>
+ *     <li>{@link #precargar(String)} adelanta en segundo plano la lectura del FXML;
+ *     {@link #precargar(String, Modality)} además deja lista una vista reutilizable, así que ni
+ *     la primera apertura paga la carga.</li>
+ *     <li>Se mide cuánto tarda en cargarse cada vista y cuántas veces se reutilizó
+ *     ({@link #instantanea()}).</li>
+ * </ul>
+ *
+ * Se llama desde el hilo de JavaFX, y las vistas se construyen siempre en él; en segundo plano
+ * solo se lee el texto del FXML.
+ */
+final class Vistas {
+    static final String CARPETA = "/com/taller/estudiantevistas/fxml/";
+    /**
+     * Vistas libres que se guardan por FXML; las demás se descartan al cerrarse.
+     */
+    static final int LIBRES_POR_VISTA = 2;
+
+    private static final Logger LOGGER = Logger.getLogger(Vistas.class.getName());
+
+    private static final Map<String, byte[]> PLANTILLAS = new ConcurrentHashMap<>();
+    // Vistas libres por FXML y modalidad; se accede con el candado del mapa
+    private static final Map<String, Deque<Vista<?>>> LIBRES = new HashMap<>();
+    private static final Map<String, Medidas> MEDIDAS = new ConcurrentHashMap<>();
+
+    private Vistas() {
+    }
+
+    /**
+     * Carga una instancia nueva de la vista.
+     * @param fxml Nombre del archivo dentro de {@value #CARPETA}, por ejemplo "buscar.fxml"
+     */
+    static <C> Vista<C> cargar(String fxml) throws IOException {
+        return nueva(fxml, null);
+    }
+
+    /**
+     * Entrega una vista libre de {@code fxml} con esa modalidad si la hay, ya restablecida, o
+     * carga una nueva. La vista vuelve al depósito cuando se oculta la ventana de
+     * {@link Vista#ventana(String, Modality)}, que debe pedirse con la misma modalidad.
+     * Las ventanas reutilizables no tienen dueño: se comparten entre quienes las abren.
+     * @param modalidad null para una ventana sin modalidad
+     */
+    static <C extends Reutilizable> Vista<C> reutilizar(String fxml, Modality modalidad) throws IOException {
+        Modality modo = modalidad != null ? modalidad : Modality.NONE;
+        Vista<?> libre;
+        synchronized (LIBRES) {
+            libre = libres(fxml, modo).pollFirst();
+        }
+        if (libre == null) {
+            return nueva(fxml, modo);
+        }
+        @SuppressWarnings("unchecked")
+        Vista<C> vista = (Vista<C>) libre;
+        vista.getControlador().restablecer();
+        // Una precargada todavía no se mostró: no cuenta como reutilizada
+        if (vista.ventana != null) {
+            medidas(fxml).reutilizadas.increment();
+            vista.reutilizada = true;
+        }
+        return vista;
+    }
+
+    /**
+     * Lee {@code fxml} en segundo plano, para que la primera carga no espere al disco. Si falla,
+     * la vista se leerá al pedirla, como siempre.
+     */
+    static void precargar(String fxml) {
+        Tareas.lanzar(() -> {
+            try {
+                plantilla(fxml, ubicacion(fxml));
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "No se pudo precargar " + fxml, e);
+            }
+        });
+    }
+
+    /**
+     * Como {@link #precargar(String)}, y después deja en el depósito una vista lista para
+     * {@link #reutilizar(String, Modality)} si no hay ninguna libre. La vista se construye en el
+     * hilo de JavaFX, cuando le toque.
+     */
+    static void precargar(String fxml, Modality modalidad) {
+        Modality modo = modalidad != null ? modalidad : Modality.NONE;
+        Tareas.lanzar(() -> {
+            try {
+                plantilla(fxml, ubicacion(fxml));
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "No se pudo precargar " + fxml, e);
+                return;
+            }
+            Platform.runLater(() -> {
+                synchronized (LIBRES) {
+                    if (!libres(fxml, modo).isEmpty()) {
+                        return;
+                    }
+                }
+                try {
+                    Vista<?> vista = nueva(fxml, modo);
+                    synchronized (LIBRES) {
+                        Deque<Vista<?>> libres = libres(fxml, modo);
+                        if (libres.isEmpty()) {
+                            libres.offerLast(vista);
+                        }
+                    }
+                } catch (Exception e) {
+                    LOGGER.log(Level.FINE, "No se pudo precargar " + fxml, e);
+                }
+            });
+        });
+    }
+
+    /**
+     * @return Tiempos de carga de la vista en microsegundos (sin contar las reutilizaciones)
+     */
+    static Histograma getTiempos(String fxml) {
+        return medidas(fxml).carga;
+    }
+
+    static long getReutilizadas(String fxml) {
+        return medidas(fxml).reutilizadas.sum();
+    }
+
+    /**
+     * @return Una fila por vista abierta: cargas, reutilizaciones y tiempos de carga en milisegundos
+     */
+    static String instantanea() {
+        StringBuilder tabla = new StringBuilder(String.format("%-32s %8s %12s %8s %8s %8s%n",
+                "vista", "cargas", "reutilizadas", "p50", "p99", "máx"));
+        for (Map.Entry<String, Medidas> entrada : new TreeMap<>(MEDIDAS).entrySet()) {
+            Histograma carga = entrada.getValue().carga;
+            tabla.append(String.format("%-32s %8d %12d %8.1f %8.1f %8.1f%n", entrada.getKey(),
+                    carga.getCantidad(), entrada.getValue().reutilizadas.sum(), carga.percentil(0.5) / 1000.0,
+                    carga.percentil(0.99) / 1000.0, carga.getMaximo() / 1000.0));
+        }
+        return tabla.toString();
+    }
+
+    /**
+     * @param modalidad La de la ventana de una vista reutilizable; null si no se reutiliza
+     */
+    private static <C> Vista<C> nueva(String fxml, Modality modalidad) throws IOException {
+        URL ubicacion = ubicacion(fxml);
+        byte[] plantilla = plantilla(fxml, ubicacion);
+
+        long inicio = System.nanoTime();
+        // La ubicación resuelve las rutas relativas (hojas de estilo, imágenes); el texto ya está leído
+        FXMLLoader loader = new FXMLLoader(ubicacion);
+        Parent raiz = loader.load(new ByteArrayInputStream(plantilla));
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio);
+        medidas(fxml).carga.registrar(micros);
+        LOGGER.fine(() -> "Vista " + fxml + " cargada en " + micros / 1000.0 + " ms");
+
+        return new Vista<>(fxml, raiz, loader.getController(), modalidad);
+    }
+
+    private static URL ubicacion(String fxml) throws IOException {
+        URL ubicacion = Vistas.class.getResource(CARPETA + fxml);
+        if (ubicacion == null) {
+            throw new IOException("No se encontró la vista " + fxml);
+        }
+        return ubicacion;
+    }
+
+    private static byte[] plantilla(String fxml, URL ubicacion) throws IOException {
+        byte[] plantilla = PLANTILLAS.get(fxml);
+        if (plantilla == null) {
+            try (InputStream entrada = ubicacion.openStream()) {
+                plantilla = entrada.readAllBytes();
+            }
+            PLANTILLAS.putIfAbsent(fxml, plantilla);
+        }
+        return plantilla;
+    }
+
+    /**
+     * Se llama con el candado de {@link #LIBRES}.
+     */
+    private static Deque<Vista<?>> libres(String fxml, Modality modalidad) {
+        return LIBRES.computeIfAbsent(fxml + "#" + modalidad, clave -> new ArrayDeque<>());
+    }
+
+    private static Medidas medidas(String fxml) {
+        return MEDIDAS.computeIfAbsent(fxml, f -> new Medidas());
+    }
+
+    private static void devolver(Vista<?> vista) {
+        synchronized (LIBRES) {
+            Deque<Vista<?>> libres = libres(vista.fxml, vista.modalidad);
+            if (libres.size() < LIBRES_POR_VISTA && !libres.contains(vista)) {
+                libres.offerFirst(vista);
+            }
+        }
+    }
+
+    /**
+     * Una vista cargada: su raíz, su controlador y, una vez pedida, su ventana.
+     *
+     * @param <C> Tipo del controlador
+     */
+    static final class Vista<C> {
+        private final String fxml;
+        private final Parent raiz;
+        private final C controlador;
+        // Solo en las reutilizables: la modalidad con que se guardan en el depósito
+        private final Modality modalidad;
+        private Stage ventana;
+        private boolean reutilizada;
+
+        private Vista(String fxml, Parent raiz, C controlador, Modality modalidad) {
+            this.fxml = fxml;
+            this.raiz = raiz;
+            this.controlador = controlador;
+            this.modalidad = modalidad;
+            if (modalidad != null && !(controlador instanceof Reutilizable)) {
+                throw new IllegalArgumentException("El controlador de " + fxml + " no es Reutilizable");
+            }
+        }
+
+        Parent getRaiz() {
+            return raiz;
+        }
+
+        C getControlador() {
+            return controlador;
+        }
+
+        /**
+         * @return true si la vista ya se había mostrado antes y su controlador se vuelve a inicializar
+         */
+        boolean esReutilizada() {
+            return reutilizada;
+        }
+
+        /**
+         * La ventana de la vista, creada la primera vez, sin dueño. Una vista reutilizada conserva
+         * la suya, con su escena y su modalidad; solo cambia el título.
+         * @param modalidad null para una ventana sin modalidad; en una vista reutilizable, la
+         *                  misma que se pasó a {@link #reutilizar(String, Modality)}
+         * @throws IllegalArgumentException Si la modalidad no es la de la ventana ya creada
+         */
+        Stage ventana(String titulo, Modality modalidad) {
+            Modality modo = modalidad != null ? modalidad : Modality.NONE;
+            if (this.modalidad != null && this.modalidad != modo) {
+                throw new IllegalArgumentException("La vista " + fxml + " se reutiliza con modalidad "
+                        + this.modalidad + ", no " + modo);
+            }
+            if (ventana == null) {
+                ventana = new Stage();
+                ventana.setScene(new Scene(raiz));
+                ventana.initModality(modo);
+                if (this.modalidad != null) {
+                    ventana.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> devolver(this));
+                }
+            } else if (ventana.getModality() != modo) {
+                throw new IllegalArgumentException("La ventana de " + fxml + " ya se creó con modalidad "
+                        + ventana.getModality() + ", no " + modo);
+            }
+            ventana.setTitle(titulo);
+            return ventana;
+        }
+    }
+
+    private static final class Medidas {
+        final Histograma carga = new Histograma();
+        final LongAdder reutilizadas = new LongAdder();
+    }
+}
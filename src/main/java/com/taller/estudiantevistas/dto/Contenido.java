@@ -4,6 +4,7 @@ import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * DTO para transferencia de datos de Contenido educativo entre cliente y servidor
@@ -140,6 +141,29 @@ public class Contenido {
         this.promedioValoraciones = promedioValoraciones;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Contenido)) return false;
+        Contenido otro = (Contenido) o;
+        return Double.compare(promedioValoraciones, otro.promedioValoraciones) == 0
+                && Objects.equals(id, otro.id)
+                && Objects.equals(titulo, otro.titulo)
+                && Objects.equals(autor, otro.autor)
+                && Objects.equals(fechaPublicacion, otro.fechaPublicacion)
+                && tipo == otro.tipo
+                && Objects.equals(tema, otro.tema)
+                && Objects.equals(descripcion, otro.descripcion)
+                && Objects.equals(contenido, otro.contenido)
+                && Objects.equals(valoraciones, otro.valoraciones);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, titulo, autor, fechaPublicacion, tipo, tema, descripcion, contenido,
+                valoraciones, promedioValoraciones);
+    }
+
     @Override
 
     public String toString() {
@@ -3,6 +3,7 @@ package com.taller.estudiantevistas.dto;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import java.util.Date;
+import java.util.Objects;
 
 /**
  * DTO para transferencia de datos de SolicitudAyuda entre cliente y servidor
@@ -115,6 +116,26 @@ public class SolicitudAyuda {
         this.estado = estado;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SolicitudAyuda)) return false;
+        SolicitudAyuda otra = (SolicitudAyuda) o;
+        return Objects.equals(id, otra.id)
+                && Objects.equals(tema, otra.tema)
+                && Objects.equals(descripcion, otra.descripcion)
+                && Objects.equals(fecha, otra.fecha)
+                && urgencia == otra.urgencia
+                && Objects.equals(autorId, otra.autorId)
+                && Objects.equals(autorNombre, otra.autorNombre)
+                && estado == otra.estado;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, tema, descripcion, fecha, urgencia, autorId, autorNombre, estado);
+    }
+
     @Override
     public String toString() {
         return "SolicitudAyuda{" +
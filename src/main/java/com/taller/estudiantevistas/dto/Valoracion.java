@@ -2,6 +2,7 @@ package com.taller.estudiantevistas.dto;
 
 import com.google.gson.annotations.Expose;
 import java.util.Date;
+import java.util.Objects;
 
 /**
  * DTO para valoraciones de contenido
@@ -15,6 +16,9 @@ public class Valoracion {
     @Expose
     private String autor;
 
+    @Expose
+    private String usuarioId;
+
     @Expose
     private int puntuacion;
 
@@ -69,6 +73,17 @@ public class Valoracion {
         this.autor = autor;
     }
 
+    /**
+     * @return Id del usuario que valoró; {@link #getAutor()} es el nombre que tenía al valorar
+     */
+    public String getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(String usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
     public int getPuntuacion() {
         return puntuacion;
     }
@@ -93,6 +108,25 @@ public class Valoracion {
         this.fecha = fecha;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Valoracion)) return false;
+        Valoracion otra = (Valoracion) o;
+        return puntuacion == otra.puntuacion
+                && Objects.equals(id, otra.id)
+                && Objects.equals(tema, otra.tema)
+                && Objects.equals(autor, otra.autor)
+                && Objects.equals(usuarioId, otra.usuarioId)
+                && Objects.equals(comentario, otra.comentario)
+                && Objects.equals(fecha, otra.fecha);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, tema, autor, usuarioId, puntuacion, comentario, fecha);
+    }
+
     @Override
     public String toString() {
         return "Valoracion{" +
@@ -0,0 +1,353 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.taller.estudiantevistas.dto.Contenido;
+import com.taller.estudiantevistas.dto.EstadoSolicitud;
+import com.taller.estudiantevistas.dto.Estudiante;
+import com.taller.estudiantevistas.dto.SolicitudAyuda;
+import com.taller.estudiantevistas.dto.TipoContenido;
+import com.taller.estudiantevistas.dto.Urgencia;
+import com.taller.estudiantevistas.dto.Valoracion;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Adaptadores de los DTO escritos a mano: leen y escriben campo a campo sobre el flujo JSON,
+ * sin reflexión y sin pasar por un árbol {@code JsonObject}.
+ *
+ * Al leer son tolerantes como el servidor espera: los campos desconocidos se saltan, un valor
+ * del tipo equivocado se toma como ausente y un enum desconocido queda en {@code null}.
+ */
+final class AdaptadoresDto {
+    private AdaptadoresDto() {
+    }
+
+    static final class AdaptadorContenido extends TypeAdapter<Contenido> {
+        private final TypeAdapter<Valoracion> valoraciones;
+
+        AdaptadorContenido(TypeAdapter<Valoracion> valoraciones) {
+            this.valoraciones = valoraciones;
+        }
+
+        @Override
+        public void write(JsonWriter salida, Contenido contenido) throws IOException {
+            if (contenido == null) {
+                salida.nullValue();
+                return;
+            }
+            salida.beginObject();
+            salida.name("id").value(contenido.getId());
+            salida.name("titulo").value(contenido.getTitulo());
+            salida.name("autor").value(contenido.getAutor());
+            salida.name("fechaCreacion").value(Fechas.formatear(contenido.getFechaPublicacion()));
+            salida.name("tipo").value(contenido.getTipo() != null ? contenido.getTipo().name() : null);
+            salida.name("tema").value(contenido.getTema());
+            salida.name("descripcion").value(contenido.getDescripcion());
+            salida.name("contenido").value(contenido.getContenido());
+            if (contenido.getValoraciones() != null) {
+                salida.name("valoraciones").beginArray();
+                for (Valoracion valoracion : contenido.getValoraciones()) {
+                    valoraciones.write(salida, valoracion);
+                }
+                salida.endArray();
+            }
+            salida.name("promedioValoraciones").value(contenido.getPromedioValoraciones());
+            salida.endObject();
+        }
+
+        @Override
+        public Contenido read(JsonReader entrada) throws IOException {
+            if (esNulo(entrada)) {
+                return null;
+            }
+            Contenido contenido = new Contenido();
+            entrada.beginObject();
+            while (entrada.hasNext()) {
+                switch (entrada.nextName()) {
+                    case "id" -> contenido.setId(leerTexto(entrada));
+                    case "titulo" -> contenido.setTitulo(leerTexto(entrada));
+                    case "autor" -> contenido.setAutor(leerTexto(entrada));
+                    case "fechaCreacion" -> contenido.setFechaPublicacion(leerFechaHora(entrada));
+                    case "tipo" -> contenido.setTipo(leerEnum(entrada, TipoContenido.class));
+                    case "tema" -> contenido.setTema(leerTexto(entrada));
+                    case "descripcion" -> contenido.setDescripcion(leerTexto(entrada));
+                    case "contenido" -> contenido.setContenido(leerTexto(entrada));
+                    case "valoraciones" -> contenido.setValoraciones(leerLista(entrada, valoraciones));
+                    case "promedioValoraciones" -> contenido.setPromedioValoraciones(leerDecimal(entrada));
+                    default -> entrada.skipValue();
+                }
+            }
+            entrada.endObject();
+            return contenido;
+        }
+    }
+
+    static final class AdaptadorSolicitudAyuda extends TypeAdapter<SolicitudAyuda> {
+        @Override
+        public void write(JsonWriter salida, SolicitudAyuda solicitud) throws IOException {
+            if (solicitud == null) {
+                salida.nullValue();
+                return;
+            }
+            salida.beginObject();
+            salida.name("id").value(solicitud.getId());
+            salida.name("tema").value(solicitud.getTema());
+            salida.name("descripcion").value(solicitud.getDescripcion());
+            salida.name("fecha").value(Fechas.formatear(solicitud.getFecha()));
+            salida.name("urgencia").value(solicitud.getUrgencia() != null ? solicitud.getUrgencia().name() : null);
+            salida.name("solicitanteId").value(solicitud.getAutorId());
+            salida.name("autorNombre").value(solicitud.getAutorNombre());
+            salida.name("estado").value(solicitud.getEstado() != null ? solicitud.getEstado().name() : null);
+            salida.endObject();
+        }
+
+        @Override
+        public SolicitudAyuda read(JsonReader entrada) throws IOException {
+            if (esNulo(entrada)) {
+                return null;
+            }
+            SolicitudAyuda solicitud = new SolicitudAyuda();
+            entrada.beginObject();
+            while (entrada.hasNext()) {
+                switch (entrada.nextName()) {
+                    case "id" -> solicitud.setId(leerTexto(entrada));
+                    case "tema" -> solicitud.setTema(leerTexto(entrada));
+                    case "descripcion" -> solicitud.setDescripcion(leerTexto(entrada));
+                    case "fecha" -> solicitud.setFecha(leerDate(entrada));
+                    case "urgencia" -> solicitud.setUrgencia(leerEnum(entrada, Urgencia.class));
+                    case "solicitanteId" -> solicitud.setAutorId(leerTexto(entrada));
+                    // El servidor simulado lo llama solicitanteNombre
+                    case "autorNombre", "solicitanteNombre" -> solicitud.setAutorNombre(leerTexto(entrada));
+                    case "estado" -> solicitud.setEstado(leerEnum(entrada, EstadoSolicitud.class));
+                    default -> entrada.skipValue();
+                }
+            }
+            entrada.endObject();
+            return solicitud;
+        }
+    }
+
+    static final class AdaptadorValoracion extends TypeAdapter<Valoracion> {
+        @Override
+        public void write(JsonWriter salida, Valoracion valoracion) throws IOException {
+            if (valoracion == null) {
+                salida.nullValue();
+                return;
+            }
+            salida.beginObject();
+            salida.name("id").value(valoracion.getId());
+            if (valoracion.getTema() != null) {
+                salida.name("tema").value(valoracion.getTema());
+            }
+            salida.name("autor").value(valoracion.getAutor());
+            if (valoracion.getUsuarioId() != null) {
+                salida.name("usuarioId").value(valoracion.getUsuarioId());
+            }
+            salida.name("puntuacion").value(valoracion.getPuntuacion());
+            salida.name("comentario").value(valoracion.getComentario());
+            salida.name("fecha").value(Fechas.formatear(valoracion.getFecha()));
+            salida.endObject();
+        }
+
+        @Override
+        public Valoracion read(JsonReader entrada) throws IOException {
+            if (esNulo(entrada)) {
+                return null;
+            }
+            Valoracion valoracion = new Valoracion();
+            entrada.beginObject();
+            while (entrada.hasNext()) {
+                switch (entrada.nextName()) {
+                    case "id" -> valoracion.setId(leerTexto(entrada));
+                    case "tema" -> valoracion.setTema(leerTexto(entrada));
+                    case "autor" -> valoracion.setAutor(leerTexto(entrada));
+                    case "usuarioId" -> valoracion.setUsuarioId(leerTexto(entrada));
+                    case "puntuacion" -> valoracion.setPuntuacion((int) leerDecimal(entrada));
+                    case "comentario" -> valoracion.setComentario(leerTexto(entrada));
+                    case "fecha" -> valoracion.setFecha(leerDate(entrada));
+                    default -> entrada.skipValue();
+                }
+            }
+            entrada.endObject();
+            return valoracion;
+        }
+    }
+
+    /**
+     * Los intereses viajan como arreglo; el constructor del DTO los recibe separados por comas.
+     */
+    static final class AdaptadorEstudiante extends TypeAdapter<Estudiante> {
+        @Override
+        public void write(JsonWriter salida, Estudiante estudiante) throws IOException {
+            if (estudiante == null) {
+                salida.nullValue();
+                return;
+            }
+            salida.beginObject();
+            salida.name("nombres").value(estudiante.getNombres());
+            salida.name("correo").value(estudiante.getCorreo());
+            salida.name("contrasena").value(estudiante.getContrasena());
+            salida.name("intereses").beginArray();
+            if (estudiante.getIntereses() != null) {
+                for (String interes : estudiante.getIntereses()) {
+                    salida.value(interes);
+                }
+            }
+            salida.endArray();
+            salida.endObject();
+        }
+
+        @Override
+        public Estudiante read(JsonReader entrada) throws IOException {
+            if (esNulo(entrada)) {
+                return null;
+            }
+            String nombres = null;
+            String correo = null;
+            String contrasena = null;
+            List<String> intereses = new ArrayList<>();
+            entrada.beginObject();
+            while (entrada.hasNext()) {
+                switch (entrada.nextName()) {
+                    case "nombres" -> nombres = leerTexto(entrada);
+                    case "correo" -> correo = leerTexto(entrada);
+                    case "contrasena" -> contrasena = leerTexto(entrada);
+                    case "intereses" -> {
+                        if (entrada.peek() == JsonToken.BEGIN_ARRAY) {
+                            entrada.beginArray();
+                            while (entrada.hasNext()) {
+                                String interes = leerTexto(entrada);
+                                if (interes != null) {
+                                    intereses.add(interes);
+                                }
+                            }
+                            entrada.endArray();
+                        } else {
+                            entrada.skipValue();
+                        }
+                    }
+                    default -> entrada.skipValue();
+                }
+            }
+            entrada.endObject();
+            return new Estudiante(nombres, correo, contrasena, String.join(",", intereses));
+        }
+    }
+
+    /**
+     * Enum por su nombre; un nombre desconocido se lee como {@code null}, igual que hacía Gson.
+     */
+    static final class AdaptadorEnum<E extends Enum<E>> extends TypeAdapter<E> {
+        private final Class<E> clase;
+
+        AdaptadorEnum(Class<E> clase) {
+            this.clase = clase;
+        }
+
+        @Override
+        public void write(JsonWriter salida, E valor) throws IOException {
+            salida.value(valor != null ? valor.name() : null);
+        }
+
+        @Override
+        public E read(JsonReader entrada) throws IOException {
+            return leerEnum(entrada, clase);
+        }
+    }
+
+    private static boolean esNulo(JsonReader entrada) throws IOException {
+        if (entrada.peek() == JsonToken.NULL) {
+            entrada.nextNull();
+            return true;
+        }
+        if (entrada.peek() != JsonToken.BEGIN_OBJECT) {
+            entrada.skipValue();
+            return true;
+        }
+        return false;
+    }
+
+    private static String leerTexto(JsonReader entrada) throws IOException {
+        switch (entrada.peek()) {
+            case STRING:
+            case NUMBER:
+                return entrada.nextString();
+            case BOOLEAN:
+                return String.valueOf(entrada.nextBoolean());
+            case NULL:
+                entrada.nextNull();
+                return null;
+            default:
+                entrada.skipValue();
+                return null;
+        }
+    }
+
+    private static double leerDecimal(JsonReader entrada) throws IOException {
+        String texto = leerTexto(entrada);
+        if (texto == null) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(texto);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static <E extends Enum<E>> E leerEnum(JsonReader entrada, Class<E> clase) throws IOException {
+        String nombre = leerTexto(entrada);
+        if (nombre == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(clase, nombre.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static <T> List<T> leerLista(JsonReader entrada, TypeAdapter<T> adaptador) throws IOException {
+        if (entrada.peek() != JsonToken.BEGIN_ARRAY) {
+            entrada.skipValue();
+            return new ArrayList<>();
+        }
+        List<T> lista = new ArrayList<>();
+        entrada.beginArray();
+        while (entrada.hasNext()) {
+            T elemento = adaptador.read(entrada);
+            if (elemento != null) {
+                lista.add(elemento);
+            }
+        }
+        entrada.endArray();
+        return lista;
+    }
+
+    private static LocalDateTime leerFechaHora(JsonReader entrada) throws IOException {
+        String texto = leerTexto(entrada);
+        if (texto == null || texto.isEmpty() || texto.equalsIgnoreCase("null")
+                || texto.equalsIgnoreCase("Fecha no disponible")) {
+            return null;
+        }
+        LocalDateTime fecha = Fechas.leer(texto);
+        if (fecha == null) {
+            System.err.println("⚠️ No se pudo parsear la fecha: " + texto);
+        }
+        return fecha;
+    }
+
+    private static Date leerDate(JsonReader entrada) throws IOException {
+        if (entrada.peek() == JsonToken.NUMBER) {
+            return new Date(entrada.nextLong());
+        }
+        return Fechas.aDate(leerFechaHora(entrada));
+    }
+}
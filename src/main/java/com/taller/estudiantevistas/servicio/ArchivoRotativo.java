@@ -0,0 +1,102 @@
+package com.taller.estudiantevistas.servicio;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Archivo de texto que rota por tamaño: al pasar del máximo, {@code ruta} pasa a {@code ruta.1},
+ * {@code ruta.1} a {@code ruta.2}, y así hasta el número de rotados; el más viejo se borra.
+ * Lo usa un solo hilo, el escritor de {@link TrazaProtocolo}.
+ */
+final class ArchivoRotativo {
+    private final Path ruta;
+    private final long tamanoMaximo;
+    private final int rotados;
+    private BufferedWriter salida;
+    private long escritos;
+
+    ArchivoRotativo(Path ruta, long tamanoMaximo, int rotados) {
+        this.ruta = ruta;
+        this.tamanoMaximo = tamanoMaximo;
+        this.rotados = Math.max(0, rotados);
+    }
+
+    void escribir(String linea) throws IOException {
+        if (salida == null) {
+            abrir();
+        } else if (escritos >= tamanoMaximo) {
+            rotar();
+        }
+        salida.write(linea);
+        salida.newLine();
+        // Aproximado: cuenta caracteres, no bytes
+        escritos += linea.length() + 1;
+    }
+
+    void vaciar() throws IOException {
+        if (salida != null) {
+            salida.flush();
+        }
+    }
+
+    void cerrar() {
+        try {
+            if (salida != null) {
+                salida.close();
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Error al cerrar " + ruta + ": " + e.getMessage());
+        }
+    }
+
+    private void abrir() throws IOException {
+        Path carpeta = ruta.toAbsolutePath().getParent();
+        if (carpeta != null) {
+            Files.createDirectories(carpeta);
+        }
+        salida = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        escritos = Files.size(ruta);
+    }
+
+    /**
+     * Si un movimiento falla, la traza sigue en {@code ruta} sin rotar y el próximo intento se
+     * hace después de otro {@code tamanoMaximo}, para no reintentarlo en cada línea.
+     * @throws IOException Si no se puede volver a abrir {@code ruta}
+     */
+    private void rotar() throws IOException {
+        salida.close();
+        // Sin flujo hasta reabrir: si tampoco se puede abrir, la próxima escritura lo reintenta
+        salida = null;
+        boolean rotado = false;
+        try {
+            if (rotados == 0) {
+                Files.deleteIfExists(ruta);
+            } else {
+                Files.deleteIfExists(rotado(rotados));
+                for (int i = rotados - 1; i >= 1; i--) {
+                    if (Files.exists(rotado(i))) {
+                        Files.move(rotado(i), rotado(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                Files.move(ruta, rotado(1), StandardCopyOption.REPLACE_EXISTING);
+            }
+            rotado = true;
+        } catch (IOException e) {
+            System.err.println("⚠️ No se pudo rotar " + ruta + ": " + e.getMessage());
+        }
+        abrir();
+        if (!rotado) {
+            escritos = 0;
+        }
+    }
+
+    private Path rotado(int numero) {
+        return ruta.resolveSibling(ruta.getFileName() + "." + numero);
+    }
+}
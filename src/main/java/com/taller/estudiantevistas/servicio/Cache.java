@@ -0,0 +1,134 @@
+package com.taller.estudiantevistas.servicio;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché acotada en tamaño y en tiempo: al superar la capacidad se expulsa la entrada usada
+ * hace más tiempo (LRU), y una entrada más vieja que su vida útil (TTL) cuenta como ausente.
+ *
+ * Cada invalidación avanza una generación. Quien pide un valor al servidor anota la generación
+ * antes de pedirlo y lo guarda con {@link #guardarSi(long, Object, Object)}: si entretanto hubo
+ * una invalidación, el valor puede ser anterior a ella y no se guarda.
+ */
+public final class Cache<K, V> {
+    private final int capacidad;
+    private final long vidaUtilNanos;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    private long generacion;
+    private long aciertos;
+    private long fallos;
+    private long expulsadas;
+    private long vencidas;
+
+    Cache(int capacidad, Duration vidaUtil) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser al menos 1");
+        }
+        this.capacidad = capacidad;
+        this.vidaUtilNanos = vidaUtil.toNanos();
+        // Orden de acceso: la primera entrada es siempre la menos usada recientemente
+        this.entradas = new LinkedHashMap<>(Math.min(capacidad, 1024) * 4 / 3 + 1, 0.75f, true);
+    }
+
+    /**
+     * @return El valor vigente, o {@code null} si no está o ya venció
+     */
+    synchronized V obtener(K clave) {
+        Entrada<V> entrada = entradas.get(clave);
+        if (entrada != null && entrada.vence - System.nanoTime() <= 0) {
+            entradas.remove(clave);
+            vencidas++;
+            entrada = null;
+        }
+        if (entrada == null) {
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        return entrada.valor;
+    }
+
+    synchronized long generacion() {
+        return generacion;
+    }
+
+    /**
+     * Guarda el valor si no hubo invalidaciones desde {@code generacionLeida}.
+     * @return Si se guardó
+     */
+    synchronized boolean guardarSi(long generacionLeida, K clave, V valor) {
+        if (generacion != generacionLeida) {
+            return false;
+        }
+        entradas.put(clave, new Entrada<>(valor, System.nanoTime() + vidaUtilNanos));
+        if (entradas.size() > capacidad) {
+            Iterator<Map.Entry<K, Entrada<V>>> masAntigua = entradas.entrySet().iterator();
+            masAntigua.next();
+            masAntigua.remove();
+            expulsadas++;
+        }
+        return true;
+    }
+
+    synchronized void invalidar(K clave) {
+        generacion++;
+        entradas.remove(clave);
+    }
+
+    synchronized void vaciar() {
+        generacion++;
+        entradas.clear();
+    }
+
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * @return Entradas expulsadas por falta de espacio
+     */
+    public synchronized long getExpulsadas() {
+        return expulsadas;
+    }
+
+    /**
+     * @return Entradas descartadas al consultarlas por superar su vida útil
+     */
+    public synchronized long getVencidas() {
+        return vencidas;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long consultas = aciertos + fallos;
+        return entradas.size() + "/" + capacidad + " entradas, " + aciertos + " aciertos, " + fallos + " fallos"
+                + (consultas > 0 ? " (" + (100 * aciertos / consultas) + "% aciertos)" : "")
+                + ", " + expulsadas + " expulsadas, " + vencidas + " vencidas";
+    }
+
+    private static final class Entrada<V> {
+        final V valor;
+        final long vence;
+
+        Entrada(V valor, long vence) {
+            this.valor = valor;
+            this.vence = vence;
+        }
+    }
+}
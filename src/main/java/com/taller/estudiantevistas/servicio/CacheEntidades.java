@@ -0,0 +1,120 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cachés de usuarios, contenidos completos, grupos y solicitudes de ayuda de una conexión,
+ * para que volver a abrir la misma pantalla no repita la consulta al servidor.
+ *
+ * Se invalidan solas: {@link ClienteServicio} avisa cada solicitud que envía y las que modifican
+ * una entidad ({@code ACTUALIZAR_*}, {@code ELIMINAR_*}, ...) la borran al enviarse y otra vez
+ * al responderse, por si una consulta en vuelo guardó el valor anterior. Si el mensaje no dice
+ * qué entidad toca, se vacía la caché de ese tipo entero.
+ */
+public final class CacheEntidades {
+    private final Map<Entidad, Cache<String, JsonObject>> caches = new EnumMap<>(Entidad.class);
+    private final Function<JsonObject, CompletableFuture<JsonObject>> enviar;
+
+    CacheEntidades(Function<JsonObject, CompletableFuture<JsonObject>> enviar) {
+        this.enviar = enviar;
+        for (Entidad entidad : Entidad.values()) {
+            caches.put(entidad, new Cache<>(entidad.getCapacidad(), entidad.getVidaUtil()));
+        }
+    }
+
+    /**
+     * Devuelve la entidad de la caché o, si no está, la pide al servidor y la guarda.
+     * @param datosExtra Otros datos que necesita el mensaje, por ejemplo el id del moderador; puede ser nulo
+     * @return Futuro con una copia de la entidad, que el llamador puede modificar; falla con
+     * {@link IOException} si el servidor reporta un error
+     */
+    CompletableFuture<JsonObject> obtener(Entidad entidad, String id, JsonObject datosExtra) {
+        Cache<String, JsonObject> cache = caches.get(entidad);
+        JsonObject guardada = cache.obtener(id);
+        if (guardada != null) {
+            return CompletableFuture.completedFuture(guardada.deepCopy());
+        }
+
+        long generacion = cache.generacion();
+        JsonObject datos = datosExtra != null ? datosExtra.deepCopy() : new JsonObject();
+        datos.addProperty(entidad.getCampoId(), id);
+        return enviar.apply(ClienteServicio.crearSolicitud(entidad.getTipoObtener(), datos)).thenApply(respuesta -> {
+            JsonElement valor = respuesta.get(entidad.getCampoRespuesta());
+            boolean exito = respuesta.has("exito") && respuesta.get("exito").getAsBoolean();
+            if (!exito || valor == null || !valor.isJsonObject()) {
+                throw new CompletionException(new IOException(respuesta.has("mensaje")
+                        ? respuesta.get("mensaje").getAsString()
+                        : "Respuesta mal formada: falta campo '" + entidad.getCampoRespuesta() + "'"));
+            }
+            cache.guardarSi(generacion, id, valor.getAsJsonObject());
+            return valor.getAsJsonObject().deepCopy();
+        });
+    }
+
+    /**
+     * Invalida lo que modifique la solicitud al enviarse y al completarse su respuesta.
+     * Los lotes se revisan solicitud por solicitud.
+     */
+    void observar(JsonObject solicitud, CompletableFuture<JsonObject> respuesta) {
+        JsonElement tipo = solicitud.get("tipo");
+        if (tipo != null && tipo.isJsonPrimitive() && Lote.TIPO_LOTE.equals(tipo.getAsString())) {
+            JsonElement datos = solicitud.get("datos");
+            JsonElement internas = datos != null && datos.isJsonObject()
+                    ? datos.getAsJsonObject().get(Lote.CAMPO_SOLICITUDES)
+                    : null;
+            if (internas != null && internas.isJsonArray()) {
+                for (JsonElement interna : internas.getAsJsonArray()) {
+                    if (interna.isJsonObject()) {
+                        observar(interna.getAsJsonObject(), respuesta);
+                    }
+                }
+            }
+            return;
+        }
+
+        Entidad entidad = Entidad.modificadaPor(tipo != null && tipo.isJsonPrimitive() ? tipo.getAsString() : null);
+        if (entidad == null) {
+            return;
+        }
+        String id = entidad.idEn(solicitud);
+        invalidar(entidad, id);
+        respuesta.whenComplete((r, error) -> invalidar(entidad, id));
+    }
+
+    /**
+     * @param id Entidad a invalidar; si es nulo se vacía la caché de ese tipo
+     */
+    public void invalidar(Entidad entidad, String id) {
+        if (id != null) {
+            caches.get(entidad).invalidar(id);
+        } else {
+            caches.get(entidad).vaciar();
+        }
+    }
+
+    public void vaciar() {
+        caches.values().forEach(Cache::vaciar);
+    }
+
+    /**
+     * @return La caché de una entidad, para consultar sus contadores
+     */
+    public Cache<String, JsonObject> de(Entidad entidad) {
+        return caches.get(entidad);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder resumen = new StringBuilder();
+        caches.forEach((entidad, cache) -> resumen.append(entidad).append(": ").append(cache).append('\n'));
+        return resumen.toString();
+    }
+}
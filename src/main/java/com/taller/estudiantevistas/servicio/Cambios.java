@@ -0,0 +1,51 @@
+package com.taller.estudiantevistas.servicio;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cambios de un listado entre dos versiones, ya aplicados al almacén local de un {@link Sincronizador}.
+ * @param <T> Tipo de cada elemento del listado
+ */
+public class Cambios<T> {
+    private final long version;
+    private final List<T> creados;
+    private final List<T> actualizados;
+    private final List<String> eliminados;
+
+    Cambios(long version, List<T> creados, List<T> actualizados, List<String> eliminados) {
+        this.version = version;
+        this.creados = Collections.unmodifiableList(creados);
+        this.actualizados = Collections.unmodifiableList(actualizados);
+        this.eliminados = Collections.unmodifiableList(eliminados);
+    }
+
+    /**
+     * @return Versión del servidor hasta la que llegan estos cambios
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public List<T> getCreados() {
+        return creados;
+    }
+
+    /**
+     * @return Elementos actualizados que ya estaban en el almacén local
+     */
+    public List<T> getActualizados() {
+        return actualizados;
+    }
+
+    /**
+     * @return Ids eliminados que estaban en el almacén local
+     */
+    public List<String> getEliminados() {
+        return eliminados;
+    }
+
+    public boolean estaVacio() {
+        return creados.isEmpty() && actualizados.isEmpty() && eliminados.isEmpty();
+    }
+}
@@ -0,0 +1,442 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Base común de los transportes: asigna un identificador ({@value #CAMPO_ID}) a cada solicitud
+ * y entrega cada respuesta a quien la está esperando, aunque haya muchas en vuelo a la vez.
+ *
+ * Si el servidor no devuelve el identificador, las respuestas se asignan en orden de
+ * llegada (FIFO), que es el orden en el que el servidor procesa las líneas de una conexión.
+ * Las subclases solo se ocupan de escribir líneas y de entregar a {@link #despachar(JsonReader)}
+ * un lector posicionado sobre cada respuesta.
+ *
+ * Los mensajes que el servidor envía por su cuenta llevan {@value #CAMPO_EVENTO} y no
+ * {@value #CAMPO_ID}; no corresponden a ninguna solicitud y se entregan al receptor de eventos.
+ *
+ * Cada solicitud tiene un plazo. Si vence, o si el llamador cancela el futuro, la solicitud falla
+ * sin esperar al servidor y su respuesta tardía se descarta al llegar. Hasta entonces la solicitud
+ * abandonada conserva su turno FIFO, para que las respuestas siguientes no se corran de lugar
+ * aunque el servidor no devuelva {@value #CAMPO_ID} o lo escriba después del arreglo.
+ *
+ * Ese turno no se guarda para siempre: si la respuesta tampoco llega dentro de
+ * {@link #GRACIA_ABANDONADAS}, se da por perdida. Quitarla sola correría el orden FIFO, así que
+ * el canal se trata como caído: fallan sus pendientes y la conexión se restablece.
+ */
+abstract class Canal implements Closeable {
+    static final String CAMPO_ID = "idSolicitud";
+    static final String CAMPO_EVENTO = "evento";
+    static final Duration GRACIA_ABANDONADAS = Duration.ofSeconds(60);
+
+    static final ScheduledThreadPoolExecutor PLAZOS = crearPlanificadorPlazos();
+
+    private final Object candadoEscritura = new Object();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final Map<Long, Pendiente> pendientes = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Long> ordenEnvio = new ConcurrentLinkedDeque<>();
+    protected volatile boolean cerrado;
+    private volatile Consumer<JsonObject> receptorEventos = evento -> { };
+    private volatile Consumer<ConexionPerdidaException> receptorPerdida = causa -> { };
+    private volatile MetricasProtocolo metricas;
+
+    /**
+     * Escribe las líneas en el socket, en orden. Se llama con el candado de escritura tomado,
+     * así que el orden de escritura coincide con el orden FIFO de las solicitudes pendientes.
+     */
+    protected abstract void escribir(List<String> lineas) throws IOException;
+
+    abstract boolean estaAbierto();
+
+    @Override
+    public abstract void close();
+
+    /**
+     * Envía una solicitud sin bloquear al llamador.
+     * @param solicitud Mensaje con los campos "tipo" y "datos"
+     * @return Futuro que se completa con la respuesta correspondiente a esta solicitud
+     */
+    CompletableFuture<JsonObject> enviar(JsonObject solicitud) {
+        return enviarLote(List.of(solicitud)).get(0);
+    }
+
+    /**
+     * @param plazo Tiempo máximo de espera de esta solicitud
+     */
+    CompletableFuture<JsonObject> enviar(JsonObject solicitud, Duration plazo) {
+        return enviarLote(List.of(solicitud), Collections.singletonList(null), plazo).get(0);
+    }
+
+    /**
+     * Escribe varias solicitudes seguidas con un único vaciado del buffer de salida.
+     * @param solicitudes Mensajes a enviar, en orden
+     * @return Un futuro por solicitud, en el mismo orden
+     */
+    List<CompletableFuture<JsonObject>> enviarLote(List<JsonObject> solicitudes) {
+        return enviarLote(solicitudes, Collections.nCopies(solicitudes.size(), null));
+    }
+
+    /**
+     * Igual que {@link #enviarLote(List)}, pero los arreglos indicados en cada receptor se
+     * entregan elemento a elemento mientras se leen y no forman parte de la respuesta.
+     * @param receptores Un receptor por solicitud, o {@code null} para recibirla completa
+     */
+    List<CompletableFuture<JsonObject>> enviarLote(List<JsonObject> solicitudes, List<ReceptorLista> receptores) {
+        return enviarLote(solicitudes, receptores, ClienteServicio.PLAZO_POR_DEFECTO);
+    }
+
+    /**
+     * @param plazo Tiempo máximo de espera de cada solicitud, contado desde que se escribe.
+     * Al vencer, su futuro falla con {@link TiempoAgotadoException}
+     */
+    List<CompletableFuture<JsonObject>> enviarLote(List<JsonObject> solicitudes, List<ReceptorLista> receptores,
+                                                   Duration plazo) {
+        List<CompletableFuture<JsonObject>> futuros = new ArrayList<>(solicitudes.size());
+        if (cerrado) {
+            for (int i = 0; i < solicitudes.size(); i++) {
+                futuros.add(CompletableFuture.failedFuture(new ConexionPerdidaException("La conexión con el servidor está cerrada")));
+            }
+            return futuros;
+        }
+
+        List<Long> ids = new ArrayList<>(solicitudes.size());
+        List<String> lineas = new ArrayList<>(solicitudes.size());
+        List<Pendiente> nuevas = new ArrayList<>(solicitudes.size());
+        boolean escritas = false;
+        synchronized (candadoEscritura) {
+            for (int i = 0; i < solicitudes.size(); i++) {
+                JsonObject solicitud = solicitudes.get(i);
+                long id = secuencia.incrementAndGet();
+                CompletableFuture<JsonObject> futuro = new CompletableFuture<>();
+                Pendiente pendiente = new Pendiente(id, tipoDe(solicitud), futuro, receptores.get(i));
+                pendientes.put(id, pendiente);
+                ordenEnvio.addLast(id);
+                lineas.add(copiarConId(solicitud, id).toString());
+                ids.add(id);
+                nuevas.add(pendiente);
+                futuros.add(futuro);
+            }
+            try {
+                escribir(lineas);
+                escritas = true;
+            } catch (IOException e) {
+                IOException error = new ConexionPerdidaException(new IOException("No se pudo enviar la solicitud al servidor", e));
+                for (int i = 0; i < ids.size(); i++) {
+                    descartar(ids.get(i));
+                    futuros.get(i).completeExceptionally(error);
+                }
+            }
+        }
+        nuevas.forEach(p -> vigilar(p, plazo));
+        MetricasProtocolo medidas = metricas;
+        if (escritas && medidas != null) {
+            for (int i = 0; i < nuevas.size(); i++) {
+                // Más el fin de línea
+                medidas.bytesEnviados(nuevas.get(i).tipo, bytesUtf8(lineas.get(i)) + 1);
+            }
+        }
+        return futuros;
+    }
+
+
+    /**
+     * @param receptor Recibe cada evento del servidor en el hilo lector; debe ser rápido y no bloquear
+     */
+    void alRecibirEvento(Consumer<JsonObject> receptor) {
+        this.receptorEventos = receptor;
+    }
+
+    /**
+     * @param receptor Se llama una vez, desde el hilo de E/S, si la conexión se corta sin que
+     * nadie la haya cerrado
+     */
+    void alPerderConexion(Consumer<ConexionPerdidaException> receptor) {
+        this.receptorPerdida = receptor;
+    }
+
+    /**
+     * @param metricas Dónde contar los bytes de cada solicitud y respuesta; {@code null} no cuenta
+     */
+    void medirCon(MetricasProtocolo metricas) {
+        this.metricas = metricas;
+    }
+
+    int solicitudesEnVuelo() {
+        return pendientes.size();
+    }
+
+    /**
+     * Lee una respuesta completa y la entrega a la solicitud que le corresponde.
+     *
+     * La respuesta se decodifica campo a campo. Si la solicitud destino pidió recibir un arreglo
+     * en streaming, sus elementos se entregan a medida que se leen. Cuando el servidor escribe
+     * {@value #CAMPO_ID} después del arreglo, el destino se asume por orden FIFO y se comprueba
+     * al terminar.
+     * @return El tipo de la solicitud a la que correspondía la respuesta, para
+     * {@link #medirRecibidos(String, long)}; {@code null} si era un evento o no tenía destino
+     * @throws IOException Si el JSON está mal formado; la solicitud afectada ya quedó fallida
+     */
+    protected String despachar(JsonReader lector) throws IOException {
+        if (lector.peek() != JsonToken.BEGIN_OBJECT) {
+            lector.skipValue();
+            despacharError(new IOException("Respuesta del servidor no es un objeto JSON válido"));
+            return null;
+        }
+
+        JsonObject respuesta = new JsonObject();
+        Long id = null;
+        Pendiente enStreaming = null;
+        boolean esEvento = false;
+        try {
+            lector.beginObject();
+            while (lector.hasNext()) {
+                String campo = lector.nextName();
+                if (CAMPO_ID.equals(campo) && lector.peek() == JsonToken.NUMBER) {
+                    id = lector.nextLong();
+                    continue;
+                }
+                if (CAMPO_EVENTO.equals(campo) && enStreaming == null) {
+                    esEvento = true;
+                }
+                if (!esEvento && lector.peek() == JsonToken.BEGIN_ARRAY) {
+                    Pendiente destino = candidato(id);
+                    if (destino != null && destino.abandonada && destino.receptor != null) {
+                        // Nadie espera ya este arreglo: se salta sin decodificarlo
+                        lector.skipValue();
+                        continue;
+                    }
+                    if (destino != null && destino.receptor != null && destino.receptor.recibe(campo)) {
+                        enStreaming = destino;
+                        destino.receptor.leer(lector);
+                        continue;
+                    }
+                }
+                respuesta.add(campo, JsonParser.parseReader(lector));
+            }
+            lector.endObject();
+        } catch (JsonParseException | IllegalStateException | IOException e) {
+            IOException error = new IOException("Respuesta del servidor no es un JSON válido", e);
+            if (!esEvento || id != null) {
+                retirar(id).ifPresent(p -> p.futuro.completeExceptionally(error));
+            }
+            throw error;
+        }
+
+        if (esEvento && id == null) {
+            entregarEvento(respuesta);
+            return null;
+        }
+
+        Optional<Pendiente> destino = retirar(id);
+        if (enStreaming != null && destino.orElse(null) != enStreaming) {
+            // El arreglo se entregó a otra solicitud: ninguna de las dos recibió lo que pidió
+            IOException error = new IOException("Respuesta en streaming entregada a otra solicitud");
+            descartar(enStreaming.id);
+            enStreaming.futuro.completeExceptionally(error);
+            destino.ifPresent(p -> p.futuro.completeExceptionally(error));
+            return enStreaming.tipo;
+        }
+        if (destino.isEmpty()) {
+            System.err.println("⚠️ Respuesta sin solicitud pendiente descartada");
+            return null;
+        }
+        Pendiente pendiente = destino.get();
+        if (pendiente.abandonada) {
+            System.err.println("⏱️ Respuesta tardía a " + pendiente.tipo + " descartada");
+        } else {
+            pendiente.futuro.complete(respuesta);
+        }
+        return pendiente.tipo;
+    }
+
+    /**
+     * Lo llaman las subclases con el tamaño en el cable de cada respuesta despachada.
+     * @param tipo Lo que devolvió {@link #despachar(JsonReader)}
+     */
+    protected void medirRecibidos(String tipo, long bytes) {
+        MetricasProtocolo medidas = metricas;
+        if (medidas != null && bytes > 0) {
+            medidas.bytesRecibidos(tipo != null ? tipo : MetricasProtocolo.SIN_SOLICITUD, bytes);
+        }
+    }
+
+    /**
+     * Programa el vencimiento de la solicitud y la libera si su futuro termina sin respuesta,
+     * ya sea por el plazo o porque el llamador lo canceló.
+     */
+    private void vigilar(Pendiente pendiente, Duration plazo) {
+        if (pendiente.futuro.isDone()) {
+            return;
+        }
+        ScheduledFuture<?> vencimiento = PLAZOS.schedule(
+                () -> pendiente.futuro.completeExceptionally(new TiempoAgotadoException(pendiente.tipo, plazo)),
+                plazo.toNanos(), TimeUnit.NANOSECONDS);
+        pendiente.futuro.whenComplete((respuesta, error) -> {
+            vencimiento.cancel(false);
+            if (error != null) {
+                abandonar(pendiente);
+            }
+        });
+    }
+
+    private void abandonar(Pendiente pendiente) {
+        pendiente.abandonada = true;
+        if (pendiente.receptor != null) {
+            pendiente.receptor.descartar();
+        }
+        PLAZOS.schedule(() -> {
+            if (!cerrado && pendientes.get(pendiente.id) == pendiente) {
+                System.err.println("⚠️ " + pendiente.tipo + " sigue sin respuesta " + GRACIA_ABANDONADAS.toSeconds()
+                        + " s después de abandonarla, se reinicia la conexión");
+                conexionPerdida(new IOException("El servidor no respondió a " + pendiente.tipo));
+            }
+        }, GRACIA_ABANDONADAS.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void entregarEvento(JsonObject evento) {
+        try {
+            receptorEventos.accept(evento);
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Error al procesar evento del servidor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Marca como fallida la solicitud más antigua, por ejemplo cuando su respuesta no se pudo parsear.
+     */
+    protected void despacharError(IOException error) {
+        retirar(null).ifPresent(p -> p.futuro.completeExceptionally(error));
+    }
+
+    protected void fallarPendientes(IOException causa) {
+        ConexionPerdidaException error = causa instanceof ConexionPerdidaException
+                ? (ConexionPerdidaException) causa
+                : new ConexionPerdidaException(causa);
+        ordenEnvio.clear();
+        pendientes.values().forEach(p -> p.futuro.completeExceptionally(error));
+        pendientes.clear();
+    }
+
+    /**
+     * Lo llaman las subclases cuando termina su hilo de E/S, y el propio canal cuando vence la
+     * gracia de una solicitud abandonada. Falla las solicitudes pendientes y, si nadie pidió
+     * cerrar el canal, lo cierra y avisa al receptor de pérdidas.
+     */
+    protected void conexionPerdida(IOException causa) {
+        boolean inesperada = !cerrado;
+        // Cerrado antes de fallar las pendientes: quien reintente en ese momento no debe usar este canal
+        cerrado = true;
+        ConexionPerdidaException error = new ConexionPerdidaException(causa);
+        fallarPendientes(error);
+        if (inesperada) {
+            close();
+            receptorPerdida.accept(error);
+        }
+    }
+
+    /**
+     * Retira la solicitud pendiente indicada o, si no hay id, la más antigua.
+     */
+    private Optional<Pendiente> retirar(Long id) {
+        Long clave = id;
+        if (clave == null) {
+            clave = ordenEnvio.pollFirst();
+        } else {
+            ordenEnvio.remove(clave);
+        }
+        return Optional.ofNullable(clave != null ? pendientes.remove(clave) : null);
+    }
+
+    /**
+     * Solicitud a la que iría la respuesta en curso, sin retirarla todavía.
+     */
+    private Pendiente candidato(Long id) {
+        Long clave = id != null ? id : ordenEnvio.peekFirst();
+        return clave != null ? pendientes.get(clave) : null;
+    }
+
+    private void descartar(long id) {
+        ordenEnvio.remove(id);
+        pendientes.remove(id);
+    }
+
+    /**
+     * @return Los bytes que ocupa el texto en UTF-8, sin codificarlo
+     */
+    static long bytesUtf8(CharSequence texto) {
+        long bytes = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            char caracter = texto.charAt(i);
+            if (caracter < 0x80) {
+                bytes++;
+            } else if (caracter < 0x800 || Character.isSurrogate(caracter)) {
+                // Cada mitad de un par sustituto cuenta 2: juntas son los 4 bytes del carácter
+                bytes += 2;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    static String tipoDe(JsonObject solicitud) {
+        JsonElement tipo = solicitud.get("tipo");
+        return tipo != null && tipo.isJsonPrimitive() ? tipo.getAsString() : null;
+    }
+
+    private static ScheduledThreadPoolExecutor crearPlanificadorPlazos() {
+        ScheduledThreadPoolExecutor planificador = new ScheduledThreadPoolExecutor(1, tarea -> {
+            Thread hilo = new Thread(tarea, "canal-plazos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Casi todas las solicitudes responden a tiempo: sus vencimientos no deben quedarse en la cola
+        planificador.setRemoveOnCancelPolicy(true);
+        return planificador;
+    }
+
+    private static JsonObject copiarConId(JsonObject solicitud, long id) {
+        JsonObject copia = new JsonObject();
+        copia.addProperty(CAMPO_ID, id);
+        for (Map.Entry<String, JsonElement> campo : solicitud.entrySet()) {
+            copia.add(campo.getKey(), campo.getValue());
+        }
+        return copia;
+    }
+
+    private static final class Pendiente {
+        final long id;
+        final String tipo;
+        final CompletableFuture<JsonObject> futuro;
+        final ReceptorLista receptor;
+        volatile boolean abandonada;
+
+        Pendiente(long id, String tipo, CompletableFuture<JsonObject> futuro, ReceptorLista receptor) {
+            this.id = id;
+            this.tipo = tipo;
+            this.futuro = futuro;
+            this.receptor = receptor;
+        }
+    }
+}
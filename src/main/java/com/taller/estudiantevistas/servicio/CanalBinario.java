@@ -0,0 +1,279 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+import java.io.*;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Transporte con tramas binarias de longitud prefijada y compresión opcional.
+ *
+ * Formato de cada trama: longitud de la carga (int de 4 bytes, big-endian), un byte de
+ * banderas ({@link #BANDERA_DEFLATE} si la carga va comprimida) y la carga en UTF-8.
+ *
+ * El modo se negocia al conectar con un mensaje {@value #TIPO_NEGOCIACION} en el protocolo de
+ * líneas. Si el servidor no lo acepta, {@link #conectar(String, int)} devuelve un
+ * {@link CanalMultiplexado} y la conexión sigue con el protocolo de líneas de siempre.
+ */
+class CanalBinario extends Canal {
+    static final String TIPO_NEGOCIACION = "NEGOCIAR_PROTOCOLO";
+    static final String FRAMING_BINARIO = "BINARIO";
+    static final String COMPRESION_DEFLATE = "DEFLATE";
+    static final String COMPRESION_NINGUNA = "NINGUNA";
+
+    /** Longitud (int) y banderas (byte) al frente de cada trama. */
+    private static final int TAMANO_CABECERA = 5;
+    private static final int BANDERA_DEFLATE = 0x01;
+    private static final int ESPERA_NEGOCIACION_MS = 3000;
+    private static final int TAMANO_MINIMO_COMPRESION = 1024;
+    private static final int TAMANO_MAXIMO_TRAMA = 256 * 1024 * 1024;
+    private static final int TAMANO_BUFFER_TRAMA = 64 * 1024;
+    private static final int TAMANO_BUFFER_PLANO = 256 * 1024;
+
+    private final Socket socket;
+    private final DataOutputStream salida;
+    private final DataInputStream entrada;
+    private final boolean deflate;
+    private final Deflater compresor;
+    private final Inflater descompresor;
+    private final Thread lector;
+
+    // Buffers del hilo lector, reutilizados entre tramas; tras una trama más grande vuelven a
+    // su tamaño inicial para no retener la memoria de un listado excepcional
+    private byte[] bufferTrama = new byte[TAMANO_BUFFER_TRAMA];
+    private byte[] bufferPlano = new byte[TAMANO_BUFFER_PLANO];
+
+    private CanalBinario(Socket socket, boolean deflate) throws IOException {
+        this.socket = socket;
+        this.deflate = deflate;
+        this.salida = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.entrada = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.compresor = deflate ? new Deflater(Deflater.BEST_SPEED) : null;
+        this.descompresor = new Inflater();
+
+        this.lector = new Thread(this::leerTramas, "canal-binario-" + socket.getPort());
+        this.lector.setDaemon(true);
+        this.lector.start();
+    }
+
+    /**
+     * Abre una conexión e intenta negociar el framing binario.
+     * @return Un canal binario si el servidor lo acepta, o un canal de líneas en caso contrario
+     */
+    static Canal conectar(String host, int puerto) throws IOException {
+        Socket socket = new Socket(host, puerto);
+        try {
+            socket.setSoTimeout(ESPERA_NEGOCIACION_MS);
+            OutputStream out = socket.getOutputStream();
+            out.write((crearNegociacion().toString() + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            JsonObject respuesta = JsonParser.parseString(leerLineaSinBuffer(socket.getInputStream())).getAsJsonObject();
+            socket.setSoTimeout(0);
+
+            boolean aceptado = respuesta.has("exito") && respuesta.get("exito").getAsBoolean()
+                    && respuesta.has("framing") && FRAMING_BINARIO.equals(respuesta.get("framing").getAsString());
+            if (aceptado) {
+                boolean conDeflate = respuesta.has("compresion")
+                        && COMPRESION_DEFLATE.equals(respuesta.get("compresion").getAsString());
+                System.out.println("🔗 Framing binario negociado" + (conDeflate ? " con compresión DEFLATE" : ""));
+                return new CanalBinario(socket, conDeflate);
+            }
+            System.out.println("ℹ️ El servidor no admite framing binario, se usa el protocolo de líneas");
+            return new CanalMultiplexado(socket);
+        } catch (SocketTimeoutException e) {
+            // Sin respuesta: una respuesta tardía desincronizaría la conexión, así que se abre otra
+            socket.close();
+            System.out.println("ℹ️ Sin respuesta a la negociación, se usa el protocolo de líneas");
+            return new CanalMultiplexado(new Socket(host, puerto));
+        } catch (JsonParseException | IllegalStateException e) {
+            socket.close();
+            return new CanalMultiplexado(new Socket(host, puerto));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void escribir(List<String> lineas) throws IOException {
+        for (String linea : lineas) {
+            byte[] carga = linea.getBytes(StandardCharsets.UTF_8);
+            if (deflate && carga.length >= TAMANO_MINIMO_COMPRESION) {
+                byte[] comprimida = comprimir(carga);
+                salida.writeInt(comprimida.length);
+                salida.writeByte(BANDERA_DEFLATE);
+                salida.write(comprimida);
+            } else {
+                salida.writeInt(carga.length);
+                salida.writeByte(0);
+                salida.write(carga);
+            }
+        }
+        salida.flush();
+    }
+
+    @Override
+    boolean estaAbierto() {
+        return !cerrado && socket.isConnected() && !socket.isClosed();
+    }
+
+    @Override
+    public void close() {
+        cerrado = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar conexión: " + e.getMessage());
+        }
+        if (compresor != null) {
+            // Con el mismo candado que comprimir(): no se libera mientras se está usando
+            synchronized (compresor) {
+                compresor.end();
+            }
+        }
+        fallarPendientes(new IOException("Conexión cerrada"));
+    }
+
+    private void leerTramas() {
+        IOException causa = new IOException("Conexión cerrada");
+        try {
+            while (!cerrado) {
+                int longitud = entrada.readInt();
+                int banderas = entrada.readUnsignedByte();
+                if (longitud < 0 || longitud > TAMANO_MAXIMO_TRAMA) {
+                    throw new IOException("Trama con longitud inválida: " + longitud);
+                }
+
+                bufferTrama = asegurarCapacidad(bufferTrama, longitud);
+                entrada.readFully(bufferTrama, 0, longitud);
+
+                if ((banderas & BANDERA_DEFLATE) != 0) {
+                    int plano = descomprimir(bufferTrama, longitud);
+                    procesarCarga(bufferPlano, plano, longitud + TAMANO_CABECERA);
+                    if (bufferPlano.length > TAMANO_BUFFER_PLANO) {
+                        bufferPlano = new byte[TAMANO_BUFFER_PLANO];
+                    }
+                } else {
+                    procesarCarga(bufferTrama, longitud, longitud + TAMANO_CABECERA);
+                }
+                if (bufferTrama.length > TAMANO_BUFFER_TRAMA) {
+                    bufferTrama = new byte[TAMANO_BUFFER_TRAMA];
+                }
+            }
+        } catch (EOFException e) {
+            causa = new IOException("El servidor cerró la conexión");
+        } catch (IOException e) {
+            if (!cerrado) {
+                System.err.println("❌ Error leyendo del servidor: " + e.getMessage());
+            }
+            causa = e;
+        } finally {
+            conexionPerdida(causa);
+            descompresor.end();
+        }
+    }
+
+    /**
+     * @param enCable Bytes de la trama completa, con cabecera y todavía comprimida
+     */
+    private void procesarCarga(byte[] datos, int longitud, long enCable) {
+        try (JsonReader lector = new JsonReader(new InputStreamReader(
+                new ByteArrayInputStream(datos, 0, longitud), StandardCharsets.UTF_8))) {
+            medirRecibidos(despachar(lector), enCable);
+        } catch (IOException e) {
+            // La solicitud afectada ya se marcó como fallida; la siguiente trama sigue siendo válida
+            System.err.println("⚠️ " + e.getMessage());
+        }
+    }
+
+    private int descomprimir(byte[] datos, int longitud) throws IOException {
+        descompresor.reset();
+        descompresor.setInput(datos, 0, longitud);
+        int total = 0;
+        try {
+            while (!descompresor.finished()) {
+                if (total == bufferPlano.length) {
+                    // Una trama chica puede inflarse sin límite: el tope es el mismo que en el cable
+                    if (total >= TAMANO_MAXIMO_TRAMA) {
+                        throw new IOException("Trama descomprimida supera " + TAMANO_MAXIMO_TRAMA + " bytes");
+                    }
+                    bufferPlano = Arrays.copyOf(bufferPlano, (int) Math.min(2L * bufferPlano.length, TAMANO_MAXIMO_TRAMA));
+                }
+                int n = descompresor.inflate(bufferPlano, total, bufferPlano.length - total);
+                if (n == 0 && (descompresor.needsInput() || descompresor.needsDictionary())) {
+                    throw new IOException("Trama comprimida incompleta");
+                }
+                total += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Trama comprimida inválida", e);
+        }
+        return total;
+    }
+
+    // Solo se llama desde escribir(), que ya se ejecuta con el candado de escritura tomado; el
+    // del compresor es para que close() no lo libere a mitad de una trama
+    private byte[] comprimir(byte[] datos) throws IOException {
+        synchronized (compresor) {
+            if (cerrado) {
+                throw new IOException("Conexión cerrada");
+            }
+            compresor.reset();
+            compresor.setInput(datos);
+            compresor.finish();
+            ByteArrayOutputStream salidaComprimida = new ByteArrayOutputStream(datos.length / 2);
+            byte[] bloque = new byte[8192];
+            while (!compresor.finished()) {
+                int n = compresor.deflate(bloque);
+                salidaComprimida.write(bloque, 0, n);
+            }
+            return salidaComprimida.toByteArray();
+        }
+    }
+
+    private static byte[] asegurarCapacidad(byte[] buffer, int necesario) {
+        if (buffer.length >= necesario) {
+            return buffer;
+        }
+        return new byte[Math.max(necesario, buffer.length * 2)];
+    }
+
+    private static JsonObject crearNegociacion() {
+        JsonObject datos = new JsonObject();
+        JsonArray framing = new JsonArray();
+        framing.add(FRAMING_BINARIO);
+        JsonArray compresion = new JsonArray();
+        compresion.add(COMPRESION_DEFLATE);
+        compresion.add(COMPRESION_NINGUNA);
+        datos.add("framing", framing);
+        datos.add("compresion", compresion);
+        return ClienteServicio.crearSolicitud(TIPO_NEGOCIACION, datos);
+    }
+
+    /**
+     * Lee una línea byte a byte para no consumir datos que ya pertenecen a las tramas binarias.
+     */
+    private static String leerLineaSinBuffer(InputStream in) throws IOException {
+        ByteArrayOutputStream linea = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            linea.write(b);
+        }
+        if (b == -1 && linea.size() == 0) {
+            throw new EOFException("El servidor cerró la conexión durante la negociación");
+        }
+        return linea.toString(StandardCharsets.UTF_8);
+    }
+}
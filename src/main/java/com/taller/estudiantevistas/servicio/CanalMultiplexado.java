@@ -0,0 +1,113 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Transporte sobre {@link Socket} bloqueante: las escrituras se hacen en el hilo del llamador
+ * y un único hilo lector entrega cada respuesta a quien la está esperando.
+ *
+ * Las respuestas se decodifican directamente del socket, una tras otra, sin leer antes cada
+ * línea completa en un {@code String}. Como no hay forma de resincronizar un flujo con JSON
+ * mal formado, un error de formato cierra la conexión.
+ */
+class CanalMultiplexado extends Canal {
+    private final Socket socket;
+    private final PrintWriter salida;
+    private final ContadorEntrada contador;
+    private final JsonReader entrada;
+    private final Thread lector;
+
+    CanalMultiplexado(Socket socket) throws IOException {
+        this.socket = socket;
+        this.salida = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), false);
+        this.contador = new ContadorEntrada(socket.getInputStream());
+        this.entrada = new JsonReader(new BufferedReader(new InputStreamReader(contador, StandardCharsets.UTF_8)));
+        // Permite leer una respuesta tras otra del mismo flujo
+        this.entrada.setLenient(true);
+
+        this.lector = new Thread(this::leerRespuestas, "canal-lector-" + socket.getPort());
+        this.lector.setDaemon(true);
+        this.lector.start();
+    }
+
+    @Override
+    protected void escribir(List<String> lineas) throws IOException {
+        for (String linea : lineas) {
+            salida.println(linea);
+        }
+        salida.flush();
+        if (salida.checkError()) {
+            throw new IOException("Error de escritura en el socket");
+        }
+    }
+
+    @Override
+    boolean estaAbierto() {
+        return !cerrado && socket.isConnected() && !socket.isClosed();
+    }
+
+    @Override
+    public void close() {
+        cerrado = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar conexión: " + e.getMessage());
+        }
+        fallarPendientes(new IOException("Conexión cerrada"));
+    }
+
+    private void leerRespuestas() {
+        IOException causa = new IOException("El servidor cerró la conexión");
+        try {
+            while (entrada.peek() != JsonToken.END_DOCUMENT) {
+                long antes = contador.leidos;
+                String tipo = despachar(entrada);
+                // Aproximado: incluye lo que el lector ya adelantó de la respuesta siguiente
+                medirRecibidos(tipo, contador.leidos - antes);
+            }
+        } catch (IOException e) {
+            if (!cerrado) {
+                System.err.println("❌ Error leyendo del servidor: " + e.getMessage());
+            }
+            causa = e;
+        } finally {
+            conexionPerdida(causa);
+        }
+    }
+
+    /**
+     * Cuenta los bytes leídos del socket. Solo lo usa el hilo lector.
+     */
+    private static final class ContadorEntrada extends FilterInputStream {
+        long leidos;
+
+        ContadorEntrada(InputStream origen) {
+            super(origen);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int leido = super.read();
+            if (leido >= 0) {
+                leidos++;
+            }
+            return leido;
+        }
+
+        @Override
+        public int read(byte[] destino, int desplazamiento, int longitud) throws IOException {
+            int cantidad = super.read(destino, desplazamiento, longitud);
+            if (cantidad > 0) {
+                leidos += cantidad;
+            }
+            return cantidad;
+        }
+    }
+}
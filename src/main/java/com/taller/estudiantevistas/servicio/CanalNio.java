@@ -0,0 +1,209 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Transporte no bloqueante sobre {@link SocketChannel} y un {@link Selector}.
+ * Un único hilo de E/S hace todas las lecturas y escrituras de la conexión, de modo que
+ * ninguna solicitud en vuelo ocupa un hilo esperando su respuesta.
+ *
+ * Las respuestas se delimitan por salto de línea dentro de un {@link ByteBuffer} directo y se
+ * parsean desde el propio buffer, sin construir un {@code String} por línea.
+ */
+class CanalNio extends Canal {
+    private static final int TAMANO_INICIAL_LECTURA = 64 * 1024;
+    private static final byte FIN_DE_LINEA = '\n';
+
+    private final SocketChannel canal;
+    private final Selector selector;
+    private final SelectionKey clave;
+    private final Queue<ByteBuffer> colaEscritura = new ConcurrentLinkedQueue<>();
+    private final Thread hiloES;
+    private ByteBuffer lectura = ByteBuffer.allocateDirect(TAMANO_INICIAL_LECTURA);
+    // Bytes de la línea incompleta al principio de lectura que ya se revisaron sin encontrar su fin
+    private int revisados;
+
+    CanalNio(String host, int puerto) throws IOException {
+        this.canal = SocketChannel.open(new InetSocketAddress(host, puerto));
+        this.canal.configureBlocking(false);
+        this.selector = Selector.open();
+        this.clave = canal.register(selector, SelectionKey.OP_READ);
+
+        this.hiloES = new Thread(this::bucleES, "canal-nio-" + puerto);
+        this.hiloES.setDaemon(true);
+        this.hiloES.start();
+    }
+
+    @Override
+    protected void escribir(List<String> lineas) throws IOException {
+        if (!canal.isOpen()) {
+            throw new IOException("El canal está cerrado");
+        }
+        for (String linea : lineas) {
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(linea));
+            ByteBuffer conFin = ByteBuffer.allocate(bytes.remaining() + 1);
+            conFin.put(bytes).put(FIN_DE_LINEA).flip();
+            colaEscritura.add(conFin);
+        }
+        selector.wakeup();
+    }
+
+    @Override
+    boolean estaAbierto() {
+        return !cerrado && canal.isOpen() && canal.isConnected();
+    }
+
+    @Override
+    public void close() {
+        cerrado = true;
+        try {
+            selector.close();
+            canal.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar conexión: " + e.getMessage());
+        }
+        fallarPendientes(new IOException("Conexión cerrada"));
+    }
+
+    private void bucleES() {
+        IOException causa = new IOException("Conexión cerrada");
+        try {
+            while (!cerrado) {
+                if (!colaEscritura.isEmpty()) {
+                    vaciarEscrituras();
+                }
+                selector.select();
+                if (!selector.isOpen()) {
+                    break;
+                }
+                Iterator<SelectionKey> seleccionadas = selector.selectedKeys().iterator();
+                while (seleccionadas.hasNext()) {
+                    SelectionKey lista = seleccionadas.next();
+                    seleccionadas.remove();
+                    if (!lista.isValid()) {
+                        continue;
+                    }
+                    if (lista.isReadable()) {
+                        leer();
+                    }
+                    if (lista.isValid() && lista.isWritable()) {
+                        vaciarEscrituras();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (!cerrado) {
+                System.err.println("❌ Error de E/S con el servidor: " + e.getMessage());
+            }
+            causa = e;
+        } catch (RuntimeException e) {
+            causa = new IOException("Error en el hilo de E/S", e);
+        } finally {
+            conexionPerdida(causa);
+        }
+    }
+
+    private void vaciarEscrituras() throws IOException {
+        ByteBuffer siguiente;
+        while ((siguiente = colaEscritura.peek()) != null) {
+            canal.write(siguiente);
+            if (siguiente.hasRemaining()) {
+                // El buffer del socket está lleno: esperar a que el selector avise
+                clave.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            colaEscritura.poll();
+        }
+        clave.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void leer() throws IOException {
+        int leidos = canal.read(lectura);
+        if (leidos < 0) {
+            throw new IOException("El servidor cerró la conexión");
+        }
+
+        lectura.flip();
+        int inicio = lectura.position();
+        // La línea incompleta del principio ya se revisó en lecturas anteriores: seguir desde ahí
+        for (int i = inicio + revisados; i < lectura.limit(); i++) {
+            if (lectura.get(i) == FIN_DE_LINEA) {
+                procesarTrama(inicio, i);
+                inicio = i + 1;
+            }
+        }
+        // compact descarta lo anterior a inicio y mueve la línea incompleta al principio
+        revisados = lectura.limit() - inicio;
+        lectura.position(inicio);
+        lectura.compact();
+
+        if (!lectura.hasRemaining()) {
+            // Una sola respuesta no cabe en el buffer: duplicar su capacidad
+            ByteBuffer mayor = ByteBuffer.allocateDirect(lectura.capacity() * 2);
+            lectura.flip();
+            mayor.put(lectura);
+            lectura = mayor;
+        }
+    }
+
+    private void procesarTrama(int inicio, int fin) {
+        if (fin == inicio) {
+            return;
+        }
+        ByteBuffer trama = lectura.duplicate();
+        trama.limit(fin).position(inicio);
+        try (JsonReader lector = new JsonReader(new InputStreamReader(new EntradaBuffer(trama), StandardCharsets.UTF_8))) {
+            // Más el fin de línea
+            medirRecibidos(despachar(lector), fin - inicio + 1);
+        } catch (IOException e) {
+            // La solicitud afectada ya se marcó como fallida; la siguiente línea sigue siendo válida
+            System.err.println("⚠️ " + e.getMessage());
+        }
+    }
+
+    /**
+     * Vista de solo lectura de un {@link ByteBuffer} como {@link InputStream}, sin copiar los bytes.
+     */
+    private static final class EntradaBuffer extends InputStream {
+        private final ByteBuffer buffer;
+
+        EntradaBuffer(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] destino, int desplazamiento, int longitud) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int cantidad = Math.min(longitud, buffer.remaining());
+            buffer.get(destino, desplazamiento, cantidad);
+            return cantidad;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
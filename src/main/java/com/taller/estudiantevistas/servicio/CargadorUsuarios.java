@@ -0,0 +1,177 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Resuelve usuarios por id juntando en un solo mensaje {@value #TIPO_USUARIOS} los pedidos que
+ * se hacen antes de que corra el despacho: una lista de doscientas valoraciones que pide el
+ * autor de cada una cuesta una sola solicitud en lugar de doscientas.
+ *
+ * El primer pedido de una tanda programa el despacho en el {@link Executor} indicado. Con
+ * {@code Platform::runLater}, todo lo que se pida durante el mismo evento de la interfaz sale
+ * junto al terminar ese evento. Los usuarios que ya están en la caché de {@link ClienteServicio}
+ * no se piden, y los que llegan se guardan en ella.
+ *
+ * Formato: {@code {"tipo":"OBTENER_USUARIOS","datos":{"ids":[...]}}} y
+ * {@code {"exito":true,"usuarios":[{...}, ...]}}; los ids que el servidor no conoce no vienen en
+ * la respuesta. Si el servidor responde que no conoce el mensaje, cada usuario se pide con
+ * {@code OBTENER_USUARIO}; cualquier otro error falla todos los usuarios de esa solicitud.
+ */
+public final class CargadorUsuarios {
+    public static final String TIPO_USUARIOS = "OBTENER_USUARIOS";
+    static final String CAMPO_IDS = "ids";
+    static final String CAMPO_USUARIOS = "usuarios";
+    static final int MAXIMO_POR_SOLICITUD = 500;
+
+    private final Function<JsonObject, CompletableFuture<JsonObject>> enviar;
+    private final CacheEntidades cache;
+    private final Executor despacho;
+    private Map<String, CompletableFuture<JsonObject>> pendientes = new LinkedHashMap<>();
+    private volatile boolean masivoAdmitido = true;
+
+    CargadorUsuarios(Function<JsonObject, CompletableFuture<JsonObject>> enviar, CacheEntidades cache, Executor despacho) {
+        this.enviar = enviar;
+        this.cache = cache;
+        this.despacho = despacho;
+    }
+
+    /**
+     * @return Futuro con una copia del usuario; falla con {@link IOException} si el servidor no lo conoce
+     */
+    public CompletableFuture<JsonObject> cargar(String id) {
+        JsonObject guardado = cache.de(Entidad.USUARIO).obtener(id);
+        if (guardado != null) {
+            return CompletableFuture.completedFuture(guardado.deepCopy());
+        }
+
+        CompletableFuture<JsonObject> compartido;
+        boolean programar = false;
+        synchronized (this) {
+            compartido = pendientes.get(id);
+            if (compartido == null) {
+                programar = pendientes.isEmpty();
+                compartido = new CompletableFuture<>();
+                pendientes.put(id, compartido);
+            }
+        }
+        if (programar) {
+            despacho.execute(this::despachar);
+        }
+        return compartido.thenApply(JsonObject::deepCopy);
+    }
+
+    /**
+     * Pide varios usuarios en la misma tanda.
+     * @return Futuro con los usuarios encontrados por id; los que fallan no aparecen
+     */
+    public CompletableFuture<Map<String, JsonObject>> cargarTodos(Collection<String> ids) {
+        Map<String, CompletableFuture<JsonObject>> futuros = new LinkedHashMap<>();
+        for (String id : ids) {
+            futuros.computeIfAbsent(id, this::cargar);
+        }
+        return CompletableFuture.allOf(futuros.values().toArray(CompletableFuture<?>[]::new))
+                .handle((v, error) -> {
+                    Map<String, JsonObject> encontrados = new LinkedHashMap<>();
+                    futuros.forEach((id, futuro) -> {
+                        if (!futuro.isCompletedExceptionally()) {
+                            encontrados.put(id, futuro.join());
+                        }
+                    });
+                    return encontrados;
+                });
+    }
+
+    private void despachar() {
+        Map<String, CompletableFuture<JsonObject>> tanda;
+        synchronized (this) {
+            tanda = pendientes;
+            pendientes = new LinkedHashMap<>();
+        }
+        if (!masivoAdmitido) {
+            tanda.forEach(this::pedirUno);
+            return;
+        }
+
+        List<String> ids = new ArrayList<>(tanda.keySet());
+        for (int desde = 0; desde < ids.size(); desde += MAXIMO_POR_SOLICITUD) {
+            Map<String, CompletableFuture<JsonObject>> parte = new LinkedHashMap<>();
+            for (String id : ids.subList(desde, Math.min(desde + MAXIMO_POR_SOLICITUD, ids.size()))) {
+                parte.put(id, tanda.get(id));
+            }
+            pedirVarios(parte);
+        }
+    }
+
+    private void pedirVarios(Map<String, CompletableFuture<JsonObject>> parte) {
+        JsonArray ids = new JsonArray(parte.size());
+        parte.keySet().forEach(ids::add);
+        JsonObject datos = new JsonObject();
+        datos.add(CAMPO_IDS, ids);
+
+        Cache<String, JsonObject> usuarios = cache.de(Entidad.USUARIO);
+        long generacion = usuarios.generacion();
+        enviar.apply(ClienteServicio.crearSolicitud(TIPO_USUARIOS, datos)).whenComplete((respuesta, error) -> {
+            if (error != null) {
+                Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                parte.values().forEach(futuro -> futuro.completeExceptionally(causa));
+                return;
+            }
+            if (ClienteServicio.esTipoNoAdmitido(respuesta)) {
+                if (masivoAdmitido) {
+                    System.out.println("ℹ️ El servidor no admite " + TIPO_USUARIOS + ", se pide cada usuario por separado");
+                    masivoAdmitido = false;
+                }
+                parte.forEach(this::pedirUno);
+                return;
+            }
+            if (!respuesta.has(CAMPO_USUARIOS) || !respuesta.get(CAMPO_USUARIOS).isJsonArray()) {
+                IOException causa = new IOException(respuesta.has("mensaje")
+                        ? respuesta.get("mensaje").getAsString()
+                        : "Respuesta mal formada: falta campo '" + CAMPO_USUARIOS + "'");
+                parte.values().forEach(futuro -> futuro.completeExceptionally(causa));
+                return;
+            }
+
+            Map<String, JsonObject> porId = new HashMap<>();
+            for (JsonElement elemento : respuesta.getAsJsonArray(CAMPO_USUARIOS)) {
+                if (elemento.isJsonObject() && elemento.getAsJsonObject().has("id")) {
+                    porId.put(elemento.getAsJsonObject().get("id").getAsString(), elemento.getAsJsonObject());
+                }
+            }
+            parte.forEach((id, futuro) -> {
+                JsonObject usuario = porId.get(id);
+                if (usuario != null) {
+                    usuarios.guardarSi(generacion, id, usuario);
+                    futuro.complete(usuario);
+                } else {
+                    futuro.completeExceptionally(new IOException("Usuario no encontrado: " + id));
+                }
+            });
+        });
+    }
+
+    private void pedirUno(String id, CompletableFuture<JsonObject> futuro) {
+        cache.obtener(Entidad.USUARIO, id, null).whenComplete((usuario, error) -> {
+            if (error != null) {
+                futuro.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                futuro.complete(usuario);
+            }
+        });
+    }
+}
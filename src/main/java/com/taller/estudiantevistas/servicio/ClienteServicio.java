@@ -1,94 +1,79 @@
 package com.taller.estudiantevistas.servicio;
 
 import com.google.gson.*;
+import com.taller.estudiantevistas.dto.Contenido;
 import com.taller.estudiantevistas.dto.Estudiante;
+import com.taller.estudiantevistas.dto.SolicitudAyuda;
 import java.io.*;
 import java.net.Socket;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class ClienteServicio {
-    private Socket socket;
-    private PrintWriter salida;
-    private BufferedReader entrada;
-    private Gson gson;
+    public static final int PROFUNDIDAD_PIPELINE_POR_DEFECTO = 8;
+    public static final int TAMANO_PAGINA_POR_DEFECTO = 50;
+    public static final String TEMA_VALORACIONES = "VALORACIONES";
+    public static final Duration PLAZO_POR_DEFECTO = Duration.ofSeconds(15);
+    // Cómo describe el servidor un tipo de mensaje que no conoce
+    private static final List<String> MARCAS_TIPO_NO_ADMITIDO = List.of(
+            "no soportado", "tipo desconocido", "tipo de solicitud desconocido", "no reconocido",
+            "unknown", "unsupported");
+
+    private final Conexion conexion;
+    private final Suscripciones suscripciones = new Suscripciones(this::enviarInterno);
+    private final CacheEntidades cache = new CacheEntidades(this::enviarInterno);
+    private final Planificador planificador;
+    private final SolicitudesCompartidas compartidas;
+    private final MetricasProtocolo metricas = new MetricasProtocolo();
+    private volatile Duration plazo = PLAZO_POR_DEFECTO;
+    private int profundidadPipeline = PROFUNDIDAD_PIPELINE_POR_DEFECTO;
+    private volatile boolean lotesAdmitidos = true;
 
     public ClienteServicio(String host, int puerto) throws IOException {
-        this.socket = new Socket(host, puerto);
-        this.salida = new PrintWriter(socket.getOutputStream(), true);
-        this.entrada = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-
-        // Crear Gson con deserializadores personalizados para fechas
-        this.gson = new GsonBuilder()
-                .registerTypeAdapter(Date.class, new JsonDeserializer<Date>() {
-                    @Override
-                    public Date deserialize(JsonElement json, java.lang.reflect.Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-                        try {
-                            if (json.isJsonNull()) {
-                                return null;
-                            }
-
-                            String dateStr = json.getAsString();
-                            if (dateStr == null || dateStr.isEmpty()) {
-                                return null;
-                            }
-
-                            // Try different date formats
-                            SimpleDateFormat[] formats = {
-                                    new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"),
-                                    new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss"),
-                                    new SimpleDateFormat("yyyy-MM-dd"),
-                                    new SimpleDateFormat("dd/MM/yyyy HH:mm:ss"),
-                                    new SimpleDateFormat("dd/MM/yyyy")
-                            };
-
-                            for (SimpleDateFormat format : formats) {
-                                try {
-                                    return format.parse(dateStr);
-                                } catch (ParseException e) {
-                                    // Try next format
-                                }
-                            }
-
-                            System.err.println("⚠️ No se pudo parsear la fecha: " + dateStr);
-                            return null;
-                        } catch (Exception e) {
-                            System.err.println("❌ Error al deserializar fecha: " + e.getMessage());
-                            return null;
-                        }
-                    }
-                })
-                .registerTypeAdapter(java.sql.Date.class, new JsonDeserializer<java.sql.Date>() {
-                    @Override
-                    public java.sql.Date deserialize(JsonElement json, java.lang.reflect.Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-                        Date date = context.deserialize(json, Date.class);
-                        return date != null ? new java.sql.Date(date.getTime()) : null;
-                    }
-                })
-                .create();
-
-        System.out.println("🔗 Conectado al servidor en " + host + ":" + puerto);
+        this(host, puerto, ModoTransporte.desdeConfiguracion());
+    }
+
+    /**
+     * @param modo Transporte a usar; los métodos públicos se comportan igual con cualquiera de ellos.
+     * Si la conexión se corta, se reabre sola con el mismo transporte
+     */
+    public ClienteServicio(String host, int puerto, ModoTransporte modo) throws IOException {
+        this.conexion = new Conexion(() -> abrirCanal(host, puerto, modo), suscripciones, () -> {
+            suscripciones.renovar();
+            // Lo que cambió mientras no había conexión no llegó a invalidarse
+            cache.vaciar();
+        });
+        this.planificador = new Planificador((solicitud, receptor, plazoRestante) ->
+                conexion.enviarLote(List.of(solicitud), Collections.singletonList(receptor), plazoRestante).get(0));
+        this.compartidas = new SolicitudesCompartidas((solicitud, plazo, prioridad) ->
+                planificador.enviar(solicitud, null, plazo, prioridad));
+        conexion.alEnviar((solicitud, respuesta) -> {
+            compartidas.observar(solicitud);
+            cache.observar(solicitud, respuesta);
+            metricas.observar(solicitud, respuesta);
+            TrazaProtocolo.observar(solicitud, respuesta);
+        });
+        conexion.medirCon(metricas);
+
+        System.out.println("🔗 Conectado al servidor en " + host + ":" + puerto + " (" + modo + ")");
     }
 
     public boolean registrarEstudiante(Estudiante estudiante) {
         try {
             JsonObject mensaje = new JsonObject();
             mensaje.addProperty("tipo", "REGISTRO"); // ✅ Corregido para coincidir con el servidor
-            mensaje.add("datos", gson.toJsonTree(estudiante));
-
-            System.out.println("📤 JSON enviado al servidor: " + mensaje.toString());
-            salida.println(mensaje.toString());
-            salida.flush(); // ✅ Asegurar que los datos se envíen completamente
+            mensaje.add("datos", Codec.escribir(estudiante));
 
-            String respuesta = entrada.readLine();
-            if (respuesta == null) {
-                System.err.println("❌ Error: Respuesta nula del servidor.");
-                return false;
-            }
-
-            JsonObject jsonRespuesta = gson.fromJson(respuesta, JsonObject.class);
-            System.out.println("📥 Respuesta del servidor: " + jsonRespuesta);
+            JsonObject jsonRespuesta = solicitar(mensaje);
 
             return jsonRespuesta.get("exito").getAsBoolean();
         } catch (IOException e) {
@@ -98,211 +83,424 @@ public class ClienteServicio {
     }
 
     public void cerrarConexion() {
-        try {
-            if (socket != null) socket.close();
-            if (salida != null) salida.close();
-            if (entrada != null) entrada.close();
-            System.out.println("🔌 Conexión cerrada con el servidor.");
-        } catch (IOException e) {
-            System.err.println("Error al cerrar conexión: " + e.getMessage());
-        }
+        conexion.close();
+        System.out.println("🔌 Conexión cerrada con el servidor.");
     }
 
-    public PrintWriter getSalida() {
-        return salida;
+    /**
+     * @return Si hay un canal abierto; es falso mientras se reconecta tras un corte
+     */
+    public boolean estaConectado() {
+        return conexion.estaAbierta();
     }
 
-    public BufferedReader getEntrada() {
-        return entrada;
+    /**
+     * Inicia sesión y guarda el token de sesión de la respuesta, con el que la sesión se
+     * reanuda sola si la conexión se corta.
+     * @return Futuro con la respuesta del servidor a {@code LOGIN}
+     */
+    public CompletableFuture<JsonObject> iniciarSesion(String correo, String contrasena) {
+        JsonObject datos = new JsonObject();
+        datos.addProperty("correo", correo);
+        datos.addProperty("contrasena", contrasena);
+        return solicitarAsync(crearSolicitud("LOGIN", datos)).thenApply(respuesta -> {
+            if (respuesta.has("exito") && respuesta.get("exito").getAsBoolean()
+                    && respuesta.has(Conexion.CAMPO_TOKEN) && !respuesta.get(Conexion.CAMPO_TOKEN).isJsonNull()) {
+                conexion.fijarTokenSesion(respuesta.get(Conexion.CAMPO_TOKEN).getAsString());
+            }
+            return respuesta;
+        });
     }
 
-    public boolean estaConectado() {
-        return socket != null && socket.isConnected() && !socket.isClosed();
+    /**
+     * Envía una solicitud y espera su respuesta. Es seguro llamarlo desde varios hilos a la vez:
+     * cada llamador recibe la respuesta que corresponde a su solicitud.
+     * @param solicitud Mensaje con los campos "tipo" y "datos"
+     * @return Respuesta del servidor ya parseada
+     * @throws IOException Si la conexión falla o el servidor no responde; si vence el plazo,
+     * una {@link TiempoAgotadoException}
+     */
+    public JsonObject solicitar(JsonObject solicitud) throws IOException {
+        return esperar(solicitarAsync(solicitud));
     }
 
     /**
-     * Solicita los contenidos educativos del servidor
-     * @param userId ID del usuario para personalizar los contenidos
-     * @return Lista de contenidos en formato JSON
-     * @throws IOException Si hay problemas de comunicación con el servidor
-     * @throws RuntimeException Si la respuesta del servidor es inválida
+     * @param plazo Tiempo máximo de espera de esta solicitud, en lugar de {@link #getPlazo()}
      */
-    public JsonArray obtenerContenidosEducativos(String userId) throws IOException {
-        try {
-            // 1. Preparar solicitud
-            JsonObject solicitud = new JsonObject();
-            solicitud.addProperty("tipo", "OBTENER_CONTENIDOS");
+    public JsonObject solicitar(JsonObject solicitud, Duration plazo) throws IOException {
+        return esperar(solicitarAsync(solicitud, plazo));
+    }
 
-            JsonObject datos = new JsonObject();
-            datos.addProperty("userId", userId);
-            solicitud.add("datos", datos);
+    /**
+     * Envía una solicitud sin bloquear. Varias solicitudes pueden estar en vuelo al mismo tiempo
+     * sobre la misma conexión.
+     * @param solicitud Mensaje con los campos "tipo" y "datos"
+     * @return Futuro con la respuesta del servidor. Falla con {@link TiempoAgotadoException} si
+     * vence el plazo; cancelarlo deja de esperar la respuesta y la descarta cuando llegue. Si la
+     * conexión se corta, las consultas de solo lectura se repiten al reconectar y las demás
+     * fallan con {@link ConexionPerdidaException}. Una consulta de solo lectura idéntica a otra
+     * que ya está en vuelo no se envía: espera la respuesta de la primera. Sale según la
+     * {@link Prioridad} que corresponde a su tipo; el plazo cuenta también el tiempo en cola
+     */
+    public CompletableFuture<JsonObject> solicitarAsync(JsonObject solicitud) {
+        return enviarInterno(solicitud);
+    }
 
-            // 2. Enviar solicitud
-            salida.println(solicitud.toString());
-            salida.flush();
+    /**
+     * @param plazo Tiempo máximo de espera de esta solicitud, en lugar de {@link #getPlazo()}
+     */
+    public CompletableFuture<JsonObject> solicitarAsync(JsonObject solicitud, Duration plazo) {
+        return compartidas.solicitar(solicitud, plazo, Prioridad.de(solicitud));
+    }
 
-            // 3. Recibir respuesta
-            String respuesta = entrada.readLine();
-            if (respuesta == null) {
-                throw new IOException("El servidor no respondió (respuesta nula)");
-            }
+    /**
+     * @param prioridad Prioridad de esta solicitud, en lugar de la que corresponde a su tipo;
+     * por ejemplo {@link Prioridad#FONDO} para una consulta que refresca una pantalla sola
+     */
+    public CompletableFuture<JsonObject> solicitarAsync(JsonObject solicitud, Prioridad prioridad) {
+        return compartidas.solicitar(solicitud, plazo, prioridad);
+    }
 
-            // 4. Parsear respuesta manualmente para evitar problemas con fechas
-            JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
+    /**
+     * Envía una solicitud de listado y entrega cada elemento del arreglo a medida que se decodifica,
+     * directamente al DTO del mensaje con {@link Codec}, sin construir la respuesta completa ni
+     * un {@link JsonObject} intermedio.
+     *
+     * El consumidor se llama desde el hilo lector de la conexión, en el orden del arreglo:
+     * debe ser rápido y, si toca la interfaz, pasar el trabajo con {@code Platform.runLater}.
+     * @param datos Datos del mensaje; puede ser nulo
+     * @return Futuro con el número de elementos entregados; falla con {@link IOException} si el
+     * servidor reporta un error, falta el arreglo o el consumidor lanza una excepción
+     */
+    public <T> CompletableFuture<Integer> recorrerAsync(Mensaje<T> mensaje, JsonObject datos, Consumer<? super T> porElemento) {
+        ReceptorLista receptor = new ReceptorLista(mensaje.getCampo(), Codec.adaptador(mensaje.getElemento()), porElemento);
+        return enviarConReceptor(crearSolicitud(mensaje.getTipo(), datos), receptor).thenApply(receptor::verificar);
+    }
 
-            // 5. Validar estructura básica
-            if (!jsonRespuesta.has("exito")) {
-                throw new RuntimeException("Respuesta mal formada: falta campo 'exito'");
-            }
+    /**
+     * @return Los elementos de la respuesta ya convertidos a su DTO
+     * @throws IOException Si hay problemas de comunicación o el servidor reporta un error
+     */
+    public <T> List<T> obtenerLista(Mensaje<T> mensaje, JsonObject datos) throws IOException {
+        List<T> elementos = new ArrayList<>();
+        esperar(recorrerAsync(mensaje, datos, elementos::add));
+        return elementos;
+    }
 
-            // 6. Manejar respuesta fallida
-            if (!jsonRespuesta.get("exito").getAsBoolean()) {
-                String mensajeError = jsonRespuesta.has("mensaje")
-                        ? jsonRespuesta.get("mensaje").getAsString()
-                        : "Error desconocido del servidor";
-                throw new RuntimeException(mensajeError);
-            }
+    /**
+     * Prepara el recorrido paginado de un listado tipado, con el tamaño de página por defecto.
+     * @param datos Datos del mensaje sin los campos de paginación; puede ser nulo
+     */
+    public <T> Paginador<T> paginar(Mensaje<T> mensaje, JsonObject datos) {
+        return paginar(mensaje, datos, TAMANO_PAGINA_POR_DEFECTO);
+    }
 
-            // 7. Validar y retornar contenidos
-            if (!jsonRespuesta.has("contenidos")) {
-                throw new RuntimeException("Respuesta mal formada: falta campo 'contenidos'");
-            }
+    /**
+     * @param limite Número máximo de elementos por página
+     */
+    public <T> Paginador<T> paginar(Mensaje<T> mensaje, JsonObject datos, int limite) {
+        return new Paginador<>(this, mensaje.getTipo(), datos, mensaje.getCampo(),
+                Codec.adaptador(mensaje.getElemento()), limite);
+    }
 
-            return jsonRespuesta.getAsJsonArray("contenidos");
-        } catch (JsonSyntaxException e) {
-            throw new RuntimeException("Respuesta del servidor no es un JSON válido", e);
-        } catch (IOException e) {
-            System.err.println("[ERROR] Error de comunicación al obtener contenidos: " + e.getMessage());
-            throw e;
-        } catch (RuntimeException e) {
-            System.err.println("[ERROR] Error al procesar respuesta de contenidos: " + e.getMessage());
-            throw e;
-        }
+    /**
+     * Prepara el recorrido paginado de un listado sin DTO, cuyos elementos se entregan como
+     * {@link JsonObject}.
+     * @param tipo Tipo de mensaje, por ejemplo "OBTENER_TODOS_USUARIOS"
+     * @param datos Datos del mensaje sin los campos de paginación; puede ser nulo
+     * @param campo Nombre del arreglo dentro de cada respuesta
+     */
+    public Paginador<JsonObject> paginar(String tipo, JsonObject datos, String campo) {
+        return new Paginador<>(this, tipo, datos, campo, null, TAMANO_PAGINA_POR_DEFECTO);
     }
 
     /**
-     * Obtiene todos los contenidos educativos disponibles con manejo robusto de fechas
-     * @return JsonArray con los contenidos
-     * @throws IOException Si hay error de comunicación con el servidor
+     * Prepara la sincronización por cambios de un listado.
+     * @param tipo Tipo del mensaje de sincronización, por ejemplo "SINCRONIZAR_CONTENIDOS"
+     * @param datos Datos del mensaje sin la versión; puede ser nulo
+     * @param elemento DTO de cada elemento, el mismo del {@link Mensaje} del listado
+     * @param clave Id de un elemento, o null si no lo tiene
      */
-    public JsonArray obtenerTodosContenidos() throws IOException {
-        try {
-            // 1. Preparar solicitud
-            JsonObject solicitud = new JsonObject();
-            solicitud.addProperty("tipo", "OBTENER_CONTENIDOS");
-            solicitud.add("datos", new JsonObject());
+    public <T> Sincronizador<T> crearSincronizador(String tipo, JsonObject datos, Class<T> elemento,
+                                                   Function<? super T, String> clave) {
+        return new Sincronizador<>(this, tipo, datos, elemento, clave);
+    }
 
-            // 2. Enviar solicitud
-            salida.println(solicitud.toString());
-            salida.flush();
+    /**
+     * Se suscribe a los eventos que el servidor envía cuando algo cambia, en lugar de preguntarle
+     * periódicamente. Cancelar la suscripción al cerrar la vista que la usa.
+     * @param tema Tema de los eventos, por ejemplo {@link #TEMA_VALORACIONES}
+     * @param clave Elemento dentro del tema, por ejemplo el id del contenido; puede ser nulo
+     * @param alRecibir Recibe los datos de cada evento en el hilo lector: debe ser rápido y,
+     * si toca la interfaz, pasar el trabajo con {@code Platform.runLater}
+     */
+    public Suscripcion suscribir(String tema, String clave, Consumer<JsonObject> alRecibir) {
+        return suscripciones.suscribir(tema, clave, alRecibir);
+    }
 
-            // 3. Recibir respuesta
-            String respuestaStr = entrada.readLine();
-            if (respuestaStr == null) {
-                throw new IOException("El servidor no respondió");
-            }
+    /**
+     * Devuelve un usuario, contenido completo, grupo o solicitud de ayuda de la caché o, si no
+     * está o ya venció, lo pide al servidor con {@link Entidad#getTipoObtener()}.
+     * @param id Id de la entidad
+     * @param datosExtra Otros datos que necesita el mensaje, por ejemplo "moderadorId"; puede ser nulo
+     * @return Futuro con una copia de la entidad; falla con {@link IOException} si el servidor
+     * reporta un error
+     */
+    public CompletableFuture<JsonObject> obtenerEntidadAsync(Entidad entidad, String id, JsonObject datosExtra) {
+        return cache.obtener(entidad, id, datosExtra);
+    }
 
-            System.out.println("📥 Respuesta recibida (cruda): " + respuestaStr);
+    /**
+     * Versión bloqueante de {@link #obtenerEntidadAsync(Entidad, String, JsonObject)}.
+     */
+    public JsonObject obtenerEntidad(Entidad entidad, String id) throws IOException {
+        return esperar(obtenerEntidadAsync(entidad, id, null));
+    }
 
-            // 4. Parsear respuesta usando JsonParser directamente
-            JsonElement respuestaElement = JsonParser.parseString(respuestaStr);
-            if (!respuestaElement.isJsonObject()) {
-                throw new IOException("Respuesta del servidor no es un objeto JSON válido");
-            }
+    /**
+     * @return Cachés de entidades de esta conexión, con sus contadores de aciertos y fallos
+     */
+    public CacheEntidades getCache() {
+        return cache;
+    }
 
-            JsonObject respuesta = respuestaElement.getAsJsonObject();
+    /**
+     * Crea un cargador que junta los pedidos de usuarios por id en un solo mensaje.
+     * @param despacho Dónde se envía cada tanda, por ejemplo {@code Platform::runLater} para
+     * juntar lo que se pida durante el mismo evento de la interfaz
+     */
+    public CargadorUsuarios crearCargadorUsuarios(Executor despacho) {
+        return new CargadorUsuarios(this::solicitarAsync, cache, despacho);
+    }
 
-            // 5. Verificar éxito
-            if (!respuesta.has("exito") || !respuesta.get("exito").getAsBoolean()) {
-                String mensajeError = respuesta.has("mensaje")
-                        ? respuesta.get("mensaje").getAsString()
-                        : "Error desconocido al obtener contenidos";
-                throw new IOException(mensajeError);
-            }
+    /**
+     * @return Latencia, bytes, errores y solicitudes en vuelo por tipo de mensaje;
+     * {@link MetricasProtocolo#instantanea()} las da como tabla de texto
+     */
+    public MetricasProtocolo getMetricas() {
+        return metricas;
+    }
 
-            // 6. Obtener contenidos directamente sin intentar deserializar las fechas automáticamente
-            if (!respuesta.has("contenidos")) {
-                throw new IOException("Respuesta mal formada: falta campo 'contenidos'");
-            }
+    /**
+     * @return Resumen por prioridad de las solicitudes en vuelo, en cola y su espera media
+     */
+    public String getEstadoPlanificador() {
+        return planificador.toString();
+    }
 
-            return respuesta.getAsJsonArray("contenidos");
+    /**
+     * @return Consultas que esperaron la respuesta de otra idéntica ya en vuelo en lugar de
+     * enviarse al servidor
+     */
+    public long getSolicitudesCompartidas() {
+        return compartidas.getCompartidas();
+    }
 
-        } catch (JsonSyntaxException e) {
-            throw new IOException("Error al parsear respuesta JSON: " + e.getMessage(), e);
-        } catch (Exception e) {
-            throw new IOException("Error al obtener contenidos: " + e.getMessage(), e);
+    /**
+     * Crea un lote para pedir varias cosas en un solo mensaje, por ejemplo todo lo que muestra
+     * una pantalla al abrirse.
+     */
+    public Lote crearLote() {
+        return new Lote(this);
+    }
+
+    boolean admiteLotes() {
+        return lotesAdmitidos;
+    }
+
+    void marcarLotesNoAdmitidos() {
+        lotesAdmitidos = false;
+    }
+
+    /**
+     * Crea un pipeline para enviar varias solicitudes seguidas y recibir sus respuestas en orden,
+     * pagando un solo viaje de ida y vuelta en lugar de uno por solicitud.
+     *
+     * Las solicitudes del pipeline no pasan por el planificador: se escriben juntas en la
+     * conexión, así que no esperan turno por {@link Prioridad}, no se combinan con consultas
+     * idénticas en vuelo y no cuentan en {@link #getEstadoPlanificador()}. Lo que las acota es
+     * la profundidad, que nunca supera el total de solicitudes en vuelo que admite el planificador.
+     * @return Pipeline vacío con la profundidad máxima configurada
+     */
+    public Pipeline crearPipeline() {
+        return new Pipeline(conexion, plazo, profundidadPipeline);
+    }
+
+    /**
+     * @return Tiempo máximo que se espera la respuesta de cada solicitud
+     */
+    public Duration getPlazo() {
+        return plazo;
+    }
+
+    /**
+     * @param plazo Tiempo máximo de espera de las solicitudes que no indican uno propio
+     */
+    public void setPlazo(Duration plazo) {
+        if (plazo == null || plazo.isNegative() || plazo.isZero()) {
+            throw new IllegalArgumentException("El plazo de las solicitudes debe ser positivo");
         }
+        this.plazo = plazo;
+    }
+
+    public int getProfundidadPipeline() {
+        return profundidadPipeline;
     }
 
     /**
-     * Obtiene todas las solicitudes de ayuda de la red social
-     * @return Lista de todas las solicitudes en formato JSON
-     * @throws IOException Si hay problemas de comunicación con el servidor
+     * @param profundidadPipeline Número máximo de solicitudes de un pipeline que pueden estar en
+     * vuelo, entre 1 y el máximo en vuelo del planificador
      */
-    public JsonArray obtenerTodasSolicitudes() throws IOException {
-        try {
-            JsonObject solicitud = new JsonObject();
-            solicitud.addProperty("tipo", "OBTENER_SOLICITUDES");
-            solicitud.add("datos", new JsonObject()); // Datos vacíos
+    public void setProfundidadPipeline(int profundidadPipeline) {
+        if (profundidadPipeline < 1 || profundidadPipeline > Planificador.EN_VUELO_MAXIMO) {
+            throw new IllegalArgumentException("La profundidad del pipeline debe estar entre 1 y "
+                    + Planificador.EN_VUELO_MAXIMO);
+        }
+        this.profundidadPipeline = profundidadPipeline;
+    }
 
-            enviarSolicitud(solicitud);
-            JsonObject respuesta = recibirRespuesta();
+    CompletableFuture<JsonObject> enviarConReceptor(JsonObject solicitud, ReceptorLista receptor) {
+        return planificador.enviar(solicitud, receptor, plazo, Prioridad.de(solicitud));
+    }
 
-            if (!respuesta.get("exito").getAsBoolean()) {
-                throw new IOException(respuesta.has("mensaje") ?
-                        respuesta.get("mensaje").getAsString() : "Error al obtener solicitudes");
-            }
+    /**
+     * {@link #solicitarAsync(JsonObject)} para los componentes que se crean con el cliente: al ser
+     * privado, una subclase no puede cambiarlo mientras el constructor todavía no terminó.
+     */
+    private CompletableFuture<JsonObject> enviarInterno(JsonObject solicitud) {
+        return compartidas.solicitar(solicitud, plazo, Prioridad.de(solicitud));
+    }
 
-            return respuesta.getAsJsonArray("solicitudes");
-        } catch (JsonSyntaxException e) {
-            throw new IOException("Respuesta del servidor no es un JSON válido", e);
+    private static Canal abrirCanal(String host, int puerto, ModoTransporte modo) throws IOException {
+        switch (modo) {
+            case NIO:
+                return new CanalNio(host, puerto);
+            case BINARIO:
+                return CanalBinario.conectar(host, puerto);
+            default:
+                return new CanalMultiplexado(new Socket(host, puerto));
         }
     }
 
-    // Métodos auxiliares reutilizables
-    public void enviarSolicitud(JsonObject solicitud) throws IOException {
-        salida.println(solicitud.toString());
-        salida.flush();
-        System.out.println("📤 Solicitud enviada: " + solicitud);
+    static CompletionException comoCompletionException(Throwable error) {
+        return error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
     }
 
-    private JsonObject recibirRespuesta() throws IOException {
-        String respuestaStr = entrada.readLine();
-        if (respuestaStr == null) {
-            throw new IOException("El servidor no respondió");
+    /**
+     * Espera la respuesta de una solicitud asíncrona traduciendo los fallos a {@link IOException}.
+     * Si el hilo se interrumpe, por ejemplo al cancelar la tarea que espera, cancela la solicitud.
+     */
+    public static <T> T esperar(CompletableFuture<T> respuesta) throws IOException {
+        try {
+            return respuesta.get();
+        } catch (InterruptedException e) {
+            respuesta.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Solicitud interrumpida", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            throw new IOException("Error al procesar la solicitud: " + causa.getMessage(), causa);
         }
-        System.out.println("📥 Respuesta recibida: " + respuestaStr);
-        return JsonParser.parseString(respuestaStr).getAsJsonObject();
     }
 
     /**
-     * Solicita las solicitudes de ayuda del servidor
-     * @param userId ID del usuario para personalizar las solicitudes
-     * @return Lista de solicitudes en formato JSON
+     * Construye un mensaje con el formato que espera el servidor.
+     * @param tipo Tipo de mensaje, por ejemplo "OBTENER_CONTENIDOS"
+     * @param datos Datos del mensaje; si es nulo se envía un objeto vacío
      */
-    public JsonArray obtenerSolicitudesAyuda(String userId) throws IOException {
+    public static JsonObject crearSolicitud(String tipo, JsonObject datos) {
         JsonObject solicitud = new JsonObject();
-        solicitud.addProperty("tipo", "OBTENER_SOLICITUDES");
+        solicitud.addProperty("tipo", tipo);
+        solicitud.add("datos", datos != null ? datos : new JsonObject());
+        return solicitud;
+    }
 
-        JsonObject datos = new JsonObject();
-        datos.addProperty("userId", userId);
-        solicitud.add("datos", datos);
+    /**
+     * Valida una respuesta de listado y devuelve el arreglo pedido.
+     * @param respuesta Respuesta del servidor
+     * @param campo Nombre del arreglo dentro de la respuesta, por ejemplo "contenidos"
+     * @throws IOException Si el servidor reporta un error o falta el campo
+     */
+    public static JsonArray extraerLista(JsonObject respuesta, String campo) throws IOException {
+        if (!respuesta.has("exito") || !respuesta.get("exito").getAsBoolean()) {
+            throw new IOException(respuesta.has("mensaje")
+                    ? respuesta.get("mensaje").getAsString()
+                    : "Error desconocido al obtener " + campo);
+        }
+        if (!respuesta.has(campo) || !respuesta.get(campo).isJsonArray()) {
+            throw new IOException("Respuesta mal formada: falta campo '" + campo + "'");
+        }
+        return respuesta.getAsJsonArray(campo);
+    }
 
-        salida.println(solicitud.toString());
-        String respuesta = entrada.readLine();
+    /**
+     * Reconoce la respuesta con la que el servidor rechaza un tipo de mensaje que no conoce, para
+     * distinguirla de un error al atender un mensaje que sí admite. Sólo en el primer caso tiene
+     * sentido cambiar a la forma compatible de pedir lo mismo.
+     */
+    static boolean esTipoNoAdmitido(JsonObject respuesta) {
+        if (respuesta.has("exito") && respuesta.get("exito").getAsBoolean()) {
+            return false;
+        }
+        if (!respuesta.has("mensaje") || !respuesta.get("mensaje").isJsonPrimitive()) {
+            return false;
+        }
+        String mensaje = respuesta.get("mensaje").getAsString().toLowerCase(Locale.ROOT);
+        for (String marca : MARCAS_TIPO_NO_ADMITIDO) {
+            if (mensaje.contains(marca)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        if (respuesta == null) {
-            throw new IOException("El servidor no respondió");
+    /**
+     * Solicita los contenidos educativos del servidor
+     * @param userId ID del usuario para personalizar los contenidos
+     * @return Lista de contenidos
+     * @throws IOException Si hay problemas de comunicación o el servidor reporta un error
+     */
+    public List<Contenido> obtenerContenidosEducativos(String userId) throws IOException {
+        JsonObject datos = new JsonObject();
+        datos.addProperty("userId", userId);
+        try {
+            return obtenerLista(Mensaje.CONTENIDOS, datos);
+        } catch (IOException e) {
+            System.err.println("[ERROR] Error al obtener contenidos: " + e.getMessage());
+            throw e;
         }
+    }
 
-        JsonObject jsonRespuesta = JsonParser.parseString(respuesta).getAsJsonObject();
+    /**
+     * Obtiene todos los contenidos educativos disponibles
+     * @return Lista de contenidos
+     * @throws IOException Si hay error de comunicación con el servidor
+     */
+    public List<Contenido> obtenerTodosContenidos() throws IOException {
+        return obtenerLista(Mensaje.CONTENIDOS, null);
+    }
 
-        if (!jsonRespuesta.get("exito").getAsBoolean()) {
-            throw new IOException(jsonRespuesta.has("mensaje") ?
-                    jsonRespuesta.get("mensaje").getAsString() : "Error desconocido al obtener solicitudes");
-        }
+    /**
+     * Obtiene todas las solicitudes de ayuda de la red social
+     * @return Lista de todas las solicitudes
+     * @throws IOException Si hay problemas de comunicación con el servidor
+     */
+    public List<SolicitudAyuda> obtenerTodasSolicitudes() throws IOException {
+        return obtenerLista(Mensaje.SOLICITUDES, null);
+    }
 
-        return jsonRespuesta.getAsJsonArray("solicitudes");
+    /**
+     * Solicita las solicitudes de ayuda del servidor
+     * @param userId ID del usuario para personalizar las solicitudes
+     * @return Lista de solicitudes
+     */
+    public List<SolicitudAyuda> obtenerSolicitudesAyuda(String userId) throws IOException {
+        JsonObject datos = new JsonObject();
+        datos.addProperty("userId", userId);
+        return obtenerLista(Mensaje.SOLICITUDES, datos);
     }
 
     public JsonObject actualizarUsuario(JsonObject datosUsuario) {
@@ -311,9 +509,7 @@ public class ClienteServicio {
             solicitud.addProperty("tipo", "ACTUALIZAR_USUARIO");
             solicitud.add("datos", datosUsuario);
 
-            salida.println(solicitud.toString());
-            String respuesta = entrada.readLine();
-            return JsonParser.parseString(respuesta).getAsJsonObject();
+            return solicitar(solicitud);
         } catch (IOException e) {
             JsonObject error = new JsonObject();
             error.addProperty("exito", false);
@@ -328,9 +524,7 @@ public class ClienteServicio {
             solicitud.addProperty("tipo", "ELIMINAR_USUARIO");
             solicitud.addProperty("usuarioId", usuarioId);
 
-            salida.println(solicitud.toString());
-            String respuesta = entrada.readLine();
-            return JsonParser.parseString(respuesta).getAsJsonObject();
+            return solicitar(solicitud);
         } catch (IOException e) {
             JsonObject error = new JsonObject();
             error.addProperty("exito", false);
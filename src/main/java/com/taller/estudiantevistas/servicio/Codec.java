@@ -0,0 +1,73 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.taller.estudiantevistas.dto.Contenido;
+import com.taller.estudiantevistas.dto.EstadoSolicitud;
+import com.taller.estudiantevistas.dto.Estudiante;
+import com.taller.estudiantevistas.dto.SolicitudAyuda;
+import com.taller.estudiantevistas.dto.TipoContenido;
+import com.taller.estudiantevistas.dto.Urgencia;
+import com.taller.estudiantevistas.dto.Valoracion;
+
+import java.io.IOException;
+
+/**
+ * Registro único de cómo se codifican los DTO en el protocolo. Todas las conversiones entre
+ * JSON y DTO de la aplicación pasan por aquí, en lugar de que cada clase arme su propio
+ * {@link Gson} con sus propios adaptadores.
+ *
+ * Los DTO se leen con los adaptadores de {@link AdaptadoresDto}, que trabajan directamente sobre
+ * el flujo: {@link #leer(JsonReader, Class)} decodifica un elemento sin construir el árbol, y es
+ * lo que usa {@link ClienteServicio#recorrerAsync(Mensaje, com.google.gson.JsonObject, java.util.function.Consumer)}
+ * para entregar cada elemento de un listado mientras llega.
+ */
+public final class Codec {
+    private static final TypeAdapter<Valoracion> VALORACION = new AdaptadoresDto.AdaptadorValoracion();
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Contenido.class, new AdaptadoresDto.AdaptadorContenido(VALORACION).nullSafe())
+            .registerTypeAdapter(SolicitudAyuda.class, new AdaptadoresDto.AdaptadorSolicitudAyuda().nullSafe())
+            .registerTypeAdapter(Valoracion.class, VALORACION.nullSafe())
+            .registerTypeAdapter(Estudiante.class, new AdaptadoresDto.AdaptadorEstudiante().nullSafe())
+            .registerTypeAdapter(TipoContenido.class, new AdaptadoresDto.AdaptadorEnum<>(TipoContenido.class))
+            .registerTypeAdapter(Urgencia.class, new AdaptadoresDto.AdaptadorEnum<>(Urgencia.class))
+            .registerTypeAdapter(EstadoSolicitud.class, new AdaptadoresDto.AdaptadorEnum<>(EstadoSolicitud.class))
+            .create();
+
+    private Codec() {
+    }
+
+    /**
+     * @return La instancia compartida de Gson con los adaptadores de los DTO registrados
+     */
+    public static Gson gson() {
+        return GSON;
+    }
+
+    public static <T> TypeAdapter<T> adaptador(Class<T> clase) {
+        return GSON.getAdapter(clase);
+    }
+
+    /**
+     * Convierte un valor ya parseado, por ejemplo un elemento de una respuesta.
+     * @throws JsonParseException Si el JSON no corresponde al tipo pedido
+     */
+    public static <T> T leer(JsonElement json, Class<T> clase) {
+        return adaptador(clase).fromJsonTree(json);
+    }
+
+    /**
+     * Lee el siguiente valor del flujo como {@code clase}, sin pasar por un árbol intermedio.
+     */
+    public static <T> T leer(JsonReader entrada, Class<T> clase) throws IOException {
+        return adaptador(clase).read(entrada);
+    }
+
+    public static JsonElement escribir(Object valor) {
+        return GSON.toJsonTree(valor);
+    }
+}
@@ -0,0 +1,360 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Conexión lógica con el servidor que sobrevive a los cortes del socket.
+ *
+ * Cuando el {@link Canal} actual se pierde, abre otro en segundo plano con espera exponencial y
+ * jitter completo (cada intento espera un tiempo al azar entre cero y el tope actual), para que
+ * miles de clientes cortados a la vez no vuelvan todos en el mismo instante. Si hay un token de
+ * sesión, la reanuda con {@value #TIPO_REANUDAR} en lugar de obligar a iniciar sesión de nuevo.
+ *
+ * Las solicitudes que se piden mientras se reconecta todavía no salieron, así que esperan al
+ * canal nuevo y se envían por él, sean del tipo que sean. De las que estaban en vuelo al cortarse,
+ * las consultas de solo lectura se envían otra vez; el resto falla con
+ * {@link ConexionPerdidaException}, porque el servidor pudo haberlas procesado.
+ */
+final class Conexion implements Closeable {
+    static final String TIPO_REANUDAR = "REANUDAR_SESION";
+    static final String CAMPO_TOKEN = "tokenSesion";
+
+    private static final long ESPERA_INICIAL_MS = 250;
+    private static final long ESPERA_MAXIMA_MS = 30_000;
+    private static final int REENVIOS_MAXIMOS = 3;
+
+    /**
+     * Abre un canal nuevo con el servidor.
+     */
+    interface Fabrica {
+        Canal abrir() throws IOException;
+    }
+
+    private final Fabrica fabrica;
+    private final Consumer<JsonObject> receptorEventos;
+    private final Runnable alReconectar;
+
+    private Canal canal;
+    private CompletableFuture<Canal> reconexion;
+    private volatile String tokenSesion;
+    private volatile boolean cerrada;
+    private volatile BiConsumer<JsonObject, CompletableFuture<JsonObject>> observador = (solicitud, respuesta) -> { };
+    private volatile MetricasProtocolo metricas;
+
+    /**
+     * @param receptorEventos Recibe los eventos del servidor de cada canal
+     * @param alReconectar Se ejecuta tras cada reconexión, por ejemplo para renovar suscripciones
+     * @throws IOException Si no se puede abrir el primer canal
+     */
+    Conexion(Fabrica fabrica, Consumer<JsonObject> receptorEventos, Runnable alReconectar) throws IOException {
+        this.fabrica = fabrica;
+        this.receptorEventos = receptorEventos;
+        this.alReconectar = alReconectar;
+        this.canal = preparar(fabrica.abrir());
+    }
+
+    CompletableFuture<JsonObject> enviar(JsonObject solicitud, Duration plazo) {
+        return enviarLote(List.of(solicitud), Collections.singletonList(null), plazo).get(0);
+    }
+
+    /**
+     * Igual que {@link Canal#enviarLote(List, List, Duration)}, pero las consultas de solo
+     * lectura cortadas por una caída se envían de nuevo al reconectar, con lo que les quede del
+     * plazo. El plazo cuenta desde este envío y cubre todos los reenvíos y las esperas a que se
+     * reconecte: vencido, la solicitud falla sin volver a enviarse.
+     */
+    List<CompletableFuture<JsonObject>> enviarLote(List<JsonObject> solicitudes, List<ReceptorLista> receptores,
+                                                   Duration plazo) {
+        List<CompletableFuture<JsonObject>> resultados = new ArrayList<>(solicitudes.size());
+        long limite = System.nanoTime() + plazo.toNanos();
+        CompletableFuture<Canal> enCurso;
+        Canal actual;
+        synchronized (this) {
+            enCurso = reconexion;
+            actual = canal;
+        }
+
+        if (enCurso != null) {
+            for (int i = 0; i < solicitudes.size(); i++) {
+                CompletableFuture<JsonObject> resultado = new CompletableFuture<>();
+                observador.accept(solicitudes.get(i), resultado);
+                enviarAlReconectar(solicitudes.get(i), receptores.get(i), plazo, limite, resultado, 0,
+                        new ConexionPerdidaException("Reconectando con el servidor"));
+                resultados.add(resultado);
+            }
+            return resultados;
+        }
+
+        List<CompletableFuture<JsonObject>> enVuelo = actual.enviarLote(solicitudes, receptores, plazo);
+        for (int i = 0; i < solicitudes.size(); i++) {
+            CompletableFuture<JsonObject> resultado = new CompletableFuture<>();
+            observador.accept(solicitudes.get(i), resultado);
+            seguir(enVuelo.get(i), solicitudes.get(i), receptores.get(i), plazo, limite, resultado, 0);
+            resultados.add(resultado);
+        }
+        return resultados;
+    }
+
+    boolean estaAbierta() {
+        Canal actual;
+        synchronized (this) {
+            actual = reconexion == null ? canal : null;
+        }
+        return actual != null && actual.estaAbierto();
+    }
+
+    /**
+     * @param observador Recibe cada solicitud que sale por esta conexión junto con el futuro de
+     * su respuesta, en el hilo que la envía
+     */
+    void alEnviar(BiConsumer<JsonObject, CompletableFuture<JsonObject>> observador) {
+        this.observador = observador;
+    }
+
+    /**
+     * @param metricas Dónde cuentan los bytes los canales de esta conexión, también los que se
+     * abran al reconectar
+     */
+    void medirCon(MetricasProtocolo metricas) {
+        this.metricas = metricas;
+        Canal actual;
+        synchronized (this) {
+            actual = canal;
+        }
+        actual.medirCon(metricas);
+    }
+
+    /**
+     * @param token Token que el servidor entrega al iniciar sesión; {@code null} lo olvida
+     */
+    void fijarTokenSesion(String token) {
+        this.tokenSesion = token;
+    }
+
+    @Override
+    public void close() {
+        Canal actual;
+        CompletableFuture<Canal> enCurso;
+        synchronized (this) {
+            cerrada = true;
+            actual = canal;
+            enCurso = reconexion;
+        }
+        if (enCurso != null) {
+            enCurso.completeExceptionally(new ConexionPerdidaException("Conexión cerrada"));
+        }
+        actual.close();
+    }
+
+    /**
+     * Consultas que se pueden repetir sin efectos: leer dos veces da el mismo resultado.
+     */
+    static boolean esSoloLectura(JsonObject solicitud) {
+        JsonElement tipo = solicitud.get("tipo");
+        if (tipo == null || !tipo.isJsonPrimitive()) {
+            return false;
+        }
+        String nombre = tipo.getAsString();
+        if (nombre.startsWith("OBTENER_") || nombre.startsWith("SINCRONIZAR_") || "BUSCAR_CONTENIDO".equals(nombre)) {
+            return true;
+        }
+        if (Lote.TIPO_LOTE.equals(nombre) && solicitud.has("datos") && solicitud.get("datos").isJsonObject()) {
+            JsonElement internas = solicitud.getAsJsonObject("datos").get(Lote.CAMPO_SOLICITUDES);
+            if (internas == null || !internas.isJsonArray()) {
+                return false;
+            }
+            for (JsonElement interna : internas.getAsJsonArray()) {
+                if (!interna.isJsonObject() || !esSoloLectura(interna.getAsJsonObject())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void seguir(CompletableFuture<JsonObject> enVuelo, JsonObject solicitud, ReceptorLista receptor,
+                        Duration plazo, long limite, CompletableFuture<JsonObject> resultado, int reenvios) {
+        resultado.whenComplete((respuesta, error) -> {
+            if (resultado.isCancelled()) {
+                enVuelo.cancel(true);
+            }
+        });
+        enVuelo.whenComplete((respuesta, error) -> {
+            if (error == null) {
+                resultado.complete(respuesta);
+            } else if (error instanceof ConexionPerdidaException) {
+                reenviar(solicitud, receptor, plazo, limite, resultado, reenvios, (ConexionPerdidaException) error);
+            } else {
+                resultado.completeExceptionally(error);
+            }
+        });
+    }
+
+    /**
+     * Espera la reconexión y vuelve a enviar la solicitud, si es de solo lectura y todavía no
+     * entregó ningún elemento en streaming; si no, la deja fallar con la causa original.
+     */
+    private void reenviar(JsonObject solicitud, ReceptorLista receptor, Duration plazo, long limite,
+                          CompletableFuture<JsonObject> resultado, int reenvios, ConexionPerdidaException causa) {
+        if (cerrada || resultado.isDone() || reenvios >= REENVIOS_MAXIMOS || !esSoloLectura(solicitud)
+                || (receptor != null && receptor.empezo())) {
+            resultado.completeExceptionally(causa);
+            return;
+        }
+        enviarAlReconectar(solicitud, receptor, plazo, limite, resultado, reenvios + 1, causa);
+    }
+
+    /**
+     * Envía la solicitud por el canal nuevo cuando termine la reconexión; si no termina antes
+     * de {@code limite}, o no se logra, la deja fallar.
+     * @param limite Instante de {@link System#nanoTime()} en que vence el plazo original
+     */
+    private void enviarAlReconectar(JsonObject solicitud, ReceptorLista receptor, Duration plazo, long limite,
+                                    CompletableFuture<JsonObject> resultado, int reenvios,
+                                    ConexionPerdidaException causa) {
+        if (cerrada) {
+            resultado.completeExceptionally(causa);
+            return;
+        }
+        long restante = limite - System.nanoTime();
+        if (restante <= 0) {
+            resultado.completeExceptionally(new TiempoAgotadoException(Canal.tipoDe(solicitud), plazo));
+            return;
+        }
+        // El plazo se aplica a una copia: vencer el de una solicitud no debe cortar la reconexión
+        // que comparten todas
+        reconectar().copy()
+                .orTimeout(restante, TimeUnit.NANOSECONDS)
+                .whenComplete((nuevo, error) -> {
+                    if (error != null) {
+                        resultado.completeExceptionally(error instanceof TimeoutException
+                                ? new TiempoAgotadoException(Canal.tipoDe(solicitud), plazo)
+                                : causa);
+                        return;
+                    }
+                    long queda = limite - System.nanoTime();
+                    if (queda <= 0) {
+                        resultado.completeExceptionally(new TiempoAgotadoException(Canal.tipoDe(solicitud), plazo));
+                        return;
+                    }
+                    CompletableFuture<JsonObject> enVuelo = nuevo.enviarLote(List.of(solicitud),
+                            Collections.singletonList(receptor), Duration.ofNanos(queda)).get(0);
+                    seguir(enVuelo, solicitud, receptor, plazo, limite, resultado, reenvios);
+                });
+    }
+
+    /**
+     * @return El canal actual si está abierto, o la reconexión en curso; si no hay ninguna, la inicia
+     */
+    private synchronized CompletableFuture<Canal> reconectar() {
+        if (reconexion != null) {
+            return reconexion;
+        }
+        if (canal.estaAbierto()) {
+            return CompletableFuture.completedFuture(canal);
+        }
+        if (cerrada) {
+            return CompletableFuture.failedFuture(new ConexionPerdidaException("Conexión cerrada"));
+        }
+        CompletableFuture<Canal> nueva = new CompletableFuture<>();
+        reconexion = nueva;
+        Thread.ofVirtual().name("reconexion").start(() -> intentarReconectar(nueva));
+        return nueva;
+    }
+
+    private void perdida(ConexionPerdidaException causa) {
+        if (!cerrada) {
+            System.err.println("🔌 Conexión con el servidor perdida (" + causa.getMessage() + "), reconectando...");
+            reconectar();
+        }
+    }
+
+    private void intentarReconectar(CompletableFuture<Canal> resultado) {
+        long tope = ESPERA_INICIAL_MS;
+        int intento = 0;
+        while (!cerrada && !resultado.isDone()) {
+            intento++;
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(tope + 1));
+                Canal nuevo = preparar(fabrica.abrir());
+                reanudarSesion(nuevo);
+                synchronized (this) {
+                    if (cerrada) {
+                        nuevo.close();
+                        return;
+                    }
+                    canal = nuevo;
+                    reconexion = null;
+                }
+                System.out.println("🔗 Reconectado con el servidor tras " + intento + " intento(s)");
+                resultado.complete(nuevo);
+                alReconectar.run();
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException e) {
+                tope = Math.min(tope * 2, ESPERA_MAXIMA_MS);
+            }
+        }
+        synchronized (this) {
+            if (reconexion == resultado) {
+                reconexion = null;
+            }
+        }
+        resultado.completeExceptionally(new ConexionPerdidaException("No se pudo reconectar con el servidor"));
+    }
+
+    /**
+     * Reanuda la sesión en el canal nuevo antes de que lo use nadie más. Si el servidor no la
+     * reconoce, la conexión sigue sin sesión: las solicitudes ya llevan el id del usuario.
+     */
+    private void reanudarSesion(Canal nuevo) throws IOException {
+        String token = tokenSesion;
+        if (token == null) {
+            return;
+        }
+        JsonObject datos = new JsonObject();
+        datos.addProperty(CAMPO_TOKEN, token);
+        JsonObject respuesta;
+        try {
+            respuesta = ClienteServicio.esperar(nuevo.enviar(
+                    ClienteServicio.crearSolicitud(TIPO_REANUDAR, datos), ClienteServicio.PLAZO_POR_DEFECTO));
+        } catch (IOException e) {
+            nuevo.close();
+            throw e;
+        }
+        if (respuesta.has("exito") && respuesta.get("exito").getAsBoolean()) {
+            if (respuesta.has(CAMPO_TOKEN) && !respuesta.get(CAMPO_TOKEN).isJsonNull()) {
+                tokenSesion = respuesta.get(CAMPO_TOKEN).getAsString();
+            }
+            System.out.println("🔑 Sesión reanudada");
+        } else {
+            tokenSesion = null;
+            System.err.println("⚠️ El servidor no reanudó la sesión: "
+                    + (respuesta.has("mensaje") ? respuesta.get("mensaje").getAsString() : "sin motivo"));
+        }
+    }
+
+    private Canal preparar(Canal nuevo) {
+        nuevo.alRecibirEvento(receptorEventos);
+        nuevo.alPerderConexion(this::perdida);
+        nuevo.medirCon(metricas);
+        return nuevo;
+    }
+}
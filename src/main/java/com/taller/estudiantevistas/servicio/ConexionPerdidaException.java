@@ -0,0 +1,22 @@
+package com.taller.estudiantevistas.servicio;
+
+import java.io.IOException;
+
+/**
+ * La conexión con el servidor se cortó antes de recibir la respuesta.
+ *
+ * {@link ClienteServicio} reconecta solo y vuelve a enviar las consultas de solo lectura; las
+ * demás solicitudes fallan con esta excepción porque no se sabe si el servidor llegó a
+ * procesarlas.
+ */
+public class ConexionPerdidaException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    ConexionPerdidaException(String mensaje) {
+        super(mensaje);
+    }
+
+    ConexionPerdidaException(IOException causa) {
+        super(causa.getMessage(), causa);
+    }
+}
@@ -0,0 +1,134 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.time.Duration;
+
+/**
+ * Entidades que {@link ClienteServicio} guarda en caché, con el mensaje que las pide al servidor
+ * y los límites de su caché.
+ */
+public enum Entidad {
+    USUARIO("OBTENER_USUARIO", new String[]{"id", "usuarioId"}, "usuario", "_USUARIO", 2000, Duration.ofMinutes(5)),
+    CONTENIDO("OBTENER_CONTENIDO_COMPLETO", new String[]{"contenidoId", "id"}, "contenido", "_CONTENIDO", 500, Duration.ofMinutes(2)),
+    GRUPO("OBTENER_GRUPO", new String[]{"grupoId", "id"}, "grupo", "_GRUPO", 200, Duration.ofMinutes(2)),
+    SOLICITUD("OBTENER_SOLICITUD", new String[]{"solicitudId", "id"}, "solicitud", "_SOLICITUD", 500, Duration.ofMinutes(1));
+
+    private static final String[] PREFIJOS_MUTACION = {"ACTUALIZAR_", "ELIMINAR_", "SUSPENDER_", "REACTIVAR_"};
+
+    private final String tipoObtener;
+    private final String[] camposId;
+    private final String campoRespuesta;
+    private final String sufijoMutacion;
+    private final int capacidad;
+    private final Duration vidaUtil;
+
+    Entidad(String tipoObtener, String[] camposId, String campoRespuesta, String sufijoMutacion,
+            int capacidad, Duration vidaUtil) {
+        this.tipoObtener = tipoObtener;
+        this.camposId = camposId;
+        this.campoRespuesta = campoRespuesta;
+        this.sufijoMutacion = sufijoMutacion;
+        this.capacidad = capacidad;
+        this.vidaUtil = vidaUtil;
+    }
+
+    /**
+     * @return Tipo del mensaje que pide una entidad, por ejemplo "OBTENER_USUARIO"
+     */
+    public String getTipoObtener() {
+        return tipoObtener;
+    }
+
+    /**
+     * @return Campo de los datos de la solicitud con el id de la entidad
+     */
+    public String getCampoId() {
+        return camposId[0];
+    }
+
+    /**
+     * @return Campo de la respuesta con la entidad
+     */
+    public String getCampoRespuesta() {
+        return campoRespuesta;
+    }
+
+    int getCapacidad() {
+        return capacidad;
+    }
+
+    Duration getVidaUtil() {
+        return vidaUtil;
+    }
+
+    /**
+     * Entidad que modifica un mensaje {@code ACTUALIZAR_*}, {@code ELIMINAR_*}, {@code SUSPENDER_*}
+     * o {@code REACTIVAR_*}, según la última palabra del tipo: ELIMINAR_CONTENIDO_GRUPO modifica
+     * un grupo, no un contenido.
+     * @return La entidad modificada, o {@code null} si el mensaje no modifica ninguna
+     */
+    static Entidad modificadaPor(String tipo) {
+        if (tipo == null) {
+            return null;
+        }
+        boolean esMutacion = false;
+        for (String prefijo : PREFIJOS_MUTACION) {
+            esMutacion |= tipo.startsWith(prefijo);
+        }
+        if (!esMutacion) {
+            return null;
+        }
+        for (Entidad entidad : values()) {
+            if (tipo.endsWith(entidad.sufijoMutacion)) {
+                return entidad;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return La entidad cuyos cambios trae un mensaje de {@link Sincronizador}, o {@code null}
+     */
+    static Entidad sincronizadaPor(String tipo) {
+        if ("SINCRONIZAR_CONTENIDOS".equals(tipo)) {
+            return CONTENIDO;
+        }
+        if ("SINCRONIZAR_SOLICITUDES".equals(tipo)) {
+            return SOLICITUD;
+        }
+        return null;
+    }
+
+    /**
+     * Busca el id de la entidad en una solicitud: en los datos, dentro del objeto de la entidad
+     * que viaja en los datos (como en ACTUALIZAR_CONTENIDO) o fuera de los datos (como en
+     * ELIMINAR_USUARIO de {@link ClienteServicio#eliminarUsuario(String)}).
+     * @return El id, o {@code null} si la solicitud no lo dice
+     */
+    String idEn(JsonObject solicitud) {
+        JsonElement datos = solicitud.get("datos");
+        if (datos != null && datos.isJsonObject()) {
+            JsonObject objeto = datos.getAsJsonObject();
+            String id = buscarId(objeto);
+            if (id == null && objeto.has(campoRespuesta) && objeto.get(campoRespuesta).isJsonObject()) {
+                id = buscarId(objeto.getAsJsonObject(campoRespuesta));
+            }
+            if (id != null) {
+                return id;
+            }
+        }
+        return buscarId(solicitud);
+    }
+
+    private String buscarId(JsonObject objeto) {
+        for (String campo : camposId) {
+            JsonElement valor = objeto.get(campo);
+            if (valor != null && valor.isJsonPrimitive()) {
+                return valor.getAsString();
+            }
+        }
+        return null;
+    }
+}
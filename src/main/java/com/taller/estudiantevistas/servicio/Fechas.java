@@ -0,0 +1,239 @@
+package com.taller.estudiantevistas.servicio;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * Lectura y formato de fechas del protocolo y de la interfaz, en un solo lugar.
+ *
+ * El servidor manda fechas como {@code yyyy-MM-dd HH:mm:ss}, ISO ({@code yyyy-MM-ddTHH:mm[:ss[.SSS]]}),
+ * solo el día ({@code yyyy-MM-dd}) o en formato local ({@code dd/MM/yyyy[ HH:mm[:ss]]}).
+ * {@link #leer(CharSequence)} reconoce el formato por la forma del texto y lo recorre una sola vez,
+ * sin probar formatos uno tras otro ni lanzar excepciones: si no lo reconoce devuelve {@code null}.
+ *
+ * Todos los métodos son seguros entre hilos. Los textos que se muestran en pantalla
+ * ({@code dd/MM/yyyy HH:mm}) se guardan en una caché pequeña por minuto, porque un listado repite
+ * las mismas fechas muchas veces.
+ */
+public final class Fechas {
+    /**
+     * Entradas de la caché de textos para mostrar; potencia de dos.
+     */
+    private static final int TAMANO_CACHE = 1024;
+    private static final DateTimeFormatter FORMATO_LARGO = DateTimeFormatter.ofPattern("dd MMM yyyy 'a las' HH:mm");
+
+    private static final Mostrada[] MOSTRADAS = new Mostrada[TAMANO_CACHE];
+
+    private Fechas() {
+    }
+
+    /**
+     * @return La fecha y hora del texto, o {@code null} si está vacío o no tiene un formato conocido.
+     * Una fecha sin hora se toma al inicio del día.
+     */
+    public static LocalDateTime leer(CharSequence texto) {
+        if (texto == null || texto.length() < 10) {
+            return null;
+        }
+        int largo = texto.length();
+        int anio;
+        int mes;
+        int dia;
+        if (texto.charAt(4) == '-' && texto.charAt(7) == '-') {
+            anio = digitos(texto, 0, 4);
+            mes = digitos(texto, 5, 2);
+            dia = digitos(texto, 8, 2);
+        } else if (texto.charAt(2) == '/' && texto.charAt(5) == '/') {
+            dia = digitos(texto, 0, 2);
+            mes = digitos(texto, 3, 2);
+            anio = digitos(texto, 6, 4);
+        } else {
+            return null;
+        }
+        if (anio < 0 || mes < 1 || mes > 12 || dia < 1 || dia > Month.of(mes).length(Year.isLeap(anio))) {
+            return null;
+        }
+
+        int hora = 0;
+        int minuto = 0;
+        int segundo = 0;
+        int nanos = 0;
+        if (largo > 10) {
+            char separador = texto.charAt(10);
+            if ((separador != ' ' && separador != 'T') || largo < 16 || texto.charAt(13) != ':') {
+                return null;
+            }
+            hora = digitos(texto, 11, 2);
+            minuto = digitos(texto, 14, 2);
+            if (largo > 16) {
+                if (largo < 19 || texto.charAt(16) != ':') {
+                    return null;
+                }
+                segundo = digitos(texto, 17, 2);
+                if (largo > 19) {
+                    if (texto.charAt(19) != '.' || largo == 20 || largo > 29) {
+                        return null;
+                    }
+                    for (int i = 20; i < 29; i++) {
+                        int digito = i < largo ? digito(texto.charAt(i)) : 0;
+                        if (digito < 0) {
+                            return null;
+                        }
+                        nanos = nanos * 10 + digito;
+                    }
+                }
+            }
+            if (hora < 0 || hora > 23 || minuto < 0 || minuto > 59 || segundo < 0 || segundo > 59) {
+                return null;
+            }
+        }
+        return LocalDateTime.of(anio, mes, dia, hora, minuto, segundo, nanos);
+    }
+
+    /**
+     * @return El día de un texto {@code yyyy-MM-dd} exacto, o {@code null} si no lo es
+     */
+    public static LocalDate leerDia(CharSequence texto) {
+        if (texto == null || texto.length() != 10 || texto.charAt(4) != '-') {
+            return null;
+        }
+        LocalDateTime fecha = leer(texto);
+        return fecha != null ? fecha.toLocalDate() : null;
+    }
+
+    /**
+     * @return La fecha en el formato del protocolo, {@code yyyy-MM-dd HH:mm:ss}
+     */
+    public static String formatear(LocalDateTime fecha) {
+        if (fecha == null) {
+            return null;
+        }
+        if (fecha.getYear() < 0 || fecha.getYear() > 9999) {
+            return fecha.toString();
+        }
+        char[] texto = new char[19];
+        poner(texto, 0, fecha.getYear(), 4);
+        texto[4] = '-';
+        poner(texto, 5, fecha.getMonthValue(), 2);
+        texto[7] = '-';
+        poner(texto, 8, fecha.getDayOfMonth(), 2);
+        texto[10] = ' ';
+        poner(texto, 11, fecha.getHour(), 2);
+        texto[13] = ':';
+        poner(texto, 14, fecha.getMinute(), 2);
+        texto[16] = ':';
+        poner(texto, 17, fecha.getSecond(), 2);
+        return new String(texto);
+    }
+
+    public static String formatear(Date fecha) {
+        return formatear(deDate(fecha));
+    }
+
+    /**
+     * @return La fecha como se muestra en los listados, {@code dd/MM/yyyy HH:mm}
+     */
+    public static String mostrar(LocalDateTime fecha) {
+        if (fecha == null) {
+            return null;
+        }
+        long minuto = Math.floorDiv(fecha.toEpochSecond(ZoneOffset.UTC), 60);
+        int indice = (int) (minuto ^ (minuto >>> 17)) & (TAMANO_CACHE - 1);
+        Mostrada mostrada = MOSTRADAS[indice];
+        if (mostrada != null && mostrada.minuto == minuto) {
+            return mostrada.texto;
+        }
+        String texto = fecha.getYear() < 0 || fecha.getYear() > 9999
+                ? fecha.toString()
+                : componerMostrada(fecha);
+        MOSTRADAS[indice] = new Mostrada(minuto, texto);
+        return texto;
+    }
+
+    /**
+     * @return El texto del servidor en el formato de los listados, o el mismo texto si no es una fecha
+     */
+    public static String mostrar(String texto) {
+        LocalDateTime fecha = leer(texto);
+        return fecha != null ? mostrar(fecha) : texto;
+    }
+
+    public static String mostrar(long milisegundos) {
+        return mostrar(LocalDateTime.ofInstant(Instant.ofEpochMilli(milisegundos), ZoneId.systemDefault()));
+    }
+
+    /**
+     * @return La fecha para la vista de detalle, por ejemplo {@code 05 mar 2024 a las 14:30}
+     */
+    public static String mostrarLargo(LocalDateTime fecha) {
+        return fecha != null ? fecha.format(FORMATO_LARGO) : null;
+    }
+
+    public static Date aDate(LocalDateTime fecha) {
+        return fecha != null ? Date.from(fecha.atZone(ZoneId.systemDefault()).toInstant()) : null;
+    }
+
+    public static LocalDateTime deDate(Date fecha) {
+        return fecha != null ? LocalDateTime.ofInstant(fecha.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    private static String componerMostrada(LocalDateTime fecha) {
+        char[] texto = new char[16];
+        poner(texto, 0, fecha.getDayOfMonth(), 2);
+        texto[2] = '/';
+        poner(texto, 3, fecha.getMonthValue(), 2);
+        texto[5] = '/';
+        poner(texto, 6, fecha.getYear(), 4);
+        texto[10] = ' ';
+        poner(texto, 11, fecha.getHour(), 2);
+        texto[13] = ':';
+        poner(texto, 14, fecha.getMinute(), 2);
+        return new String(texto);
+    }
+
+    /**
+     * @return El número de {@code cantidad} dígitos desde {@code desde}, o -1 si alguno no es un dígito
+     */
+    private static int digitos(CharSequence texto, int desde, int cantidad) {
+        int valor = 0;
+        for (int i = desde; i < desde + cantidad; i++) {
+            int digito = digito(texto.charAt(i));
+            if (digito < 0) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    private static int digito(char caracter) {
+        return caracter >= '0' && caracter <= '9' ? caracter - '0' : -1;
+    }
+
+    private static void poner(char[] texto, int desde, int valor, int cantidad) {
+        for (int i = desde + cantidad - 1; i >= desde; i--) {
+            texto[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+    }
+
+    /**
+     * Texto ya formateado de un minuto. Inmutable, así que se puede publicar en la caché sin bloqueo.
+     */
+    private static final class Mostrada {
+        final long minuto;
+        final String texto;
+
+        Mostrada(long minuto, String texto) {
+            this.minuto = minuto;
+            this.texto = texto;
+        }
+    }
+}
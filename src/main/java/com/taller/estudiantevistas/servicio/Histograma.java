@@ -0,0 +1,120 @@
+package com.taller.estudiantevistas.servicio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias al estilo HDR: cubetas lineales dentro de cada potencia de dos, así que
+ * el error relativo de cualquier percentil es menor a 1/{@value #SUBCUBETAS} sin importar si el
+ * valor es de microsegundos o de minutos, y registrar un valor no reserva memoria.
+ *
+ * Los valores se registran en microsegundos. Es seguro entre hilos y no bloquea: cada registro
+ * incrementa un contador atómico; las consultas recorren las cubetas y pueden ver un registro a
+ * medio hacer, lo que para un percentil es irrelevante.
+ */
+public final class Histograma {
+    /**
+     * Cubetas por potencia de dos (la precisión); potencia de dos.
+     */
+    static final int SUBCUBETAS = 128;
+    private static final int BITS_SUBCUBETA = Integer.numberOfTrailingZeros(SUBCUBETAS);
+    private static final int MITAD = SUBCUBETAS / 2;
+    /**
+     * Valores por encima de 2^40 µs (unos 12 días) se registran como ese máximo.
+     */
+    private static final int MAGNITUD_MAXIMA = 40 - BITS_SUBCUBETA;
+    private static final long VALOR_MAXIMO = (1L << 40) - 1;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(SUBCUBETAS + MAGNITUD_MAXIMA * MITAD);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Crea un histograma vacío.
+     */
+    public Histograma() {
+    }
+
+    public void registrar(long microsegundos) {
+        long valor = Math.max(0, Math.min(microsegundos, VALOR_MAXIMO));
+        cubetas.incrementAndGet(indice(valor));
+        cantidad.increment();
+        suma.add(valor);
+        maximo.accumulateAndGet(valor, Math::max);
+    }
+
+    public long getCantidad() {
+        return cantidad.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long n = cantidad.sum();
+        return n == 0 ? 0 : (double) suma.sum() / n;
+    }
+
+    /**
+     * @param fraccion Entre 0 y 1, por ejemplo 0.99 para el p99
+     * @return El valor en microsegundos por debajo del cual queda esa fracción de los registros,
+     * o 0 si no hay ninguno
+     */
+    public long percentil(double fraccion) {
+        long[] copia = new long[cubetas.length()];
+        long total = 0;
+        for (int i = 0; i < copia.length; i++) {
+            copia[i] = cubetas.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(Math.max(0, Math.min(1, fraccion)) * total));
+        long acumulado = 0;
+        for (int i = 0; i < copia.length; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                return Math.min(representante(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    public void reiniciar() {
+        for (int i = 0; i < cubetas.length(); i++) {
+            cubetas.set(i, 0);
+        }
+        cantidad.reset();
+        suma.reset();
+        maximo.set(0);
+    }
+
+    /**
+     * Los primeros {@value #SUBCUBETAS} valores tienen una cubeta cada uno; de ahí en adelante,
+     * cada potencia de dos se reparte en {@code SUBCUBETAS / 2} cubetas del mismo ancho.
+     */
+    private static int indice(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int magnitud = 63 - Long.numberOfLeadingZeros(valor) - (BITS_SUBCUBETA - 1);
+        int sub = (int) (valor >>> magnitud);
+        return SUBCUBETAS + (magnitud - 1) * MITAD + (sub - MITAD);
+    }
+
+    /**
+     * @return El punto medio de la cubeta
+     */
+    private static long representante(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int magnitud = (indice - SUBCUBETAS) / MITAD + 1;
+        long sub = (indice - SUBCUBETAS) % MITAD + MITAD;
+        return (sub << magnitud) + (1L << (magnitud - 1));
+    }
+}
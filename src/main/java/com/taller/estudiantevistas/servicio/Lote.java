@@ -0,0 +1,173 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Junta varias solicitudes en un único mensaje {@value #TIPO_LOTE}: el servidor las atiende en
+ * orden y devuelve una respuesta por cada una, así que una pantalla que necesita varias
+ * consultas paga un solo viaje de ida y vuelta.
+ *
+ * Cada solicitud tiene su propio futuro, que falla por separado si su respuesta no tiene éxito.
+ * Si el servidor responde que no conoce {@value #TIPO_LOTE}, las solicitudes se envían en un
+ * {@link Pipeline}; cualquier otro error del lote se entrega a todas sus solicitudes.
+ *
+ * Formato: {@code {"tipo":"BATCH","datos":{"solicitudes":[{"tipo","datos"}, ...]}}} y
+ * {@code {"exito":true,"respuestas":[{...}, ...]}} con las respuestas en el mismo orden.
+ */
+public class Lote {
+    public static final String TIPO_LOTE = "BATCH";
+    static final String CAMPO_SOLICITUDES = "solicitudes";
+    static final String CAMPO_RESPUESTAS = "respuestas";
+
+    private final ClienteServicio cliente;
+    private final List<JsonObject> solicitudes = new ArrayList<>();
+    private final List<CompletableFuture<JsonObject>> respuestas = new ArrayList<>();
+    private boolean enviado;
+
+    Lote(ClienteServicio cliente) {
+        this.cliente = cliente;
+    }
+
+    /**
+     * Agrega una solicitud y convierte su respuesta con {@code lectura}.
+     * @param datos Datos del mensaje; puede ser nulo
+     * @param lectura Extrae el resultado de la respuesta, ya verificado su "exito"
+     * @return Futuro con el resultado; falla con {@link IOException} si la solicitud no tuvo éxito
+     */
+    public synchronized <T> CompletableFuture<T> agregar(String tipo, JsonObject datos, Function<JsonObject, T> lectura) {
+        if (enviado) {
+            throw new IllegalStateException("El lote ya fue enviado");
+        }
+        CompletableFuture<JsonObject> respuesta = new CompletableFuture<>();
+        solicitudes.add(ClienteServicio.crearSolicitud(tipo, datos));
+        respuestas.add(respuesta);
+        return respuesta.thenApply(r -> lectura.apply(verificar(r, tipo)));
+    }
+
+    /**
+     * @return Futuro con la respuesta completa de la solicitud
+     */
+    public CompletableFuture<JsonObject> agregar(String tipo, JsonObject datos) {
+        return agregar(tipo, datos, Function.identity());
+    }
+
+    /**
+     * Agrega una solicitud de listado, como {@link ClienteServicio#extraerLista(JsonObject, String)}.
+     * @return Futuro con el arreglo {@code campo} de la respuesta
+     */
+    public CompletableFuture<JsonArray> agregarLista(String tipo, JsonObject datos, String campo) {
+        return agregar(tipo, datos, respuesta -> {
+            try {
+                return ClienteServicio.extraerLista(respuesta, campo);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Agrega una solicitud de listado tipada; cada elemento se convierte al DTO del mensaje con {@link Codec}.
+     * @return Futuro con los elementos de la respuesta
+     */
+    public <T> CompletableFuture<List<T>> agregarLista(Mensaje<T> mensaje, JsonObject datos) {
+        return agregar(mensaje.getTipo(), datos, respuesta -> {
+            try {
+                JsonArray lista = ClienteServicio.extraerLista(respuesta, mensaje.getCampo());
+                List<T> elementos = new ArrayList<>(lista.size());
+                lista.forEach(elemento -> elementos.add(Codec.leer(elemento, mensaje.getElemento())));
+                return elementos;
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Envía el lote. No bloquea.
+     * @return Futuro que se completa cuando todas las solicitudes tienen respuesta, con o sin éxito
+     */
+    public CompletableFuture<Void> enviar() {
+        synchronized (this) {
+            if (enviado) {
+                throw new IllegalStateException("El lote ya fue enviado");
+            }
+            enviado = true;
+        }
+        if (solicitudes.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (!cliente.admiteLotes()) {
+            enviarEnPipeline();
+        } else {
+            JsonArray lista = new JsonArray(solicitudes.size());
+            solicitudes.forEach(lista::add);
+            JsonObject datos = new JsonObject();
+            datos.add(CAMPO_SOLICITUDES, lista);
+
+            cliente.solicitarAsync(ClienteServicio.crearSolicitud(TIPO_LOTE, datos)).whenComplete((sobre, error) -> {
+                if (error != null) {
+                    respuestas.forEach(r -> r.completeExceptionally(error));
+                } else if (ClienteServicio.esTipoNoAdmitido(sobre)) {
+                    System.out.println("ℹ️ El servidor no admite " + TIPO_LOTE + ", se usa un pipeline");
+                    cliente.marcarLotesNoAdmitidos();
+                    enviarEnPipeline();
+                } else if (!sobre.has(CAMPO_RESPUESTAS) || !sobre.get(CAMPO_RESPUESTAS).isJsonArray()) {
+                    // Un error del lote en sí: repetirlo solicitud por solicitud no cambiaría el resultado
+                    IOException causa = new IOException(sobre.has("mensaje")
+                            ? sobre.get("mensaje").getAsString()
+                            : "Respuesta mal formada: falta campo '" + CAMPO_RESPUESTAS + "'");
+                    respuestas.forEach(r -> r.completeExceptionally(causa));
+                } else {
+                    repartir(sobre.getAsJsonArray(CAMPO_RESPUESTAS));
+                }
+            });
+        }
+        return CompletableFuture.allOf(respuestas.toArray(CompletableFuture<?>[]::new)).handle((v, e) -> null);
+    }
+
+    private void repartir(JsonArray lista) {
+        for (int i = 0; i < respuestas.size(); i++) {
+            JsonElement respuesta = i < lista.size() ? lista.get(i) : null;
+            if (respuesta != null && respuesta.isJsonObject()) {
+                respuestas.get(i).complete(respuesta.getAsJsonObject());
+            } else {
+                respuestas.get(i).completeExceptionally(new IOException("Respuesta faltante en el lote para "
+                        + solicitudes.get(i).get("tipo").getAsString()));
+            }
+        }
+    }
+
+    private void enviarEnPipeline() {
+        Pipeline pipeline = cliente.crearPipeline();
+        for (int i = 0; i < solicitudes.size(); i++) {
+            CompletableFuture<JsonObject> destino = respuestas.get(i);
+            pipeline.agregar(solicitudes.get(i)).whenComplete((respuesta, error) -> {
+                if (error != null) {
+                    destino.completeExceptionally(error);
+                } else {
+                    destino.complete(respuesta);
+                }
+            });
+        }
+        pipeline.enviar();
+    }
+
+    private static JsonObject verificar(JsonObject respuesta, String tipo) {
+        if (!respuesta.has("exito") || !respuesta.get("exito").getAsBoolean()) {
+            throw new CompletionException(new IOException(respuesta.has("mensaje")
+                    ? respuesta.get("mensaje").getAsString()
+                    : "Error desconocido en " + tipo));
+        }
+        return respuesta;
+    }
+}
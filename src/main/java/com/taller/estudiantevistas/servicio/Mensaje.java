@@ -0,0 +1,54 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.taller.estudiantevistas.dto.Contenido;
+import com.taller.estudiantevistas.dto.SolicitudAyuda;
+import com.taller.estudiantevistas.dto.Valoracion;
+
+/**
+ * Mensaje de listado con su respuesta tipada: qué se pide, en qué arreglo de la respuesta
+ * vienen los elementos y a qué DTO se decodifica cada uno.
+ * @param <T> DTO de cada elemento de la respuesta
+ */
+public final class Mensaje<T> {
+    public static final Mensaje<Contenido> CONTENIDOS = new Mensaje<>("OBTENER_CONTENIDOS", "contenidos", Contenido.class);
+    public static final Mensaje<Contenido> CONTENIDOS_USUARIO =
+            new Mensaje<>("OBTENER_CONTENIDOS_USUARIO", "contenidos", Contenido.class);
+    public static final Mensaje<SolicitudAyuda> SOLICITUDES =
+            new Mensaje<>("OBTENER_SOLICITUDES", "solicitudes", SolicitudAyuda.class);
+    public static final Mensaje<SolicitudAyuda> SOLICITUDES_USUARIO =
+            new Mensaje<>("OBTENER_SOLICITUDES_USUARIO", "solicitudes", SolicitudAyuda.class);
+    public static final Mensaje<Contenido> BUSQUEDA_CONTENIDOS =
+            new Mensaje<>("BUSCAR_CONTENIDO", "resultados", Contenido.class);
+    public static final Mensaje<Valoracion> VALORACIONES =
+            new Mensaje<>("OBTENER_VALORACIONES", "valoraciones", Valoracion.class);
+
+    private final String tipo;
+    private final String campo;
+    private final Class<T> elemento;
+
+    public Mensaje(String tipo, String campo, Class<T> elemento) {
+        this.tipo = tipo;
+        this.campo = campo;
+        this.elemento = elemento;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    /**
+     * @return Nombre del arreglo de la respuesta que trae los elementos
+     */
+    public String getCampo() {
+        return campo;
+    }
+
+    public Class<T> getElemento() {
+        return elemento;
+    }
+
+    @Override
+    public String toString() {
+        return tipo + " -> " + campo + "[" + elemento.getSimpleName() + "]";
+    }
+}
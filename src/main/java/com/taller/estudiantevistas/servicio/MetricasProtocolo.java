@@ -0,0 +1,217 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas del protocolo por tipo de mensaje, vistas desde el cliente: cuántas solicitudes salen,
+ * cuánto tardan (p50/p99/p999), cuántos bytes van y vuelven, cuántas fallan y cuántas hay en vuelo.
+ *
+ * La latencia va desde que la solicitud se entrega a la conexión hasta que llega su respuesta;
+ * no incluye la espera en el {@link Planificador}. Los bytes enviados son los del JSON de cada
+ * solicitud; los recibidos, los de la respuesta en el cable (con {@link ModoTransporte#BINARIO},
+ * comprimida). Con {@link ModoTransporte#BLOQUEANTE} los de cada respuesta son aproximados, porque
+ * el lector adelanta lectura, aunque el total es exacto.
+ */
+public final class MetricasProtocolo {
+    /**
+     * Fila de los bytes recibidos que no responden a ninguna solicitud: eventos del servidor.
+     */
+    public static final String SIN_SOLICITUD = "(eventos)";
+
+    private final Map<String, Tipo> porTipo = new ConcurrentHashMap<>();
+
+    /**
+     * Solo las crea {@link ClienteServicio}, una por cliente; se consultan con
+     * {@link ClienteServicio#getMetricas()}.
+     */
+    MetricasProtocolo() {
+    }
+
+    /**
+     * Cuenta una solicitud que sale por la conexión y mide su respuesta cuando llegue.
+     */
+    void observar(JsonObject solicitud, CompletableFuture<JsonObject> respuesta) {
+        Tipo mensaje = de(Canal.tipoDe(solicitud));
+        mensaje.enviadas.increment();
+        mensaje.enVuelo.incrementAndGet();
+        long inicio = System.nanoTime();
+        respuesta.whenComplete((recibida, error) -> {
+            mensaje.enVuelo.decrementAndGet();
+            Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (causa instanceof CancellationException) {
+                mensaje.canceladas.increment();
+                return;
+            }
+            mensaje.latencia.registrar(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio));
+            if (causa != null) {
+                mensaje.errores.increment();
+                if (causa instanceof TiempoAgotadoException) {
+                    mensaje.vencidas.increment();
+                }
+            } else if (recibida != null && recibida.has("exito") && recibida.get("exito").isJsonPrimitive()
+                    && !recibida.get("exito").getAsBoolean()) {
+                mensaje.rechazadas.increment();
+            }
+        });
+    }
+
+    void bytesEnviados(String tipo, long bytes) {
+        de(tipo).bytesEnviados.add(bytes);
+    }
+
+    void bytesRecibidos(String tipo, long bytes) {
+        de(tipo).bytesRecibidos.add(bytes);
+    }
+
+    /**
+     * @return Las métricas de un tipo de mensaje, o {@code null} si todavía no se envió ninguno
+     */
+    public Tipo getTipo(String tipo) {
+        return porTipo.get(tipo != null ? tipo : "?");
+    }
+
+    /**
+     * @return Las métricas de cada tipo enviado, ordenadas por tipo
+     */
+    public Map<String, Tipo> getTipos() {
+        return Collections.unmodifiableMap(new TreeMap<>(porTipo));
+    }
+
+    public void reiniciar() {
+        porTipo.clear();
+    }
+
+    /**
+     * @return Una tabla de texto con una fila por tipo de mensaje; latencias en milisegundos
+     */
+    public String instantanea() {
+        List<String[]> filas = new ArrayList<>();
+        filas.add(new String[]{"tipo", "enviadas", "en vuelo", "errores", "vencidas", "rechazadas",
+                "p50", "p99", "p999", "máx", "KB enviados", "KB recibidos"});
+        for (Map.Entry<String, Tipo> entrada : getTipos().entrySet()) {
+            Tipo m = entrada.getValue();
+            Histograma latencia = m.latencia;
+            filas.add(new String[]{
+                    entrada.getKey(),
+                    String.valueOf(m.getEnviadas()),
+                    String.valueOf(m.getEnVuelo()),
+                    String.valueOf(m.getErrores()),
+                    String.valueOf(m.getVencidas()),
+                    String.valueOf(m.getRechazadas()),
+                    milisegundos(latencia.percentil(0.5)),
+                    milisegundos(latencia.percentil(0.99)),
+                    milisegundos(latencia.percentil(0.999)),
+                    milisegundos(latencia.getMaximo()),
+                    String.valueOf(m.getBytesEnviados() / 1024),
+                    String.valueOf(m.getBytesRecibidos() / 1024)
+            });
+        }
+
+        int[] anchos = new int[filas.get(0).length];
+        for (String[] fila : filas) {
+            for (int i = 0; i < fila.length; i++) {
+                anchos[i] = Math.max(anchos[i], fila[i].length());
+            }
+        }
+        StringBuilder tabla = new StringBuilder();
+        for (String[] fila : filas) {
+            for (int i = 0; i < fila.length; i++) {
+                String celda = fila[i];
+                // La primera columna a la izquierda, los números a la derecha
+                tabla.append(i == 0 ? celda + " ".repeat(anchos[i] - celda.length())
+                        : " ".repeat(anchos[i] - celda.length() + 2) + celda);
+            }
+            tabla.append('\n');
+        }
+        return tabla.toString();
+    }
+
+    @Override
+    public String toString() {
+        return instantanea();
+    }
+
+    private Tipo de(String tipo) {
+        return porTipo.computeIfAbsent(tipo != null ? tipo : "?", t -> new Tipo());
+    }
+
+    private static String milisegundos(long microsegundos) {
+        return String.format("%.1f", microsegundos / 1000.0);
+    }
+
+    /**
+     * Contadores de un tipo de mensaje.
+     */
+    public static final class Tipo {
+        private final Histograma latencia = new Histograma();
+        private final LongAdder enviadas = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+        private final LongAdder vencidas = new LongAdder();
+        private final LongAdder rechazadas = new LongAdder();
+        private final LongAdder canceladas = new LongAdder();
+        private final LongAdder bytesEnviados = new LongAdder();
+        private final LongAdder bytesRecibidos = new LongAdder();
+        private final AtomicInteger enVuelo = new AtomicInteger();
+
+        Tipo() {
+        }
+
+        /**
+         * @return Latencias de las respuestas y de los errores, en microsegundos
+         */
+        public Histograma getLatencia() {
+            return latencia;
+        }
+
+        public long getEnviadas() {
+            return enviadas.sum();
+        }
+
+        /**
+         * @return Solicitudes que fallaron sin respuesta: plazo vencido, conexión perdida o JSON inválido
+         */
+        public long getErrores() {
+            return errores.sum();
+        }
+
+        public long getVencidas() {
+            return vencidas.sum();
+        }
+
+        /**
+         * @return Respuestas que llegaron con {@code "exito": false}
+         */
+        public long getRechazadas() {
+            return rechazadas.sum();
+        }
+
+        public long getCanceladas() {
+            return canceladas.sum();
+        }
+
+        public long getBytesEnviados() {
+            return bytesEnviados.sum();
+        }
+
+        public long getBytesRecibidos() {
+            return bytesRecibidos.sum();
+        }
+
+        public int getEnVuelo() {
+            return enVuelo.get();
+        }
+    }
+}
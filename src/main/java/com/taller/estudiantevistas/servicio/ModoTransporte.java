@@ -0,0 +1,35 @@
+package com.taller.estudiantevistas.servicio;
+
+/**
+ * Implementación de transporte que usa {@link ClienteServicio} para hablar con el servidor.
+ */
+public enum ModoTransporte {
+    /** Socket clásico con un hilo lector dedicado por conexión. */
+    BLOQUEANTE,
+    /** SocketChannel no bloqueante con un único hilo de E/S por conexión. */
+    NIO,
+    /**
+     * Tramas binarias de longitud prefijada con compresión opcional, negociadas al conectar.
+     * Si el servidor no las admite se usa {@link #BLOQUEANTE}.
+     */
+    BINARIO;
+
+    /** Propiedad de sistema para elegir el transporte sin tocar el código, por ejemplo {@code -Destudiantevistas.transporte=nio}. */
+    public static final String PROPIEDAD = "estudiantevistas.transporte";
+
+    /**
+     * @return El modo indicado en {@value #PROPIEDAD}, o {@link #BLOQUEANTE} si no se indicó ninguno válido
+     */
+    public static ModoTransporte desdeConfiguracion() {
+        String valor = System.getProperty(PROPIEDAD);
+        if (valor != null) {
+            for (ModoTransporte modo : values()) {
+                if (modo.name().equalsIgnoreCase(valor.trim())) {
+                    return modo;
+                }
+            }
+            System.err.println("⚠️ Transporte desconocido '" + valor + "', se usa " + BLOQUEANTE);
+        }
+        return BLOQUEANTE;
+    }
+}
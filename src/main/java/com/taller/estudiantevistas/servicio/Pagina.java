@@ -0,0 +1,57 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonObject;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Una página de un listado paginado.
+ * @param <T> Tipo de cada elemento: el DTO del {@link Mensaje} o {@link JsonObject}
+ */
+public class Pagina<T> {
+    private final List<T> elementos;
+    private final int cantidad;
+    private final String siguienteCursor;
+    private final long version;
+
+    Pagina(List<T> elementos, int cantidad, String siguienteCursor, long version) {
+        this.elementos = Collections.unmodifiableList(elementos);
+        this.cantidad = cantidad;
+        this.siguienteCursor = siguienteCursor;
+        this.version = version;
+    }
+
+    /**
+     * @return Elementos de la página; vacía si se entregaron a un consumidor mientras se leían
+     */
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * @return Número de elementos que traía la página
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * @return Cursor opaco de la página siguiente, o null si esta es la última
+     */
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    /**
+     * @return Versión del listado en el servidor al responder esta página, o
+     * {@link Sincronizador#SIN_VERSION} si el servidor no la informa
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean hayMas() {
+        return siguienteCursor != null;
+    }
+}
@@ -0,0 +1,160 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Recorre un listado del servidor de a una página por solicitud.
+ *
+ * Cada solicitud lleva {@value #CAMPO_LIMITE} y, desde la segunda, el {@value #CAMPO_CURSOR}
+ * opaco que devolvió la página anterior en {@value #CAMPO_SIGUIENTE_CURSOR}. Un servidor que
+ * ignora estos campos devuelve la lista completa, que se trata como una única página.
+ *
+ * Solo puede haber una página en curso a la vez.
+ * @param <T> Tipo de cada elemento: el DTO del {@link Mensaje} o {@link JsonObject}
+ */
+public class Paginador<T> implements Iterator<Pagina<T>> {
+    public static final String CAMPO_CURSOR = "cursor";
+    public static final String CAMPO_LIMITE = "limite";
+    public static final String CAMPO_SIGUIENTE_CURSOR = "siguienteCursor";
+
+    private final ClienteServicio cliente;
+    private final String tipo;
+    private final JsonObject datos;
+    private final String campo;
+    private final TypeAdapter<T> adaptador;
+    private final int limite;
+
+    private String cursor;
+    private boolean terminado;
+    private boolean cargando;
+
+    /**
+     * @param adaptador Decodifica cada elemento; si es nulo, los elementos son {@link JsonObject}
+     */
+    Paginador(ClienteServicio cliente, String tipo, JsonObject datos, String campo, TypeAdapter<T> adaptador, int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser al menos 1");
+        }
+        this.cliente = cliente;
+        this.tipo = tipo;
+        this.datos = datos != null ? datos.deepCopy() : new JsonObject();
+        this.campo = campo;
+        this.adaptador = adaptador;
+        this.limite = limite;
+    }
+
+    /**
+     * @return true si todavía quedan páginas por pedir
+     */
+    public synchronized boolean hayMas() {
+        return !terminado;
+    }
+
+    /**
+     * @return true si hay una página en curso
+     */
+    public synchronized boolean estaCargando() {
+        return cargando;
+    }
+
+    /**
+     * Pide la siguiente página y entrega cada elemento a medida que se decodifica,
+     * como en {@link ClienteServicio#recorrerAsync(Mensaje, JsonObject, Consumer)}.
+     * @return Futuro con la página; sus elementos quedan vacíos porque ya se entregaron al consumidor
+     */
+    public CompletableFuture<Pagina<T>> siguienteAsync(Consumer<? super T> porElemento) {
+        return enviarSiguiente(porElemento, cliente::enviarConReceptor);
+    }
+
+    /**
+     * Pide la siguiente página y la devuelve completa.
+     */
+    public CompletableFuture<Pagina<T>> siguienteAsync() {
+        List<T> elementos = Collections.synchronizedList(new ArrayList<>(limite));
+        return enviarSiguiente(elementos::add, cliente::enviarConReceptor)
+                .thenApply(p -> new Pagina<>(elementos, p.getCantidad(), p.getSiguienteCursor(), p.getVersion()));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hayMas();
+    }
+
+    /**
+     * Versión bloqueante de {@link #siguienteAsync()}.
+     * @throws UncheckedIOException Si la solicitud falla
+     */
+    @Override
+    public Pagina<T> next() {
+        if (!hayMas()) {
+            throw new NoSuchElementException("No quedan páginas");
+        }
+        try {
+            return ClienteServicio.esperar(siguienteAsync());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    /**
+     * @param enviar Envía la solicitud con su receptor; permite que la página salga dentro de un {@link Pipeline}
+     */
+    CompletableFuture<Pagina<T>> enviarSiguiente(Consumer<? super T> porElemento,
+                                                 BiFunction<JsonObject, ReceptorLista, CompletableFuture<JsonObject>> enviar) {
+        JsonObject solicitud;
+        synchronized (this) {
+            if (terminado) {
+                throw new IllegalStateException("No quedan páginas");
+            }
+            if (cargando) {
+                throw new IllegalStateException("Ya hay una página en curso");
+            }
+            cargando = true;
+            solicitud = ClienteServicio.crearSolicitud(tipo, datosDePagina());
+        }
+
+        ReceptorLista receptor = new ReceptorLista(campo, adaptador, porElemento);
+        return enviar.apply(solicitud, receptor).handle((resto, error) -> {
+            synchronized (this) {
+                cargando = false;
+                if (error != null) {
+                    throw ClienteServicio.comoCompletionException(error);
+                }
+                int cantidad = receptor.verificar(resto);
+                cursor = resto.has(CAMPO_SIGUIENTE_CURSOR) && !resto.get(CAMPO_SIGUIENTE_CURSOR).isJsonNull()
+                        ? resto.get(CAMPO_SIGUIENTE_CURSOR).getAsString()
+                        : null;
+                terminado = cursor == null;
+                long version = resto.has(Sincronizador.CAMPO_VERSION)
+                        ? resto.get(Sincronizador.CAMPO_VERSION).getAsLong()
+                        : Sincronizador.SIN_VERSION;
+                return new Pagina<>(Collections.<T>emptyList(), cantidad, cursor, version);
+            }
+        });
+    }
+
+    private JsonObject datosDePagina() {
+        JsonObject pagina = datos.deepCopy();
+        pagina.addProperty(CAMPO_LIMITE, limite);
+        if (cursor != null) {
+            pagina.addProperty(CAMPO_CURSOR, cursor);
+        }
+        return pagina;
+    }
+}
@@ -0,0 +1,176 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Agrupa varias solicitudes para enviarlas seguidas, sin esperar la respuesta de cada una
+ * antes de mandar la siguiente. Las respuestas se entregan en el mismo orden en que se agregaron.
+ *
+ * Como máximo {@code profundidad} solicitudes del pipeline quedan en vuelo a la vez; el resto
+ * se envía a medida que van llegando respuestas. El plazo de cada solicitud empieza a contar
+ * cuando sale; cancelar el futuro de una que todavía espera turno evita enviarla.
+ *
+ * El pipeline escribe directamente en la conexión, sin pasar por {@link Planificador}: la
+ * profundidad es su único límite y no puede superar {@link Planificador#EN_VUELO_MAXIMO}.
+ */
+public class Pipeline {
+    private final Conexion conexion;
+    private final Duration plazo;
+    private final int profundidad;
+
+    private final List<CompletableFuture<JsonObject>> resultados = new ArrayList<>();
+    private final Deque<Pendiente> cola = new ArrayDeque<>();
+    private boolean enviado;
+
+    Pipeline(Conexion conexion, Duration plazo, int profundidad) {
+        if (profundidad < 1 || profundidad > Planificador.EN_VUELO_MAXIMO) {
+            throw new IllegalArgumentException("La profundidad del pipeline debe estar entre 1 y "
+                    + Planificador.EN_VUELO_MAXIMO);
+        }
+        this.conexion = conexion;
+        this.plazo = plazo;
+        this.profundidad = profundidad;
+    }
+
+    /**
+     * Encola una solicitud. No se envía nada hasta llamar a {@link #enviar()}.
+     * @param solicitud Mensaje con los campos "tipo" y "datos"
+     * @return Futuro que se completa con la respuesta de esta solicitud
+     */
+    public CompletableFuture<JsonObject> agregar(JsonObject solicitud) {
+        return agregar(solicitud, null);
+    }
+
+    /**
+     * Encola una solicitud de listado cuyo arreglo se recibe en streaming, como en
+     * {@link ClienteServicio#recorrerAsync(Mensaje, JsonObject, Consumer)}.
+     * @param datos Datos del mensaje; puede ser nulo
+     * @return Futuro con el número de elementos entregados
+     */
+    public <T> CompletableFuture<Integer> agregarLista(Mensaje<T> mensaje, JsonObject datos, Consumer<? super T> porElemento) {
+        ReceptorLista receptor = new ReceptorLista(mensaje.getCampo(), Codec.adaptador(mensaje.getElemento()), porElemento);
+        return agregar(ClienteServicio.crearSolicitud(mensaje.getTipo(), datos), receptor).thenApply(receptor::verificar);
+    }
+
+    /**
+     * Encola la siguiente página del paginador; sus elementos se entregan a medida que se leen.
+     * @return Futuro con la página, como en {@link Paginador#siguienteAsync(Consumer)}
+     */
+    public <T> CompletableFuture<Pagina<T>> agregarPagina(Paginador<T> paginador, Consumer<? super T> porElemento) {
+        return paginador.enviarSiguiente(porElemento, this::agregar);
+    }
+
+    private synchronized CompletableFuture<JsonObject> agregar(JsonObject solicitud, ReceptorLista receptor) {
+        if (enviado) {
+            throw new IllegalStateException("El pipeline ya fue enviado");
+        }
+        CompletableFuture<JsonObject> resultado = new CompletableFuture<>();
+        cola.addLast(new Pendiente(solicitud, receptor, resultado));
+        resultados.add(resultado);
+        return resultado;
+    }
+
+    /**
+     * Escribe en un solo envío hasta {@code profundidad} solicitudes; las demás salen
+     * cuando se libera un hueco. No bloquea.
+     * @return Este mismo pipeline, para encadenar {@link #esperarTodas()}
+     */
+    public Pipeline enviar() {
+        List<Pendiente> lote;
+        synchronized (this) {
+            if (enviado) {
+                return this;
+            }
+            enviado = true;
+            lote = extraer(profundidad);
+        }
+        despachar(lote);
+        return this;
+    }
+
+    /**
+     * Envía el pipeline si hacía falta y espera todas las respuestas.
+     * @return Respuestas en el orden en que se agregaron las solicitudes
+     * @throws IOException Si alguna de las solicitudes falla
+     */
+    public List<JsonObject> esperarTodas() throws IOException {
+        enviar();
+        List<JsonObject> respuestas = new ArrayList<>(resultados.size());
+        for (CompletableFuture<JsonObject> resultado : resultados) {
+            respuestas.add(ClienteServicio.esperar(resultado));
+        }
+        return respuestas;
+    }
+
+    public int getProfundidad() {
+        return profundidad;
+    }
+
+    private void despachar(List<Pendiente> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<JsonObject> mensajes = new ArrayList<>(lote.size());
+        List<ReceptorLista> receptores = new ArrayList<>(lote.size());
+        lote.forEach(p -> {
+            mensajes.add(p.solicitud);
+            receptores.add(p.receptor);
+        });
+
+        List<CompletableFuture<JsonObject>> enVuelo = conexion.enviarLote(mensajes, receptores, plazo);
+        for (int i = 0; i < lote.size(); i++) {
+            CompletableFuture<JsonObject> destino = lote.get(i).resultado;
+            CompletableFuture<JsonObject> respuestaEnVuelo = enVuelo.get(i);
+            destino.whenComplete((respuesta, error) -> {
+                if (destino.isCancelled()) {
+                    respuestaEnVuelo.cancel(true);
+                }
+            });
+            respuestaEnVuelo.whenComplete((respuesta, error) -> {
+                if (error != null) {
+                    destino.completeExceptionally(error);
+                } else {
+                    destino.complete(respuesta);
+                }
+                List<Pendiente> siguiente;
+                synchronized (this) {
+                    siguiente = extraer(1);
+                }
+                despachar(siguiente);
+            });
+        }
+    }
+
+    private List<Pendiente> extraer(int cantidad) {
+        List<Pendiente> lote = new ArrayList<>(Math.min(cantidad, cola.size()));
+        while (lote.size() < cantidad && !cola.isEmpty()) {
+            Pendiente pendiente = cola.pollFirst();
+            // Las canceladas antes de salir no llegan a enviarse
+            if (!pendiente.resultado.isDone()) {
+                lote.add(pendiente);
+            }
+        }
+        return lote;
+    }
+
+    private static final class Pendiente {
+        final JsonObject solicitud;
+        final ReceptorLista receptor;
+        final CompletableFuture<JsonObject> resultado;
+
+        Pendiente(JsonObject solicitud, ReceptorLista receptor, CompletableFuture<JsonObject> resultado) {
+            this.solicitud = solicitud;
+            this.receptor = receptor;
+            this.resultado = resultado;
+        }
+    }
+}
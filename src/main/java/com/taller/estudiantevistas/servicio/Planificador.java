@@ -0,0 +1,212 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonObject;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ordena las solicitudes salientes por {@link Prioridad} para que una búsqueda no espere detrás
+ * de la recarga de un catálogo entero.
+ *
+ * Cada clase tiene un máximo de solicitudes en vuelo y todas juntas no pasan de
+ * {@value #EN_VUELO_MAXIMO}; lo que no cabe espera en la cola de su clase y sale en cuanto se
+ * libera un lugar, primero las clases más urgentes. Para que el tráfico de fondo no quede
+ * postergado para siempre, una solicitud que lleva más de {@link #ESPERA_MAXIMA} en cola pasa
+ * delante de las más urgentes (siempre dentro del límite de su clase).
+ *
+ * El plazo de cada solicitud cuenta desde que se encola: si vence esperando turno, falla con
+ * {@link TiempoAgotadoException} sin llegar a enviarse. Cancelarla mientras espera la saca de la cola.
+ */
+final class Planificador {
+    static final int EN_VUELO_MAXIMO = 16;
+    static final Duration ESPERA_MAXIMA = Duration.ofSeconds(1);
+
+    /**
+     * Envía una solicitud ya planificada.
+     */
+    interface Envio {
+        CompletableFuture<JsonObject> enviar(JsonObject solicitud, ReceptorLista receptor, Duration plazo);
+    }
+
+    private final Envio envio;
+    private final Map<Prioridad, ArrayDeque<Encolada>> colas = new EnumMap<>(Prioridad.class);
+    private final int[] enVuelo = new int[Prioridad.values().length];
+    private final long[] despachadas = new long[Prioridad.values().length];
+    private final long[] esperaTotalNanos = new long[Prioridad.values().length];
+    private int totalEnVuelo;
+    private long adelantadas;
+    private boolean despachando;
+
+    Planificador(Envio envio) {
+        this.envio = envio;
+        for (Prioridad prioridad : Prioridad.values()) {
+            colas.put(prioridad, new ArrayDeque<>());
+        }
+    }
+
+    CompletableFuture<JsonObject> enviar(JsonObject solicitud, ReceptorLista receptor, Duration plazo, Prioridad prioridad) {
+        Encolada encolada = new Encolada(solicitud, receptor, plazo, prioridad);
+        encolada.vencimiento = Canal.PLAZOS.schedule(() -> {
+            if (quitar(encolada)) {
+                encolada.resultado.completeExceptionally(new TiempoAgotadoException(Canal.tipoDe(solicitud), plazo));
+            }
+        }, plazo.toNanos(), TimeUnit.NANOSECONDS);
+        synchronized (this) {
+            colas.get(prioridad).addLast(encolada);
+        }
+        encolada.resultado.whenComplete((respuesta, error) -> {
+            if (encolada.resultado.isCancelled()) {
+                quitar(encolada);
+            }
+        });
+        despachar();
+        return encolada.resultado;
+    }
+
+    /**
+     * Envía lo que quepa. Un solo hilo despacha a la vez; si otro libera un lugar mientras
+     * tanto, el que está despachando lo ve en su siguiente vuelta.
+     */
+    private void despachar() {
+        synchronized (this) {
+            if (despachando) {
+                return;
+            }
+            despachando = true;
+        }
+        while (true) {
+            Encolada siguiente;
+            synchronized (this) {
+                siguiente = elegir();
+                if (siguiente == null) {
+                    despachando = false;
+                    return;
+                }
+                int clase = siguiente.prioridad.ordinal();
+                enVuelo[clase]++;
+                totalEnVuelo++;
+                despachadas[clase]++;
+                esperaTotalNanos[clase] += System.nanoTime() - siguiente.encoladaEn;
+            }
+            lanzar(siguiente);
+        }
+    }
+
+    /**
+     * @return La próxima solicitud a enviar, ya fuera de su cola, o {@code null} si no hay
+     * ninguna o no hay lugar
+     */
+    private Encolada elegir() {
+        if (totalEnVuelo >= EN_VUELO_MAXIMO) {
+            return null;
+        }
+        long ahora = System.nanoTime();
+        Encolada masAntigua = null;
+        for (Prioridad prioridad : Prioridad.values()) {
+            Encolada primera = colas.get(prioridad).peekFirst();
+            if (primera != null && enVuelo[prioridad.ordinal()] < prioridad.getEnVueloMaximo()
+                    && ahora - primera.encoladaEn > ESPERA_MAXIMA.toNanos()
+                    && (masAntigua == null || primera.encoladaEn < masAntigua.encoladaEn)) {
+                masAntigua = primera;
+            }
+        }
+        if (masAntigua != null) {
+            for (Prioridad masUrgente : Prioridad.values()) {
+                if (masUrgente.ordinal() < masAntigua.prioridad.ordinal() && !colas.get(masUrgente).isEmpty()) {
+                    adelantadas++;
+                    break;
+                }
+            }
+            return colas.get(masAntigua.prioridad).pollFirst();
+        }
+        for (Prioridad prioridad : Prioridad.values()) {
+            if (enVuelo[prioridad.ordinal()] < prioridad.getEnVueloMaximo() && !colas.get(prioridad).isEmpty()) {
+                return colas.get(prioridad).pollFirst();
+            }
+        }
+        return null;
+    }
+
+    private void lanzar(Encolada encolada) {
+        encolada.vencimiento.cancel(false);
+        long restante = encolada.plazo.toNanos() - (System.nanoTime() - encolada.encoladaEn);
+        if (restante <= 0 || encolada.resultado.isDone()) {
+            encolada.resultado.completeExceptionally(
+                    new TiempoAgotadoException(Canal.tipoDe(encolada.solicitud), encolada.plazo));
+            liberar(encolada.prioridad);
+            return;
+        }
+
+        CompletableFuture<JsonObject> enviada = envio.enviar(encolada.solicitud, encolada.receptor, Duration.ofNanos(restante));
+        encolada.resultado.whenComplete((respuesta, error) -> {
+            if (encolada.resultado.isCancelled()) {
+                enviada.cancel(true);
+            }
+        });
+        enviada.whenComplete((respuesta, error) -> {
+            liberar(encolada.prioridad);
+            if (error != null) {
+                encolada.resultado.completeExceptionally(error);
+            } else {
+                encolada.resultado.complete(respuesta);
+            }
+        });
+    }
+
+    private void liberar(Prioridad prioridad) {
+        synchronized (this) {
+            enVuelo[prioridad.ordinal()]--;
+            totalEnVuelo--;
+        }
+        despachar();
+    }
+
+    /**
+     * @return Si la solicitud seguía en cola
+     */
+    private synchronized boolean quitar(Encolada encolada) {
+        return colas.get(encolada.prioridad).remove(encolada);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder resumen = new StringBuilder();
+        for (Prioridad prioridad : Prioridad.values()) {
+            int clase = prioridad.ordinal();
+            resumen.append(prioridad).append(": ")
+                    .append(enVuelo[clase]).append('/').append(prioridad.getEnVueloMaximo()).append(" en vuelo, ")
+                    .append(colas.get(prioridad).size()).append(" en cola, ")
+                    .append(despachadas[clase]).append(" enviadas");
+            if (despachadas[clase] > 0) {
+                resumen.append(", espera media ")
+                        .append(TimeUnit.NANOSECONDS.toMillis(esperaTotalNanos[clase] / despachadas[clase])).append(" ms");
+            }
+            resumen.append('\n');
+        }
+        return resumen.append(adelantadas).append(" adelantadas por esperar más de ")
+                .append(ESPERA_MAXIMA.toMillis()).append(" ms\n").toString();
+    }
+
+    private static final class Encolada {
+        final JsonObject solicitud;
+        final ReceptorLista receptor;
+        final Duration plazo;
+        final Prioridad prioridad;
+        final long encoladaEn = System.nanoTime();
+        final CompletableFuture<JsonObject> resultado = new CompletableFuture<>();
+        ScheduledFuture<?> vencimiento;
+
+        Encolada(JsonObject solicitud, ReceptorLista receptor, Duration plazo, Prioridad prioridad) {
+            this.solicitud = solicitud;
+            this.receptor = receptor;
+            this.plazo = plazo;
+            this.prioridad = prioridad;
+        }
+    }
+}
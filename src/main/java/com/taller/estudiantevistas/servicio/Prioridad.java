@@ -0,0 +1,80 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Set;
+
+/**
+ * Clases de prioridad de las solicitudes salientes, de la más urgente a la menos urgente.
+ * Cada clase tiene su propio límite de solicitudes en vuelo.
+ */
+public enum Prioridad {
+    /**
+     * Acciones que el usuario está esperando: iniciar sesión, buscar, valorar, guardar cambios.
+     */
+    INTERACTIVA(16),
+    /**
+     * Consultas puntuales de una pantalla: un usuario, un contenido, las valoraciones.
+     */
+    NORMAL(8),
+    /**
+     * Catálogos completos, sincronizaciones, tablas del moderador y sugerencias.
+     */
+    FONDO(3);
+
+    private static final Set<String> CONSULTAS_DE_FONDO = Set.of(
+            "OBTENER_CONTENIDOS", "OBTENER_CONTENIDOS_COMPLETOS", "OBTENER_SOLICITUDES", "OBTENER_SUGERENCIAS",
+            "OBTENER_GRAFO_AFINIDAD", "OBTENER_NIVELES_PARTICIPACION", "OBTENER_ESTUDIANTES_CONEXIONES");
+
+    private final int enVueloMaximo;
+
+    Prioridad(int enVueloMaximo) {
+        this.enVueloMaximo = enVueloMaximo;
+    }
+
+    int getEnVueloMaximo() {
+        return enVueloMaximo;
+    }
+
+    /**
+     * Prioridad por defecto según el tipo del mensaje: lo que no es una consulta lo pidió el
+     * usuario y es interactivo; un lote toma la prioridad de su solicitud más urgente.
+     */
+    static Prioridad de(JsonObject solicitud) {
+        String tipo = Canal.tipoDe(solicitud);
+        if (tipo == null) {
+            return NORMAL;
+        }
+        if (Lote.TIPO_LOTE.equals(tipo)) {
+            return deLote(solicitud);
+        }
+        if (tipo.startsWith("SINCRONIZAR_") || tipo.startsWith("OBTENER_TODOS_") || CONSULTAS_DE_FONDO.contains(tipo)) {
+            return FONDO;
+        }
+        if (tipo.startsWith("OBTENER_")) {
+            return NORMAL;
+        }
+        return INTERACTIVA;
+    }
+
+    private static Prioridad deLote(JsonObject lote) {
+        JsonElement datos = lote.get("datos");
+        JsonElement internas = datos != null && datos.isJsonObject()
+                ? datos.getAsJsonObject().get(Lote.CAMPO_SOLICITUDES)
+                : null;
+        if (internas == null || !internas.isJsonArray()) {
+            return NORMAL;
+        }
+        Prioridad masUrgente = FONDO;
+        for (JsonElement interna : internas.getAsJsonArray()) {
+            if (interna.isJsonObject()) {
+                Prioridad prioridad = de(interna.getAsJsonObject());
+                if (prioridad.ordinal() < masUrgente.ordinal()) {
+                    masUrgente = prioridad;
+                }
+            }
+        }
+        return masUrgente;
+    }
+}
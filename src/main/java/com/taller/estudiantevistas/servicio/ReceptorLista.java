@@ -0,0 +1,122 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Recibe uno a uno los elementos de un arreglo de la respuesta mientras se decodifica,
+ * sin que el arreglo completo llegue a existir en memoria.
+ *
+ * El consumidor se ejecuta en el hilo lector del canal: debe ser rápido y no bloquear.
+ * Si lanza una excepción, el resto del arreglo se lee y se descarta, y la solicitud falla.
+ */
+final class ReceptorLista {
+    private final String campo;
+    private final TypeAdapter<?> adaptador;
+    private final Consumer<Object> porElemento;
+    private int recibidos;
+    private boolean listaRecibida;
+    private RuntimeException error;
+    private volatile boolean descartado;
+
+    ReceptorLista(String campo, Consumer<JsonObject> porElemento) {
+        this(campo, null, porElemento);
+    }
+
+    /**
+     * @param adaptador Decodifica cada elemento directamente del flujo; si es nulo, cada elemento
+     * se entrega como {@link JsonObject}
+     */
+    @SuppressWarnings("unchecked")
+    <T> ReceptorLista(String campo, TypeAdapter<T> adaptador, Consumer<? super T> porElemento) {
+        this.campo = campo;
+        this.adaptador = adaptador;
+        this.porElemento = (Consumer<Object>) porElemento;
+    }
+
+    boolean recibe(String nombreCampo) {
+        return !listaRecibida && campo.equals(nombreCampo);
+    }
+
+    /**
+     * Consume el arreglo sobre el que está posicionado el lector, entregando cada elemento.
+     */
+    void leer(JsonReader lector) throws IOException {
+        lector.beginArray();
+        while (lector.hasNext()) {
+            if (adaptador != null) {
+                if (error != null || descartado) {
+                    lector.skipValue();
+                    continue;
+                }
+                Object valor = adaptador.read(lector);
+                if (valor != null) {
+                    entregar(valor);
+                }
+                continue;
+            }
+            JsonElement elemento = JsonParser.parseReader(lector);
+            if (error != null || descartado) {
+                continue;
+            }
+            if (!elemento.isJsonObject()) {
+                error = new IllegalStateException("Elemento de '" + campo + "' no es un objeto JSON");
+                continue;
+            }
+            entregar(elemento.getAsJsonObject());
+        }
+        lector.endArray();
+        listaRecibida = true;
+    }
+
+    private void entregar(Object elemento) {
+        try {
+            porElemento.accept(elemento);
+            recibidos++;
+        } catch (RuntimeException e) {
+            error = e;
+        }
+    }
+
+    /**
+     * @return Si ya se entregó o descartó algo, en cuyo caso repetir la solicitud duplicaría elementos
+     */
+    boolean empezo() {
+        return recibidos > 0 || listaRecibida || error != null;
+    }
+
+    /**
+     * Deja de entregar elementos, por ejemplo porque la solicitud expiró mientras se leía el arreglo.
+     */
+    void descartar() {
+        descartado = true;
+    }
+
+    /**
+     * Valida el resto de la respuesta (todo menos el arreglo) igual que
+     * {@link ClienteServicio#extraerLista(JsonObject, String)}.
+     * @return Número de elementos entregados
+     * @throws CompletionException Con un {@link IOException} como causa si la solicitud falló
+     */
+    int verificar(JsonObject resto) {
+        if (!resto.has("exito") || !resto.get("exito").getAsBoolean()) {
+            throw new CompletionException(new IOException(resto.has("mensaje")
+                    ? resto.get("mensaje").getAsString()
+                    : "Error desconocido al obtener " + campo));
+        }
+        if (error != null) {
+            throw new CompletionException(new IOException("Error al procesar " + campo + ": " + error.getMessage(), error));
+        }
+        if (!listaRecibida) {
+            throw new CompletionException(new IOException("Respuesta mal formada: falta campo '" + campo + "'"));
+        }
+        return recibidos;
+    }
+}
@@ -0,0 +1,165 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Mantiene una copia local de un listado y la pone al día pidiendo al servidor solo lo que
+ * cambió desde la última versión conocida, en lugar de descargar la lista otra vez.
+ *
+ * La solicitud lleva {@value #CAMPO_DESDE_VERSION} y la respuesta trae la nueva
+ * {@value #CAMPO_VERSION} y los arreglos {@value #CAMPO_CREADOS}, {@value #CAMPO_ACTUALIZADOS}
+ * (elementos completos) y {@value #CAMPO_ELIMINADOS} (ids). La versión de partida es la que
+ * informa la primera página del listado ({@link Pagina#getVersion()}).
+ *
+ * Si el servidor no reconoce el mensaje o la versión es demasiado antigua, el futuro falla y
+ * quien llama debe volver a cargar el listado completo.
+ * @param <T> Tipo de cada elemento del listado; los cambios se decodifican con {@link Codec}
+ */
+public class Sincronizador<T> {
+    public static final String CAMPO_VERSION = "version";
+    public static final String CAMPO_DESDE_VERSION = "desdeVersion";
+    public static final String CAMPO_CREADOS = "creados";
+    public static final String CAMPO_ACTUALIZADOS = "actualizados";
+    public static final String CAMPO_ELIMINADOS = "eliminados";
+    public static final long SIN_VERSION = -1;
+
+    private final ClienteServicio cliente;
+    private final String tipo;
+    private final JsonObject datos;
+    private final Class<T> elemento;
+    private final Function<? super T, String> clave;
+
+    private final Map<String, T> almacen = new LinkedHashMap<>();
+    private long version = SIN_VERSION;
+
+    /**
+     * @param clave Id de un elemento, o null si no lo tiene
+     */
+    Sincronizador(ClienteServicio cliente, String tipo, JsonObject datos, Class<T> elemento, Function<? super T, String> clave) {
+        this.cliente = cliente;
+        this.tipo = tipo;
+        this.datos = datos != null ? datos.deepCopy() : new JsonObject();
+        this.elemento = elemento;
+        this.clave = clave;
+    }
+
+    /**
+     * Guarda en el almacén un elemento recibido en una carga completa o paginada.
+     * Los elementos sin "id" no se pueden sincronizar y se ignoran.
+     */
+    public synchronized void registrar(T recibido) {
+        String id = clave.apply(recibido);
+        if (id != null) {
+            almacen.put(id, recibido);
+        }
+    }
+
+    /**
+     * Fija la versión de partida si todavía no hay una. Las páginas posteriores a la primera
+     * son más recientes y sus cambios llegan de todas formas como actualizaciones.
+     */
+    public synchronized void fijarVersionInicial(long versionInicial) {
+        if (version == SIN_VERSION && versionInicial != SIN_VERSION) {
+            version = versionInicial;
+        }
+    }
+
+    public synchronized boolean tieneVersion() {
+        return version != SIN_VERSION;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized int getTamano() {
+        return almacen.size();
+    }
+
+    public synchronized List<T> getElementos() {
+        return new ArrayList<>(almacen.values());
+    }
+
+    /**
+     * Pide los cambios desde la versión actual y los aplica al almacén local.
+     * @return Futuro con los cambios que afectaron al almacén
+     * @throws IllegalStateException Si todavía no hay versión de partida
+     */
+    public CompletableFuture<Cambios<T>> sincronizarAsync() {
+        JsonObject datosSolicitud = datos.deepCopy();
+        synchronized (this) {
+            if (version == SIN_VERSION) {
+                throw new IllegalStateException("No hay versión de partida para sincronizar");
+            }
+            datosSolicitud.addProperty(CAMPO_DESDE_VERSION, version);
+        }
+        return cliente.solicitarAsync(ClienteServicio.crearSolicitud(tipo, datosSolicitud)).thenApply(this::aplicar);
+    }
+
+    private synchronized Cambios<T> aplicar(JsonObject respuesta) {
+        if (!respuesta.has("exito") || !respuesta.get("exito").getAsBoolean() || !respuesta.has(CAMPO_VERSION)) {
+            throw new CompletionException(new IOException(respuesta.has("mensaje")
+                    ? respuesta.get("mensaje").getAsString()
+                    : "El servidor no entregó cambios para " + tipo));
+        }
+
+        List<T> creados = new ArrayList<>();
+        List<T> actualizados = new ArrayList<>();
+        List<String> eliminados = new ArrayList<>();
+
+        for (JsonElement json : arreglo(respuesta, CAMPO_CREADOS)) {
+            T creado = Codec.leer(json, elemento);
+            String id = clave.apply(creado);
+            if (id != null && almacen.put(id, creado) == null) {
+                creados.add(creado);
+            } else if (id != null) {
+                actualizados.add(creado);
+            }
+        }
+        for (JsonElement json : arreglo(respuesta, CAMPO_ACTUALIZADOS)) {
+            T actualizado = Codec.leer(json, elemento);
+            String id = clave.apply(actualizado);
+            invalidarCache(id);
+            // Los que no están en el almacén llegarán actualizados con su página
+            if (id != null && almacen.containsKey(id)) {
+                almacen.put(id, actualizado);
+                actualizados.add(actualizado);
+            }
+        }
+        for (JsonElement json : arreglo(respuesta, CAMPO_ELIMINADOS)) {
+            String id = json.getAsString();
+            invalidarCache(id);
+            if (almacen.remove(id) != null) {
+                eliminados.add(id);
+            }
+        }
+
+        version = respuesta.get(CAMPO_VERSION).getAsLong();
+        return new Cambios<>(version, creados, actualizados, eliminados);
+    }
+
+    /**
+     * La versión completa guardada en caché ya no es la del servidor, esté o no en este listado.
+     */
+    private void invalidarCache(String id) {
+        Entidad entidad = Entidad.sincronizadaPor(tipo);
+        if (entidad != null && id != null) {
+            cliente.getCache().invalidar(entidad, id);
+        }
+    }
+
+    private static JsonArray arreglo(JsonObject respuesta, String campo) {
+        return respuesta.has(campo) && respuesta.get(campo).isJsonArray() ? respuesta.getAsJsonArray(campo) : new JsonArray();
+    }
+}
@@ -0,0 +1,190 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Junta las consultas de solo lectura idénticas que se piden mientras otra igual está en vuelo:
+ * todas esperan la misma solicitud al servidor y reciben su respuesta. Dos consultas son
+ * idénticas si tienen el mismo tipo, los mismos datos (sin importar el orden de los campos), el
+ * mismo plazo y la misma {@link Prioridad}.
+ *
+ * Cada llamador recibe su propio futuro. Cancelarlo solo lo retira a él; la solicitud al
+ * servidor se cancela cuando se retiran todos. Si son varios, cada uno recibe una copia de la
+ * respuesta para que pueda modificarla sin afectar a los demás.
+ *
+ * Una solicitud que modifica datos cierra los vuelos en curso a nuevos llamadores: lo que se
+ * pida después debe ver el cambio, así que sale en una solicitud nueva.
+ */
+final class SolicitudesCompartidas {
+    /**
+     * Envía una solicitud que no se pudo juntar con otra.
+     */
+    interface Envio {
+        CompletableFuture<JsonObject> enviar(JsonObject solicitud, Duration plazo, Prioridad prioridad);
+    }
+
+    private final Envio enviar;
+    private final Map<String, Vuelo> enVuelo = new HashMap<>();
+    private long compartidas;
+
+    SolicitudesCompartidas(Envio enviar) {
+        this.enviar = enviar;
+    }
+
+    /**
+     * Envía la solicitud o, si ya hay una idéntica en vuelo, se suma a ella. Las que no son de
+     * solo lectura se envían siempre.
+     */
+    CompletableFuture<JsonObject> solicitar(JsonObject solicitud, Duration plazo, Prioridad prioridad) {
+        if (!Conexion.esSoloLectura(solicitud)) {
+            return enviar.enviar(solicitud, plazo, prioridad);
+        }
+
+        String clave = claveDe(solicitud, plazo, prioridad);
+        CompletableFuture<JsonObject> propio = new CompletableFuture<>();
+        Vuelo vuelo;
+        boolean nuevo = false;
+        synchronized (this) {
+            vuelo = enVuelo.get(clave);
+            if (vuelo == null) {
+                vuelo = new Vuelo();
+                enVuelo.put(clave, vuelo);
+                nuevo = true;
+            } else {
+                compartidas++;
+            }
+            vuelo.esperando.add(propio);
+        }
+
+        Vuelo actual = vuelo;
+        propio.whenComplete((respuesta, error) -> {
+            if (propio.isCancelled()) {
+                retirar(clave, actual, propio);
+            }
+        });
+        if (nuevo) {
+            actual.respuesta = enviar.enviar(solicitud, plazo, prioridad);
+            actual.respuesta.whenComplete((respuesta, error) -> repartir(clave, actual, respuesta, error));
+            boolean abandonado;
+            synchronized (this) {
+                abandonado = actual.esperando.isEmpty() && !actual.respuesta.isDone();
+            }
+            if (abandonado) {
+                // Todos se retiraron antes de que saliera la solicitud
+                actual.respuesta.cancel(true);
+            }
+        }
+        return propio;
+    }
+
+    /**
+     * Cierra los vuelos en curso a nuevos llamadores si la solicitud modifica datos.
+     */
+    void observar(JsonObject solicitud) {
+        if (!Conexion.esSoloLectura(solicitud)) {
+            synchronized (this) {
+                enVuelo.clear();
+            }
+        }
+    }
+
+    /**
+     * @return Llamadores que se sumaron a una solicitud ya en vuelo en lugar de enviar la suya
+     */
+    synchronized long getCompartidas() {
+        return compartidas;
+    }
+
+    private void repartir(String clave, Vuelo vuelo, JsonObject respuesta, Throwable error) {
+        List<CompletableFuture<JsonObject>> esperando;
+        synchronized (this) {
+            enVuelo.remove(clave, vuelo);
+            esperando = new ArrayList<>(vuelo.esperando);
+            vuelo.esperando.clear();
+        }
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        boolean copiar = esperando.size() > 1;
+        for (CompletableFuture<JsonObject> futuro : esperando) {
+            if (error != null) {
+                futuro.completeExceptionally(error);
+            } else {
+                futuro.complete(copiar ? respuesta.deepCopy() : respuesta);
+            }
+        }
+    }
+
+    private void retirar(String clave, Vuelo vuelo, CompletableFuture<JsonObject> futuro) {
+        boolean ultimo;
+        synchronized (this) {
+            ultimo = vuelo.esperando.remove(futuro) && vuelo.esperando.isEmpty();
+            if (ultimo) {
+                enVuelo.remove(clave, vuelo);
+            }
+        }
+        if (ultimo && vuelo.respuesta != null) {
+            vuelo.respuesta.cancel(true);
+        }
+    }
+
+    /**
+     * Tipo, plazo, prioridad y datos con los campos de cada objeto ordenados por nombre, para que
+     * {@code {"a":1,"b":2}} y {@code {"b":2,"a":1}} den la misma clave.
+     */
+    static String claveDe(JsonObject solicitud, Duration plazo, Prioridad prioridad) {
+        StringBuilder clave = new StringBuilder();
+        clave.append(Canal.tipoDe(solicitud)).append('|').append(plazo.toMillis()).append('|')
+                .append(prioridad).append('|');
+        normalizar(solicitud.get("datos"), clave);
+        return clave.toString();
+    }
+
+    private static void normalizar(JsonElement elemento, StringBuilder destino) {
+        if (elemento == null || elemento.isJsonNull()) {
+            destino.append("null");
+        } else if (elemento.isJsonObject()) {
+            Map<String, JsonElement> ordenados = new TreeMap<>(elemento.getAsJsonObject().asMap());
+            destino.append('{');
+            boolean primero = true;
+            for (Map.Entry<String, JsonElement> campo : ordenados.entrySet()) {
+                if (!primero) {
+                    destino.append(',');
+                }
+                primero = false;
+                destino.append(new JsonPrimitive(campo.getKey())).append(':');
+                normalizar(campo.getValue(), destino);
+            }
+            destino.append('}');
+        } else if (elemento.isJsonArray()) {
+            JsonArray arreglo = elemento.getAsJsonArray();
+            destino.append('[');
+            for (int i = 0; i < arreglo.size(); i++) {
+                if (i > 0) {
+                    destino.append(',');
+                }
+                normalizar(arreglo.get(i), destino);
+            }
+            destino.append(']');
+        } else {
+            destino.append(elemento);
+        }
+    }
+
+    private static final class Vuelo {
+        final List<CompletableFuture<JsonObject>> esperando = new ArrayList<>();
+        volatile CompletableFuture<JsonObject> respuesta;
+    }
+}
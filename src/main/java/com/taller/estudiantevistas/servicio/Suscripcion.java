@@ -0,0 +1,70 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Interés de un cliente en los eventos de un tema, por ejemplo las valoraciones nuevas de un
+ * contenido. Mientras no se cancele, cada evento del tema se entrega a su consumidor.
+ */
+public class Suscripcion implements AutoCloseable {
+    private final Suscripciones registro;
+    private final String tema;
+    private final String clave;
+    private final Consumer<JsonObject> alRecibir;
+    private final CompletableFuture<Void> confirmacion;
+    private volatile boolean cancelada;
+
+    Suscripcion(Suscripciones registro, String tema, String clave,
+                Consumer<JsonObject> alRecibir, CompletableFuture<Void> confirmacion) {
+        this.registro = registro;
+        this.tema = tema;
+        this.clave = clave;
+        this.alRecibir = alRecibir;
+        this.confirmacion = confirmacion;
+    }
+
+    public String getTema() {
+        return tema;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    /**
+     * @return Futuro que se completa cuando el servidor acepta la suscripción y falla si la rechaza,
+     * por ejemplo porque no admite eventos; en ese caso no llegará ningún evento
+     */
+    public CompletableFuture<Void> getConfirmacion() {
+        return confirmacion;
+    }
+
+    public boolean estaCancelada() {
+        return cancelada;
+    }
+
+    /**
+     * Deja de recibir eventos. Si era la última suscripción local al tema, también se cancela
+     * en el servidor. Se puede llamar más de una vez.
+     */
+    public void cancelar() {
+        if (!cancelada) {
+            cancelada = true;
+            registro.quitar(this);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelar();
+    }
+
+    void entregar(JsonObject datos) {
+        if (!cancelada) {
+            alRecibir.accept(datos);
+        }
+    }
+}
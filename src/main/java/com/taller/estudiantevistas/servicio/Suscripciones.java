@@ -0,0 +1,152 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Suscripciones activas de una conexión. Varias suscripciones locales al mismo tema y clave
+ * comparten una sola en el servidor: se pide con {@value #TIPO_SUSCRIBIR} al llegar la primera
+ * y se cancela con {@value #TIPO_CANCELAR} al irse la última.
+ *
+ * Los eventos llegan como {@code {"evento": tema, "clave": clave, "datos": {...}}} y se
+ * entregan en el hilo lector del canal. Tras una reconexión, {@link #renovar()} las vuelve a
+ * pedir; los eventos publicados mientras no había conexión se pierden.
+ */
+final class Suscripciones implements Consumer<JsonObject> {
+    static final String TIPO_SUSCRIBIR = "SUSCRIBIR";
+    static final String TIPO_CANCELAR = "CANCELAR_SUSCRIPCION";
+    static final String CAMPO_TEMA = "tema";
+    static final String CAMPO_CLAVE = "clave";
+    static final String CAMPO_DATOS = "datos";
+
+    private final Function<JsonObject, CompletableFuture<JsonObject>> enviar;
+    private final Map<String, Tema> activas = new HashMap<>();
+
+    Suscripciones(Function<JsonObject, CompletableFuture<JsonObject>> enviar) {
+        this.enviar = enviar;
+    }
+
+    synchronized Suscripcion suscribir(String tema, String clave, Consumer<JsonObject> alRecibir) {
+        String id = idDe(tema, clave);
+        Tema activa = activas.get(id);
+        if (activa == null) {
+            activa = new Tema(tema, clave);
+            activas.put(id, activa);
+            Tema nueva = activa;
+            activa.confirmacion = enviar.apply(crearMensaje(TIPO_SUSCRIBIR, tema, clave))
+                    .thenAccept(respuesta -> verificar(respuesta, tema));
+            // Si el servidor la rechaza, la próxima suscripción vuelve a intentarlo
+            activa.confirmacion.whenComplete((v, error) -> {
+                if (error != null) {
+                    synchronized (this) {
+                        activas.remove(id, nueva);
+                    }
+                }
+            });
+        }
+        Suscripcion suscripcion = new Suscripcion(this, tema, clave, alRecibir, activa.confirmacion);
+        activa.suscriptores.add(suscripcion);
+        return suscripcion;
+    }
+
+    synchronized void quitar(Suscripcion suscripcion) {
+        String id = idDe(suscripcion.getTema(), suscripcion.getClave());
+        Tema activa = activas.get(id);
+        if (activa == null || !activa.suscriptores.remove(suscripcion) || !activa.suscriptores.isEmpty()) {
+            return;
+        }
+        activas.remove(id);
+        enviar.apply(crearMensaje(TIPO_CANCELAR, suscripcion.getTema(), suscripcion.getClave()))
+                .exceptionally(error -> {
+                    System.err.println("⚠️ No se pudo cancelar la suscripción a " + id + ": " + error.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Vuelve a pedir al servidor todas las suscripciones activas: la conexión nueva no sabe nada
+     * de las que tenía la anterior.
+     */
+    synchronized void renovar() {
+        activas.forEach((id, activa) -> enviar.apply(crearMensaje(TIPO_SUSCRIBIR, activa.tema, activa.clave))
+                .thenAccept(respuesta -> verificar(respuesta, activa.tema))
+                .exceptionally(error -> {
+                    Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    // Si se volvió a cortar, la próxima reconexión las renueva otra vez
+                    if (!(causa instanceof ConexionPerdidaException)) {
+                        System.err.println("⚠️ No se pudo renovar la suscripción a " + id + ": " + causa.getMessage());
+                    }
+                    return null;
+                }));
+    }
+
+    /**
+     * Entrega un evento del servidor a las suscripciones de su tema.
+     */
+    @Override
+    public void accept(JsonObject evento) {
+        String tema = evento.get(Canal.CAMPO_EVENTO).getAsString();
+        String clave = evento.has(CAMPO_CLAVE) && !evento.get(CAMPO_CLAVE).isJsonNull()
+                ? evento.get(CAMPO_CLAVE).getAsString()
+                : null;
+        Tema activa;
+        synchronized (this) {
+            activa = activas.get(idDe(tema, clave));
+        }
+        if (activa == null) {
+            return; // Cancelada mientras el evento venía en camino
+        }
+        JsonObject datos = evento.has(CAMPO_DATOS) && evento.get(CAMPO_DATOS).isJsonObject()
+                ? evento.getAsJsonObject(CAMPO_DATOS)
+                : evento;
+        for (Suscripcion suscripcion : activa.suscriptores) {
+            try {
+                suscripcion.entregar(datos);
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Error al procesar evento de " + tema + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void verificar(JsonObject respuesta, String tema) {
+        if (!respuesta.has("exito") || !respuesta.get("exito").getAsBoolean()) {
+            throw new CompletionException(new IOException(respuesta.has("mensaje")
+                    ? respuesta.get("mensaje").getAsString()
+                    : "El servidor rechazó la suscripción a " + tema));
+        }
+    }
+
+    private static JsonObject crearMensaje(String tipo, String tema, String clave) {
+        JsonObject datos = new JsonObject();
+        datos.addProperty(CAMPO_TEMA, tema);
+        if (clave != null) {
+            datos.addProperty(CAMPO_CLAVE, clave);
+        }
+        return ClienteServicio.crearSolicitud(tipo, datos);
+    }
+
+    private static String idDe(String tema, String clave) {
+        return clave != null ? tema + ":" + clave : tema;
+    }
+
+    private static final class Tema {
+        final String tema;
+        final String clave;
+        final List<Suscripcion> suscriptores = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> confirmacion;
+
+        Tema(String tema, String clave) {
+            this.tema = tema;
+            this.clave = clave;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.taller.estudiantevistas.servicio;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * El servidor no respondió a una solicitud dentro de su plazo.
+ *
+ * La conexión sigue abierta: la respuesta, si llega más tarde, se descarta sin afectar a las
+ * demás solicitudes, así que se puede reintentar sobre el mismo {@link ClienteServicio}.
+ */
+public class TiempoAgotadoException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final String tipo;
+    private final Duration plazo;
+
+    TiempoAgotadoException(String tipo, Duration plazo) {
+        super("El servidor no respondió a " + (tipo != null ? tipo : "la solicitud")
+                + " en " + plazo.toMillis() + " ms");
+        this.tipo = tipo;
+        this.plazo = plazo;
+    }
+
+    /**
+     * @return Tipo del mensaje que expiró, o {@code null} si no tenía
+     */
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Duration getPlazo() {
+        return plazo;
+    }
+}
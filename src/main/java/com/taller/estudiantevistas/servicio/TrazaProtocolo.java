@@ -0,0 +1,307 @@
+package com.taller.estudiantevistas.servicio;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Traza del protocolo: qué solicitudes salen, qué responde el servidor y cuánto tarda.
+ *
+ * Reemplaza a los {@code System.out.println} de cada JSON enviado y recibido, que con listados
+ * de varios MB se llevaban buena parte del tiempo del cliente. La traza tiene tres niveles
+ * ({@link Nivel}); apagada, su costo es leer un campo volátil por solicitud. Encendida:
+ * <ul>
+ *     <li>solo se registra una fracción de los intercambios ({@link #setMuestreo(double)});</li>
+ *     <li>el contenido se corta en {@link #setMaxCaracteres(int)} caracteres, y se deja de
+ *     serializar al llegar al límite en lugar de convertir el JSON entero a texto;</li>
+ *     <li>quien envía solo encola el registro: un hilo aparte lo escribe en el logger
+ *     {@value #NOMBRE_LOGGER} de slf4j o, si se configuró, en un archivo que rota por tamaño.
+ *     Si la cola se llena los registros se descartan y se cuentan, nunca se bloquea al que envía.</li>
+ * </ul>
+ *
+ * Se configura con propiedades de sistema, por ejemplo
+ * {@code -Destudiantevistas.traza=completo -Destudiantevistas.traza.muestreo=0.1
+ * -Destudiantevistas.traza.archivo=traza.log}. Sin {@value #PROPIEDAD_NIVEL}, el nivel sale del
+ * logger: TRACE es {@link Nivel#COMPLETO}, DEBUG es {@link Nivel#RESUMEN} y lo demás la apaga.
+ */
+public final class TrazaProtocolo {
+    public static final String NOMBRE_LOGGER = "com.taller.estudiantevistas.protocolo";
+    public static final String PROPIEDAD_NIVEL = "estudiantevistas.traza";
+    public static final String PROPIEDAD_MUESTREO = "estudiantevistas.traza.muestreo";
+    public static final String PROPIEDAD_MAX_CARACTERES = "estudiantevistas.traza.maxCaracteres";
+    public static final String PROPIEDAD_ARCHIVO = "estudiantevistas.traza.archivo";
+
+    static final int CAPACIDAD_COLA = 8192;
+    static final long TAMANO_ARCHIVO = 10L * 1024 * 1024;
+    static final int ARCHIVOS_ROTADOS = 5;
+
+    public enum Nivel {
+        /** No se registra nada. */
+        NINGUNO,
+        /** Tipo, resultado y latencia de cada intercambio, sin el contenido. */
+        RESUMEN,
+        /** Además el JSON enviado y recibido, cortado en el máximo de caracteres. */
+        COMPLETO
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(NOMBRE_LOGGER);
+    private static final IOException LIMITE_ALCANZADO = new IOException("Límite de la traza alcanzado") {
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    };
+
+    private static volatile Nivel nivel = nivelInicial();
+    private static volatile double muestreo = propiedadDecimal(PROPIEDAD_MUESTREO, 1.0);
+    private static volatile int maxCaracteres = (int) propiedadDecimal(PROPIEDAD_MAX_CARACTERES, 2048);
+
+    private static final BlockingQueue<String> COLA = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+    private static final AtomicLong DESCARTADOS = new AtomicLong();
+    private static final AtomicLong REGISTRADOS = new AtomicLong();
+    // El escritor lo tiene mientras escribe una tanda; archivo se cambia solo con él
+    private static final Object ESCRITURA = new Object();
+    private static ArchivoRotativo archivo = archivoInicial();
+    private static Thread escritor;
+
+    private TrazaProtocolo() {
+    }
+
+    public static Nivel getNivel() {
+        return nivel;
+    }
+
+    public static void setNivel(Nivel nivel) {
+        TrazaProtocolo.nivel = nivel != null ? nivel : Nivel.NINGUNO;
+    }
+
+    /**
+     * @param fraccion Parte de los intercambios que se registra, entre 0 y 1
+     */
+    public static void setMuestreo(double fraccion) {
+        muestreo = Math.max(0, Math.min(1, fraccion));
+    }
+
+    public static void setMaxCaracteres(int caracteres) {
+        maxCaracteres = Math.max(0, caracteres);
+    }
+
+    /**
+     * Escribe la traza en {@code ruta}, que rota al pasar de {@code tamanoMaximo} bytes y conserva
+     * {@code rotados} archivos anteriores ({@code ruta.1} es el más reciente). {@code null} vuelve
+     * a escribir en el logger. Si el escritor está a mitad de una tanda, espera a que la termine
+     * para cerrar el archivo anterior.
+     */
+    public static void setArchivo(Path ruta, long tamanoMaximo, int rotados) {
+        synchronized (ESCRITURA) {
+            ArchivoRotativo anterior = archivo;
+            archivo = ruta != null ? new ArchivoRotativo(ruta, tamanoMaximo, rotados) : null;
+            if (anterior != null) {
+                anterior.cerrar();
+            }
+        }
+    }
+
+    /**
+     * @return Registros perdidos porque la cola estaba llena
+     */
+    public static long getDescartados() {
+        return DESCARTADOS.get();
+    }
+
+    public static long getRegistrados() {
+        return REGISTRADOS.get();
+    }
+
+    /**
+     * Registra una solicitud y, cuando llegue, su respuesta. Se llama una vez por solicitud
+     * enviada, en el hilo que la envía.
+     */
+    static void observar(JsonObject solicitud, CompletableFuture<JsonObject> respuesta) {
+        Nivel actual = nivel;
+        if (actual == Nivel.NINGUNO) {
+            return;
+        }
+        double fraccion = muestreo;
+        if (fraccion < 1 && ThreadLocalRandom.current().nextDouble() >= fraccion) {
+            return;
+        }
+
+        String tipo = Canal.tipoDe(solicitud);
+        long inicio = System.nanoTime();
+        encolar(actual == Nivel.COMPLETO
+                ? "→ " + tipo + " " + recortar(solicitud)
+                : "→ " + tipo);
+        respuesta.whenComplete((recibida, error) -> {
+            long milisegundos = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            StringBuilder linea = new StringBuilder("← ").append(tipo).append(' ').append(milisegundos).append(" ms ");
+            if (error != null) {
+                linea.append("error ").append(error.getClass().getSimpleName()).append(": ").append(error.getMessage());
+            } else if (actual == Nivel.COMPLETO) {
+                linea.append(recortar(recibida));
+            } else {
+                linea.append(recibida != null && recibida.has("exito") ? "exito=" + recibida.get("exito") : "ok");
+            }
+            encolar(linea.toString());
+        });
+    }
+
+    /**
+     * @return El JSON como texto, sin pasar de {@link #maxCaracteres}
+     */
+    static String recortar(JsonElement json) {
+        if (json == null) {
+            return "null";
+        }
+        TextoLimitado texto = new TextoLimitado(maxCaracteres);
+        try {
+            Codec.gson().toJson(json, texto);
+        } catch (JsonIOException e) {
+            if (e.getCause() != LIMITE_ALCANZADO) {
+                throw e;
+            }
+            texto.contenido.append("…(cortado)");
+        }
+        return texto.contenido.toString();
+    }
+
+    private static void encolar(String linea) {
+        if (!COLA.offer(Instant.now() + " " + linea)) {
+            DESCARTADOS.incrementAndGet();
+            return;
+        }
+        iniciarEscritor();
+    }
+
+    private static synchronized void iniciarEscritor() {
+        if (escritor != null) {
+            return;
+        }
+        escritor = new Thread(TrazaProtocolo::escribir, "traza-protocolo");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Hilo escritor: vacía la cola por tandas y hace un solo flush por tanda.
+     */
+    private static void escribir() {
+        List<String> tanda = new ArrayList<>();
+        while (true) {
+            try {
+                tanda.add(COLA.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            COLA.drainTo(tanda);
+            synchronized (ESCRITURA) {
+                ArchivoRotativo destino = archivo;
+                try {
+                    for (String linea : tanda) {
+                        if (destino != null) {
+                            destino.escribir(linea);
+                        } else {
+                            LOG.info(linea);
+                        }
+                    }
+                    if (destino != null) {
+                        destino.vaciar();
+                    }
+                } catch (IOException e) {
+                    LOG.warn("⚠️ No se pudo escribir la traza del protocolo: {}", e.getMessage());
+                }
+            }
+            REGISTRADOS.addAndGet(tanda.size());
+            tanda.clear();
+        }
+    }
+
+    private static Nivel nivelInicial() {
+        String valor = System.getProperty(PROPIEDAD_NIVEL);
+        if (valor != null) {
+            for (Nivel candidato : Nivel.values()) {
+                if (candidato.name().equalsIgnoreCase(valor.trim())) {
+                    return candidato;
+                }
+            }
+            System.err.println("⚠️ Nivel de traza desconocido '" + valor + "', se usa " + Nivel.NINGUNO);
+            return Nivel.NINGUNO;
+        }
+        if (LOG.isTraceEnabled()) {
+            return Nivel.COMPLETO;
+        }
+        return LOG.isDebugEnabled() ? Nivel.RESUMEN : Nivel.NINGUNO;
+    }
+
+    private static ArchivoRotativo archivoInicial() {
+        String ruta = System.getProperty(PROPIEDAD_ARCHIVO);
+        return ruta != null && !ruta.isBlank()
+                ? new ArchivoRotativo(Paths.get(ruta.trim()), TAMANO_ARCHIVO, ARCHIVOS_ROTADOS)
+                : null;
+    }
+
+    private static double propiedadDecimal(String propiedad, double porDefecto) {
+        String valor = System.getProperty(propiedad);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            return Double.parseDouble(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ Valor inválido para " + propiedad + ": '" + valor + "'");
+            return porDefecto;
+        }
+    }
+
+    /**
+     * Destino de la serialización que corta al llegar al máximo, para no convertir un listado
+     * entero a texto solo para guardar su comienzo.
+     */
+    private static final class TextoLimitado implements Appendable {
+        final StringBuilder contenido = new StringBuilder();
+        private final int maximo;
+
+        TextoLimitado(int maximo) {
+            this.maximo = maximo;
+        }
+
+        @Override
+        public Appendable append(CharSequence texto) throws IOException {
+            return append(texto, 0, texto.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence texto, int desde, int hasta) throws IOException {
+            int cabe = Math.min(hasta - desde, maximo - contenido.length());
+            contenido.append(texto, desde, desde + cabe);
+            if (cabe < hasta - desde) {
+                throw LIMITE_ALCANZADO;
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char caracter) throws IOException {
+            if (contenido.length() >= maximo) {
+                throw LIMITE_ALCANZADO;
+            }
+            contenido.append(caracter);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,656 @@
+package com.taller.estudiantevistas.simulador;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.taller.estudiantevistas.dto.EstadoSolicitud;
+import com.taller.estudiantevistas.dto.TipoContenido;
+import com.taller.estudiantevistas.dto.Urgencia;
+import com.taller.estudiantevistas.servicio.CargadorUsuarios;
+import com.taller.estudiantevistas.servicio.Lote;
+import com.taller.estudiantevistas.servicio.Paginador;
+import com.taller.estudiantevistas.servicio.Sincronizador;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Servidor local de prueba con datos sintéticos, para ejercitar el cliente con volúmenes
+ * reales (decenas de miles de estudiantes) sin depender del servidor de la red social.
+ *
+ * Responde los mensajes de listado con el protocolo de líneas y respeta la paginación de
+ * {@link Paginador}: si la solicitud trae {@value Paginador#CAMPO_LIMITE} devuelve como mucho
+ * esa cantidad de elementos y, si quedan más, un {@value Paginador#CAMPO_SIGUIENTE_CURSOR}.
+ * Sin límite devuelve la lista completa, como el servidor original.
+ *
+ * Cada listado informa la versión actual de los datos y los mensajes SINCRONIZAR_CONTENIDOS y
+ * SINCRONIZAR_SOLICITUDES devuelven los cambios desde una versión, como espera
+ * {@link Sincronizador}. Para que haya cambios, una actividad simulada crea, edita y borra
+ * contenidos y solicitudes periódicamente.
+ *
+ * También guarda valoraciones (OBTENER_VALORACIONES, AGREGAR_VALORACION) y las envía como
+ * eventos a las conexiones suscritas con SUSCRIBIR al tema VALORACIONES de cada contenido; la
+ * actividad simulada agrega valoraciones a los contenidos que alguien está mirando.
+ *
+ * OBTENER_USUARIO devuelve un usuario por id y {@value CargadorUsuarios#TIPO_USUARIOS} los de
+ * un arreglo de ids.
+ *
+ * Un mensaje {@value Lote#TIPO_LOTE} se responde atendiendo en orden cada una de sus solicitudes.
+ *
+ * LOGIN acepta cualquier contraseña de un correo existente y entrega un token de sesión que
+ * REANUDAR_SESION acepta desde cualquier conexión mientras el servidor siga en marcha.
+ *
+ * Uso: {@code ServidorSimulado [puerto] [estudiantes] [periodoActividadMs, 0 sin actividad]}
+ */
+public class ServidorSimulado {
+    private static final int PUERTO_POR_DEFECTO = 12345;
+    private static final int ESTUDIANTES_POR_DEFECTO = 40_000;
+    private static final long PERIODO_ACTIVIDAD_POR_DEFECTO_MS = 2000;
+    private static final int MAXIMO_REGISTRO_CAMBIOS = 10_000;
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final List<JsonObject> usuarios = new ArrayList<>();
+    private final List<JsonObject> contenidos = new ArrayList<>();
+    private final List<JsonObject> solicitudes = new ArrayList<>();
+    private final List<JsonObject> grupos = new ArrayList<>();
+    private final Map<String, Listado> listados = new HashMap<>();
+    private final Map<String, List<JsonObject>> sincronizables = new HashMap<>();
+    private final Map<String, List<JsonObject>> valoraciones = new HashMap<>();
+    private final List<Conexion> conexiones = new CopyOnWriteArrayList<>();
+    private final Map<String, JsonObject> usuariosPorCorreo = new HashMap<>();
+    private final Map<String, JsonObject> usuariosPorId = new HashMap<>();
+    private final Map<String, JsonObject> sesiones = new HashMap<>();
+
+    // Protegidos por el candado del servidor, igual que las listas una vez que se atienden conexiones
+    private final Deque<Cambio> registro = new ArrayDeque<>();
+    private final Random aleatorio = new Random(42);
+    private long version;
+    private long registroCompletoDesde;
+    private int secuencia;
+
+    public ServidorSimulado(int estudiantes) {
+        generarDatos(estudiantes);
+
+        listados.put("OBTENER_TODOS_USUARIOS", new Listado("usuarios", usuarios, null));
+        listados.put("OBTENER_CONTENIDOS", new Listado("contenidos", contenidos, null));
+        listados.put("OBTENER_SOLICITUDES", new Listado("solicitudes", solicitudes, null));
+        listados.put("OBTENER_GRUPOS_ESTUDIO", new Listado("grupos", grupos, null));
+        listados.put("OBTENER_CONTENIDOS_USUARIO", new Listado("contenidos", contenidos, "autorId"));
+        listados.put("OBTENER_SOLICITUDES_USUARIO", new Listado("solicitudes", solicitudes, "solicitanteId"));
+
+        sincronizables.put("SINCRONIZAR_CONTENIDOS", contenidos);
+        sincronizables.put("SINCRONIZAR_SOLICITUDES", solicitudes);
+        usuarios.forEach(usuario -> usuariosPorCorreo.put(usuario.get("correo").getAsString(), usuario));
+        usuarios.forEach(usuario -> usuariosPorId.put(usuario.get("id").getAsString(), usuario));
+    }
+
+    public static void main(String[] args) throws IOException {
+        int puerto = args.length > 0 ? Integer.parseInt(args[0]) : PUERTO_POR_DEFECTO;
+        int estudiantes = args.length > 1 ? Integer.parseInt(args[1]) : ESTUDIANTES_POR_DEFECTO;
+        long periodo = args.length > 2 ? Long.parseLong(args[2]) : PERIODO_ACTIVIDAD_POR_DEFECTO_MS;
+        ServidorSimulado servidor = new ServidorSimulado(estudiantes);
+        if (periodo > 0) {
+            servidor.iniciarActividad(periodo);
+        }
+        servidor.escuchar(puerto);
+    }
+
+    /**
+     * Cada {@code periodoMs} crea, edita y borra un contenido y una solicitud, en un hilo aparte.
+     */
+    public void iniciarActividad(long periodoMs) {
+        ScheduledExecutorService actividad = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "simulador-actividad");
+            t.setDaemon(true);
+            return t;
+        });
+        actividad.scheduleAtFixedRate(this::simularActividad, periodoMs, periodoMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Atiende conexiones en el puerto indicado, un hilo por conexión. No retorna.
+     */
+    public void escuchar(int puerto) throws IOException {
+        try (ServerSocket servidor = new ServerSocket(puerto)) {
+            System.out.println("🧪 Servidor simulado escuchando en el puerto " + puerto + " con "
+                    + usuarios.size() + " estudiantes y " + contenidos.size() + " contenidos");
+            while (true) {
+                Socket conexion = servidor.accept();
+                Thread hilo = new Thread(() -> atender(conexion), "simulador-" + conexion.getPort());
+                hilo.setDaemon(true);
+                hilo.start();
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        Conexion conexion = null;
+        try (socket;
+             BufferedReader entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter salida = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)))) {
+            conexion = new Conexion(salida);
+            conexiones.add(conexion);
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                conexion.enviar(responder(linea, conexion));
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Conexión del simulador terminada: " + e.getMessage());
+        } finally {
+            conexiones.remove(conexion);
+        }
+    }
+
+    synchronized JsonObject responder(String linea, Conexion conexion) {
+        JsonObject solicitud;
+        try {
+            solicitud = JsonParser.parseString(linea).getAsJsonObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            return error("Solicitud no es un JSON válido");
+        }
+
+        JsonObject respuesta = atender(solicitud, conexion);
+        if (solicitud.has("idSolicitud")) {
+            respuesta.add("idSolicitud", solicitud.get("idSolicitud"));
+        }
+        return respuesta;
+    }
+
+    private JsonObject atender(JsonObject solicitud, Conexion conexion) {
+        String tipo = solicitud.has("tipo") ? solicitud.get("tipo").getAsString() : "";
+        JsonObject datos = solicitud.has("datos") && solicitud.get("datos").isJsonObject()
+                ? solicitud.getAsJsonObject("datos")
+                : new JsonObject();
+
+        if (Lote.TIPO_LOTE.equals(tipo)) {
+            return atenderLote(datos, conexion);
+        }
+        Listado listado = listados.get(tipo);
+        JsonObject respuesta;
+        if (listado != null) {
+            respuesta = listado.responder(datos);
+            if (respuesta.get("exito").getAsBoolean()) {
+                respuesta.addProperty(Sincronizador.CAMPO_VERSION, version);
+            }
+        } else if (sincronizables.containsKey(tipo)) {
+            respuesta = cambiosDesde(sincronizables.get(tipo), datos);
+        } else if ("SUSCRIBIR".equals(tipo) || "CANCELAR_SUSCRIPCION".equals(tipo)) {
+            respuesta = suscribir(conexion, datos, "SUSCRIBIR".equals(tipo));
+        } else if ("OBTENER_VALORACIONES".equals(tipo)) {
+            respuesta = obtenerValoraciones(datos);
+        } else if ("AGREGAR_VALORACION".equals(tipo)) {
+            respuesta = agregarValoracion(datos);
+        } else if ("OBTENER_USUARIO".equals(tipo)) {
+            respuesta = obtenerUsuario(datos);
+        } else if (CargadorUsuarios.TIPO_USUARIOS.equals(tipo)) {
+            respuesta = obtenerUsuarios(datos);
+        } else if ("LOGIN".equals(tipo)) {
+            respuesta = iniciarSesion(datos);
+        } else if ("REANUDAR_SESION".equals(tipo)) {
+            respuesta = reanudarSesion(datos);
+        } else {
+            respuesta = error("Tipo de solicitud no soportado por el servidor simulado: " + tipo);
+        }
+        return respuesta;
+    }
+
+    private JsonObject obtenerUsuario(JsonObject datos) {
+        JsonObject usuario = datos.has("id") ? usuariosPorId.get(datos.get("id").getAsString()) : null;
+        if (usuario == null) {
+            return error("Usuario no encontrado");
+        }
+        JsonObject respuesta = new JsonObject();
+        respuesta.addProperty("exito", true);
+        respuesta.add("usuario", usuario.deepCopy());
+        return respuesta;
+    }
+
+    /**
+     * Devuelve los usuarios pedidos que existen, en el orden pedido; los ids desconocidos se omiten.
+     */
+    private JsonObject obtenerUsuarios(JsonObject datos) {
+        if (!datos.has("ids") || !datos.get("ids").isJsonArray()) {
+            return error("Falta el arreglo 'ids'");
+        }
+        JsonArray encontrados = new JsonArray();
+        for (JsonElement id : datos.getAsJsonArray("ids")) {
+            JsonObject usuario = usuariosPorId.get(id.getAsString());
+            if (usuario != null) {
+                encontrados.add(usuario.deepCopy());
+            }
+        }
+        JsonObject respuesta = new JsonObject();
+        respuesta.addProperty("exito", true);
+        respuesta.add("usuarios", encontrados);
+        return respuesta;
+    }
+
+    private JsonObject iniciarSesion(JsonObject datos) {
+        JsonObject usuario = datos.has("correo") ? usuariosPorCorreo.get(datos.get("correo").getAsString()) : null;
+        if (usuario == null) {
+            return error("Correo o contraseña incorrectos");
+        }
+        String token = UUID.randomUUID().toString();
+        sesiones.put(token, usuario);
+        JsonObject respuesta = new JsonObject();
+        respuesta.addProperty("exito", true);
+        respuesta.add("usuario", usuario.deepCopy());
+        respuesta.addProperty("tokenSesion", token);
+        return respuesta;
+    }
+
+    private JsonObject reanudarSesion(JsonObject datos) {
+        JsonObject usuario = datos.has("tokenSesion") ? sesiones.get(datos.get("tokenSesion").getAsString()) : null;
+        if (usuario == null) {
+            return error("Sesión desconocida o vencida");
+        }
+        JsonObject respuesta = new JsonObject();
+        respuesta.addProperty("exito", true);
+        respuesta.add("usuario", usuario.deepCopy());
+        return respuesta;
+    }
+
+    /**
+     * Atiende cada solicitud del lote en orden; un lote dentro de otro no se admite.
+     */
+    private JsonObject atenderLote(JsonObject datos, Conexion conexion) {
+        if (!datos.has("solicitudes") || !datos.get("solicitudes").isJsonArray()) {
+            return error("Falta el arreglo 'solicitudes'");
+        }
+        JsonArray respuestas = new JsonArray();
+        for (JsonElement elemento : datos.getAsJsonArray("solicitudes")) {
+            if (!elemento.isJsonObject()) {
+                respuestas.add(error("Solicitud del lote no es un objeto JSON"));
+            } else if (elemento.getAsJsonObject().has("tipo")
+                    && Lote.TIPO_LOTE.equals(elemento.getAsJsonObject().get("tipo").getAsString())) {
+                respuestas.add(error("No se admite un lote dentro de otro"));
+            } else {
+                respuestas.add(atender(elemento.getAsJsonObject(), conexion));
+            }
+        }
+        JsonObject respuesta = new JsonObject();
+        respuesta.addProperty("exito", true);
+        respuesta.add("respuestas", respuestas);
+        return respuesta;
+    }
+
+    /**
+     * Resume el registro desde la versión pedida: un elemento creado y luego borrado no aparece,
+     * y uno creado y luego editado se informa como creado con su estado final.
+     */
+    private JsonObject cambiosDesde(List<JsonObject> lista, JsonObject datos) {
+        if (!datos.has(Sincronizador.CAMPO_DESDE_VERSION)) {
+            return error("Falta el campo '" + Sincronizador.CAMPO_DESDE_VERSION + "'");
+        }
+        long desde = datos.get(Sincronizador.CAMPO_DESDE_VERSION).getAsLong();
+        if (desde > version || desde < registroCompletoDesde) {
+            return error("Versión " + desde + " fuera del registro de cambios, vuelva a cargar el listado");
+        }
+
+        Map<String, Cambio> ultimos = new LinkedHashMap<>();
+        for (Cambio cambio : registro) {
+            if (cambio.version <= desde || cambio.lista != lista) {
+                continue;
+            }
+            Cambio previo = ultimos.get(cambio.id);
+            boolean creadoTrasDesde = previo != null && previo.accion == Accion.CREADO;
+            if (cambio.accion == Accion.ELIMINADO && creadoTrasDesde) {
+                ultimos.remove(cambio.id);
+            } else if (cambio.accion == Accion.ACTUALIZADO && creadoTrasDesde) {
+                ultimos.put(cambio.id, new Cambio(cambio.version, lista, Accion.CREADO, cambio.id, cambio.elemento));
+            } else {
+                ultimos.put(cambio.id, cambio);
+            }
+        }
+
+        JsonArray creados = new JsonArray();
+        JsonArray actualizados = new JsonArray();
+        JsonArray eliminados = new JsonArray();
+        for (Cambio cambio : ultimos.values()) {
+            switch (cambio.accion) {
+                case CREADO -> creados.add(cambio.elemento);
+                case ACTUALIZADO -> actualizados.add(cambio.elemento);
+                case ELIMINADO -> eliminados.add(cambio.id);
+            }
+        }
+
+        JsonObject respuesta = new JsonObject();
+        respuesta.addProperty("exito", true);
+        respuesta.addProperty(Sincronizador.CAMPO_VERSION, version);
+        respuesta.add(Sincronizador.CAMPO_CREADOS, creados);
+        respuesta.add(Sincronizador.CAMPO_ACTUALIZADOS, actualizados);
+        respuesta.add(Sincronizador.CAMPO_ELIMINADOS, eliminados);
+        return respuesta;
+    }
+
+    private JsonObject suscribir(Conexion conexion, JsonObject datos, boolean alta) {
+        if (!datos.has("tema")) {
+            return error("Falta el campo 'tema'");
+        }
+        String tema = datos.get("tema").getAsString() + (datos.has("clave") ? ":" + datos.get("clave").getAsString() : "");
+        if (alta) {
+            conexion.temas.add(tema);
+        } else {
+            conexion.temas.remove(tema);
+        }
+        JsonObject respuesta = new JsonObject();
+        respuesta.addProperty("exito", true);
+        return respuesta;
+    }
+
+    private JsonObject obtenerValoraciones(JsonObject datos) {
+        if (!datos.has("contenidoId")) {
+            return error("Falta el campo 'contenidoId'");
+        }
+        List<JsonObject> delContenido = valoraciones.getOrDefault(datos.get("contenidoId").getAsString(), List.of());
+        JsonArray lista = new JsonArray(delContenido.size());
+        delContenido.forEach(lista::add);
+
+        JsonObject respuesta = new JsonObject();
+        respuesta.addProperty("exito", true);
+        respuesta.add("valoraciones", lista);
+        respuesta.addProperty("total", delContenido.size());
+        respuesta.addProperty("promedio", delContenido.stream()
+                .mapToInt(v -> v.get("puntuacion").getAsInt()).average().orElse(0));
+        return respuesta;
+    }
+
+    private JsonObject agregarValoracion(JsonObject datos) {
+        if (!datos.has("contenidoId") || !datos.has("puntuacion")) {
+            return error("Faltan los campos 'contenidoId' y 'puntuacion'");
+        }
+        String contenidoId = datos.get("contenidoId").getAsString();
+        JsonObject valoracion = new JsonObject();
+        valoracion.addProperty("id", UUID.randomUUID().toString());
+        valoracion.addProperty("autor", datos.has("usuarioNombre") ? datos.get("usuarioNombre").getAsString() : "Anónimo");
+        if (datos.has("usuarioId")) {
+            valoracion.add("usuarioId", datos.get("usuarioId"));
+        }
+        valoracion.addProperty("puntuacion", datos.get("puntuacion").getAsInt());
+        valoracion.addProperty("comentario", datos.has("comentario") ? datos.get("comentario").getAsString() : "");
+        valoracion.addProperty("fecha", LocalDateTime.now().format(FORMATO_FECHA));
+        publicarValoracion(contenidoId, valoracion);
+
+        JsonObject respuesta = new JsonObject();
+        respuesta.addProperty("exito", true);
+        respuesta.add("valoracion", valoracion);
+        return respuesta;
+    }
+
+    private void publicarValoracion(String contenidoId, JsonObject valoracion) {
+        valoraciones.computeIfAbsent(contenidoId, id -> new ArrayList<>()).add(valoracion);
+
+        JsonObject evento = new JsonObject();
+        evento.addProperty("evento", "VALORACIONES");
+        evento.addProperty("clave", contenidoId);
+        evento.add("datos", valoracion);
+        for (Conexion conexion : conexiones) {
+            if (conexion.temas.contains("VALORACIONES:" + contenidoId)) {
+                conexion.enviar(evento);
+            }
+        }
+    }
+
+    private synchronized void simularActividad() {
+        int n = ++secuencia;
+        String ahora = LocalDateTime.now().format(FORMATO_FECHA);
+
+        conexiones.stream()
+                .flatMap(conexion -> conexion.temas.stream())
+                .filter(tema -> tema.startsWith("VALORACIONES:"))
+                .distinct()
+                .forEach(tema -> {
+                    JsonObject valoracion = new JsonObject();
+                    valoracion.addProperty("id", UUID.randomUUID().toString());
+                    int autor = aleatorio.nextInt(Math.max(1, usuarios.size()));
+                    valoracion.addProperty("autor", "Estudiante " + autor);
+                    valoracion.addProperty("usuarioId", String.format("est-%06d", autor));
+                    valoracion.addProperty("puntuacion", 1 + aleatorio.nextInt(5));
+                    valoracion.addProperty("comentario", "Valoración simulada #" + n);
+                    valoracion.addProperty("fecha", ahora);
+                    publicarValoracion(tema.substring("VALORACIONES:".length()), valoracion);
+                });
+
+        if (!contenidos.isEmpty()) {
+            JsonObject nuevo = contenidos.get(aleatorio.nextInt(contenidos.size())).deepCopy();
+            nuevo.addProperty("id", String.format("cont-n%06d", n));
+            nuevo.addProperty("titulo", "Apunte nuevo #" + n);
+            nuevo.addProperty("fechaCreacion", ahora);
+            contenidos.add(nuevo);
+            registrar(contenidos, Accion.CREADO, nuevo);
+
+            // Los elementos ya publicados no se modifican: otro hilo puede estar serializándolos
+            int editado = aleatorio.nextInt(contenidos.size());
+            JsonObject actualizado = contenidos.get(editado).deepCopy();
+            actualizado.addProperty("descripcion", actualizado.get("descripcion").getAsString() + " (actualizado " + ahora + ")");
+            contenidos.set(editado, actualizado);
+            registrar(contenidos, Accion.ACTUALIZADO, actualizado);
+
+            registrar(contenidos, Accion.ELIMINADO, contenidos.remove(aleatorio.nextInt(contenidos.size())));
+        }
+
+        if (!solicitudes.isEmpty()) {
+            JsonObject nueva = solicitudes.get(aleatorio.nextInt(solicitudes.size())).deepCopy();
+            nueva.addProperty("id", String.format("sol-n%06d", n));
+            nueva.addProperty("estado", EstadoSolicitud.values()[0].name());
+            nueva.addProperty("fecha", ahora);
+            solicitudes.add(nueva);
+            registrar(solicitudes, Accion.CREADO, nueva);
+
+            int editada = aleatorio.nextInt(solicitudes.size());
+            JsonObject actualizada = solicitudes.get(editada).deepCopy();
+            EstadoSolicitud[] estados = EstadoSolicitud.values();
+            actualizada.addProperty("estado", estados[aleatorio.nextInt(estados.length)].name());
+            solicitudes.set(editada, actualizada);
+            registrar(solicitudes, Accion.ACTUALIZADO, actualizada);
+
+            if (n % 2 == 0) {
+                registrar(solicitudes, Accion.ELIMINADO, solicitudes.remove(aleatorio.nextInt(solicitudes.size())));
+            }
+        }
+    }
+
+    private void registrar(List<JsonObject> lista, Accion accion, JsonObject elemento) {
+        version++;
+        registro.addLast(new Cambio(version, lista, accion, elemento.get("id").getAsString(), elemento));
+        if (registro.size() > MAXIMO_REGISTRO_CAMBIOS) {
+            registroCompletoDesde = registro.removeFirst().version;
+        }
+    }
+
+    private void generarDatos(int estudiantes) {
+        TipoContenido[] tipos = TipoContenido.values();
+        Urgencia[] urgencias = Urgencia.values();
+        EstadoSolicitud[] estados = EstadoSolicitud.values();
+        String[] temas = {"Álgebra", "Cálculo", "Programación", "Física", "Química", "Historia", "Estadística"};
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+        for (int i = 0; i < estudiantes; i++) {
+            String id = String.format("est-%06d", i);
+            JsonObject usuario = new JsonObject();
+            usuario.addProperty("id", id);
+            usuario.addProperty("nombre", "Estudiante " + i);
+            usuario.addProperty("correo", "estudiante" + i + "@uni.edu.co");
+            usuario.addProperty("suspendido", i % 97 == 0);
+            usuario.addProperty("diasSuspension", i % 97 == 0 ? 7 : 0);
+            usuarios.add(usuario);
+
+            if (i % 2 == 0) {
+                String tema = temas[i % temas.length];
+                JsonObject contenido = new JsonObject();
+                contenido.addProperty("id", String.format("cont-%06d", i));
+                contenido.addProperty("titulo", "Apuntes de " + tema + " #" + i);
+                contenido.addProperty("autor", "Estudiante " + i);
+                contenido.addProperty("autorId", id);
+                contenido.addProperty("tipo", tipos[i % tipos.length].name());
+                contenido.addProperty("tema", tema);
+                contenido.addProperty("descripcion", "Material de estudio de " + tema.toLowerCase());
+                contenido.addProperty("contenido", "https://recursos.uni.edu.co/" + i);
+                contenido.addProperty("fechaCreacion", inicio.plusMinutes(i).format(FORMATO_FECHA));
+                contenidos.add(contenido);
+            }
+
+            if (i % 5 == 0) {
+                JsonObject solicitud = new JsonObject();
+                solicitud.addProperty("id", String.format("sol-%06d", i));
+                solicitud.addProperty("tema", temas[i % temas.length]);
+                solicitud.addProperty("descripcion", "Necesito ayuda con " + temas[i % temas.length].toLowerCase());
+                solicitud.addProperty("urgencia", urgencias[i % urgencias.length].name());
+                solicitud.addProperty("estado", estados[i % estados.length].name());
+                solicitud.addProperty("fecha", inicio.plusHours(i).format(FORMATO_FECHA));
+                solicitud.addProperty("solicitanteId", id);
+                solicitud.addProperty("solicitanteNombre", "Estudiante " + i);
+                solicitudes.add(solicitud);
+            }
+
+            if (i % 50 == 0) {
+                JsonObject grupo = new JsonObject();
+                grupo.addProperty("id", String.format("grp-%05d", i / 50));
+                grupo.addProperty("nombre", "Grupo de " + temas[(i / 50) % temas.length] + " " + (i / 50));
+                grupo.addProperty("descripcion", "Grupo de estudio generado");
+                grupos.add(grupo);
+            }
+        }
+    }
+
+    private static JsonObject error(String mensaje) {
+        JsonObject respuesta = new JsonObject();
+        respuesta.addProperty("exito", false);
+        respuesta.addProperty("mensaje", mensaje);
+        return respuesta;
+    }
+
+    private enum Accion { CREADO, ACTUALIZADO, ELIMINADO }
+
+    /**
+     * Una conexión atendida: las respuestas y los eventos comparten la salida, así que se escriben
+     * de a un mensaje por vez.
+     */
+    private static final class Conexion {
+        private final PrintWriter salida;
+        final Set<String> temas = ConcurrentHashMap.newKeySet();
+
+        Conexion(PrintWriter salida) {
+            this.salida = salida;
+        }
+
+        synchronized void enviar(JsonObject mensaje) {
+            salida.println(mensaje);
+            salida.flush();
+        }
+    }
+
+    /**
+     * Una entrada del registro de cambios; {@code elemento} es el estado del elemento tras el cambio.
+     */
+    private static final class Cambio {
+        final long version;
+        final List<JsonObject> lista;
+        final Accion accion;
+        final String id;
+        final JsonObject elemento;
+
+        Cambio(long version, List<JsonObject> lista, Accion accion, String id, JsonObject elemento) {
+            this.version = version;
+            this.lista = lista;
+            this.accion = accion;
+            this.id = id;
+            this.elemento = elemento;
+        }
+    }
+
+    /**
+     * Un mensaje de listado: el arreglo que devuelve y, si aplica, el campo que lo filtra por usuario.
+     */
+    private static final class Listado {
+        private final String campo;
+        private final List<JsonObject> elementos;
+        private final String campoUsuario;
+
+        Listado(String campo, List<JsonObject> elementos, String campoUsuario) {
+            this.campo = campo;
+            this.elementos = Collections.unmodifiableList(elementos);
+            this.campoUsuario = campoUsuario;
+        }
+
+        JsonObject responder(JsonObject datos) {
+            List<JsonObject> fuente = elementos;
+            if (campoUsuario != null) {
+                if (!datos.has("userId")) {
+                    return error("Falta el campo 'userId'");
+                }
+                String userId = datos.get("userId").getAsString();
+                Predicate<JsonObject> delUsuario = e -> userId.equals(e.get(campoUsuario).getAsString());
+                fuente = elementos.stream().filter(delUsuario).toList();
+            }
+
+            int desde = 0;
+            int limite = fuente.size();
+            try {
+                if (datos.has(Paginador.CAMPO_CURSOR)) {
+                    desde = decodificarCursor(datos.get(Paginador.CAMPO_CURSOR));
+                }
+                if (datos.has(Paginador.CAMPO_LIMITE)) {
+                    limite = datos.get(Paginador.CAMPO_LIMITE).getAsInt();
+                }
+            } catch (IllegalArgumentException | IllegalStateException | UnsupportedOperationException e) {
+                return error("Parámetros de paginación inválidos: " + e.getMessage());
+            }
+            if (desde < 0 || desde > fuente.size() || limite < 1) {
+                return error("Parámetros de paginación inválidos");
+            }
+
+            int hasta = Math.min(fuente.size(), desde + limite);
+            JsonArray pagina = new JsonArray(hasta - desde);
+            fuente.subList(desde, hasta).forEach(pagina::add);
+
+            JsonObject respuesta = new JsonObject();
+            respuesta.addProperty("exito", true);
+            respuesta.add(campo, pagina);
+            if (hasta < fuente.size()) {
+                respuesta.addProperty(Paginador.CAMPO_SIGUIENTE_CURSOR, codificarCursor(hasta));
+            }
+            return respuesta;
+        }
+
+        private static String codificarCursor(int posicion) {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(("p:" + posicion).getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static int decodificarCursor(JsonElement cursor) {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor.getAsString()), StandardCharsets.UTF_8);
+            if (!texto.startsWith("p:")) {
+                throw new IllegalArgumentException("cursor desconocido");
+            }
+            return Integer.parseInt(texto.substring(2));
+        }
+    }
+}